@@ -1,4 +1,5 @@
 import { FETCH_MAP_MONUMENTS_PENDING, FETCH_MAP_MONUMENTS_SUCCESS, FETCH_MAP_MONUMENTS_ERROR } from '../constants';
+import * as QueryString from 'query-string';
 import { get } from '../utils/api-util';
 import { addError } from './errors';
 import { success, pending, error } from '../utils/action-util';
@@ -8,20 +9,35 @@ const actions = {
         pending: FETCH_MAP_MONUMENTS_PENDING,
         success: FETCH_MAP_MONUMENTS_SUCCESS,
         error: FETCH_MAP_MONUMENTS_ERROR,
-        uri: '/api/monuments'
+        uri: '/api/monuments/map'
     }
 };
 
+// Incremented for every request, so that the response for an old viewport can't replace the one for the current viewport
+let latestRequest = 0;
+
 /**
- * Queries for all monuments, to be displayed on the monument map page
+ * Queries for the monuments inside the visible area of the map, to be displayed on the monument map page
  * This is an async action (redux-thunk)
+ * @param bounds - Leaflet LatLngBounds of the visible area of the map
+ * @param zoom - The zoom level of the map
  */
-export default function fetchMonuments() {
+export default function fetchMonuments(bounds, zoom) {
     return async dispatch => {
+        const request = ++latestRequest;
         dispatch(pending(actions.fetchMonuments));
         try {
-            const monuments = await get(actions.fetchMonuments.uri);
-            dispatch(success(actions.fetchMonuments, {monuments}));
+            const query = QueryString.stringify({
+                minLat: bounds.getSouth(),
+                minLon: bounds.getWest(),
+                maxLat: bounds.getNorth(),
+                maxLon: bounds.getEast(),
+                zoom
+            });
+            const monuments = await get(`${actions.fetchMonuments.uri}?${query}`);
+            if (request === latestRequest) {
+                dispatch(success(actions.fetchMonuments, {monuments}));
+            }
         } catch (err) {
             dispatch(error(actions.fetchMonuments, err));
             dispatch(addError({
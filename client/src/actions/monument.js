@@ -11,6 +11,7 @@ import {
     FETCH_FAVORITE_PENDING,
     FETCH_FAVORITE_SUCCESS,
     FETCH_FAVORITE_ERROR,
+    FETCH_MONUMENT_PENDING_SUGGESTIONS_SUCCESS,
     CREATE_FAVORITE_ERROR,
     CREATE_FAVORITE_PENDING,
     CREATE_FAVORITE_SUCCESS,
@@ -47,6 +48,9 @@ const actions = {
         success: FETCH_RELATED_MONUMENTS_SUCCESS,
         error: FETCH_RELATED_MONUMENTS_ERROR
     },
+    pendingSuggestions: {
+        success: FETCH_MONUMENT_PENDING_SUGGESTIONS_SUCCESS
+    },
     favorite: {
         fetch: {
             pending: FETCH_FAVORITE_PENDING,
@@ -70,22 +74,27 @@ const actions = {
 };
 
 /**
- * Queries for a monument and all related records, to be displayed on the monument view page
- * After the Monument is successfully retrieved, queries for the nearby Monuments and the related Monuments
+ * Queries for a monument, all related records, the related Monuments, the current user's favorite and, for researchers
+ * and above, the pending update suggestions in one request, to be displayed on the monument view page
+ * After the Monument is successfully retrieved, queries for the nearby Monuments
  * This is an async action (redux-thunk)
  */
 export default function fetchMonument(id, onlyActive) {
     return async dispatch => {
         dispatch(pending(actions.single));
+        dispatch(pending(actions.related));
 
         try {
-            const monument = await get(`/api/monument/${id}?cascade=true${onlyActive !== undefined ? `&onlyActive=${onlyActive}` : ''}`);
-            dispatch(success(actions.single, monument));
+            const page = await get(`/api/monument/${id}/page${onlyActive !== undefined ? `?onlyActive=${onlyActive}` : ''}`);
+            dispatch(success(actions.single, page.monument));
+            dispatch(success(actions.related, page.related));
+            dispatch(success(actions.favorite.fetch, {result: page.favorite || null}));
+            dispatch(success(actions.pendingSuggestions, page.pendingUpdateSuggestions || []));
 
-            await fetchNearbyMonuments(dispatch, monument);
-            await fetchRelatedMonuments(dispatch, monument);
+            await fetchNearbyMonuments(dispatch, page.monument);
         } catch (err) {
             dispatch(error(actions.single, err));
+            dispatch(error(actions.related, err));
             dispatch(addError({
                 message: err.message
             }));
@@ -131,52 +140,6 @@ async function fetchNearbyMonuments(dispatch, monument) {
     }
 }
 
-async function fetchRelatedMonuments(dispatch, monument) {
-    let tagNames = [];
-    if (monument.monumentTags) {
-        tagNames = monument.monumentTags.map(monumentTag => monumentTag.tag.name);
-    }
-
-    if (tagNames.length > 0) {
-        let queryOptions = {
-            tags: tagNames,
-            limit: 5,
-            monumentId: monument.id
-        };
-
-        let queryString = QueryString.stringify(queryOptions, {arrayFormat: 'comma'});
-
-        dispatch(pending(actions.related));
-        try {
-            const relatedMonuments = await get(`/api/monuments/related/?${queryString}`);
-            dispatch(success(actions.related, relatedMonuments));
-        } catch (err) {
-            dispatch(pending(actions.related, err));
-        }
-    }
-}
-
-export function fetchFavorite(monumentId) {
-    return async dispatch => {
-        dispatch(pending(actions.favorite.fetch));
-        try {
-            const result = await get(actions.favorite.fetch.uri + '?monumentId=' + monumentId, {returnFullError: true})
-                .then((text) => text || null)
-                .catch((error) => {
-                    dispatch(success(actions.favorite.fetch, {result: null}));
-                });
-            dispatch(success(actions.favorite.fetch, {result: result}));
-        } catch (err) {
-            if (!err || err.status === 404) {
-                dispatch(success(actions.favorite.fetch, {result: null}));
-            } else {
-                const message = JSON.parse(await err.text()).message;
-                dispatch(error(actions.favorite.fetch, message));
-            }
-        }
-    }
-}
-
 export function createFavorite(monument) {
     return async dispatch => {
         dispatch(pending(actions.favorite.create));
@@ -21,6 +21,12 @@ const actions = {
         },
         count: {
             uri: '/api/search/monuments/count'
+        },
+        approximateCount: {
+            uri: '/api/search/monuments/count/approximate'
+        },
+        results: {
+            uri: '/api/search/monuments/results'
         }
     },
     users: {
@@ -79,10 +85,26 @@ const actions = {
 
 /**
  * Searches for monuments and gets the total count of results
+ * The count is only exact for narrow searches, so that broad searches do not have to count every matching monument
  */
 export function searchMonuments(options = {}) {
     options.cascade = true
-    return search(options, actions.monuments, 'monuments');
+    return async dispatch => {
+        const queryString = QueryString.stringify(options);
+        dispatch(pending(actions.monuments.search));
+        try {
+            const [ monuments, { count, approximate } ] = await Promise.all([
+                get(`${actions.monuments.search.uri}/?${queryString}`),
+                get(`${actions.monuments.approximateCount.uri}/?${queryString}`)
+            ]);
+            dispatch(success(actions.monuments.search, {count, approximate, monuments}));
+        } catch (err) {
+            dispatch(error(actions.monuments.search, err));
+            dispatch(addError({
+                message: err.message
+            }));
+        }
+    };
 }
 
 export function searchUsers(options = {}) {
@@ -11,7 +11,7 @@ import RelatedMonuments from './RelatedMonuments/RelatedMonuments';
 export default class Monument extends React.Component {
 
     render() {
-        const { onSuggestChangesButtonClick, userRole } = this.props;
+        const { onSuggestChangesButtonClick, userRole, pendingUpdateSuggestions } = this.props;
 
         let {
             monument, nearbyMonuments, relatedMonuments, fetchNearbyPending, fetchRelatedPending, onToggleFavorite,
@@ -33,7 +33,8 @@ export default class Monument extends React.Component {
                              onToggleFavorite={() => onToggleFavorite()} showFavorite={showFavorite}/>
                 </div>
                 <div className="column related-monuments-column">
-                    <SuggestChanges mode="update" userRole={userRole} onButtonClick={() => onSuggestChangesButtonClick()}/>
+                    <SuggestChanges mode="update" userRole={userRole} pendingUpdateSuggestions={pendingUpdateSuggestions}
+                                    onButtonClick={() => onSuggestChangesButtonClick()}/>
                     <RelatedMonuments title="Nearby Monuments or Memorials" monuments={nearbyMonuments} pending={fetchNearbyPending}/>
                     <RelatedMonuments title="Related Monuments or Memorials" monuments={relatedMonuments} pending={fetchRelatedPending}/>
                 </div>
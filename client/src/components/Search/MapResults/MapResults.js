@@ -20,12 +20,27 @@ export default class MapResults extends React.Component {
         };
     }
 
+    componentDidMount() {
+        this.handleMoveEnd();
+    }
+
     handleClick(id) {
         this.setState({ selectedMarkerId: id })
     }
 
+    /**
+     * If the map loads its monuments for the visible area, report the new visible area whenever the map is moved
+     */
+    handleMoveEnd() {
+        const { onBoundsChange } = this.props;
+        if (onBoundsChange && this.map) {
+            const map = this.map.leafletElement;
+            onBoundsChange(map.getBounds(), map.getZoom());
+        }
+    }
+
     render() {
-        const { monuments, useCircleMarkers, zoom, center } = this.props;
+        const { monuments, useCircleMarkers, zoom, center, onBoundsChange } = this.props;
         const markers = [];
         const bounds = {
             north: null,
@@ -91,15 +106,17 @@ export default class MapResults extends React.Component {
 
         // If there is more than one marker, we can create a bounding rectangle around them, using the most extreme
         // latitudes and longitudes to create corners
+        // Don't do this when the monuments are loaded for the visible area, since it would move the map to a new area
         const options = {};
-        if (bounds.north && bounds.east && bounds.north !== bounds.south && bounds.east !== bounds.west) {
+        if (!onBoundsChange && bounds.north && bounds.east && bounds.north !== bounds.south && bounds.east !== bounds.west) {
             // To give some padding, we offset by 0.1 degree. This is obviously not scaled with zoom so it's not perfect
             const padding = 0.1;
             options.bounds = Leaflet.latLngBounds([[bounds.north - padding, bounds.west - padding], [bounds.south + padding, bounds.east + padding]]);
         }
 
         return (
-            <Map center={center || US_GEOGRAPHIC_CENTER} zoom={zoom} {...options}>
+            <Map center={center || US_GEOGRAPHIC_CENTER} zoom={zoom} {...options}
+                 ref={map => this.map = map} onMoveend={() => this.handleMoveEnd()}>
                 <TileLayer
                     url="https://cartodb-basemaps-{s}.global.ssl.fastly.net/rastertiles/voyager/{z}/{x}/{y}.png"
                     attribution="&copy; <a href=&quot;http://osm.org/copyright&quot;>OpenStreetMap</a> &copy; <ahref=&quot;http://cartodb.com/attributions&quot;>CartoDB</a>"
@@ -42,7 +42,8 @@ export default class Search extends React.Component {
     render() {
         const {
             monuments, onLimitChange, onSortChange, lat, lon, sort, d: distance, decade,
-            onFilterChange, tags, materials, start, end, hideMap, hideImages, searchUri, monumentUri, q, address
+            onFilterChange, tags, materials, start, end, hideMap, hideImages, searchUri, monumentUri, q, address,
+            approximate
         } = this.props;
         const [ count, page, limit ] = [ this.props.count, this.props.page, this.props.limit ]
             .map(value => parseInt(value) || 0);
@@ -77,7 +78,7 @@ export default class Search extends React.Component {
                                      showDistance={lat && lon} distance={distance}
                                      tags={tags} materials={materials} decades={decades} decade={decade}
                                      start={start} end={end} uri={searchUri}/>
-                        <SearchInfo count={count} page={page} limit={limit} sort={computeDefaultSort()}
+                        <SearchInfo count={count} approximate={approximate} page={page} limit={limit} sort={computeDefaultSort()}
                                     onLimitChange={onLimitChange}
                                     onSortChange={onSortChange}
                                     showDistanceSort={lat && lon}/>
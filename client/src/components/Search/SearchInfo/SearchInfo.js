@@ -7,13 +7,13 @@ export default class SearchInfo extends React.Component {
     limitOptions = [10, 25, 50, 100];
 
     render() {
-        const { onLimitChange, onSortChange, limit, page, count, sort, showDistanceSort, hideSortBy } = this.props;
+        const { onLimitChange, onSortChange, limit, page, count, approximate, sort, showDistanceSort, hideSortBy } = this.props;
         const pageEnd = Math.min((limit * (page - 1)) + limit, count);
         const pageStart = Math.min((limit * (page - 1)) + 1, pageEnd);
         return (
             <div className="search-info">
                 <div>
-                    Showing {pageStart} - {pageEnd} of {count} results
+                    Showing {pageStart} - {pageEnd} of {approximate ? 'about ' : ''}{count} results
                 </div>
                 <div>
                     <span>Show</span>
@@ -15,7 +15,7 @@ export default class SuggestChanges extends React.Component {
     }
 
     render() {
-        const { mode = 'update', userRole } = this.props;
+        const { mode = 'update', userRole, pendingUpdateSuggestions } = this.props;
         const isUpdate = mode === 'update';
         const researcherOrAbove = userRole && Role.RESEARCHER_OR_ABOVE.includes(userRole.toUpperCase())
         const createText = researcherOrAbove ? (isUpdate ? 'Make' : 'Create') : 'Suggest'
@@ -38,6 +38,10 @@ export default class SuggestChanges extends React.Component {
                                 If your change is approved we'll send you an email to let you know, and you will be
                                 listed as a contributor on this page!</p>
                         }
+                        {researcherOrAbove && pendingUpdateSuggestions && pendingUpdateSuggestions.length > 0 &&
+                            <p>There {pendingUpdateSuggestions.length === 1 ? 'is 1 pending change' :
+                                `are ${pendingUpdateSuggestions.length} pending changes`} to this page waiting for review.</p>
+                        }
                         <Button variant="primary" onClick={() => this.handleButtonClick()}>{createText} A Change</Button>
                     </>}
                     {!isUpdate && <>
@@ -38,6 +38,8 @@ export const FETCH_RELATED_MONUMENTS_ERROR = 'FETCH_RELATED_MONUMENTS_ERROR';
 export const FETCH_FAVORITE_PENDING = 'FETCH_FAVORITE_PENDING';
 export const FETCH_FAVORITE_SUCCESS = 'FETCH_FAVORITE_SUCCESS';
 export const FETCH_FAVORITE_ERROR = 'FETCH_FAVORITE_ERROR';
+
+export const FETCH_MONUMENT_PENDING_SUGGESTIONS_SUCCESS = 'FETCH_MONUMENT_PENDING_SUGGESTIONS_SUCCESS';
 export const CREATE_FAVORITE_PENDING = 'CREATE_FAVORITE_PENDING';
 export const CREATE_FAVORITE_SUCCESS = 'CREATE_FAVORITE_SUCCESS';
 export const CREATE_FAVORITE_ERROR = 'CREATE_FAVORITE_ERROR';
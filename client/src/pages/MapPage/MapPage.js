@@ -13,8 +13,11 @@ class MapPage extends React.Component {
         this.state = {
             zoomSize: '5'
         };
-        const { dispatch } = props;
-        dispatch(fetchMonuments());
+    }
+
+    handleBoundsChange(bounds, zoom) {
+        const { dispatch } = this.props;
+        dispatch(fetchMonuments(bounds, zoom));
     }
 
     componentDidMount() {
@@ -39,8 +42,9 @@ class MapPage extends React.Component {
         return (
             <div className="map-page">
                 <Helmet title="Map | Monuments and Memorials"/>
-                <Spinner show={pending}/>
-                <MapResults monuments={monuments} useCircleMarkers zoom={this.state.zoomSize}/>
+                <Spinner show={pending && !(monuments && monuments.length)}/>
+                <MapResults monuments={monuments} useCircleMarkers zoom={this.state.zoomSize}
+                            onBoundsChange={(bounds, zoom) => this.handleBoundsChange(bounds, zoom)}/>
             </div>
         );
     }
@@ -3,7 +3,7 @@ import { connect } from 'react-redux';
 import { withRouter } from 'react-router-dom';
 import Monument from '../../components/Monument/Monument';
 import Spinner from '../../components/Spinner/Spinner';
-import fetchMonument, { createFavorite, deleteFavorite, fetchFavorite } from '../../actions/monument';
+import fetchMonument, { createFavorite, deleteFavorite } from '../../actions/monument';
 import { Helmet } from 'react-helmet';
 import Footer from '../../components/Footer/Footer';
 import { getMonumentSlug } from '../../utils/regex-util';
@@ -24,15 +24,12 @@ class MonumentPage extends React.Component {
     }
 
     componentDidUpdate(prevProps, prevState, snapshot) {
-        const { dispatch, session, match: { params: { monumentId, slug } } } = this.props;
+        const { dispatch, match: { params: { monumentId, slug } } } = this.props;
         if (this.props.monument.title && !slug) {
             // Change the url to include the slug if it's not present
             this.redirectToSlug();
         }
-        if ((prevProps.session.pending && !session.pending && session.user) ||
-            (prevProps.monument.id !== this.props.monument.id && this.props.monument.id && session.user)) {
-            dispatch(fetchFavorite(monumentId));
-        }
+        // The favorite and pending suggestions come in the same request as the monument, so they are refetched with it
         if (prevProps.monument.id && (!this.props.monument.id || parseInt(monumentId) !== prevProps.monument.id)) {
             dispatch(fetchMonument(monumentId));
         }
@@ -76,7 +73,7 @@ class MonumentPage extends React.Component {
 
     render() {
         const {
-            monument, nearbyMonuments, relatedMonuments, favorite, session,
+            monument, nearbyMonuments, relatedMonuments, favorite, pendingUpdateSuggestions, session,
             fetchMonumentPending, fetchNearbyPending, fetchRelatedPending, fetchFavoritePending
         } = this.props;
         return (
@@ -90,6 +87,7 @@ class MonumentPage extends React.Component {
                               onToggleFavorite={() => this.handleToggleFavorite()} showFavorite={!!session.user}
                               onSuggestChangesButtonClick={() => this.handleSuggestChangesButtonClick()}
                               userRole={session.user ? session.user.role : null}
+                              pendingUpdateSuggestions={pendingUpdateSuggestions}
                     />
                 </div>
                 <Footer/>
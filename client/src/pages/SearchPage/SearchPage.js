@@ -53,12 +53,12 @@ class SearchPage extends React.Component {
     }
 
     render() {
-        const { monuments, count, pending, hideMap, hideImages, searchUri, monumentUri } = this.props;
+        const { monuments, count, approximate, pending, hideMap, hideImages, searchUri, monumentUri } = this.props;
         return (
             <div className="h-100">
                 <Helmet title="Search | Monuments and Memorials"/>
                 <Spinner show={pending}/>
-                <Search monuments={monuments} {...this.getQueryParams()} count={count} hideMap={hideMap} hideImages={hideImages} searchUri={searchUri} monumentUri={monumentUri}
+                <Search monuments={monuments} {...this.getQueryParams()} count={count} approximate={approximate} hideMap={hideMap} hideImages={hideImages} searchUri={searchUri} monumentUri={monumentUri}
                         onLimitChange={this.handleLimitChange.bind(this)} onPageChange={this.handlePageChange.bind(this)}
                         onSortChange={this.handleSortChange.bind(this)}/>
             </div>
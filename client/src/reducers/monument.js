@@ -11,6 +11,7 @@ import {
     FETCH_FAVORITE_PENDING,
     FETCH_FAVORITE_SUCCESS,
     FETCH_FAVORITE_ERROR,
+    FETCH_MONUMENT_PENDING_SUGGESTIONS_SUCCESS,
     CREATE_FAVORITE_ERROR,
     CREATE_FAVORITE_PENDING,
     CREATE_FAVORITE_SUCCESS,
@@ -32,6 +33,7 @@ const initialState = {
     nearbyMonuments: {},
     relatedMonuments: {},
     favorite: null,
+    pendingUpdateSuggestions: [],
     fetchMonumentError: null,
     fetchNearbyError: null,
     fetchRelatedError: null,
@@ -127,6 +129,11 @@ export function monumentPage(state = initialState, action) {
                 fetchFavoritePending: false,
                 fetchFavoriteError: action.error
             };
+        case FETCH_MONUMENT_PENDING_SUGGESTIONS_SUCCESS:
+            return {
+                ...state,
+                pendingUpdateSuggestions: action.payload
+            };
         case LOCATION_CHANGE:
             return initialState;
         default:
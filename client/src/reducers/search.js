@@ -12,6 +12,7 @@ const initialState = {
     pending: false,
     monuments: [],
     count: 0,
+    approximate: false,
     error: null
 };
 
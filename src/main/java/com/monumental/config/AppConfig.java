@@ -8,11 +8,18 @@ import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import org.locationtech.jts.geom.Point;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -31,6 +38,10 @@ public class AppConfig {
     @Value("${PUBLIC_URL:http://localhost:3000}")
     public String publicUrl;
 
+    // The number of threads that load the sections of Monument pages
+    @Value("${MONUMENT_PAGE_THREADS:8}")
+    private int monumentPageThreads;
+
     @Bean
     public ResourceBundleMessageSource resourceBundleMessageSource() {
         ResourceBundleMessageSource source = new ResourceBundleMessageSource();
@@ -75,4 +86,42 @@ public class AppConfig {
             }
         };
     }
+
+    /**
+     * The executor that @Async methods run on. Spring Boot only creates it when there is no other executor, so it has
+     * to be declared here as well now that there is monumentPageTaskExecutor
+     */
+    @Lazy
+    @Bean(name = {
+        TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+        AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * The executor that MonumentPageService loads the sections of Monument pages on. The security context of the
+     * request is passed on to its threads, and it is shut down with the application
+     */
+    @Bean
+    public ThreadPoolTaskExecutor monumentPageTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(this.monumentPageThreads);
+        executor.setMaxPoolSize(this.monumentPageThreads);
+        executor.setThreadNamePrefix("monument-page-");
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+        return executor;
+    }
+
+    /**
+     * The scheduler that TagAutocompleteService delays rebuilding its index on, so that a burst of Monument changes
+     * only rebuilds it once. It is shut down with the application
+     */
+    @Bean
+    public ThreadPoolTaskScheduler tagAutocompleteTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("tag-autocomplete-");
+        return scheduler;
+    }
 }
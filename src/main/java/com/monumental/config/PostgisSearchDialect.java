@@ -0,0 +1,45 @@
+package com.monumental.config;
+
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.spatial.dialect.postgis.PostgisDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostGIS dialect that also knows about the pg_trgm and PostGIS operators used by search
+ * JPQL has no way to express custom operators, so they are registered as functions that render as the operator
+ * Only the operator forms can be answered from the GIN and GiST indexes, the equivalent functions can not
+ */
+public class PostgisSearchDialect extends PostgisDialect {
+
+    public PostgisSearchDialect() {
+        super();
+
+        // trgm_match(a, b) is true if similarity(a, b) is above pg_trgm.similarity_threshold
+        this.registerFunction("trgm_match", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(?1 % ?2)"));
+
+        // trgm_word_match(a, b) is true if word_similarity(a, b) is above pg_trgm.word_similarity_threshold. A trigram
+        // index on b can answer it, as the commutator b %> a
+        this.registerFunction("trgm_word_match", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(?1 <% ?2)"));
+
+        // knn_distance(a, b) is the distance between two geometries, and can be ordered by using a GiST index on a
+        this.registerFunction("knn_distance", new SQLFunctionTemplate(StandardBasicTypes.DOUBLE, "(?1 <-> ?2)"));
+
+        // bbox_intersects(a, b) is true if the bounding boxes of two geometries intersect
+        this.registerFunction("bbox_intersects", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "(?1 && ?2)"));
+
+        // int_array_contains(a, b) is true if the integer array a contains every ID in b, an array literal like {1,2}
+        this.registerFunction("int_array_contains", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+            "(?1 @> cast(?2 as integer[]))"));
+
+        // int_array_overlaps(a, b) is true if the integer array a contains any ID in b, an array literal like {1,2}
+        this.registerFunction("int_array_overlaps", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+            "(?1 && cast(?2 as integer[]))"));
+
+        // int_in_array(a, b) is true if the integer a is one of the IDs in b, an array literal like {1,2}
+        this.registerFunction("int_in_array", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN,
+            "(?1 = any(cast(?2 as integer[])))"));
+
+        // count_over() is the number of rows in the whole result, computed before LIMIT and OFFSET are applied
+        this.registerFunction("count_over", new SQLFunctionTemplate(StandardBasicTypes.LONG, "count(*) over ()"));
+    }
+}
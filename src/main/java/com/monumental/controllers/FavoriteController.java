@@ -1,5 +1,6 @@
 package com.monumental.controllers;
 
+import com.monumental.controllers.helpers.MonumentSummary;
 import com.monumental.exceptions.ResourceNotFoundException;
 import com.monumental.exceptions.UnauthorizedException;
 import com.monumental.models.Favorite;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import javax.transaction.Transactional;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @Transactional
@@ -43,12 +45,19 @@ public class FavoriteController {
 
     @GetMapping("/api/favorites")
     @PreAuthorize(Authentication.isAuthenticated)
-    public List<Favorite> getUserFavorites(@RequestParam(value = "cascade", defaultValue = "false") Boolean cascade)
+    public List<?> getUserFavorites(@RequestParam(value = "cascade", defaultValue = "false") Boolean cascade,
+                                    @RequestParam(required = false) String view)
             throws UnauthorizedException {
+        if (MonumentSummary.isSummaryView(view)) {
+            return this.favoriteService.getUserFavoriteSummaries(null);
+        }
+
         List<Favorite> favorites = this.favoriteService.getUserFavorites();
 
         if (cascade) {
-            favorites.forEach(favorite -> this.monumentService.initializeAllLazyLoadedCollections(favorite.getMonument()));
+            this.monumentService.initializeAllLazyLoadedCollections(
+                favorites.stream().map(Favorite::getMonument).collect(Collectors.toList())
+            );
         }
 
         return favorites;
@@ -56,13 +65,20 @@ public class FavoriteController {
 
     @GetMapping("/api/favorites/{userId}")
     @PreAuthorize(Authorization.isPartnerOrAbove)
-    public List<Favorite> getUserFavorites(@PathVariable(value = "userId", required = false) Integer userId,
-                                           @RequestParam(value = "cascade", defaultValue = "false") Boolean cascade)
+    public List<?> getUserFavorites(@PathVariable(value = "userId", required = false) Integer userId,
+                                    @RequestParam(value = "cascade", defaultValue = "false") Boolean cascade,
+                                    @RequestParam(required = false) String view)
             throws ResourceNotFoundException, UnauthorizedException {
+        if (MonumentSummary.isSummaryView(view)) {
+            return this.favoriteService.getUserFavoriteSummaries(userId);
+        }
+
         List<Favorite> favorites = this.favoriteService.getUserFavorites(userId);
 
         if (cascade) {
-            favorites.forEach(favorite -> this.monumentService.initializeAllLazyLoadedCollections(favorite.getMonument()));
+            this.monumentService.initializeAllLazyLoadedCollections(
+                favorites.stream().map(Favorite::getMonument).collect(Collectors.toList())
+            );
         }
 
         return favorites;
@@ -1,7 +1,11 @@
 package com.monumental.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monumental.controllers.helpers.MapTileCluster;
 import com.monumental.controllers.helpers.MonumentAboutPageStatistics;
+import com.monumental.controllers.helpers.MonumentMarker;
+import com.monumental.controllers.helpers.MonumentPage;
+import com.monumental.controllers.helpers.MonumentSummary;
 import com.monumental.exceptions.ResourceNotFoundException;
 import com.monumental.exceptions.UnauthorizedException;
 import com.monumental.models.Monument;
@@ -12,15 +16,25 @@ import com.monumental.repositories.suggestions.CreateSuggestionRepository;
 import com.monumental.repositories.suggestions.UpdateSuggestionRepository;
 import com.monumental.security.Authorization;
 import com.monumental.security.Role;
+import com.monumental.services.MapTileService;
+import com.monumental.services.MonumentPageService;
+import com.monumental.services.MonumentPointsService;
 import com.monumental.services.MonumentService;
+import com.monumental.services.events.MonumentChangedEvent;
 import com.monumental.services.UserService;
 import com.rollbar.notifier.Rollbar;
 import org.hibernate.Hibernate;
 import org.locationtech.jts.geom.Point;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import javax.persistence.EntityNotFoundException;
 import java.io.IOException;
@@ -51,6 +65,15 @@ public class MonumentController {
     @Autowired
     private Rollbar rollbar;
 
+    @Autowired
+    private MapTileService mapTileService;
+
+    @Autowired
+    private MonumentPointsService monumentPointsService;
+
+    @Autowired
+    private MonumentPageService monumentPageService;
+
     /**
      * Get a Monument with the specified ID, if it exists and is active or inactive depending on onlyActive
      * @param id - ID of the Monument to get
@@ -68,12 +91,20 @@ public class MonumentController {
                                       @RequestParam(value = "cascade", defaultValue = "false") Boolean cascade,
                                       @RequestParam(defaultValue = "true") Boolean onlyActive)
             throws ResourceNotFoundException, AccessDeniedException, UnauthorizedException {
+        if (!onlyActive) {
+            this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
+        }
+        if (cascade) {
+            return this.monumentService.getMonumentDetail(id, onlyActive).orElseThrow(
+                () -> new ResourceNotFoundException("The requested Monument or Memorial does not exist")
+            );
+        }
+
         Optional<Monument> optional;
         try {
             if (onlyActive) {
                 optional = this.monumentRepository.findByIdAndIsActive(id, true);
             } else {
-                this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
                 optional = this.monumentRepository.findById(id);
             }
         } catch (EntityNotFoundException e) {
@@ -82,16 +113,36 @@ public class MonumentController {
         if (optional.isEmpty()) throw new ResourceNotFoundException("The requested Monument or Memorial does not exist");
         Monument monument = optional.get();
 
-        if (cascade) {
-            this.monumentService.initializeAllLazyLoadedCollections(monument);
-        }
-
         // this requires committing to a rollbar paid plan because it will greatly increase out event volume.
         // rollbar.info("Retrieved monument!");
 
         return monument;
     }
 
+    /**
+     * Get everything needed to render the page of a Monument in one request: the Monument with all of its collections,
+     * the related Monuments, the current User's Favorite and, for researchers and above, the pending update suggestions
+     * The sections are loaded at the same time, and the time each one took is returned in the Server-Timing header
+     * @param id - ID of the Monument to get the page of
+     * @param onlyActive - If true, a 404 will be returned if the specified Monument is inactive. If false, the user must
+     *                   be a partner or above
+     * @param relatedLimit - The maximum number of related Monuments to return
+     * @return MonumentPage - The sections of the page of the Monument
+     * @throws ResourceNotFoundException - If a Monument with the specified ID does not exist or onlyActive is true and isActive is false
+     * @throws AccessDeniedException - If trying to get an inactive monument without being a partner or above
+     * @throws UnauthorizedException - If trying to get an inactive monument and not logged in
+     */
+    @GetMapping("/api/monument/{id}/page")
+    public ResponseEntity<MonumentPage> getMonumentPage(@PathVariable("id") Integer id,
+                                                        @RequestParam(defaultValue = "true") Boolean onlyActive,
+                                                        @RequestParam(defaultValue = "5") Integer relatedLimit)
+            throws ResourceNotFoundException, AccessDeniedException, UnauthorizedException {
+        MonumentPage page = this.monumentPageService.getMonumentPage(id, onlyActive, relatedLimit);
+        return ResponseEntity.ok()
+            .header("Server-Timing", page.getServerTiming())
+            .body(page);
+    }
+
     /**
      * Get all of the Monuments and is active or inactive depending on onlyActive
      * @param onlyActive - If true, only active monuments will be returned. If false, monuments
@@ -114,12 +165,95 @@ public class MonumentController {
         }
 
         if (cascade) {
-            monuments.forEach(monument -> this.monumentService.initializeAllLazyLoadedCollections(monument));
+            this.monumentService.initializeAllLazyLoadedCollections(monuments);
         }
 
         return monuments;
     }
 
+    /**
+     * Get a map tile of the active Monuments, grouped into clusters at low zoom levels
+     * Ex: GET http://localhost:8080/api/monuments/tiles/4/3/6
+     * @param z - The zoom level of the tile
+     * @param x - The x coordinate of the tile
+     * @param y - The y coordinate of the tile
+     * @return List<MapTileCluster> - The clusters of Monuments in the tile, each with the number of Monuments in it,
+     * its center and the ID of one of its Monuments. At high zoom levels each cluster is a single Monument
+     */
+    @GetMapping("/api/monuments/tiles/{z}/{x}/{y}")
+    public List<MapTileCluster> getMapTile(@PathVariable("z") Integer z, @PathVariable("x") Integer x,
+                                           @PathVariable("y") Integer y) {
+        if (!MapTileService.isValidTile(z, x, y)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The requested map tile does not exist");
+        }
+        return this.mapTileService.getTile(z, x, y);
+    }
+
+    /**
+     * Get the map markers for the active Monuments inside a bounding box, usually the area visible on the map
+     * Ex: GET http://localhost:8080/api/monuments/map?minLat=36.9&minLon=-109.1&maxLat=41.0&maxLon=-102.0&zoom=7
+     * @param minLatitude - The latitude of the south edge of the bounding box
+     * @param minLongitude - The longitude of the west edge of the bounding box
+     * @param maxLatitude - The latitude of the north edge of the bounding box
+     * @param maxLongitude - The longitude of the east edge of the bounding box
+     * @param zoom - The map zoom level. If specified, Monuments that would be drawn in the same pixel are only
+     *             returned once
+     * @return List<MonumentMarker> - Markers for the active Monuments inside the bounding box
+     */
+    @GetMapping("/api/monuments/map")
+    public List<MonumentMarker> getMapMarkers(@RequestParam(value = "minLat") Double minLatitude,
+                                              @RequestParam(value = "minLon") Double minLongitude,
+                                              @RequestParam(value = "maxLat") Double maxLatitude,
+                                              @RequestParam(value = "maxLon") Double maxLongitude,
+                                              @RequestParam(required = false) Integer zoom) {
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The minimum latitude and longitude must be " +
+                "less than the maximum latitude and longitude");
+        }
+        if (zoom != null && (zoom < 0 || zoom > 22)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Zoom must be between 0 and 22");
+        }
+        return this.monumentService.getMapMarkers(minLatitude, minLongitude, maxLatitude, maxLongitude, zoom);
+    }
+
+    /**
+     * Get every active Monument as a point on the map, as parallel lists of IDs, coordinates, title indexes and primary
+     * Image IDs. See MonumentPoints for the format
+     * The response is served from memory, gzipped if the client accepts it, with a strong ETag that changes whenever a
+     * Monument changes, so that repeat visits only need to revalidate and get a 304 Not Modified
+     * Ex: GET http://localhost:8080/api/monuments/points
+     * @param ifNoneMatch - The ETag(s) of the points the client already has, if any
+     * @param acceptEncoding - The encodings that the client accepts
+     * @return ResponseEntity<byte[]> - The serialized MonumentPoints, or 304 Not Modified if the client's copy is current
+     * @throws IOException - If the points can not be serialized
+     */
+    @GetMapping("/api/monuments/points")
+    public ResponseEntity<byte[]> getMonumentPoints(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+        throws IOException {
+        MonumentPointsService.SerializedMonumentPoints points = this.monumentPointsService.getPoints();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        String eTag = gzip ? points.getGzippedETag() : points.getETag();
+
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(eTag))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(eTag)
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(points.getGzippedJson());
+        }
+        return response.body(points.getJson());
+    }
+
     private static class ToggleIsActiveRequest {
         public boolean isActive;
     }
@@ -133,15 +267,7 @@ public class MonumentController {
     @PutMapping("/api/monument/active/{id}")
     @PreAuthorize(Authorization.isResearcherOrAbove)
     public Monument updateMonumentIsActive(@PathVariable("id") Integer id, @RequestBody ToggleIsActiveRequest request) {
-        Monument monument = this.monumentRepository.getOne(id);
-        monument.setIsActive(request.isActive);
-        Monument updatedMonument = this.monumentRepository.save(monument);
-        if (request.isActive) {
-            rollbar.info("Activated monument" + updatedMonument.getId() + "!");
-        } else {
-            rollbar.info("Deactivated monument" + updatedMonument.getId() + "!");
-        }
-        return updatedMonument;
+        return this.monumentService.updateMonumentIsActive(id, request.isActive);
     }
 
     /**
@@ -155,10 +281,32 @@ public class MonumentController {
         return Map.of("success", true);
     }
 
+    /**
+     * Get the active Monuments related to a Monument by the number of Tags and Materials they share
+     * Ex: GET http://localhost:8080/api/monuments/related?monumentId=1&limit=5
+     * @param tags - The names of the Tags and Materials to match. If not specified, the Monument's own Tags and
+     *             Materials are used and the related Monuments are read from the related Monuments index
+     * @param monumentId - The ID of the Monument to get the related Monuments of, which is excluded from the results
+     * @param limit - The maximum number of related Monuments to return
+     * @param view - If "summary", MonumentSummaries are returned instead of full Monuments
+     * @return List<?> - The related Monuments, ordered by number of shared Tags and Materials
+     */
     @GetMapping("/api/monuments/related")
-    public List<Monument> getRelatedMonumentsByTags(@RequestParam List<String> tags,
-                                                    @RequestParam Integer monumentId,
-                                                    @RequestParam(required = false, defaultValue = "10") Integer limit) {
+    public List<?> getRelatedMonumentsByTags(@RequestParam(required = false) List<String> tags,
+                                             @RequestParam Integer monumentId,
+                                             @RequestParam(required = false, defaultValue = "10") Integer limit,
+                                             @RequestParam(required = false) String view) {
+        if (tags == null) {
+            if (MonumentSummary.isSummaryView(view)) {
+                return this.monumentService.getRelatedMonumentSummaries(monumentId, limit);
+            }
+            return this.monumentService.getRelatedMonuments(monumentId, limit);
+        }
+
+        if (MonumentSummary.isSummaryView(view)) {
+            return this.monumentService.getRelatedMonumentSummariesByTags(tags, monumentId, limit);
+        }
+
         List<Monument> monuments = this.monumentService.getRelatedMonumentsByTags(tags, monumentId, limit);
         for (Monument monument : monuments) {
             Hibernate.initialize(monument.getImages());
@@ -248,6 +396,7 @@ public class MonumentController {
 
         List<Integer> deletedRefs = mapper.readValue(deletedReferences, List.class);
         Map<String, String> referenceList = mapper.readValue(references, Map.class);
+        Point oldCoordinates = optionalMonument.get().getCoordinates();
         Point point = MonumentService.createMonumentPoint(lon, lat);
         monument.setCoordinates(point);
         this.monumentRepository.saveAndFlush(monument);
@@ -264,6 +413,9 @@ public class MonumentController {
         }
         this.monumentService.updateMonumentReferences(monument, newRefs);
         this.monumentService.deleteMonumentReferences(monument, deletedRefs);
+        this.monumentService.updateMonumentSearchDocument(monument);
+        this.monumentService.publishMonumentChanged(monument.getId(), MonumentChangedEvent.ChangeType.UPDATED,
+            oldCoordinates, monument.getCoordinates());
         return monument;
     }
 }
@@ -1,5 +1,10 @@
 package com.monumental.controllers;
 
+import com.monumental.controllers.helpers.MonumentSearchCount;
+import com.monumental.controllers.helpers.MonumentSearchFacets;
+import com.monumental.controllers.helpers.MonumentSearchPage;
+import com.monumental.controllers.helpers.MonumentSummary;
+import com.monumental.controllers.helpers.MonumentTitleSuggestion;
 import com.monumental.exceptions.ResourceNotFoundException;
 import com.monumental.exceptions.UnauthorizedException;
 import com.monumental.models.Monument;
@@ -13,7 +18,8 @@ import com.monumental.security.Authentication;
 import com.monumental.security.Authorization;
 import com.monumental.security.Role;
 import com.monumental.services.MonumentService;
-import com.monumental.services.TagService;
+import com.monumental.services.MonumentTitleSuggestionService;
+import com.monumental.services.TagAutocompleteService;
 import com.monumental.services.UserService;
 import com.monumental.services.suggestions.BulkCreateSuggestionService;
 import com.monumental.services.suggestions.CreateSuggestionService;
@@ -41,7 +47,10 @@ public class SearchController {
     private MonumentService monumentService;
 
     @Autowired
-    private TagService tagService;
+    private MonumentTitleSuggestionService monumentTitleSuggestionService;
+
+    @Autowired
+    private TagAutocompleteService tagAutocompleteService;
 
     @Autowired
     private UserService userService;
@@ -70,12 +79,14 @@ public class SearchController {
      * @param distance - The distance from the comparison point to search in, units of miles
      * @param sortType - The way in which to sort the results by
      * @param onlyActive - If true, only active monuments will be searched. If false, both inactive and active will be searched
-     * @return List<Monument> - Matching Monuments based on the search criteria
+     * @param view - If "summary", MonumentSummaries are returned instead of full Monuments
+     * @return List<Monument> - Matching Monuments based on the search criteria, or List<MonumentSummary> for the
+     * summary view
      * @throws AccessDeniedException - If trying to search for inactive monuments without being a partner or above
      * @throws UnauthorizedException - If trying to search for inactive monuments and not logged in
      */
     @GetMapping("/api/search/monuments")
-    public List<Monument> searchMonuments(@RequestParam(required = false, value = "q") String searchQuery,
+    public List<?> searchMonuments(@RequestParam(required = false, value = "q") String searchQuery,
                                           @RequestParam(required = false, defaultValue = "1") String page,
                                           @RequestParam(required = false, defaultValue = "25") String limit,
                                           @RequestParam(required = false, value = "lat") Double latitude,
@@ -92,13 +103,22 @@ public class SearchController {
                                           @RequestParam(required = false) Integer activeStart,
                                           @RequestParam(required = false) Integer activeEnd,
                                           @RequestParam(required = false, defaultValue = "false") Boolean hideTemporary,
-                                          @RequestParam(value = "cascade", defaultValue = "false") Boolean cascade)
+                                          @RequestParam(value = "cascade", defaultValue = "false") Boolean cascade,
+                                          @RequestParam(required = false) String view)
             throws UnauthorizedException, AccessDeniedException {
         if (!onlyActive) {
             this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
         }
         Date startDate = StringHelper.parseNullableDate(start);
         Date endDate = StringHelper.parseNullableDate(end);
+        if (MonumentSummary.isSummaryView(view)) {
+            return this.monumentService.searchSummaries(
+                    searchQuery, page, limit, 0.1, latitude, longitude, distance, state, tags, materials,
+                    MonumentService.SortType.valueOf(sortType.toUpperCase()),
+                    startDate, endDate, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+        }
+
         List<Monument> monuments = this.monumentService.search(
                 searchQuery, page, limit, 0.1, latitude, longitude, distance, state, tags, materials,
                 MonumentService.SortType.valueOf(sortType.toUpperCase()),
@@ -106,12 +126,118 @@ public class SearchController {
         );
 
         if (cascade) {
-            monuments.forEach(favorite -> this.monumentService.initializeAllLazyLoadedCollections(monuments));
+            this.monumentService.initializeAllLazyLoadedCollections(monuments);
         }
 
         return monuments;
     }
 
+    /**
+     * Search Monuments and count the total number of results in one request, instead of calling searchMonuments and
+     * countMonumentSearch separately. Takes the same parameters as searchMonuments
+     * Ex: GET http://localhost:8080/api/search/monuments/results?q=Memorial&limit=25&page=1
+     * @return MonumentSearchPage - Matching Monuments based on the search criteria and the total number of matches
+     * @throws AccessDeniedException - If trying to search for inactive monuments without being a partner or above
+     * @throws UnauthorizedException - If trying to search for inactive monuments and not logged in
+     */
+    @GetMapping("/api/search/monuments/results")
+    public MonumentSearchPage searchMonumentsWithCount(@RequestParam(required = false, value = "q") String searchQuery,
+                                                       @RequestParam(required = false, defaultValue = "1") String page,
+                                                       @RequestParam(required = false, defaultValue = "25") String limit,
+                                                       @RequestParam(required = false, value = "lat") Double latitude,
+                                                       @RequestParam(required = false, value = "lon") Double longitude,
+                                                       @RequestParam(required = false, value = "d", defaultValue = "25.0") Double distance,
+                                                       @RequestParam(required = false, value = "state") String state,
+                                                       @RequestParam(required = false) List<String> tags,
+                                                       @RequestParam(required = false) List<String> materials,
+                                                       @RequestParam(required = false, value = "sort", defaultValue = "relevance") String sortType,
+                                                       @RequestParam(required = false) String start,
+                                                       @RequestParam(required = false) String end,
+                                                       @RequestParam(required = false) Integer decade,
+                                                       @RequestParam(required = false, defaultValue = "true") Boolean onlyActive,
+                                                       @RequestParam(required = false) Integer activeStart,
+                                                       @RequestParam(required = false) Integer activeEnd,
+                                                       @RequestParam(required = false, defaultValue = "false") Boolean hideTemporary,
+                                                       @RequestParam(value = "cascade", defaultValue = "false") Boolean cascade)
+            throws UnauthorizedException, AccessDeniedException {
+        if (!onlyActive) {
+            this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
+        }
+        Date startDate = StringHelper.parseNullableDate(start);
+        Date endDate = StringHelper.parseNullableDate(end);
+        MonumentSearchPage results = this.monumentService.searchWithCount(
+                searchQuery, page, limit, 0.1, latitude, longitude, distance, state, tags, materials,
+                MonumentService.SortType.valueOf(sortType.toUpperCase()),
+                startDate, endDate, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+
+        if (cascade) {
+            this.monumentService.initializeAllLazyLoadedCollections(results.getMonuments());
+        }
+
+        return results;
+    }
+
+    /**
+     * Search Monuments one page at a time using a cursor instead of a page number, so that pages do not skip or repeat
+     * results when Monuments change between requests, and deep pages start reading at the cursor instead of finding
+     * every earlier result. Takes the same search parameters as searchMonuments
+     * Ex: GET http://localhost:8080/api/search/monuments/cursor?q=Memorial&limit=25
+     * Ex: GET http://localhost:8080/api/search/monuments/cursor?q=Memorial&limit=25&cursor=UkVMRVZBTkNFOjcyNjAwMDAwMC4wOjQy
+     * @param cursor - The next cursor returned with the previous page, or nothing for the first page
+     * @param limit - The maximum number of Monument results, at most 100
+     * @return MonumentSearchPage - Matching Monuments based on the search criteria and the cursor for the next page,
+     * which is null on the last page
+     * @throws AccessDeniedException - If trying to search for inactive monuments without being a partner or above
+     * @throws UnauthorizedException - If trying to search for inactive monuments and not logged in
+     */
+    @GetMapping("/api/search/monuments/cursor")
+    public MonumentSearchPage searchMonumentsAfter(@RequestParam(required = false, value = "q") String searchQuery,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false, defaultValue = "25") Integer limit,
+                                                   @RequestParam(required = false, value = "lat") Double latitude,
+                                                   @RequestParam(required = false, value = "lon") Double longitude,
+                                                   @RequestParam(required = false, value = "d", defaultValue = "25.0") Double distance,
+                                                   @RequestParam(required = false, value = "state") String state,
+                                                   @RequestParam(required = false) List<String> tags,
+                                                   @RequestParam(required = false) List<String> materials,
+                                                   @RequestParam(required = false, value = "sort", defaultValue = "relevance") String sortType,
+                                                   @RequestParam(required = false) String start,
+                                                   @RequestParam(required = false) String end,
+                                                   @RequestParam(required = false) Integer decade,
+                                                   @RequestParam(required = false, defaultValue = "true") Boolean onlyActive,
+                                                   @RequestParam(required = false) Integer activeStart,
+                                                   @RequestParam(required = false) Integer activeEnd,
+                                                   @RequestParam(required = false, defaultValue = "false") Boolean hideTemporary,
+                                                   @RequestParam(value = "cascade", defaultValue = "false") Boolean cascade)
+            throws UnauthorizedException, AccessDeniedException {
+        if (!onlyActive) {
+            this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
+        }
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+        Date startDate = StringHelper.parseNullableDate(start);
+        Date endDate = StringHelper.parseNullableDate(end);
+
+        MonumentSearchPage page;
+        try {
+            page = this.monumentService.searchAfter(
+                searchQuery, cursor, limit, 0.1, latitude, longitude, distance, state, tags, materials,
+                MonumentService.SortType.valueOf(sortType.toUpperCase()),
+                startDate, endDate, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        if (cascade) {
+            this.monumentService.initializeAllLazyLoadedCollections(page.getMonuments());
+        }
+
+        return page;
+    }
+
     /**
      * @return Total number of results for a Monument search
      */
@@ -143,10 +269,117 @@ public class SearchController {
         );
     }
 
+    /**
+     * Count the results of a Monument search, exactly for narrow searches and approximately for broad ones. Takes the
+     * same parameters as countMonumentSearch
+     * Ex: GET http://localhost:8080/api/search/monuments/count/approximate?q=Memorial
+     * @return MonumentSearchCount - The number of results for the Monument search, and whether or not it is approximate
+     */
+    @GetMapping("/api/search/monuments/count/approximate")
+    public MonumentSearchCount countMonumentSearchApproximately(@RequestParam(required = false, value = "q") String searchQuery,
+                                                                @RequestParam(required = false, value = "lat") Double latitude,
+                                                                @RequestParam(required = false, value = "lon") Double longitude,
+                                                                @RequestParam(required = false, value = "d", defaultValue = "25.0") Double distance,
+                                                                @RequestParam(required = false) String state,
+                                                                @RequestParam(required = false) List<String> tags,
+                                                                @RequestParam(required = false) List<String> materials,
+                                                                @RequestParam(required = false) String start,
+                                                                @RequestParam(required = false) String end,
+                                                                @RequestParam(required = false) Integer decade,
+                                                                @RequestParam(required = false, defaultValue = "true") Boolean onlyActive,
+                                                                @RequestParam(required = false) Integer activeStart,
+                                                                @RequestParam(required = false) Integer activeEnd,
+                                                                @RequestParam(required = false, defaultValue = "false") Boolean hideTemporary)
+            throws UnauthorizedException, AccessDeniedException {
+        if (!onlyActive) {
+            this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
+        }
+        Date startDate = StringHelper.parseNullableDate(start);
+        Date endDate = StringHelper.parseNullableDate(end);
+
+        return this.monumentService.countSearchResultsApproximately(
+            searchQuery, latitude, longitude, distance, state, tags, materials,
+            startDate, endDate, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+    }
+
+    /**
+     * Count the results of a Monument search for each state, decade and the most used Tags and Materials, so that the
+     * search filters can show how many results each value has. Takes the same parameters as countMonumentSearch
+     * Ex: GET http://localhost:8080/api/search/monuments/facets?q=Memorial
+     * @return MonumentSearchFacets - The number of results for the Monument search for each filter value
+     */
+    @GetMapping("/api/search/monuments/facets")
+    public MonumentSearchFacets countMonumentSearchFacets(@RequestParam(required = false, value = "q") String searchQuery,
+                                                          @RequestParam(required = false, value = "lat") Double latitude,
+                                                          @RequestParam(required = false, value = "lon") Double longitude,
+                                                          @RequestParam(required = false, value = "d", defaultValue = "25.0") Double distance,
+                                                          @RequestParam(required = false) String state,
+                                                          @RequestParam(required = false) List<String> tags,
+                                                          @RequestParam(required = false) List<String> materials,
+                                                          @RequestParam(required = false) String start,
+                                                          @RequestParam(required = false) String end,
+                                                          @RequestParam(required = false) Integer decade,
+                                                          @RequestParam(required = false, defaultValue = "true") Boolean onlyActive,
+                                                          @RequestParam(required = false) Integer activeStart,
+                                                          @RequestParam(required = false) Integer activeEnd,
+                                                          @RequestParam(required = false, defaultValue = "false") Boolean hideTemporary)
+            throws UnauthorizedException, AccessDeniedException {
+        if (!onlyActive) {
+            this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
+        }
+        Date startDate = StringHelper.parseNullableDate(start);
+        Date endDate = StringHelper.parseNullableDate(end);
+
+        return this.monumentService.countSearchFacets(
+            searchQuery, latitude, longitude, distance, state, tags, materials,
+            startDate, endDate, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+    }
+
+    /**
+     * Get the closest active Monuments to a point, no matter how far away they are
+     * Ex: GET http://localhost:8080/api/search/monuments/nearest?lat=37.383762&lon=-109.072473&limit=10
+     * @param latitude - The latitude of the comparison point
+     * @param longitude - The longitude of the comparison point
+     * @param limit - The number of Monuments to return, at most 100
+     * @return List<Monument> - The closest active Monuments, closest first
+     */
+    @GetMapping("/api/search/monuments/nearest")
+    public List<Monument> getNearestMonuments(@RequestParam(value = "lat") Double latitude,
+                                              @RequestParam(value = "lon") Double longitude,
+                                              @RequestParam(required = false, defaultValue = "10") Integer limit) {
+        if (limit < 1 || limit > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 100");
+        }
+        return this.monumentService.findNearestMonuments(latitude, longitude, limit);
+    }
+
+    /**
+     * Suggest active Monuments as the user types in the search box, from an in-memory index of their titles so that it
+     * can be called on every keystroke
+     * Ex: GET http://localhost:8080/api/search/monuments/suggest?q=vietnam vet
+     * @param searchQuery - The search, usually the start of a Monument's title
+     * @return List<MonumentTitleSuggestion> - The IDs and titles of up to 10 Monuments, titles that start with the
+     * search first
+     */
+    @GetMapping("/api/search/monuments/suggest")
+    public List<MonumentTitleSuggestion> suggestMonuments(@RequestParam(required = false, value = "q") String searchQuery) {
+        return this.monumentTitleSuggestionService.suggest(searchQuery);
+    }
+
+    /**
+     * Autocomplete Tag or Material names, from an in-memory index so that it can be called on every keystroke
+     * Ex: GET http://localhost:8080/api/search/tags?q=bro&materials=true
+     * @param searchQuery - The search, usually the start of a Tag's name
+     * @param isMaterial - If true, only Materials are returned. If false, only Tags are returned. If not specified,
+     *                   nothing is
+     * @return List<Tag> - The 10 best matching Tags or Materials, best match first
+     */
     @GetMapping("/api/search/tags")
     public List<Tag> searchTags(@RequestParam(required = false, value = "q") String searchQuery,
                                 @RequestParam(required = false, value = "materials") Boolean isMaterial) {
-        return this.tagService.search(searchQuery, isMaterial);
+        return this.tagAutocompleteService.search(searchQuery, isMaterial);
     }
 
     @GetMapping("/api/search/duplicates")
@@ -320,16 +553,29 @@ public class SearchController {
     /**
      * Get all of the Monuments created by name
      * @param name - a user's name
-     * @return List<Monument> - List of all of the Monuments
+     * @param view - If "summary", MonumentSummaries are returned instead of full Monuments
+     * @return List<Monument> - List of all of the Monuments, or List<MonumentSummary> for the summary view
      * @throws UnauthorizedException - If trying to get inactive monuments and not logged in
      */
     @GetMapping("/api/search/user/monument")
     @PreAuthorize(Authorization.isAdmin)
-    public List<Monument> getAllMonumentsByCreatedByName(@RequestParam(required = false) String name,
-                                                       @RequestParam(required = false, defaultValue = "1") String page,
-                                                       @RequestParam(required = false, defaultValue = "25") String limit) {
-        List<Monument> foundMonuments = new ArrayList<Monument>();
+    public List<?> getAllMonumentsByCreatedByName(@RequestParam(required = false) String name,
+                                                  @RequestParam(required = false, defaultValue = "1") String page,
+                                                  @RequestParam(required = false, defaultValue = "25") String limit,
+                                                  @RequestParam(required = false) String view) {
         List<User> foundUsers = this.userService.search(name, null, null, page, limit);
+        if (MonumentSummary.isSummaryView(view)) {
+            List<Integer> foundMonumentIds = new ArrayList<>();
+            for (User user : foundUsers) {
+                foundMonumentIds.addAll(this.monumentRepository.findIdsByCreatedById(user.getId()));
+            }
+            if (foundMonumentIds.size() > Integer.parseInt(limit)) {
+                foundMonumentIds = foundMonumentIds.subList(0, Integer.parseInt(limit));
+            }
+            return this.monumentService.getMonumentSummaries(foundMonumentIds);
+        }
+
+        List<Monument> foundMonuments = new ArrayList<Monument>();
         for (User user: foundUsers) {
             foundMonuments.addAll(this.monumentRepository.findAllByCreatedById(user.getId()));
         }
@@ -342,12 +588,18 @@ public class SearchController {
     /**
      * Get all the monuments created by a particular user id
      * @param id - the target user's ID
-     * @return List<Monument> - List of all monuments created by that user id
+     * @param view - If "summary", MonumentSummaries are returned instead of full Monuments
+     * @return List<Monument> - List of all monuments created by that user id, or List<MonumentSummary> for the summary
+     * view
      * @throws UnauthorizedException - If trying to get inactive monuments and not logged in
      */
     @GetMapping("api/search/user/monumentsById")
     @PreAuthorize(Authorization.isAdmin)
-    public List<Monument> getAllMonumentsByCreatedById(@RequestParam(required = false) int id){
+    public List<?> getAllMonumentsByCreatedById(@RequestParam(required = false) int id,
+                                                @RequestParam(required = false) String view){
+        if (MonumentSummary.isSummaryView(view)) {
+            return this.monumentService.getMonumentSummaries(this.monumentRepository.findIdsByCreatedById(id));
+        }
         List<Monument> foundMonuments = new ArrayList<Monument>();
         foundMonuments.addAll(this.monumentRepository.findAllByCreatedById(id));
         return foundMonuments;
@@ -0,0 +1,45 @@
+package com.monumental.controllers.helpers;
+
+/**
+ * Helper class that holds a group of Monuments that are close together on a map tile
+ * At high zoom levels every Monument is its own MapTileCluster with a count of 1
+ */
+public class MapTileCluster {
+
+    private long count;
+
+    private Integer id;
+
+    private Double lat;
+
+    private Double lon;
+
+    /**
+     * @param count - The number of Monuments in the cluster
+     * @param id - The ID of a Monument in the cluster that can represent it
+     * @param lat - The latitude of the center of the cluster
+     * @param lon - The longitude of the center of the cluster
+     */
+    public MapTileCluster(long count, Integer id, Double lat, Double lon) {
+        this.count = count;
+        this.id = id;
+        this.lat = lat;
+        this.lon = lon;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public Integer getId() {
+        return this.id;
+    }
+
+    public Double getLat() {
+        return this.lat;
+    }
+
+    public Double getLon() {
+        return this.lon;
+    }
+}
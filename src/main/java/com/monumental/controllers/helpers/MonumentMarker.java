@@ -0,0 +1,71 @@
+package com.monumental.controllers.helpers;
+
+import org.locationtech.jts.geom.Point;
+
+/**
+ * Helper class that holds only the fields of a Monument that are needed to show it as a marker on the map
+ */
+public class MonumentMarker {
+
+    private Integer id;
+
+    private String title;
+
+    private Double lat;
+
+    private Double lon;
+
+    private Boolean isTemporary;
+
+    private String address;
+
+    private String city;
+
+    private String state;
+
+    public MonumentMarker(Integer id, String title, Point coordinates, Boolean isTemporary, String address,
+                          String city, String state) {
+        this.id = id;
+        this.title = title;
+        if (coordinates != null) {
+            this.lat = coordinates.getY();
+            this.lon = coordinates.getX();
+        }
+        this.isTemporary = isTemporary;
+        this.address = address;
+        this.city = city;
+        this.state = state;
+    }
+
+    public Integer getId() {
+        return this.id;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public Double getLat() {
+        return this.lat;
+    }
+
+    public Double getLon() {
+        return this.lon;
+    }
+
+    public Boolean getIsTemporary() {
+        return this.isTemporary;
+    }
+
+    public String getAddress() {
+        return this.address;
+    }
+
+    public String getCity() {
+        return this.city;
+    }
+
+    public String getState() {
+        return this.state;
+    }
+}
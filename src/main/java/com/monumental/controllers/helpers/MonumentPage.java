@@ -0,0 +1,59 @@
+package com.monumental.controllers.helpers;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.monumental.models.Favorite;
+import com.monumental.models.Monument;
+import com.monumental.models.suggestions.UpdateMonumentSuggestion;
+
+import java.util.List;
+
+/**
+ * Helper class that holds everything needed to render the page of a Monument, so that the page takes one request
+ * favorite is null if the User is not logged in or has not favorited the Monument, and pendingUpdateSuggestions is null
+ * if the User is not a researcher or above
+ */
+public class MonumentPage {
+
+    private Monument monument;
+
+    private List<Monument> related;
+
+    private Favorite favorite;
+
+    private List<UpdateMonumentSuggestion> pendingUpdateSuggestions;
+
+    @JsonIgnore
+    private String serverTiming;
+
+    public MonumentPage(Monument monument, List<Monument> related, Favorite favorite,
+                        List<UpdateMonumentSuggestion> pendingUpdateSuggestions, String serverTiming) {
+        this.monument = monument;
+        this.related = related;
+        this.favorite = favorite;
+        this.pendingUpdateSuggestions = pendingUpdateSuggestions;
+        this.serverTiming = serverTiming;
+    }
+
+    public Monument getMonument() {
+        return this.monument;
+    }
+
+    public List<Monument> getRelated() {
+        return this.related;
+    }
+
+    public Favorite getFavorite() {
+        return this.favorite;
+    }
+
+    public List<UpdateMonumentSuggestion> getPendingUpdateSuggestions() {
+        return this.pendingUpdateSuggestions;
+    }
+
+    /**
+     * @return String - The value of the Server-Timing header, with the time each section of the page took to load
+     */
+    public String getServerTiming() {
+        return this.serverTiming;
+    }
+}
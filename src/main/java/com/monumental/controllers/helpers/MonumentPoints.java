@@ -0,0 +1,58 @@
+package com.monumental.controllers.helpers;
+
+import java.util.List;
+
+/**
+ * Helper class that holds every active Monument as a point on the map, in a compact columnar format
+ * The lists are parallel: the Monument at index i has ID ids[i], coordinates (lat[i], lon[i]), title
+ * titles[titleIndexes[i]] and primary Image ID primaryImageIds[i]
+ * Titles are de-duplicated since many Monuments share titles such as "Veterans Memorial"
+ */
+public class MonumentPoints {
+
+    private List<Integer> ids;
+
+    private List<Double> lat;
+
+    private List<Double> lon;
+
+    private List<String> titles;
+
+    private List<Integer> titleIndexes;
+
+    private List<Integer> primaryImageIds;
+
+    public MonumentPoints(List<Integer> ids, List<Double> lat, List<Double> lon, List<String> titles,
+                          List<Integer> titleIndexes, List<Integer> primaryImageIds) {
+        this.ids = ids;
+        this.lat = lat;
+        this.lon = lon;
+        this.titles = titles;
+        this.titleIndexes = titleIndexes;
+        this.primaryImageIds = primaryImageIds;
+    }
+
+    public List<Integer> getIds() {
+        return this.ids;
+    }
+
+    public List<Double> getLat() {
+        return this.lat;
+    }
+
+    public List<Double> getLon() {
+        return this.lon;
+    }
+
+    public List<String> getTitles() {
+        return this.titles;
+    }
+
+    public List<Integer> getTitleIndexes() {
+        return this.titleIndexes;
+    }
+
+    public List<Integer> getPrimaryImageIds() {
+        return this.primaryImageIds;
+    }
+}
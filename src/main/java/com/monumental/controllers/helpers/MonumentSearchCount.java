@@ -0,0 +1,25 @@
+package com.monumental.controllers.helpers;
+
+/**
+ * Helper class that holds the number of results of a Monument search
+ * If approximate is true, count is an estimate of a large number of results rather than the exact number
+ */
+public class MonumentSearchCount {
+
+    private int count;
+
+    private boolean approximate;
+
+    public MonumentSearchCount(int count, boolean approximate) {
+        this.count = count;
+        this.approximate = approximate;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public boolean isApproximate() {
+        return this.approximate;
+    }
+}
@@ -0,0 +1,44 @@
+package com.monumental.controllers.helpers;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Helper class that holds the number of results of a Monument search for each value of the search's filters
+ * States are keyed by their full name, and decades by their first year, with 0 for Monuments from before 1860 like the
+ * decade filter. Tags and Materials are keyed by name and only include the most used ones, most used first
+ */
+public class MonumentSearchFacets {
+
+    private Map<String, Integer> states;
+
+    private Map<Integer, Integer> decades;
+
+    private Map<String, Integer> tags;
+
+    private Map<String, Integer> materials;
+
+    public MonumentSearchFacets(Map<String, Integer> states, Map<Integer, Integer> decades, Map<String, Integer> tags,
+                                Map<String, Integer> materials) {
+        this.states = Collections.unmodifiableMap(states);
+        this.decades = Collections.unmodifiableMap(decades);
+        this.tags = Collections.unmodifiableMap(tags);
+        this.materials = Collections.unmodifiableMap(materials);
+    }
+
+    public Map<String, Integer> getStates() {
+        return this.states;
+    }
+
+    public Map<Integer, Integer> getDecades() {
+        return this.decades;
+    }
+
+    public Map<String, Integer> getTags() {
+        return this.tags;
+    }
+
+    public Map<String, Integer> getMaterials() {
+        return this.materials;
+    }
+}
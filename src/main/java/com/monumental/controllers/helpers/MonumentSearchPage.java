@@ -0,0 +1,41 @@
+package com.monumental.controllers.helpers;
+
+import com.monumental.models.Monument;
+
+import java.util.List;
+
+/**
+ * Helper class that holds one page of Monument search results
+ * For keyset paginated searches, next is the cursor to pass back to get the following page, or null if this is the
+ * last page. For searches that are counted, count is the total number of results across every page
+ */
+public class MonumentSearchPage {
+
+    private List<Monument> monuments;
+
+    private String next;
+
+    private Integer count;
+
+    public MonumentSearchPage(List<Monument> monuments, String next, Integer count) {
+        this.monuments = monuments;
+        this.next = next;
+        this.count = count;
+    }
+
+    public MonumentSearchPage(List<Monument> monuments, Integer count) {
+        this(monuments, null, count);
+    }
+
+    public List<Monument> getMonuments() {
+        return this.monuments;
+    }
+
+    public String getNext() {
+        return this.next;
+    }
+
+    public Integer getCount() {
+        return this.count;
+    }
+}
@@ -0,0 +1,123 @@
+package com.monumental.controllers.helpers;
+
+import com.monumental.models.DateFormat;
+import org.locationtech.jts.geom.Point;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Helper class that holds only the fields of a Monument that are needed to show it as a card in a list of results
+ * Returned by the list endpoints instead of the full Monument when they are called with view=summary
+ */
+public class MonumentSummary {
+
+    /**
+     * The value of the view request parameter that selects MonumentSummaries instead of full Monuments
+     */
+    public static final String view = "summary";
+
+    private Integer id;
+
+    private String title;
+
+    private Double lat;
+
+    private Double lon;
+
+    private String address;
+
+    private String city;
+
+    private String state;
+
+    private Date date;
+
+    private DateFormat dateFormat;
+
+    private Boolean isTemporary;
+
+    private String primaryImageUrl;
+
+    private List<String> tags = new ArrayList<>();
+
+    private List<String> materials = new ArrayList<>();
+
+    public MonumentSummary(Integer id, String title, Point coordinates, String address, String city, String state,
+                           Date date, DateFormat dateFormat, Boolean isTemporary, String primaryImageUrl) {
+        this.id = id;
+        this.title = title;
+        if (coordinates != null) {
+            this.lat = coordinates.getY();
+            this.lon = coordinates.getX();
+        }
+        this.address = address;
+        this.city = city;
+        this.state = state;
+        this.date = date;
+        this.dateFormat = dateFormat;
+        this.isTemporary = isTemporary;
+        this.primaryImageUrl = primaryImageUrl;
+    }
+
+    /**
+     * @param view - The value of the view request parameter
+     * @return boolean - True if the view selects MonumentSummaries, false if it selects full Monuments
+     */
+    public static boolean isSummaryView(String view) {
+        return MonumentSummary.view.equalsIgnoreCase(view);
+    }
+
+    public Integer getId() {
+        return this.id;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public Double getLat() {
+        return this.lat;
+    }
+
+    public Double getLon() {
+        return this.lon;
+    }
+
+    public String getAddress() {
+        return this.address;
+    }
+
+    public String getCity() {
+        return this.city;
+    }
+
+    public String getState() {
+        return this.state;
+    }
+
+    public Date getDate() {
+        return this.date;
+    }
+
+    public DateFormat getDateFormat() {
+        return this.dateFormat;
+    }
+
+    public Boolean getIsTemporary() {
+        return this.isTemporary;
+    }
+
+    public String getPrimaryImageUrl() {
+        return this.primaryImageUrl;
+    }
+
+    public List<String> getTags() {
+        return this.tags;
+    }
+
+    public List<String> getMaterials() {
+        return this.materials;
+    }
+}
@@ -0,0 +1,24 @@
+package com.monumental.controllers.helpers;
+
+/**
+ * Helper class that holds a Monument suggested as the user types in the search box
+ */
+public class MonumentTitleSuggestion {
+
+    private Integer id;
+
+    private String title;
+
+    public MonumentTitleSuggestion(Integer id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    public Integer getId() {
+        return this.id;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+}
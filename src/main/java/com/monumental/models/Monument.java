@@ -11,6 +11,16 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.monumental.util.string.StringHelper;
 import org.locationtech.jts.geom.Point;
 import org.hibernate.LazyInitializationException;
+import org.hibernate.search.annotations.Analyze;
+import org.hibernate.search.annotations.DateBridge;
+import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Indexed;
+import org.hibernate.search.annotations.IndexedEmbedded;
+import org.hibernate.search.annotations.Latitude;
+import org.hibernate.search.annotations.Longitude;
+import org.hibernate.search.annotations.Resolution;
+import org.hibernate.search.annotations.SortableField;
+import org.hibernate.search.annotations.Spatial;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -22,20 +32,28 @@ import java.util.*;
  * Model class for both Monuments and Memorials
  * The name Monument is chosen for simplicity as monuments and memorials have no difference within the system
  * Contains all of the state for a Monument as well as Setters and Getters for the state
+ * The @Field mappings describe the Lucene documents that LuceneMonumentSearchEngine searches
  */
 
 @Entity
+@Indexed
+@Spatial(name = "location")
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class,
         property = "id")
 public class Monument extends Model implements Serializable {
 
+    @Field
     @Column(name = "artist")
     private String artist;
 
+    @Field
     @Column(name = "title")
     @NotNull(groups = {New.class, Existing.class}, message = "Title can not be null")
     private String title;
 
+    @Field
+    @SortableField
+    @DateBridge(resolution = Resolution.DAY)
     @Temporal(TemporalType.DATE)
     @Column(name = "date")
     private Date date;
@@ -48,24 +66,37 @@ public class Monument extends Model implements Serializable {
     @Column(name = "coordinates", columnDefinition = "geometry")
     private Point coordinates;
 
+    // The coordinates projected into feet (SRID 2877), so that radius searches can use its GiST index instead of
+    // transforming every row. This is set by the trigger that SearchIndexService creates, in the same statement that
+    // inserts or updates the coordinates
+    @JsonIgnore
+    @Column(name = "projected_coordinates", columnDefinition = "geometry(Point, 2877)", insertable = false,
+        updatable = false)
+    private Point projectedCoordinates;
+
     @Column(name = "city")
     private String city;
 
+    @Field(analyze = Analyze.NO)
     @Column(name = "state")
     private String state;
 
     @Column(name = "address")
     private String address;
 
+    @Field
     @Column(name = "description", length = 2048)
     private String description;
 
+    @Field
     @Column(name = "inscription", length = 2048)
     private String inscription;
 
+    @Field(analyze = Analyze.NO)
     @Column(name = "is_temporary")
     private Boolean isTemporary = false;
 
+    @Field(analyze = Analyze.NO)
     @Column(name = "is_active")
     private Boolean isActive = true;
 
@@ -95,6 +126,12 @@ public class Monument extends Model implements Serializable {
     @OneToMany(mappedBy = "monument", cascade = CascadeType.ALL)
     private List<Contribution> contributions;
 
+    // The monument_search row of the Monument, which there is at most one of. Only mapped so that searches can join
+    // it, so it has no accessors and is never loaded
+    @JsonIgnore
+    @OneToMany(mappedBy = "monument")
+    private List<MonumentSearchDocument> searchDocuments;
+
     public Monument() {
         this.monumentTags = new HashSet<>();
         this.images = new ArrayList<>();
@@ -150,6 +187,11 @@ public class Monument extends Model implements Serializable {
         this.coordinates = coordinates;
     }
 
+    public Point getProjectedCoordinates() {
+        return this.projectedCoordinates;
+    }
+
+    @Latitude(of = "location")
     public Double getLat() {
         if (this.coordinates == null) {
             return null;
@@ -158,6 +200,7 @@ public class Monument extends Model implements Serializable {
         return this.coordinates.getY();
     }
 
+    @Longitude(of = "location")
     public Double getLon() {
         if (this.coordinates == null) {
             return null;
@@ -196,6 +239,14 @@ public class Monument extends Model implements Serializable {
                 : this.description;
     }
 
+    /**
+     * @return String - The description as it is stored, which is null instead of a generated description if the
+     * Monument does not have one
+     */
+    String getStoredDescription() {
+        return this.description;
+    }
+
     public void setDescription(String description) {
         this.description = description;
     }
@@ -249,6 +300,7 @@ public class Monument extends Model implements Serializable {
     }
 
     @JsonIgnore
+    @IndexedEmbedded
     public List<Tag> getTags() {
         if (this.monumentTags == null) return null;
 
@@ -282,6 +334,7 @@ public class Monument extends Model implements Serializable {
     }
 
     @JsonIgnore
+    @IndexedEmbedded
     public List<Tag> getMaterials() {
         if (this.monumentTags == null) return null;
 
@@ -0,0 +1,136 @@
+package com.monumental.models;
+
+import com.monumental.util.string.StringHelper;
+import org.hibernate.annotations.Formula;
+import org.locationtech.jts.geom.Point;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Model class for the denormalized monument_search table, which holds one row per Monument with everything that
+ * searches filter on, so that each filter can be answered from an index on a single table
+ * On Postgres a trigger inserts the row in the same statement as the Monument and MonumentService.updateMonumentSearchDocument
+ * keeps it up to date. SearchIndexService fills in the rows of Monuments saved before that, so searches can inner join it
+ * The tag_ids and material_ids columns are Postgres arrays, so Hibernate does not create them. They are added by
+ * SearchIndexService and filled in with SQL, and are mapped as read-only formulas so that searches can refer to them
+ */
+@Entity
+@Table(name = "monument_search")
+public class MonumentSearchDocument implements Serializable {
+
+    @Id
+    @Column(name = "monument_id")
+    private Integer monumentId;
+
+    // Maps the same column as monumentId, so that searches can join this row to the Monument. There is no foreign key,
+    // so that deleting a Monument never depends on its row having been deleted first
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "monument_id", insertable = false, updatable = false,
+        foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Monument monument;
+
+    // The title, artist and description of the Monument, lowercased and without accents. On Postgres they are
+    // normalized again by the normalize_for_search function, which searches normalize the search text with
+    @Column(name = "title")
+    private String title;
+
+    @Column(name = "artist")
+    private String artist;
+
+    @Column(name = "description", length = 2048)
+    private String description;
+
+    @Column(name = "date_year")
+    private Integer dateYear;
+
+    @Column(name = "is_active")
+    private Boolean isActive;
+
+    @Column(name = "is_temporary")
+    private Boolean isTemporary;
+
+    // The same as Monument.projectedCoordinates, copied by SQL since only PostGIS can project the coordinates
+    @Column(name = "projected_coordinates", columnDefinition = "geometry(Point, 2877)", insertable = false,
+        updatable = false)
+    private Point projectedCoordinates;
+
+    // The IDs of the Monument's Tags and Materials, as Postgres integer arrays
+    @Formula("tag_ids")
+    private String tagIds;
+
+    @Formula("material_ids")
+    private String materialIds;
+
+    public MonumentSearchDocument() {
+
+    }
+
+    public MonumentSearchDocument(Integer monumentId) {
+        this.monumentId = monumentId;
+    }
+
+    /**
+     * Copy the fields of the specified Monument that are stored in Java onto this document
+     * @param monument - The Monument this document is for
+     */
+    public void update(Monument monument) {
+        this.title = StringHelper.normalizeForSearch(monument.getTitle());
+        this.artist = StringHelper.normalizeForSearch(monument.getArtist());
+        this.description = StringHelper.normalizeForSearch(monument.getStoredDescription());
+        this.dateYear = getYear(monument.getDate());
+        this.isActive = monument.getIsActive();
+        this.isTemporary = monument.getIsTemporary();
+    }
+
+    private static Integer getYear(Date date) {
+        if (date == null) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR);
+    }
+
+    public Integer getMonumentId() {
+        return this.monumentId;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    public String getArtist() {
+        return this.artist;
+    }
+
+    public String getDescription() {
+        return this.description;
+    }
+
+    public Integer getDateYear() {
+        return this.dateYear;
+    }
+
+    public Boolean getIsActive() {
+        return this.isActive;
+    }
+
+    public Boolean getIsTemporary() {
+        return this.isTemporary;
+    }
+
+    public Point getProjectedCoordinates() {
+        return this.projectedCoordinates;
+    }
+
+    public String getTagIds() {
+        return this.tagIds;
+    }
+
+    public String getMaterialIds() {
+        return this.materialIds;
+    }
+}
@@ -1,6 +1,9 @@
 package com.monumental.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.search.annotations.Analyze;
+import org.hibernate.search.annotations.Field;
+import org.hibernate.search.annotations.Fields;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -22,6 +25,11 @@ import java.util.Set;
 @Entity
 public class Tag extends Model implements Serializable {
 
+    // The name is indexed for text searches, and also as a whole for the Tag and Material filters
+    @Fields({
+        @Field,
+        @Field(name = "keyword", analyze = Analyze.NO)
+    })
     @Column(name = "name")
     @NotNull(groups = {New.class, Existing.class}, message = "Name can not be null")
     private String name;
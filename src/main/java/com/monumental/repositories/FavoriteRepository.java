@@ -2,6 +2,8 @@ package com.monumental.repositories;
 
 import com.monumental.models.Favorite;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import javax.transaction.Transactional;
@@ -13,6 +15,13 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Integer> {
 
     List<Favorite> getAllByUserId(Integer id);
 
+    /**
+     * Get the ids of the monuments that the specified user favorited
+     * @param id Id of the user to get the favorite monuments of
+     */
+    @Query("select f.monument.id from Favorite f where f.user.id = :id")
+    List<Integer> getMonumentIdsByUserId(@Param("id") Integer id);
+
     Favorite getByUserIdAndMonumentId(Integer userId, Integer monumentId);
 
     void deleteAllByMonumentId(Integer monumentId);
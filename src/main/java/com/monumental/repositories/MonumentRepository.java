@@ -1,5 +1,6 @@
 package com.monumental.repositories;
 
+import com.monumental.controllers.helpers.MonumentSummary;
 import com.monumental.models.Monument;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -48,4 +49,74 @@ public interface MonumentRepository extends JpaRepository<Monument, Integer> {
 
     @Query("select m from Monument m where m.createdBy.id = :id")
     List<Monument> findAllByCreatedById(Integer id);
+
+    /**
+     * Get the ids of the monuments created by the specified user
+     * @param id Id of the user that created the monuments
+     */
+    @Query("select m.id from Monument m where m.createdBy.id = :id")
+    List<Integer> findIdsByCreatedById(@Param("id") Integer id);
+
+    /**
+     * Same as getRelatedMonuments, but only gets the ids of the monuments instead of loading them
+     * @return Tuples of monument ids with their count of matching tags
+     */
+    @Query("select m.id, count(t.id) as c from Monument m join m.monumentTags mt join mt.tag t where t.name in :names and m.id <> :id and m.isActive = true group by m.id order by c desc")
+    List<Tuple> getRelatedMonumentIds(@Param("names") List<String> names, @Param("id") Integer monumentId, Pageable pageable);
+
+    /**
+     * Get the summaries of the specified monuments, without loading the monuments themselves
+     * The tags and materials of the summaries are not filled in
+     * @param ids Ids of the monuments to get the summaries of
+     * @return The summaries of the monuments, in no particular order. A monument with more than one primary image will
+     * appear more than once
+     */
+    @Query("select new com.monumental.controllers.helpers.MonumentSummary(m.id, m.title, m.coordinates, m.address, " +
+           "m.city, m.state, m.date, m.dateFormat, m.isTemporary, i.url) " +
+           "from Monument m left join m.images i on i.isPrimary = true where m.id in :ids")
+    List<MonumentSummary> getMonumentSummaries(@Param("ids") List<Integer> ids);
+
+    /**
+     * Get the fields needed to show every active monument as a point on the map, in a single query
+     * @return Tuples of the monument id, coordinates, title, last modified date and primary image id, ordered by id
+     * A monument with more than one primary image will appear more than once
+     */
+    @Query("select m.id as id, m.coordinates as coordinates, m.title as title, m.lastModifiedDate as lastModifiedDate, " +
+           "i.id as primaryImageId from Monument m left join m.images i on i.isPrimary = true " +
+           "where m.isActive = true order by m.id")
+    List<Tuple> getActiveMonumentPoints();
+
+    /**
+     * Get the fields needed to build the related monuments index for every monument, in a single query
+     * @return Tuples of the monument id, whether or not it is active, its coordinates and the name of one of its tags or
+     * materials. A monument appears once for each of its tags and materials, or once with a null tag name if it has none
+     */
+    @Query("select m.id as id, m.isActive as isActive, m.coordinates as coordinates, t.name as tagName " +
+           "from Monument m left join m.monumentTags mt left join mt.tag t")
+    List<Tuple> getRelatedMonumentIndexEntries();
+
+    /**
+     * Same as getRelatedMonumentIndexEntries, but only for the specified monuments
+     * @param ids Ids of the monuments to get the index entries of
+     * @return Tuples of the monument id, whether or not it is active, its coordinates and the name of one of its tags or
+     * materials
+     */
+    @Query("select m.id as id, m.isActive as isActive, m.coordinates as coordinates, t.name as tagName " +
+           "from Monument m left join m.monumentTags mt left join mt.tag t where m.id in :ids")
+    List<Tuple> getRelatedMonumentIndexEntriesByIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * Get the title of every active monument, in a single query
+     * @return Tuples of the monument id and title
+     */
+    @Query("select m.id as id, m.title as title from Monument m where m.isActive = true")
+    List<Tuple> getActiveMonumentTitles();
+
+    /**
+     * Same as getActiveMonumentTitles, but only for the specified monuments
+     * @param ids Ids of the monuments to get the titles of
+     * @return Tuples of the monument id and title, for the specified monuments that are active
+     */
+    @Query("select m.id as id, m.title as title from Monument m where m.isActive = true and m.id in :ids")
+    List<Tuple> getActiveMonumentTitlesByIds(@Param("ids") List<Integer> ids);
 }
@@ -0,0 +1,41 @@
+package com.monumental.repositories;
+
+import com.monumental.models.MonumentSearchDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+
+@Repository
+@Transactional
+public interface MonumentSearchDocumentRepository extends JpaRepository<MonumentSearchDocument, Integer> {
+
+    /**
+     * Fill in the columns of monument_search that only Postgres can compute from the monument, monument_tag and tag
+     * tables: the projected coordinates and the Tag and Material ID arrays. The text is normalized again with
+     * normalize_for_search, which searches on Postgres normalize the search text with
+     * Further conditions on s, the monument_search row, can be appended with AND
+     */
+    String updatePostgresColumnsSql =
+        "UPDATE monument_search s SET projected_coordinates = m.projected_coordinates, " +
+        "title = normalize_for_search(m.title), artist = normalize_for_search(m.artist), " +
+        "description = normalize_for_search(m.description), " +
+        "tag_ids = ARRAY(SELECT mt.tag_id FROM monument_tag mt JOIN tag t ON t.id = mt.tag_id " +
+            "WHERE mt.monument_id = m.id AND NOT coalesce(t.is_material, false) ORDER BY mt.tag_id), " +
+        "material_ids = ARRAY(SELECT mt.tag_id FROM monument_tag mt JOIN tag t ON t.id = mt.tag_id " +
+            "WHERE mt.monument_id = m.id AND coalesce(t.is_material, false) ORDER BY mt.tag_id) " +
+        "FROM monument m WHERE m.id = s.monument_id";
+
+    void deleteAllByMonumentId(Integer monumentId);
+
+    /**
+     * Fill in the Postgres-only columns of a monument's monument_search row. Only supported by PostgreSQL
+     * @param monumentId Id of the monument to update the row of
+     */
+    @Modifying
+    @Query(value = updatePostgresColumnsSql + " AND s.monument_id = :id", nativeQuery = true)
+    void updatePostgresColumns(@Param("id") Integer monumentId);
+}
@@ -2,13 +2,34 @@ package com.monumental.repositories;
 
 import com.monumental.models.MonumentTag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.Tuple;
 import javax.transaction.Transactional;
+import java.util.List;
 
 @Repository
 @Transactional
 public interface MonumentTagRepository extends JpaRepository<MonumentTag, Integer> {
 
     void deleteAllByMonumentId(Integer monumentId);
+
+    /**
+     * Get the names of the tags and materials of the specified monuments, without loading the monuments or tags
+     * @param ids Ids of the monuments to get the tag names of
+     * @return Tuples of the monument id, tag name and whether or not the tag is a material, ordered by tag name
+     */
+    @Query("select mt.monument.id as monumentId, t.name as name, t.isMaterial as isMaterial " +
+           "from MonumentTag mt join mt.tag t where mt.monument.id in :ids order by t.name")
+    List<Tuple> getTagNamesByMonumentIds(@Param("ids") List<Integer> ids);
+
+    /**
+     * Get the tag names and materials of every monument, without loading the monuments or tags
+     * @return Tuples of the monument id, tag name and whether or not the tag is a material
+     */
+    @Query("select mt.monument.id as monumentId, t.name as name, t.isMaterial as isMaterial " +
+           "from MonumentTag mt join mt.tag t")
+    List<Tuple> getAllTagNames();
 }
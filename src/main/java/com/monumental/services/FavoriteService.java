@@ -1,5 +1,6 @@
 package com.monumental.services;
 
+import com.monumental.controllers.helpers.MonumentSummary;
 import com.monumental.exceptions.ResourceNotFoundException;
 import com.monumental.exceptions.UnauthorizedException;
 import com.monumental.models.Favorite;
@@ -80,6 +81,23 @@ public class FavoriteService {
         return this.getUserFavorites(null);
     }
 
+    /**
+     * Get summaries of the favorited Monuments of a User, without loading the Favorites or the Monuments
+     * @see FavoriteService#getUserFavorites(Integer)
+     * @return List<MonumentSummary> - Summaries of the Monuments the User favorited
+     */
+    public List<MonumentSummary> getUserFavoriteSummaries(Integer userId)
+            throws ResourceNotFoundException, UnauthorizedException {
+        User currentUser = this.userService.getCurrentUser();
+
+        this.userService.requireUserExistsIfNotNull(userId);
+
+        List<Integer> monumentIds = userId == null ?
+                this.favoriteRepository.getMonumentIdsByUserId(currentUser.getId()) :
+                this.favoriteRepository.getMonumentIdsByUserId(userId);
+        return this.monumentService.getMonumentSummaries(monumentIds);
+    }
+
     /**
      * Create a Favorite for the specified Monument. By default, this uses the running user's Id. If userId is
      * explicitly specified, it will be used instead
@@ -0,0 +1,308 @@
+package com.monumental.services;
+
+import com.monumental.models.Monument;
+import com.monumental.services.events.MonumentChangedEvent;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.hibernate.search.exception.EmptyQueryException;
+import org.hibernate.search.jpa.FullTextEntityManager;
+import org.hibernate.search.jpa.FullTextQuery;
+import org.hibernate.search.jpa.Search;
+import org.hibernate.search.query.dsl.QueryBuilder;
+import org.hibernate.search.query.dsl.Unit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.*;
+
+import static com.monumental.util.string.StringHelper.isNullOrEmpty;
+
+/**
+ * This service searches Monuments with a local Lucene index instead of the pg_trgm similarity functions, so that text
+ * searches and relevance ranking do not have to run in the database. It is only used when SEARCH_ENGINE is "lucene"
+ * The index is managed by Hibernate Search from the @Field mappings on Monument and Tag. It is built in the background
+ * when the application starts, and MonumentService keeps searching with SQL until it is ready. After that, each
+ * Monument is re-indexed in the background whenever it changes
+ * Text searches match the title, artist, description, inscription, Tags and Materials, allowing one typo per word,
+ * so the similarity threshold is not used. Searching by active date range is not supported
+ */
+@Service
+public class LuceneMonumentSearchEngine implements MonumentSearchEngine {
+
+    private static final double kilometersPerMile = 1.609344;
+
+    /**
+     * Matches in these fields count this many times as much as matches in the other fields, like the weights that
+     * MonumentService sorts by relevance with
+     */
+    private static final float titleBoost = 5;
+
+    private static final float artistBoost = 2;
+
+    @Value("${SEARCH_ENGINE:sql}")
+    private String searchEngine;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    private volatile boolean isReady = false;
+
+    @PostConstruct
+    public void initialize() {
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @return boolean - True if searches should be run with the Lucene index, False otherwise
+     */
+    public boolean isEnabled() {
+        return "lucene".equalsIgnoreCase(this.searchEngine);
+    }
+
+    /**
+     * @return boolean - True if searches should be run with the Lucene index and it has been built, False otherwise
+     */
+    public boolean isReady() {
+        return this.isReady && this.isEnabled();
+    }
+
+    /**
+     * Build the index in the background when the application starts, if it is enabled
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (this.isEnabled()) {
+            this.rebuildIndex();
+        }
+    }
+
+    /**
+     * Re-index every Monument, and wait until it is done
+     */
+    public void rebuildIndex() {
+        EntityManager entityManager = this.entityManagerFactory.createEntityManager();
+        try {
+            Search.getFullTextEntityManager(entityManager).createIndexer(Monument.class).startAndWait();
+            this.isReady = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Re-index a Monument in the background whenever it is created, updated or deleted, if the index is enabled
+     * Creating and updating a Monument also creates and updates its Tags
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonumentChanged(MonumentChangedEvent event) {
+        if (this.isEnabled()) {
+            this.updateIndex(event.getMonumentId());
+        }
+    }
+
+    /**
+     * Re-index a Monument, or remove it from the index if it no longer exists
+     * @param monumentId - The ID of the Monument to re-index
+     */
+    public void updateIndex(Integer monumentId) {
+        this.transactionTemplate.execute(status -> {
+            FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(this.entityManager);
+            Monument monument = this.entityManager.find(Monument.class, monumentId);
+            if (monument == null) {
+                fullTextEntityManager.purge(Monument.class, monumentId);
+            } else {
+                fullTextEntityManager.index(monument);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<Integer> searchMonumentIds(String searchQuery, String page, String limit, Double threshold,
+                                           Double latitude, Double longitude, Double distance, String state,
+                                           List<String> tags, List<String> materials,
+                                           MonumentService.SortType sortType, Date start, Date end, Integer decade,
+                                           boolean onlyActive, Integer activeStart, Integer activeEnd,
+                                           Boolean hideTemporary) {
+        return this.readOnlyTransactionTemplate.execute(status -> {
+            FullTextQuery query = this.createQuery(
+                searchQuery, latitude, longitude, distance, state, tags, materials, sortType, start, end, decade,
+                onlyActive, hideTemporary
+            );
+            if (query == null) {
+                return new ArrayList<>();
+            }
+
+            query.setProjection(FullTextQuery.ID);
+            if (limit != null) {
+                int limitInt = Integer.parseInt(limit);
+                query.setMaxResults(limitInt);
+                if (page != null) {
+                    query.setFirstResult((Integer.parseInt(page) - 1) * limitInt);
+                }
+            }
+
+            List<Integer> ids = new ArrayList<>();
+            for (Object result : query.getResultList()) {
+                ids.add((Integer) ((Object[]) result)[0]);
+            }
+            return ids;
+        });
+    }
+
+    @Override
+    public Integer countMonuments(String searchQuery, Double latitude, Double longitude, Double distance, String state,
+                                  List<String> tags, List<String> materials, Date start, Date end, Integer decade,
+                                  boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+        return this.readOnlyTransactionTemplate.execute(status -> {
+            FullTextQuery query = this.createQuery(
+                searchQuery, latitude, longitude, distance, state, tags, materials, MonumentService.SortType.NONE,
+                start, end, decade, onlyActive, hideTemporary
+            );
+            return query == null ? 0 : query.getResultSize();
+        });
+    }
+
+    /**
+     * Build the Lucene query for a search, with the same filters as MonumentService.buildSearchQuery
+     * @return FullTextQuery - The query for the search, or null if the search text only contains words that are not
+     * indexed, such as "the", so nothing can match it
+     */
+    private FullTextQuery createQuery(String searchQuery, Double latitude, Double longitude, Double distance,
+                                      String state, List<String> tags, List<String> materials,
+                                      MonumentService.SortType sortType, Date start, Date end, Integer decade,
+                                      boolean onlyActive, Boolean hideTemporary) {
+        FullTextEntityManager fullTextEntityManager = Search.getFullTextEntityManager(this.entityManager);
+        QueryBuilder queryBuilder = fullTextEntityManager.getSearchFactory().buildQueryBuilder()
+            .forEntity(Monument.class)
+            .get();
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+
+        if (!isNullOrEmpty(searchQuery)) {
+            try {
+                query.add(queryBuilder.keyword().fuzzy().withEditDistanceUpTo(1).withPrefixLength(1)
+                    .onField("title").boostedTo(titleBoost)
+                    .andField("artist").boostedTo(artistBoost)
+                    .andField("description")
+                    .andField("inscription")
+                    .andField("tags.name")
+                    .andField("materials.name")
+                    .matching(searchQuery)
+                    .createQuery(), BooleanClause.Occur.MUST);
+            } catch (EmptyQueryException e) {
+                return null;
+            }
+        } else {
+            query.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+
+        if (onlyActive) {
+            query.add(queryBuilder.keyword().onField("isActive").matching(true).createQuery(),
+                BooleanClause.Occur.FILTER);
+        }
+
+        if (hideTemporary != null && hideTemporary) {
+            query.add(queryBuilder.keyword().onField("isTemporary").matching(true).createQuery(),
+                BooleanClause.Occur.MUST_NOT);
+        }
+
+        if (state != null && distance != null && distance < 0) {
+            query.add(queryBuilder.keyword().onField("state").matching(state).createQuery(),
+                BooleanClause.Occur.FILTER);
+        } else if (latitude != null && longitude != null && distance != null && distance > 0) {
+            query.add(queryBuilder.spatial().onField("location")
+                .within(distance * kilometersPerMile, Unit.KM)
+                .ofLatitude(latitude)
+                .andLongitude(longitude)
+                .createQuery(), BooleanClause.Occur.FILTER);
+        }
+
+        if (tags != null) {
+            for (String tag : tags) {
+                query.add(queryBuilder.keyword().onField("tags.keyword").matching(tag).createQuery(),
+                    BooleanClause.Occur.FILTER);
+            }
+        }
+
+        if (materials != null && materials.size() > 0) {
+            BooleanQuery.Builder materialsQuery = new BooleanQuery.Builder();
+            for (String material : materials) {
+                materialsQuery.add(queryBuilder.keyword().onField("materials.keyword").matching(material).createQuery(),
+                    BooleanClause.Occur.SHOULD);
+            }
+            query.add(materialsQuery.build(), BooleanClause.Occur.FILTER);
+        }
+
+        Query dateQuery = null;
+        if (start != null && end != null) {
+            dateQuery = queryBuilder.range().onField("date").from(start).to(end).createQuery();
+        } else if (decade != null) {
+            if (decade > 0) {
+                dateQuery = queryBuilder.range().onField("date")
+                    .from(new GregorianCalendar(decade, Calendar.JANUARY, 1).getTime())
+                    .to(new GregorianCalendar(decade + 9, Calendar.DECEMBER, 31).getTime())
+                    .createQuery();
+            } else {
+                dateQuery = queryBuilder.range().onField("date")
+                    .below(new GregorianCalendar(1860, Calendar.JANUARY, 31).getTime())
+                    .excludeLimit()
+                    .createQuery();
+            }
+        }
+        if (dateQuery != null) {
+            query.add(dateQuery, BooleanClause.Occur.FILTER);
+        }
+
+        FullTextQuery fullTextQuery = fullTextEntityManager.createFullTextQuery(query.build(), Monument.class);
+
+        // Relevance sorted searches use Lucene's score order, which is the default
+        switch (sortType) {
+            case NEWEST:
+                fullTextQuery.setSort(queryBuilder.sort().byField("date").desc().onMissingValue().sortLast().createSort());
+                break;
+            case OLDEST:
+                fullTextQuery.setSort(queryBuilder.sort().byField("date").asc().onMissingValue().sortLast().createSort());
+                break;
+            case DISTANCE:
+                if (latitude != null && longitude != null) {
+                    fullTextQuery.setSort(queryBuilder.sort().byDistance().onField("location")
+                        .fromLatitude(latitude)
+                        .andLongitude(longitude)
+                        .createSort());
+                }
+                break;
+        }
+
+        return fullTextQuery;
+    }
+}
@@ -0,0 +1,194 @@
+package com.monumental.services;
+
+import com.monumental.controllers.helpers.MapTileCluster;
+import com.monumental.services.events.MonumentChangedEvent;
+import com.monumental.util.cache.LruCache;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * This service builds the map tiles used to show the Monuments on a zoomed out map
+ * Tiles use the standard z/x/y Web Mercator tiling scheme. Below clusterMaxZoom, the Monuments in each tile are grouped
+ * into a grid of clusters by PostGIS, at clusterMaxZoom and above every Monument is returned individually
+ * Computed tiles are cached until a Monument inside of them changes
+ */
+@Service
+public class MapTileService {
+
+    /**
+     * The lowest zoom level at which every Monument is returned individually instead of in clusters
+     */
+    public static final int clusterMaxZoom = 12;
+
+    /**
+     * The highest zoom level that tiles can be requested for
+     */
+    public static final int maxZoom = 22;
+
+    /**
+     * The number of cluster cells along each side of a tile. With 256 pixel tiles this makes each cell 32 pixels wide
+     */
+    private static final int gridSize = 8;
+
+    private static final String clusterQuery =
+        "SELECT count(*) AS count, min(id) AS id, " +
+        "ST_Y(ST_Centroid(ST_Collect(coordinates))) AS lat, ST_X(ST_Centroid(ST_Collect(coordinates))) AS lon " +
+        "FROM monument " +
+        "WHERE is_active = true AND coordinates && ST_MakeEnvelope(?, ?, ?, ?, " + MonumentService.coordinateSrid + ") " +
+        "AND ST_X(coordinates) >= ? AND ST_X(coordinates) < ? AND ST_Y(coordinates) >= ? AND ST_Y(coordinates) < ? " +
+        "GROUP BY ST_SnapToGrid(coordinates, ?, ?, ?, ?)";
+
+    private static final String pointQuery =
+        "SELECT 1 AS count, id, ST_Y(coordinates) AS lat, ST_X(coordinates) AS lon " +
+        "FROM monument " +
+        "WHERE is_active = true AND coordinates && ST_MakeEnvelope(?, ?, ?, ?, " + MonumentService.coordinateSrid + ") " +
+        "AND ST_X(coordinates) >= ? AND ST_X(coordinates) < ? AND ST_Y(coordinates) >= ? AND ST_Y(coordinates) < ?";
+
+    private static final RowMapper<MapTileCluster> clusterMapper = (resultSet, rowNumber) -> new MapTileCluster(
+        resultSet.getLong("count"), resultSet.getInt("id"), resultSet.getDouble("lat"), resultSet.getDouble("lon")
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LruCache<String, List<MapTileCluster>> tiles = new LruCache<>(10000);
+
+    // Incremented every time tiles are invalidated, so that a tile computed from data that changed while it was being
+    // computed is not put into the cache
+    private long version = 0;
+
+    /**
+     * Get the clusters or Monuments in the specified tile, from the cache if possible
+     * @param z - The zoom level of the tile
+     * @param x - The x coordinate of the tile
+     * @param y - The y coordinate of the tile
+     * @return List<MapTileCluster> - The clusters in the tile, or the individual Monuments at clusterMaxZoom and above
+     */
+    public List<MapTileCluster> getTile(int z, int x, int y) {
+        String key = getTileKey(z, x, y);
+        List<MapTileCluster> tile = this.tiles.get(key);
+        if (tile != null) {
+            return tile;
+        }
+
+        long version;
+        synchronized (this.tiles) {
+            version = this.version;
+        }
+
+        tile = this.computeTile(z, x, y);
+
+        synchronized (this.tiles) {
+            if (this.version == version) {
+                this.tiles.put(key, tile);
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Query for the clusters or Monuments in the specified tile
+     * Only Monuments on the north or east edge of a tile are excluded, so that each Monument is in exactly one tile
+     */
+    private List<MapTileCluster> computeTile(int z, int x, int y) {
+        double west = getTileLongitude(x, z);
+        double east = getTileLongitude(x + 1, z);
+        double north = getTileLatitude(y, z);
+        double south = getTileLatitude(y + 1, z);
+
+        if (z >= clusterMaxZoom) {
+            return this.jdbcTemplate.query(pointQuery, clusterMapper,
+                west, south, east, north, west, east, south, north
+            );
+        }
+
+        // ST_SnapToGrid snaps to the nearest grid point, so the grid is offset by half of a cell to make each
+        // grid point the center of a cell that lines up with the edges of the tile
+        double cellWidth = (east - west) / gridSize;
+        double cellHeight = (north - south) / gridSize;
+        return this.jdbcTemplate.query(clusterQuery, clusterMapper,
+            west, south, east, north, west, east, south, north,
+            west + cellWidth / 2, south + cellHeight / 2, cellWidth, cellHeight
+        );
+    }
+
+    /**
+     * Remove the cached tiles that contain the old or new location of a Monument that changed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonumentChanged(MonumentChangedEvent event) {
+        synchronized (this.tiles) {
+            this.version++;
+            this.invalidateTiles(event.getOldCoordinates());
+            this.invalidateTiles(event.getNewCoordinates());
+        }
+    }
+
+    /**
+     * Remove the cached tiles at every zoom level that contain the specified coordinates
+     */
+    private void invalidateTiles(Point coordinates) {
+        if (coordinates == null) {
+            return;
+        }
+        for (int z = 0; z <= maxZoom; z++) {
+            this.tiles.remove(getTileKey(z, getTileX(coordinates.getX(), z), getTileY(coordinates.getY(), z)));
+        }
+    }
+
+    /**
+     * @return boolean - True if the specified tile coordinates exist, false otherwise
+     */
+    public static boolean isValidTile(int z, int x, int y) {
+        if (z < 0 || z > maxZoom) {
+            return false;
+        }
+        int tileCount = 1 << z;
+        return x >= 0 && x < tileCount && y >= 0 && y < tileCount;
+    }
+
+    /**
+     * @return double - The longitude of the west edge of tile column x at zoom level z
+     */
+    public static double getTileLongitude(int x, int z) {
+        return x / Math.pow(2, z) * 360.0 - 180.0;
+    }
+
+    /**
+     * @return double - The latitude of the north edge of tile row y at zoom level z
+     */
+    public static double getTileLatitude(int y, int z) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y / Math.pow(2, z)))));
+    }
+
+    /**
+     * @return int - The tile column containing the specified longitude at zoom level z
+     */
+    public static int getTileX(double longitude, int z) {
+        int tileCount = 1 << z;
+        int x = (int) Math.floor((longitude + 180.0) / 360.0 * tileCount);
+        return Math.max(0, Math.min(tileCount - 1, x));
+    }
+
+    /**
+     * @return int - The tile row containing the specified latitude at zoom level z
+     */
+    public static int getTileY(double latitude, int z) {
+        int tileCount = 1 << z;
+        double latitudeRadians = Math.toRadians(latitude);
+        int y = (int) Math.floor(
+            (1 - Math.log(Math.tan(latitudeRadians) + 1 / Math.cos(latitudeRadians)) / Math.PI) / 2 * tileCount
+        );
+        return Math.max(0, Math.min(tileCount - 1, y));
+    }
+
+    private static String getTileKey(int z, int x, int y) {
+        return z + "/" + x + "/" + y;
+    }
+}
@@ -1,7 +1,8 @@
 package com.monumental.services;
 
 import com.monumental.models.Model;
-import org.hibernate.Hibernate;
+import com.monumental.util.fetch.FetchPlan;
+import com.monumental.util.search.QueryParameters;
 import org.springframework.stereotype.Service;
 
 import javax.persistence.EntityManager;
@@ -9,9 +10,6 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Root;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.Arrays;
 import java.util.List;
@@ -105,54 +103,51 @@ public abstract class ModelService<T extends Model> {
         return this.getEntityManager().createQuery(query).setMaxResults(limit).setFirstResult(page * limit).getResultList();
     }
 
+    /**
+     * Execute the specified query with the values collected in the specified QueryParameters bound to it
+     * @param query - The CriteriaQuery to execute
+     * @param parameters - The parameter values used by the CriteriaQuery
+     * @param limit - The maximum number of results to return
+     */
+    public List<T> getWithCriteriaQuery(CriteriaQuery<T> query, QueryParameters parameters, Integer limit) {
+        return parameters.applyTo(this.getEntityManager().createQuery(query)).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Execute the specified query with the values collected in the specified QueryParameters bound to it
+     * @param query - The CriteriaQuery to execute
+     * @param parameters - The parameter values used by the CriteriaQuery
+     */
+    public List<T> getWithCriteriaQuery(CriteriaQuery<T> query, QueryParameters parameters) {
+        return parameters.applyTo(this.getEntityManager().createQuery(query)).getResultList();
+    }
+
+    /**
+     * Execute the specified query with the values collected in the specified QueryParameters bound to it
+     * @param query - The CriteriaQuery to execute
+     * @param parameters - The parameter values used by the CriteriaQuery
+     * @param limit - The maximum number of results to return
+     * @param page - The zero-based page of results to return
+     */
+    public List<T> getWithCriteriaQuery(CriteriaQuery<T> query, QueryParameters parameters, Integer limit,
+                                        Integer page) {
+        return parameters.applyTo(this.getEntityManager().createQuery(query)).setMaxResults(limit)
+            .setFirstResult(page * limit).getResultList();
+    }
+
     public void initializeAllLazyLoadedCollections(T record) {
         initializeAllLazyLoadedCollections(Arrays.asList(record));
     }
 
     /**
-     * Helper method that attempts to get and initialize all collections on a record before its session is closed
+     * Helper method that initializes all lazy-loaded collections and associations of the records before their session
+     * is closed
      * This is helpful when you need to access lazy loaded data, since sessions are always closed in the get methods
      * before the calling class ever has a chance to initialize lazy collections
-     * Modified from this answer https://stackoverflow.com/a/24870618/10044594
+     * The associations are loaded for all of the records at once using the FetchPlan of their class, instead of with a
+     * few queries for every record
      */
     public void initializeAllLazyLoadedCollections(List<T> records) {
-        for (T record : records) {
-            Method[] methods = record.getClass().getMethods();
-            for (Method method : methods) {
-
-                String methodName = method.getName();
-
-                // check Getters exclusively
-                if (methodName.length() < 3 || !"get" .equals(methodName.substring(0, 3))) {
-                    continue;
-                }
-
-                // Getters without parameters
-                if (method.getParameterTypes().length > 0) {
-                    continue;
-                }
-
-                int modifiers = method.getModifiers();
-
-                // Getters that are public
-                if (!Modifier.isPublic(modifiers))
-                    continue;
-
-                // but not static
-                if (Modifier.isStatic(modifiers))
-                    continue;
-
-                try {
-                    // Check result of the Getter
-                    Object r = method.invoke(record);
-                    if (r != null) {
-                        Hibernate.initialize(r);
-                    }
-                } catch ( InvocationTargetException | IllegalArgumentException | IllegalAccessException e ) {
-                    e.printStackTrace();
-                    return;
-                }
-            }
-        }
+        FetchPlan.initializeAll(this.getEntityManager(), records);
     }
 }
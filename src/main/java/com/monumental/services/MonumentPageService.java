@@ -0,0 +1,187 @@
+package com.monumental.services;
+
+import com.monumental.controllers.helpers.MonumentPage;
+import com.monumental.exceptions.ResourceNotFoundException;
+import com.monumental.exceptions.UnauthorizedException;
+import com.monumental.models.Favorite;
+import com.monumental.models.Monument;
+import com.monumental.models.User;
+import com.monumental.models.suggestions.UpdateMonumentSuggestion;
+import com.monumental.repositories.FavoriteRepository;
+import com.monumental.security.Role;
+import com.monumental.services.suggestions.UpdateSuggestionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * This service assembles everything needed to render the page of a Monument: the Monument itself, the related
+ * Monuments, the current User's Favorite and, for researchers, the pending UpdateMonumentSuggestions
+ * The sections do not depend on each other, so they are loaded at the same time, each on a thread of the
+ * monumentPageTaskExecutor and in its own read-only transaction. Every lazy-loaded association of the Monuments is
+ * initialized inside that transaction, since they are detached once it ends. The time each section took is reported in
+ * a Server-Timing header
+ */
+@Service
+public class MonumentPageService {
+
+    private static final String[] sections = {"monument", "related", "favorite", "suggestions"};
+
+    @Autowired
+    private MonumentService monumentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UpdateSuggestionService updateSuggestionService;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("monumentPageTaskExecutor")
+    private TaskExecutor executor;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void initialize() {
+        this.transactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Load every section of the page of the Monument with the specified ID
+     * @param id - The ID of the Monument
+     * @param onlyActive - If true, a ResourceNotFoundException is thrown if the Monument is inactive. If false, the
+     *                   User must be a partner or above
+     * @param relatedLimit - The maximum number of related Monuments to return
+     * @return MonumentPage - The sections of the page of the Monument
+     * @throws ResourceNotFoundException - If the Monument does not exist or onlyActive is true and it is inactive
+     * @throws AccessDeniedException - If onlyActive is false and the User is not a partner or above
+     * @throws UnauthorizedException - If onlyActive is false and the User is not logged in
+     */
+    public MonumentPage getMonumentPage(Integer id, boolean onlyActive, int relatedLimit)
+            throws ResourceNotFoundException, AccessDeniedException, UnauthorizedException {
+        if (!onlyActive) {
+            this.userService.requireUserIsInRoles(Role.PARTNER_OR_ABOVE);
+        }
+
+        // The logged in User is looked up on the request thread, before the sections start, so that the sections
+        // only need its ID and role
+        User user = this.getCurrentUserOrNull();
+        boolean isResearcherOrAbove = user != null &&
+            (user.getRole() == Role.RESEARCHER || user.getRole() == Role.ADMIN);
+
+        long start = System.nanoTime();
+        Map<String, Double> timings = new ConcurrentHashMap<>();
+
+        CompletableFuture<Monument> monument = this.loadSection("monument", timings, () -> {
+            Monument detail = this.monumentService.getMonumentDetail(id, onlyActive).orElse(null);
+            if (detail != null) {
+                this.monumentService.initializeAllLazyLoadedCollections(detail);
+            }
+            return detail;
+        });
+        CompletableFuture<List<Monument>> related = this.loadSection("related", timings, () -> {
+            List<Monument> relatedMonuments = this.monumentService.getRelatedMonuments(id, relatedLimit);
+            this.monumentService.initializeAllLazyLoadedCollections(relatedMonuments);
+            return relatedMonuments;
+        });
+        CompletableFuture<Favorite> favorite = user == null ?
+            CompletableFuture.completedFuture(null) :
+            this.loadSection("favorite", timings,
+                () -> this.favoriteRepository.getByUserIdAndMonumentId(user.getId(), id)
+            );
+        CompletableFuture<List<UpdateMonumentSuggestion>> suggestions = !isResearcherOrAbove ?
+            CompletableFuture.completedFuture(null) :
+            this.loadSection("suggestions", timings,
+                () -> this.updateSuggestionService.getPendingSuggestionsForMonument(id)
+            );
+
+        Monument loadedMonument = join(monument);
+        List<Monument> loadedRelated = join(related);
+        Favorite loadedFavorite = join(favorite);
+        List<UpdateMonumentSuggestion> loadedSuggestions = join(suggestions);
+        if (loadedMonument == null) {
+            throw new ResourceNotFoundException("The requested Monument or Memorial does not exist");
+        }
+
+        timings.put("total", (System.nanoTime() - start) / 1000000.0);
+        return new MonumentPage(loadedMonument, loadedRelated, loadedFavorite, loadedSuggestions,
+            formatServerTiming(timings)
+        );
+    }
+
+    /**
+     * Start loading a section of the page on its own thread and in its own read-only transaction, and record how many
+     * milliseconds it took in timings
+     */
+    private <V> CompletableFuture<V> loadSection(String name, Map<String, Double> timings, Supplier<V> section) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return this.transactionTemplate.execute(status -> section.get());
+            } finally {
+                timings.put(name, (System.nanoTime() - start) / 1000000.0);
+            }
+        }, this.executor);
+    }
+
+    private User getCurrentUserOrNull() {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            return null;
+        }
+        try {
+            return this.userService.getCurrentUser();
+        } catch (UnauthorizedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Format the timings of the sections as a Server-Timing header, e.g. "monument;dur=3.2, related;dur=1.5, total;dur=3.4"
+     */
+    private static String formatServerTiming(Map<String, Double> timings) {
+        List<String> metrics = new ArrayList<>();
+        for (String section : sections) {
+            if (timings.containsKey(section)) {
+                metrics.add(String.format(Locale.ROOT, "%s;dur=%.1f", section, timings.get(section)));
+            }
+        }
+        if (timings.containsKey("total")) {
+            metrics.add(String.format(Locale.ROOT, "total;dur=%.1f", timings.get("total")));
+        }
+        return String.join(", ", metrics);
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
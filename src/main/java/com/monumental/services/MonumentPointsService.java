@@ -0,0 +1,149 @@
+package com.monumental.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monumental.controllers.helpers.MonumentPoints;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.events.MonumentChangedEvent;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.Tuple;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This service keeps every active Monument as a point on the map in memory, already serialized to JSON and gzipped,
+ * so that clients that want the whole catalog can be served without querying or serializing anything
+ * The points are rebuilt the next time they are requested after any Monument changes
+ */
+@Service
+public class MonumentPointsService {
+
+    /**
+     * The serialized MonumentPoints, along with the ETags that identify them
+     * The plain and gzipped bytes are different representations, so they have different strong ETags
+     */
+    public static class SerializedMonumentPoints {
+
+        private final String eTag;
+
+        private final byte[] json;
+
+        private final byte[] gzippedJson;
+
+        public SerializedMonumentPoints(String eTag, byte[] json, byte[] gzippedJson) {
+            this.eTag = eTag;
+            this.json = json;
+            this.gzippedJson = gzippedJson;
+        }
+
+        public String getETag() {
+            return "\"" + this.eTag + "\"";
+        }
+
+        public String getGzippedETag() {
+            return "\"" + this.eTag + "-gzip\"";
+        }
+
+        public byte[] getJson() {
+            return this.json;
+        }
+
+        public byte[] getGzippedJson() {
+            return this.gzippedJson;
+        }
+    }
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile SerializedMonumentPoints points;
+
+    /**
+     * Get the serialized points for every active Monument, building them if any Monument has changed since they
+     * were last built
+     * @return SerializedMonumentPoints - The serialized points
+     * @throws IOException - If the points can not be serialized
+     */
+    public SerializedMonumentPoints getPoints() throws IOException {
+        SerializedMonumentPoints points = this.points;
+        if (points != null) {
+            return points;
+        }
+
+        // Only one request builds the points, any others wait for it and use the same result
+        synchronized (this) {
+            if (this.points == null) {
+                this.points = this.buildPoints();
+            }
+            return this.points;
+        }
+    }
+
+    /**
+     * Query and serialize the points for every active Monument
+     * The ETag is made from the most recent lastModifiedDate and the number of Monuments, so that it changes when a
+     * Monument is created, updated, deactivated or deleted
+     */
+    private SerializedMonumentPoints buildPoints() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        List<Double> lat = new ArrayList<>();
+        List<Double> lon = new ArrayList<>();
+        List<String> titles = new ArrayList<>();
+        List<Integer> titleIndexes = new ArrayList<>();
+        List<Integer> primaryImageIds = new ArrayList<>();
+        Map<String, Integer> titleIndexesByTitle = new HashMap<>();
+        long lastModified = 0;
+
+        for (Tuple tuple : this.monumentRepository.getActiveMonumentPoints()) {
+            Integer id = tuple.get("id", Integer.class);
+            // If a Monument has more than one primary Image, only use the first one
+            if (!ids.isEmpty() && ids.get(ids.size() - 1).equals(id)) {
+                continue;
+            }
+
+            Point coordinates = tuple.get("coordinates", Point.class);
+            String title = tuple.get("title", String.class);
+            Date lastModifiedDate = tuple.get("lastModifiedDate", Date.class);
+
+            ids.add(id);
+            lat.add(coordinates == null ? null : coordinates.getY());
+            lon.add(coordinates == null ? null : coordinates.getX());
+            titleIndexes.add(titleIndexesByTitle.computeIfAbsent(title, newTitle -> {
+                titles.add(newTitle);
+                return titles.size() - 1;
+            }));
+            primaryImageIds.add(tuple.get("primaryImageId", Integer.class));
+
+            if (lastModifiedDate != null && lastModifiedDate.getTime() > lastModified) {
+                lastModified = lastModifiedDate.getTime();
+            }
+        }
+
+        byte[] json = this.objectMapper.writeValueAsBytes(
+            new MonumentPoints(ids, lat, lon, titles, titleIndexes, primaryImageIds)
+        );
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        }
+
+        return new SerializedMonumentPoints("points-" + lastModified + "-" + ids.size(), json, gzipped.toByteArray());
+    }
+
+    /**
+     * Throw away the serialized points whenever a Monument changes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMonumentChanged(MonumentChangedEvent event) {
+        this.points = null;
+    }
+}
@@ -0,0 +1,270 @@
+package com.monumental.services;
+
+import com.monumental.controllers.helpers.MonumentSearchFacets;
+import com.monumental.services.events.MonumentChangedEvent;
+import com.monumental.services.events.TagChangedEvent;
+import com.monumental.util.async.SingleFlight;
+import com.monumental.util.cache.LruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This service caches the results of Monument searches, as the IDs of the Monuments on a page, the total number of
+ * results and the number of results for each filter value, keyed by the normalized search parameters
+ * The catalog changes rarely while the most common searches are repeated constantly, so the whole cache is thrown away
+ * whenever a Monument changes. Entries are also evicted when they are least recently used or expire
+ * Identical searches that run at the same time are coalesced into one, so that a burst of requests for a search that
+ * is not cached yet only queries the database once. Searches only wait up to SEARCH_COALESCE_TIMEOUT_MILLIS for an
+ * identical search before running their own
+ * Hit, miss and eviction counts are published as the monument.search.cache.* metrics, the number of coalesced
+ * searches as monument.search.coalesced, and the number of those that stopped waiting as
+ * monument.search.coalesced.timeouts
+ */
+@Service
+public class MonumentSearchCacheService {
+
+    @Value("${SEARCH_CACHE_ENABLED:true}")
+    private boolean enabled;
+
+    @Value("${SEARCH_CACHE_MAX_ENTRIES:10000}")
+    private int maxEntries;
+
+    // The cache is limited by the total number of Monument IDs it holds. A count weighs the same as one ID
+    @Value("${SEARCH_CACHE_MAX_IDS:500000}")
+    private long maxIds;
+
+    @Value("${SEARCH_CACHE_TTL_SECONDS:3600}")
+    private long timeToLiveSeconds;
+
+    @Value("${SEARCH_COALESCE_TIMEOUT_MILLIS:5000}")
+    private long coalesceTimeoutMillis;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LruCache<String, Object> results;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private SingleFlight<String, Object> searches;
+
+    // Incremented every time the cache is invalidated, so that results computed from data that changed while they were
+    // being computed are not put into the cache
+    private long version = 0;
+
+    @PostConstruct
+    public void initialize() {
+        this.results = new LruCache<>(this.maxEntries, this.maxIds, MonumentSearchCacheService::getWeight,
+            this.timeToLiveSeconds * 1000
+        );
+        this.searches = new SingleFlight<>(this.coalesceTimeoutMillis);
+
+        FunctionCounter.builder("monument.search.cache.hits", this.hits, AtomicLong::get)
+            .description("Monument searches answered from the cache")
+            .register(this.meterRegistry);
+        FunctionCounter.builder("monument.search.cache.misses", this.misses, AtomicLong::get)
+            .description("Monument searches that had to query the database")
+            .register(this.meterRegistry);
+        FunctionCounter.builder("monument.search.cache.evictions", this.results, LruCache::getEvictionCount)
+            .description("Cached Monument searches evicted to make room for others or because they expired")
+            .register(this.meterRegistry);
+        FunctionCounter.builder("monument.search.coalesced", this.searches, SingleFlight::getCoalescedCount)
+            .description("Monument searches that waited for an identical search that was already running")
+            .register(this.meterRegistry);
+        FunctionCounter.builder("monument.search.coalesced.timeouts", this.searches, SingleFlight::getTimedOutCount)
+            .description("Monument searches that stopped waiting for an identical search and ran their own")
+            .register(this.meterRegistry);
+        Gauge.builder("monument.search.cache.size", this.results, LruCache::size)
+            .description("The number of cached Monument searches")
+            .register(this.meterRegistry);
+    }
+
+    /**
+     * Results are only shared outside of transactions that can write. Inside of such a transaction a search could see
+     * changes that have not been committed yet, and those changes have not invalidated the cache yet either. A read-only
+     * transaction, like the one MonumentService runs trigram candidate searches in, has no changes of its own to see
+     * @return boolean - True if the results of this search can be shared with other searches, false otherwise
+     */
+    public boolean canShareResults() {
+        return !TransactionSynchronizationManager.isActualTransactionActive() ||
+            TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Run a search, unless an identical search is already running, in which case wait for it and use its result
+     * The result is shared between threads, so it must not contain any entities
+     * @param key - The key created by createKey for the search, prefixed with the kind of result
+     * @param search - The search to run
+     * @return SingleFlight.Result<V> - The result of the search, and whether or not this thread ran it
+     */
+    @SuppressWarnings("unchecked")
+    public <V> SingleFlight.Result<V> coalesce(String key, Supplier<V> search) {
+        return (SingleFlight.Result<V>) this.searches.execute(key, search::get);
+    }
+
+    /**
+     * @param key - The key created by createKey for the search
+     * @return List<Integer> - The cached IDs of the Monuments on the page, in order, or null if they are not cached
+     */
+    @SuppressWarnings("unchecked")
+    public List<Integer> getIds(String key) {
+        return (List<Integer>) this.get("ids:" + key);
+    }
+
+    /**
+     * @param key - The key created by createKey for the search
+     * @return Integer - The cached total number of results, or null if it is not cached
+     */
+    public Integer getCount(String key) {
+        return (Integer) this.get("count:" + key);
+    }
+
+    /**
+     * @param key - The key created by createKey for the search
+     * @return MonumentSearchFacets - The cached number of results for each filter value, or null if they are not cached
+     */
+    public MonumentSearchFacets getFacets(String key) {
+        return (MonumentSearchFacets) this.get("facets:" + key);
+    }
+
+    /**
+     * Cache the IDs of the Monuments on a page of search results
+     * @param key - The key created by createKey for the search
+     * @param ids - The IDs of the Monuments, in order
+     * @param version - The value of getVersion from before the search was run
+     */
+    public void putIds(String key, List<Integer> ids, long version) {
+        this.put("ids:" + key, Collections.unmodifiableList(new ArrayList<>(ids)), version);
+    }
+
+    /**
+     * Cache the total number of results of a search
+     * @param key - The key created by createKey for the search
+     * @param count - The total number of results
+     * @param version - The value of getVersion from before the search was run
+     */
+    public void putCount(String key, Integer count, long version) {
+        this.put("count:" + key, count, version);
+    }
+
+    /**
+     * Cache the number of results of a search for each filter value
+     * @param key - The key created by createKey for the search
+     * @param facets - The number of results for each filter value
+     * @param version - The value of getVersion from before the search was run
+     */
+    public void putFacets(String key, MonumentSearchFacets facets, long version) {
+        this.put("facets:" + key, facets, version);
+    }
+
+    /**
+     * @return long - The current version of the cache, which must be read before running a search whose results will
+     * be put into the cache
+     */
+    public synchronized long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Throw away every cached search whenever a Monument is created, updated or deleted
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMonumentChanged(MonumentChangedEvent event) {
+        this.version++;
+        this.results.clear();
+    }
+
+    /**
+     * Throw away every cached search whenever a Tag or Material is renamed or deleted, since searches filter by their
+     * names
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTagChanged(TagChangedEvent event) {
+        this.version++;
+        this.results.clear();
+    }
+
+    /**
+     * Create a cache key from search parameters, normalized so that equivalent searches share a key
+     * Lists are sorted, since the search filters do not depend on their order. See normalizeSearchText for search text
+     * @param parameters - The search parameters, in a fixed order
+     * @return String - The cache key
+     */
+    public static String createKey(Object... parameters) {
+        StringBuilder key = new StringBuilder();
+        for (Object parameter : parameters) {
+            if (key.length() > 0) {
+                key.append('|');
+            }
+            key.append(normalize(parameter));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Normalize search text for createKey. pg_trgm ignores case and only compares the words in text, so the case and
+     * the whitespace between words do not change the results
+     * @param searchText - The text being searched for
+     * @return String - The trimmed, lower cased search text with its whitespace collapsed, or null if it is null
+     */
+    public static String normalizeSearchText(String searchText) {
+        return searchText == null ? null : searchText.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalize(Object parameter) {
+        if (parameter == null) {
+            return "null";
+        }
+        if (parameter instanceof String) {
+            return "'" + ((String) parameter).replace("\\", "\\\\").replace("'", "\\'") + "'";
+        }
+        if (parameter instanceof Date) {
+            return Long.toString(((Date) parameter).getTime());
+        }
+        if (parameter instanceof List) {
+            List<String> values = new ArrayList<>();
+            for (Object value : (List<?>) parameter) {
+                values.add(normalize(value));
+            }
+            Collections.sort(values);
+            return "[" + String.join(",", values) + "]";
+        }
+        return parameter.toString();
+    }
+
+    private Object get(String key) {
+        if (!this.enabled || !this.canShareResults()) {
+            return null;
+        }
+        Object value = this.results.get(key);
+        if (value == null) {
+            this.misses.incrementAndGet();
+        } else {
+            this.hits.incrementAndGet();
+        }
+        return value;
+    }
+
+    private synchronized void put(String key, Object value, long version) {
+        if (this.enabled && this.canShareResults() && this.version == version) {
+            this.results.put(key, value);
+        }
+    }
+
+    private static long getWeight(Object value) {
+        return value instanceof List ? Math.max(1, ((List<?>) value).size()) : 1;
+    }
+}
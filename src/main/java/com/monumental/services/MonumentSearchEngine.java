@@ -0,0 +1,34 @@
+package com.monumental.services;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A way of finding the Monuments that match a search
+ * MonumentService searches with SQL using pg_trgm and PostGIS, and LuceneMonumentSearchEngine searches a local Lucene
+ * index. MonumentService decides which one each search is run with, and caches the results of both the same way
+ */
+public interface MonumentSearchEngine {
+
+    /**
+     * Get the IDs of a page of Monuments that match a search, in the order specified by the sortType
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List,
+     * MonumentService.SortType, Date, Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return List<Integer> - The IDs of the page of matching Monuments
+     */
+    List<Integer> searchMonumentIds(String searchQuery, String page, String limit, Double threshold, Double latitude,
+                                    Double longitude, Double distance, String state, List<String> tags,
+                                    List<String> materials, MonumentService.SortType sortType, Date start, Date end,
+                                    Integer decade, boolean onlyActive, Integer activeStart, Integer activeEnd,
+                                    Boolean hideTemporary);
+
+    /**
+     * Count the Monuments that match a search
+     * @see MonumentService#countSearchResults(String, Double, Double, Double, String, List, List, Date, Date, Integer,
+     * boolean, Integer, Integer, Boolean)
+     * @return Integer - The number of matching Monuments
+     */
+    Integer countMonuments(String searchQuery, Double latitude, Double longitude, Double distance, String state,
+                           List<String> tags, List<String> materials, Date start, Date end, Integer decade,
+                           boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary);
+}
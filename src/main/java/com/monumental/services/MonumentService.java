@@ -3,6 +3,11 @@ package com.monumental.services;
 import com.google.gson.Gson;
 import com.monumental.config.AppConfig;
 import com.monumental.controllers.helpers.MonumentAboutPageStatistics;
+import com.monumental.controllers.helpers.MonumentMarker;
+import com.monumental.controllers.helpers.MonumentSearchCount;
+import com.monumental.controllers.helpers.MonumentSearchFacets;
+import com.monumental.controllers.helpers.MonumentSearchPage;
+import com.monumental.controllers.helpers.MonumentSummary;
 import com.monumental.exceptions.InvalidZipException;
 import com.monumental.exceptions.UnauthorizedException;
 import com.monumental.models.*;
@@ -13,37 +18,55 @@ import com.monumental.models.suggestions.UpdateMonumentSuggestion;
 import com.monumental.repositories.suggestions.BulkCreateSuggestionRepository;
 import com.monumental.repositories.suggestions.CreateSuggestionRepository;
 import com.monumental.repositories.suggestions.UpdateSuggestionRepository;
+import com.monumental.services.events.MonumentChangedEvent;
 import com.monumental.util.async.AsyncJob;
+import com.monumental.util.async.SingleFlight;
 import com.monumental.util.csvparsing.*;
+import com.monumental.util.search.QueryParameters;
+import com.monumental.util.search.SearchCursor;
 import com.monumental.util.search.SearchHelper;
 import com.monumental.util.string.StringHelper;
 import com.opencsv.CSVReader;
 import com.rollbar.notifier.Rollbar;
+import org.hibernate.Hibernate;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.annotation.PostConstruct;
 import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
 import java.io.*;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import static com.monumental.util.string.StringHelper.isNullOrEmpty;
 
+/**
+ * This service handles Monuments, and is also the MonumentSearchEngine that searches them with SQL
+ * Searches that can be answered by LuceneMonumentSearchEngine are run with it instead when it is enabled
+ */
 @Service
-public class MonumentService extends ModelService<Monument> {
+public class MonumentService extends ModelService<Monument> implements MonumentSearchEngine {
 
     @Autowired
     private MonumentRepository monumentRepository;
@@ -92,6 +115,54 @@ public class MonumentService extends ModelService<Monument> {
 
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private RelatedMonumentIndexService relatedMonumentIndexService;
+
+    @Autowired
+    private TagIndexService tagIndexService;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private MonumentSearchCacheService monumentSearchCacheService;
+
+    @Autowired
+    private LuceneMonumentSearchEngine luceneMonumentSearchEngine;
+
+    @Autowired
+    private MonumentSearchDocumentRepository monumentSearchDocumentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    // If true, similarity searches first narrow the Monuments down to the candidates found by the pg_trgm % and <%
+    // operators, and only compute the weighted similarity score for those candidates. The operators' thresholds are
+    // set for each search from its own threshold, inside a transaction so that they apply to the search's connection
+    // only. If false, the score is computed for every Monument
+    @Value("${SEARCH_TRIGRAM_CANDIDATES:true}")
+    private boolean useTrigramCandidates;
+
+    // If true, searches filter on the denormalized monument_search table once SearchIndexService has built it, instead
+    // of on the monument table
+    @Value("${SEARCH_DOCUMENTS:true}")
+    private boolean useSearchDocuments;
+
+    // Approximate search counts are exact up to this many results. Above it, the count is estimated from a sample
+    @Value("${SEARCH_EXACT_COUNT_LIMIT:1000}")
+    private int exactCountLimit;
+
+    // Approximate search counts above exactCountLimit only count the Monuments on a random 1 in this many pages of the
+    // monument table, sampled with TABLESAMPLE SYSTEM, and multiply the result by it
+    @Value("${SEARCH_COUNT_SAMPLE_RATE:10}")
+    private int countSampleRate;
+
     /**
      * SRID for coordinates
      * Find more info here: https://spatialreference.org/ref/epsg/wgs-84/
@@ -106,6 +177,29 @@ public class MonumentService extends ModelService<Monument> {
      */
     public static final int feetSrid = 2877;
 
+    /**
+     * Relevance scores are multiplied by this and rounded down before being used as a cursor sort key, so that the
+     * sort key survives the round trip through the cursor exactly
+     */
+    private static final int relevanceSortKeyScale = 1000000;
+
+    /**
+     * The maximum number of monument IDs from the TagIndexService that are bound to a search query. Tag filters that
+     * match more monuments than this are matched with sub-queries instead, since sending and checking that many IDs
+     * costs more than the sub-queries do
+     */
+    private static final int maxTagFilterIds = 10000;
+
+    /**
+     * The number of Tags and the number of Materials that search facets are counted for, the most used first
+     */
+    private static final int maxFacetTags = 20;
+
+    /**
+     * The first decade that the decade filter has, all earlier Monuments are in decade 0. See buildDecadeQuery
+     */
+    private static final int firstDecade = 1860;
+
     /**
      * This enum is used when choosing how to sort search results
      */
@@ -113,17 +207,25 @@ public class MonumentService extends ModelService<Monument> {
         RELEVANCE, DISTANCE, NEWEST, OLDEST, NONE;
     }
 
+    @PostConstruct
+    public void initialize() {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
     /**
      * Builds a similarity query on the Monument's title, artist and description fields, and adds them to your CriteriaQuery
      * @param builder           Your CriteriaBuilder
      * @param query             Your CriteriaQuery
-     * @param root              The root associated with your CriteriaQuery
+     * @param from              The Monument root, or the monument_search join of the root if the search uses it
+     * @param parameters        The QueryParameters to bind the search query and threshold to
      * @param searchQuery       The string to search the fields for
      * @param threshold         The threshold (0-1) to limit the results by. You can learn about this score at https://www.postgresql.org/docs/9.6/pgtrgm.html
      * @param orderByResults    If true, your results will be ordered by their similarity to the search query
      */
-    private Predicate buildSimilarityQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, String searchQuery,
-                                      Double threshold, Boolean orderByResults) {
+    private Predicate buildSimilarityQuery(CriteriaBuilder builder, CriteriaQuery query, From from,
+                                           QueryParameters parameters, String searchQuery, Double threshold,
+                                           Boolean orderByResults) {
 
          /*The formula from the source is count / (len1 + len2 - count), where count is the number of common trigrams
          * and len1 and len2 are the number of trigrams for the strings (How a similarity between 2 strings is computed)
@@ -133,32 +235,140 @@ public class MonumentService extends ModelService<Monument> {
         //used later in this method. However, the call to query.orderBy(...) will changed the order that the resulting
         //monuments are displayed.
 
-        //This ordering can be tweaked by adjusting the following weights. Higher weights will place matches originating
-        //from that field higher on the final list
-        final int TITLE_MATCH_WEIGHT = 100;
-        final int ARTIST_MATCH_WEIGHT = 20;
-        final int DESCRIPTION_MATCH_WEIGHT = 1;
+        // The search text and threshold are bound rather than inlined so that every search shares the same query plan
+        Expression<String> searchQueryParameter = this.bindSearchQuery(builder, from, parameters, searchQuery);
+        Expression<Double> thresholdParameter = parameters.bind(builder, Double.class, threshold);
 
         if (orderByResults) {
-            query.orderBy(
-                builder.desc(
-                    builder.sum(
-                        builder.sum(
-                            builder.prod(SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "title"), TITLE_MATCH_WEIGHT),
-                            builder.prod(SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "artist"), ARTIST_MATCH_WEIGHT)
-                        ),
-                        builder.prod(SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "description"), DESCRIPTION_MATCH_WEIGHT)
-                    )
-                )
-            );
+            query.orderBy(builder.desc(this.buildRelevanceExpression(builder, from, searchQueryParameter)));
+        }
+
+        boolean useTrigramCandidates = this.canUseTrigramCandidates(searchQuery) && threshold != null && threshold > 0;
+        if (useTrigramCandidates) {
+            // The % and <% operators use the pg_trgm thresholds of the connection, which are set to the lowest
+            // similarity that a Monument above this search's threshold can have, so the candidates never leave out
+            // one of its results
+            this.setTrigramThresholds(SearchHelper.getTrigramCandidateThreshold(threshold));
         }
 
+        return this.buildScorePredicate(builder, from, searchQueryParameter, thresholdParameter, useTrigramCandidates);
+    }
+
+    /**
+     * Build the Predicate that the title, artist or description is similar enough to the search query
+     * @param builder               Your CriteriaBuilder
+     * @param from                  The Monument or monument_search row to compare the fields of
+     * @param searchQuery           Expression for the search query, usually a ParameterExpression
+     * @param threshold             Expression for the threshold that one of the scores must be above
+     * @param useTrigramCandidates  If true, the scores are only computed for the rows found by the pg_trgm operators
+     */
+    private Predicate buildScorePredicate(CriteriaBuilder builder, From from, Expression<String> searchQuery,
+                                          Expression<Double> threshold, boolean useTrigramCandidates) {
         //During investigation for CMM-60, it was found that while the threshold value is properly passed, it appeared
         //to have no visible effect on the results received until it was set to 1.0. Should be investigated further at a later date
-        return builder.or(
-            SearchHelper.buildSimilarityPredicate(builder, SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "title"), threshold),
-            SearchHelper.buildSimilarityPredicate(builder, SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "artist"), threshold),
-            SearchHelper.buildSimilarityPredicate(builder, SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "description"), threshold)
+        Predicate scorePredicate = builder.or(
+            SearchHelper.buildSimilarityPredicate(builder, SearchHelper.buildSimilarityExpression(builder, from, searchQuery, "title"), threshold),
+            SearchHelper.buildSimilarityPredicate(builder, SearchHelper.buildSimilarityExpression(builder, from, searchQuery, "artist"), threshold),
+            SearchHelper.buildSimilarityPredicate(builder, SearchHelper.buildSimilarityExpression(builder, from, searchQuery, "description"), threshold)
+        );
+
+        if (!useTrigramCandidates) {
+            return scorePredicate;
+        }
+
+        // The candidate Predicate can be answered from the trigram indexes, so Postgres only has to compute the scores
+        // for the Monuments that are similar to the search query instead of for the entire table
+        return builder.and(
+            builder.or(
+                SearchHelper.buildTrigramCandidatePredicate(builder, from, searchQuery, "title"),
+                SearchHelper.buildTrigramCandidatePredicate(builder, from, searchQuery, "artist"),
+                SearchHelper.buildTrigramCandidatePredicate(builder, from, searchQuery, "description")
+            ),
+            scorePredicate
+        );
+    }
+
+    /**
+     * Bind the search query to compare to the text of the specified Monument or monument_search row
+     * The text in monument_search is normalized with normalize_for_search when it is written, so the search query is
+     * normalized by the same function. It is only applied to the parameter, so the trigram indexes on the columns can
+     * still be used
+     * @param builder - The CriteriaBuilder to use to help build the Expression
+     * @param from - The Monument root or monument_search join that the search query is compared to
+     * @param parameters - The QueryParameters to bind the search query to
+     * @param searchQuery - The search text
+     * @return Expression<String> - The search query to compare to the fields of from
+     */
+    private Expression<String> bindSearchQuery(CriteriaBuilder builder, From from, QueryParameters parameters,
+                                               String searchQuery) {
+        Expression<String> searchQueryParameter = parameters.bind(builder, String.class, searchQuery);
+        if (from.getJavaType() != MonumentSearchDocument.class) {
+            return searchQueryParameter;
+        }
+        return builder.function("normalize_for_search", String.class, searchQueryParameter);
+    }
+
+    /**
+     * The pg_trgm thresholds are set with SET LOCAL semantics, which only last until the end of the transaction and
+     * only apply to the search if it runs on the same connection, so the trigram candidates are only used when a search
+     * with text is built inside a transaction. See runSearch
+     * @param searchQuery - The search text
+     * @return boolean - True if the search should find its candidates with the pg_trgm operators, False otherwise
+     */
+    private boolean canUseTrigramCandidates(String searchQuery) {
+        return this.useTrigramCandidates && !isNullOrEmpty(searchQuery) &&
+            TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Set pg_trgm.similarity_threshold and pg_trgm.word_similarity_threshold until the end of the current transaction
+     * @param threshold - The threshold for both settings
+     */
+    private void setTrigramThresholds(double threshold) {
+        this.getEntityManager().createNativeQuery(
+            "SELECT set_config('pg_trgm.similarity_threshold', ?1, true), " +
+                "set_config('pg_trgm.word_similarity_threshold', ?1, true)"
+        ).setParameter(1, String.valueOf(threshold)).getResultList();
+    }
+
+    /**
+     * Run a search in a read-only transaction if it finds its candidates with the pg_trgm operators, so that the
+     * thresholds set while it is built apply to the connection it runs on. Otherwise just run it
+     * The transaction is read-only so that the search can still use the TagIndexService and share its results, see
+     * MonumentSearchCacheService.canShareResults
+     * @param searchQuery - The search text
+     * @param search - The search to build and run
+     * @return R - The result of the search
+     */
+    private <R> R runSearch(String searchQuery, Supplier<R> search) {
+        if (!this.useTrigramCandidates || isNullOrEmpty(searchQuery) ||
+            TransactionSynchronizationManager.isActualTransactionActive()) {
+            return search.get();
+        }
+        return this.readOnlyTransactionTemplate.execute(status -> search.get());
+    }
+
+    /**
+     * Build the Expression that relevance sorted search results are ordered by: the weighted sum of the similarity
+     * of the Monument's title, artist and description to the search query
+     * @param builder           Your CriteriaBuilder
+     * @param root              The Monument or monument_search row to compare the fields of
+     * @param searchQuery       Expression for the search query, usually a ParameterExpression
+     * @return Expression<Number> - The relevance of the Monument to the search query, higher is more relevant
+     */
+    private Expression<Number> buildRelevanceExpression(CriteriaBuilder builder, From root, Expression<String> searchQuery) {
+        //This ordering can be tweaked by adjusting the following weights. Higher weights will place matches originating
+        //from that field higher on the final list
+        final int TITLE_MATCH_WEIGHT = 100;
+        final int ARTIST_MATCH_WEIGHT = 20;
+        final int DESCRIPTION_MATCH_WEIGHT = 1;
+
+        return builder.sum(
+            builder.sum(
+                builder.prod(SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "title"), TITLE_MATCH_WEIGHT),
+                builder.prod(SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "artist"), ARTIST_MATCH_WEIGHT)
+            ),
+            builder.prod(SearchHelper.buildSimilarityExpression(builder, root, searchQuery, "description"), DESCRIPTION_MATCH_WEIGHT)
         );
     }
 
@@ -166,30 +376,25 @@ public class MonumentService extends ModelService<Monument> {
      * Creates a PostGIS ST_DWithin query on the Monument's point field and adds it to the specified CriteriaQuery
      * @param builder The CriteriaBuilder for the query
      * @param query The CriteriaQuery being created
-     * @param root The Root associated with the CriteriaQuery
+     * @param root The Root associated with the CriteriaQuery, or the Join to filter on instead
+     * @param parameters The QueryParameters to bind the comparison point and radius to
      * @param latitude The latitude of the point to compare to
      * @param longitude The longitude of the point to compare to
      * @param miles The number of miles from the comparison point to check
      * @param orderByDistance If true, results will be ordered by distance ascending
      */
-    private Predicate buildDWithinQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, Double latitude, Double longitude,
-                                        Double miles, Boolean orderByDistance) {
-        String comparisonPointAsString = "POINT(" + longitude + " " + latitude + ")";
+    private Predicate buildDWithinQuery(CriteriaBuilder builder, CriteriaQuery query, From root,
+                                        QueryParameters parameters, Double latitude, Double longitude, Double miles,
+                                        Boolean orderByDistance) {
         Double feet = miles * 5280;
 
-        Expression monumentCoordinates = builder.function("ST_Transform", Geometry.class, root.get("coordinates"),
-            builder.literal(feetSrid)
-        );
+        // projectedCoordinates is already in feetSrid, so the GiST index on it can be used to find the Monuments
+        // within the radius. Only the comparison point needs to be transformed, and that only happens once per query
+        Expression monumentCoordinates = root.get("projectedCoordinates");
 
-        Expression comparisonCoordinates = builder.function("ST_Transform", Geometry.class,
-            builder.function("ST_GeometryFromText", Geometry.class,
-                builder.literal(comparisonPointAsString),
-                builder.literal(coordinateSrid)
-            ),
-            builder.literal(feetSrid)
-        );
+        Expression comparisonCoordinates = this.buildProjectedPointExpression(builder, parameters, latitude, longitude);
 
-        Expression radius = builder.literal(feet);
+        Expression radius = parameters.bind(builder, Double.class, feet);
 
         if (orderByDistance) {
             query.orderBy(
@@ -208,17 +413,41 @@ public class MonumentService extends ModelService<Monument> {
      true);
     }
 
+    /**
+     * Build an Expression for the specified point, projected into feetSrid so that it can be compared against
+     * the Monument's projectedCoordinates
+     * @param builder The CriteriaBuilder for the query
+     * @param parameters The QueryParameters to bind the point to
+     * @param latitude The latitude of the point
+     * @param longitude The longitude of the point
+     * @return Expression - The point in feetSrid
+     */
+    private Expression buildProjectedPointExpression(CriteriaBuilder builder, QueryParameters parameters,
+                                                     Double latitude, Double longitude) {
+        String pointAsString = "POINT(" + longitude + " " + latitude + ")";
+
+        return builder.function("ST_Transform", Geometry.class,
+            builder.function("ST_GeometryFromText", Geometry.class,
+                parameters.bind(builder, String.class, pointAsString),
+                builder.literal(coordinateSrid)
+            ),
+            builder.literal(feetSrid)
+        );
+    }
+
     /**
      * Uses a sub-query on tags to create a filter on monuments so that only monuments with all the specified
      * tag names are returned
      * @param builder - The CriteriaBuilder to use to help build the CriteriaQuery
      * @param query - The CriteriaQuery to add the searching logic to
      * @param root - The Root to use with the CriteriaQuery
+     * @param parameters - The QueryParameters to bind the tag names to
      * @param tagNames - The list of tag names to filter by
      * @param isMaterial - If true, only materials will be returned. If false, NO materials will be returned
      */
     @SuppressWarnings("unchecked")
-    private Predicate buildTagsQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, List<String> tagNames, Boolean isMaterial) {
+    private Predicate buildTagsQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, QueryParameters parameters,
+                                     List<String> tagNames, Boolean isMaterial) {
         // Create a Sub-query for our Joins
         Subquery tagSubQuery = query.subquery(Long.class);
         Root tagRoot = tagSubQuery.from(Tag.class);
@@ -236,7 +465,9 @@ public class MonumentService extends ModelService<Monument> {
             builder.and(
                 builder.equal(root.get("id"), monuments.get("id")),
                 builder.and(
-                    tagRoot.get("name").in(tagNames),
+                    // Binding the whole List as one parameter keeps the query text the same no matter how many
+                    // tags are being filtered by
+                    tagRoot.get("name").in(parameters.bind(builder, List.class, tagNames)),
                     builder.equal(tagRoot.get("isMaterial"), isMaterial)
                 )
             )
@@ -251,8 +482,116 @@ public class MonumentService extends ModelService<Monument> {
             // Return the monuments who have at least the correct number of matching tags
             // If there are duplicate tags in the database then this logic is flawed, but the Tag model should already be
             // preventing those duplicates
-            return builder.greaterThanOrEqualTo(tagSubQuery, tagNames.size());
+            return builder.greaterThanOrEqualTo(tagSubQuery, parameters.bind(builder, Long.class, (long) tagNames.size()));
+        }
+    }
+
+    /**
+     * Create a filter on monuments so that only monuments with all the specified tag names and at least one of the
+     * specified material names are returned
+     * The matching monument IDs are looked up in the in-memory TagIndexService and bound to the query, as a single
+     * integer array parameter on Postgres, unless the search is running inside a transaction that may have changed
+     * tags the index has not seen yet, the index has not been built yet or there are too many matching IDs to bind. In
+     * those cases the tags are matched with the Tag and Material ID arrays of the monument_search table if it is being
+     * searched, or with sub-queries otherwise
+     * @param builder - The CriteriaBuilder to use to help build the CriteriaQuery
+     * @param query - The CriteriaQuery to add the searching logic to
+     * @param root - The Root to use with the CriteriaQuery
+     * @param document - The monument_search join of the root, or null if the search does not use it
+     * @param parameters - The QueryParameters to bind the monument IDs or tag names to
+     * @param tags - The list of tag names to filter by
+     * @param materials - The list of material names to filter by
+     */
+    @SuppressWarnings("unchecked")
+    private Predicate buildTagFiltersQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, Join document,
+                                          QueryParameters parameters, List<String> tags, List<String> materials) {
+        RoaringBitmap ids = null;
+        if (this.monumentSearchCacheService.canShareResults()) {
+            ids = this.tagIndexService.getMonumentIds(tags, materials);
+        }
+
+        if (ids != null && ids.getCardinality() <= maxTagFilterIds) {
+            if (ids.isEmpty()) {
+                return builder.disjunction();
+            }
+            return this.buildIdsPredicate(builder, root.get("id"), parameters, ids.toArray());
+        }
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (tags != null && tags.size() > 0) {
+            predicates.add(document != null
+                ? this.buildTagIdsQuery(builder, document, parameters, tags, false)
+                : this.buildTagsQuery(builder, query, root, parameters, tags, false));
+        }
+        if (materials != null && materials.size() > 0) {
+            predicates.add(document != null
+                ? this.buildTagIdsQuery(builder, document, parameters, materials, true)
+                : this.buildTagsQuery(builder, query, root, parameters, materials, true));
+        }
+        return builder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Create a filter so that only the rows whose ID expression is one of the specified IDs are returned
+     * On Postgres the IDs are bound as one array parameter, since a List is bound as one parameter per ID and the query
+     * text would then change with the number of IDs
+     * @param builder - The CriteriaBuilder to use to help build the Predicate
+     * @param id - The ID expression to filter, like root.get("id")
+     * @param parameters - The QueryParameters to bind the IDs to
+     * @param ids - The IDs to filter by. Must not be empty
+     * @return Predicate - Predicate that is true if the ID is one of the specified IDs
+     */
+    @SuppressWarnings("unchecked")
+    private Predicate buildIdsPredicate(CriteriaBuilder builder, Expression<Integer> id, QueryParameters parameters,
+                                        int[] ids) {
+        if (this.searchIndexService.isPostgres()) {
+            StringJoiner idArray = new StringJoiner(",", "{", "}");
+            for (int value : ids) {
+                idArray.add(Integer.toString(value));
+            }
+            return builder.isTrue(builder.function("int_in_array", Boolean.class, id,
+                parameters.bind(builder, String.class, idArray.toString())
+            ));
+        }
+
+        List<Integer> idList = new ArrayList<>(ids.length);
+        for (int value : ids) {
+            idList.add(value);
+        }
+        return id.in(parameters.bind(builder, List.class, idList));
+    }
+
+    /**
+     * Create a filter on the Tag or Material ID array of the monument_search table so that only monuments with all the
+     * specified tag names, or at least one of the specified material names, are returned
+     * The names are looked up first, so the filter can be answered from the GIN index on the array
+     * @param builder - The CriteriaBuilder to use to help build the CriteriaQuery
+     * @param document - The monument_search join to filter
+     * @param parameters - The QueryParameters to bind the tag IDs to
+     * @param tagNames - The list of tag names to filter by
+     * @param isMaterial - If true, the names are material names. If false, they are tag names
+     */
+    private Predicate buildTagIdsQuery(CriteriaBuilder builder, Join document, QueryParameters parameters,
+                                       List<String> tagNames, boolean isMaterial) {
+        Set<String> foundNames = new HashSet<>();
+        List<String> tagIds = new ArrayList<>();
+        for (Tag tag : this.tagRepository.getAllByNameIn(tagNames)) {
+            if (isMaterial == Boolean.TRUE.equals(tag.getIsMaterial())) {
+                foundNames.add(tag.getName());
+                tagIds.add(tag.getId().toString());
+            }
         }
+
+        // A monument can not have a tag that does not exist, or any material if none of them exist
+        if (tagIds.isEmpty() || (!isMaterial && !foundNames.containsAll(tagNames))) {
+            return builder.disjunction();
+        }
+
+        return builder.isTrue(builder.function(isMaterial ? "int_array_overlaps" : "int_array_contains",
+            Boolean.class,
+            document.get(isMaterial ? "materialIds" : "tagIds"),
+            parameters.bind(builder, String.class, "{" + String.join(",", tagIds) + "}")
+        ));
     }
 
     /**
@@ -260,6 +599,7 @@ public class MonumentService extends ModelService<Monument> {
      * @param builder - The CriteriaBuilder to use to help build the CriteriaQuery
      * @param query - The CriteriaQuery to add the searching logic to
      * @param root - The Root to use with the CriteriaQuery
+     * @param parameters - The QueryParameters that collects every user-supplied value so it can be bound to the query
      * @param searchQuery - The String search query that will get passed into the pg_tgrm similarity function
      * @param threshold - The threshold (0-1) to limit the results by in the pg_tgrm similary function.
      *                  You can learn about this score at https://www.postgresql.org/docs/9.6/pgtrgm.html
@@ -274,131 +614,1239 @@ public class MonumentService extends ModelService<Monument> {
      * @param decade - The decade to filter monuments by
      * @param onlyActive - If true, only active monuments will be searched. If false, both active and inactive will be searched
      * @param hideTemporary - If true, search only permanent monuments. If false, search both temporary and permanent monuments
+     * @return From - The monument_search join that the filters were made on, or the root if they were made on the
+     * Monument
      */
-    private void buildSearchQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, String searchQuery,
-                                  Double threshold, Double latitude, Double longitude, Double distance, String state,
+    private From buildSearchQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, QueryParameters parameters,
+                                  String searchQuery, Double threshold, Double latitude, Double longitude, Double distance, String state,
                                   List<String> tags, List<String> materials, SortType sortType, Date start, Date end,
                                   Integer decade, boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
 
-        List<Predicate> predicates = new ArrayList<>();
+        List<Predicate> predicates = new ArrayList<>();
+
+        // The monument_search row of each Monument has everything but the state and exact dates to filter on, with an
+        // index for each, so the filters are made on it alone. Every Monument has a row, inserted in the same statement
+        // as the Monument and backfilled by SearchIndexService, so it is inner joined by its primary key
+        Join document = this.canSearchDocuments() ? root.join("searchDocuments") : null;
+        From from = document != null ? document : root;
+
+        if (onlyActive) {
+            predicates.add(builder.equal(from.get("isActive"), builder.literal(true)));
+        }
+
+        if (hideTemporary) {
+            predicates.add(builder.or(builder.isFalse(from.get("isTemporary")), builder.isNull(from.get("isTemporary"))));
+        }
+        boolean sortByRelevance = false;
+        boolean sortByDistance = false;
+
+        switch (sortType) {
+            case NEWEST:
+                this.sortByDate(builder, query, root, true);
+                break;
+            case OLDEST:
+                this.sortByDate(builder, query, root, false);
+                break;
+            case DISTANCE:
+                sortByDistance = true;
+                break;
+            case RELEVANCE:
+                sortByRelevance = true;
+                break;
+        }
+
+        if (!isNullOrEmpty(searchQuery)) {
+            predicates.add(this.buildSimilarityQuery(builder, query, from, parameters, searchQuery, threshold,
+                sortByRelevance));
+        }
+
+        if(state != null && distance < 0) {
+            predicates.add(builder.equal(root.get("state"), parameters.bind(builder, String.class, state)));
+        } else if (latitude != null && longitude != null && distance != null && distance > 0) {
+            predicates.add(this.buildDWithinQuery(builder, query, from, parameters, latitude, longitude, distance,
+                sortByDistance));
+        }
+
+        if ((tags != null && tags.size() > 0) || (materials != null && materials.size() > 0)) {
+            predicates.add(this.buildTagFiltersQuery(builder, query, root, document, parameters, tags, materials));
+        }
+
+        if (start != null && end != null) {
+            predicates.add(this.buildDateRangeQuery(builder, root, parameters, start, end));
+        } else if (decade != null && decade > 0 && document != null) {
+            predicates.add(builder.between(document.get("dateYear"), parameters.bind(builder, Integer.class, decade),
+                parameters.bind(builder, Integer.class, decade + 9)));
+        } else if (decade != null) {
+            predicates.add(this.buildDecadeQuery(builder, root, parameters, decade));
+        } else if (activeEnd != null) {
+            predicates.add(this.buildActiveDateRangeQuery(builder, root, parameters, activeStart, activeEnd));
+        }
+
+        SearchHelper.executeQueryWithPredicates(builder, query, predicates);
+        return from;
+    }
+
+    /**
+     * @return boolean - True if searches should filter on the monument_search table, False if they should filter on
+     * the monument table
+     */
+    private boolean canSearchDocuments() {
+        return this.useSearchDocuments && this.searchIndexService.isSearchDocumentsReady();
+    }
+
+    /**
+     * Generates a search for Monuments based on matching the specified parameters
+     * May make use of the pg_trgm similarity or postgis ST_DWithin functions
+     * @param searchQuery - The string search query that will get passed into the pg_tgrm similarity function
+     * @param page - The page number of Monument results to return
+     * @param limit - The maximum number of Monument results to return
+     * @param threshold - The threshold (0-1) to limit the results by for th pg_tgrm similarity function
+     *                  You can learn about this score at https://www.postgresql.org/docs/9.6/pgtrgm.html
+     * @param latitude - The latitude of the comparison point
+     * @param longitude - The longitude of the comparison point
+     * @param distance - The distance from the comparison point to search in, units of miles
+     * @param tags - List of tag names to search by
+     * @param materials - List of material tag names to search by
+     * @param sortType - The way in which to sort the results by
+     * @param start - The start date to filter monuments by
+     * @param end - The end date to filter monuments by
+     * @param decade - The decade to filter monuments by
+     * @param onlyActive - If true, only active monuments will be searched. If false, both active and inactive will be searched
+     * @param hideTemporary - If true, search only permanent monuments. If false, search both temporary and permanent monuments
+     * @return List<Monument> - List of Monument results based on the specified search parameters
+     */
+    public List<Monument> search(String searchQuery, String page, String limit, Double threshold, Double latitude,
+                                 Double longitude, Double distance, String state, List<String> tags,
+                                 List<String> materials, SortType sortType, Date start, Date end, Integer decade,
+                                 boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+        if (this.getSearchEngine(activeEnd) != this) {
+            return this.getMonumentsByIds(this.getSearchIds(
+                searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+                start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            ));
+        }
+
+        String cacheKey = this.createSearchCacheKey(
+            searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+            start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+        Supplier<List<Monument>> searchMonuments = () -> this.runSearch(searchQuery, () -> {
+            List<Monument> monuments = this.createSearchQuery(
+                searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+                start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            ).getResultList();
+            this.loadLazyLoadedCollections(monuments);
+            return monuments;
+        });
+
+        if (cacheKey == null) {
+            return searchMonuments.get();
+        }
+
+        List<Integer> cachedIds = this.monumentSearchCacheService.getIds(cacheKey);
+        if (cachedIds != null) {
+            return this.getMonumentsByIds(cachedIds);
+        }
+
+        // Identical searches that are running at the same time share one query. Only the IDs are shared, since the
+        // Monuments belong to the persistence context of the thread that loaded them
+        List<Monument> ownMonuments = new ArrayList<>();
+        SingleFlight.Result<List<Integer>> ids = this.monumentSearchCacheService.coalesce("ids:" + cacheKey, () -> {
+            long cacheVersion = this.monumentSearchCacheService.getVersion();
+            ownMonuments.addAll(searchMonuments.get());
+            List<Integer> monumentIds = getIds(ownMonuments);
+            this.monumentSearchCacheService.putIds(cacheKey, monumentIds, cacheVersion);
+            return monumentIds;
+        });
+
+        if (!ids.isLeader()) {
+            return this.getMonumentsByIds(ids.getValue());
+        }
+        return ownMonuments;
+    }
+
+    /**
+     * Create the key that a page of search results is cached under
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return String - The cache key, or null if search results can not be cached right now
+     */
+    private String createSearchCacheKey(String searchQuery, String page, String limit, Double threshold,
+                                        Double latitude, Double longitude, Double distance, String state,
+                                        List<String> tags, List<String> materials, SortType sortType, Date start,
+                                        Date end, Integer decade, boolean onlyActive, Integer activeStart,
+                                        Integer activeEnd, Boolean hideTemporary) {
+        String countCacheKey = this.createCountCacheKey(
+            searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+            activeStart, activeEnd, hideTemporary
+        );
+        if (countCacheKey == null) {
+            return null;
+        }
+        return countCacheKey + "|" + MonumentSearchCacheService.createKey(page, limit, threshold, sortType);
+    }
+
+    /**
+     * Create the key that the total number of results of a search is cached under
+     * @see MonumentService#countSearchResults(String, Double, Double, Double, String, List, List, Date, Date, Integer,
+     * boolean, Integer, Integer, Boolean)
+     * @return String - The cache key, or null if search results can not be cached right now
+     */
+    private String createCountCacheKey(String searchQuery, Double latitude, Double longitude, Double distance,
+                                       String state, List<String> tags, List<String> materials, Date start, Date end,
+                                       Integer decade, boolean onlyActive, Integer activeStart, Integer activeEnd,
+                                       Boolean hideTemporary) {
+        if (!this.monumentSearchCacheService.canShareResults()) {
+            return null;
+        }
+        return MonumentSearchCacheService.createKey(
+            MonumentSearchCacheService.normalizeSearchText(searchQuery), latitude, longitude, distance, state, tags,
+            materials, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+    }
+
+    /**
+     * Get the Monuments with the specified IDs in the same order as the IDs, with their lazy-loaded collections loaded
+     * Any IDs that no longer exist are skipped
+     * @param ids - The IDs of the Monuments to get
+     * @return List<Monument> - The Monuments with the specified IDs
+     */
+    private List<Monument> getMonumentsByIds(List<Integer> ids) {
+        Map<Integer, Monument> monumentsById = new HashMap<>();
+        for (Monument monument : this.monumentRepository.findAllById(ids)) {
+            monumentsById.put(monument.getId(), monument);
+        }
+
+        List<Monument> monuments = new ArrayList<>();
+        for (Integer id : ids) {
+            Monument monument = monumentsById.get(id);
+            if (monument != null) {
+                monuments.add(monument);
+            }
+        }
+
+        this.loadLazyLoadedCollections(monuments);
+        return monuments;
+    }
+
+    /**
+     * Generates a search for Monuments that returns MonumentSummaries instead of full Monuments
+     * Only the IDs of the matching Monuments are selected, and the summaries are then read with two queries for the
+     * whole page, so no Monument is loaded into the persistence context. The IDs share the search cache with search
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return List<MonumentSummary> - Summaries of the page of Monument results, in the same order as search
+     */
+    public List<MonumentSummary> searchSummaries(String searchQuery, String page, String limit, Double threshold,
+                                                 Double latitude, Double longitude, Double distance, String state,
+                                                 List<String> tags, List<String> materials, SortType sortType,
+                                                 Date start, Date end, Integer decade, boolean onlyActive,
+                                                 Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+        return this.getMonumentSummaries(this.getSearchIds(
+            searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+            start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        ));
+    }
+
+    /**
+     * Get the IDs of a page of Monument search results from the search cache, or from the MonumentSearchEngine that
+     * the search should be run with
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return List<Integer> - The IDs of the page of Monument results, in the same order as search
+     */
+    private List<Integer> getSearchIds(String searchQuery, String page, String limit, Double threshold,
+                                       Double latitude, Double longitude, Double distance, String state,
+                                       List<String> tags, List<String> materials, SortType sortType, Date start,
+                                       Date end, Integer decade, boolean onlyActive, Integer activeStart,
+                                       Integer activeEnd, Boolean hideTemporary) {
+        Supplier<List<Integer>> search = () -> this.getSearchEngine(activeEnd).searchMonumentIds(
+            searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+            start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+
+        String cacheKey = this.createSearchCacheKey(
+            searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+            start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+        if (cacheKey == null) {
+            return search.get();
+        }
+
+        List<Integer> ids = this.monumentSearchCacheService.getIds(cacheKey);
+        if (ids == null) {
+            ids = this.monumentSearchCacheService.coalesce("ids:" + cacheKey, () -> {
+                long cacheVersion = this.monumentSearchCacheService.getVersion();
+                List<Integer> monumentIds = search.get();
+                this.monumentSearchCacheService.putIds(cacheKey, monumentIds, cacheVersion);
+                return monumentIds;
+            }).getValue();
+        }
+        return ids;
+    }
+
+    /**
+     * Get the MonumentSearchEngine that a search should be run with. This is LuceneMonumentSearchEngine when it is
+     * enabled and its index has been built, unless the search is by active date range, which it does not support, or
+     * is running inside a transaction, whose changes are not in the index yet. Otherwise it is this class' SQL search
+     * @param activeEnd - The end of the active date range the search is by, if any
+     * @return MonumentSearchEngine - The MonumentSearchEngine to run the search with
+     */
+    private MonumentSearchEngine getSearchEngine(Integer activeEnd) {
+        if (activeEnd == null && this.luceneMonumentSearchEngine.isReady() &&
+            this.monumentSearchCacheService.canShareResults()) {
+            return this.luceneMonumentSearchEngine;
+        }
+        return this;
+    }
+
+    /**
+     * Get the IDs of a page of Monument search results with SQL
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     */
+    @Override
+    public List<Integer> searchMonumentIds(String searchQuery, String page, String limit, Double threshold,
+                                           Double latitude, Double longitude, Double distance, String state,
+                                           List<String> tags, List<String> materials, SortType sortType, Date start,
+                                           Date end, Integer decade, boolean onlyActive, Integer activeStart,
+                                           Integer activeEnd, Boolean hideTemporary) {
+        return this.runSearch(searchQuery, () -> {
+            CriteriaBuilder builder = this.getCriteriaBuilder();
+            CriteriaQuery<Integer> query = builder.createQuery(Integer.class);
+            Root<Monument> root = query.from(Monument.class);
+            query.select(root.<Integer>get("id"));
+            QueryParameters parameters = new QueryParameters();
+
+            this.buildSearchQuery(
+                builder, query, root, parameters, searchQuery, threshold, latitude, longitude, distance, state, tags,
+                materials, sortType, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+
+            return this.applySearchPage(
+                parameters.applyTo(this.getEntityManager().createQuery(query)), page, limit
+            ).getResultList();
+        });
+    }
+
+    /**
+     * Get the MonumentSummaries of the Monuments with the specified IDs, in the same order as the IDs
+     * The summaries are read with one query for the Monuments and their primary Images and one for their Tags, without
+     * loading any entities. Any IDs that no longer exist are skipped
+     * @param ids - The IDs of the Monuments to get the summaries of
+     * @return List<MonumentSummary> - The summaries of the Monuments with the specified IDs
+     */
+    public List<MonumentSummary> getMonumentSummaries(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, MonumentSummary> summariesById = new HashMap<>();
+        for (MonumentSummary summary : this.monumentRepository.getMonumentSummaries(ids)) {
+            summariesById.putIfAbsent(summary.getId(), summary);
+        }
+
+        for (Tuple tagName : this.monumentTagRepository.getTagNamesByMonumentIds(ids)) {
+            MonumentSummary summary = summariesById.get(tagName.get("monumentId", Integer.class));
+            if (summary == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(tagName.get("isMaterial", Boolean.class))) {
+                summary.getMaterials().add(tagName.get("name", String.class));
+            } else {
+                summary.getTags().add(tagName.get("name", String.class));
+            }
+        }
+
+        List<MonumentSummary> summaries = new ArrayList<>();
+        for (Integer id : ids) {
+            MonumentSummary summary = summariesById.get(id);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    private static List<Integer> getIds(List<Monument> monuments) {
+        return monuments.stream().map(Monument::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Build the query used by search, with every user-supplied value bound as a parameter
+     * Because nothing the user types ends up in the query text, every search with the same combination of filters
+     * produces the same HQL and SQL, so Hibernate's query plan cache and Postgres' prepared statements are re-used
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return TypedQuery<Monument> - The query for the specified search parameters, ready to be executed
+     */
+    public TypedQuery<Monument> createSearchQuery(String searchQuery, String page, String limit, Double threshold,
+                                                  Double latitude, Double longitude, Double distance, String state,
+                                                  List<String> tags, List<String> materials, SortType sortType,
+                                                  Date start, Date end, Integer decade, boolean onlyActive,
+                                                  Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+        return this.createSearchQuery(
+            new QueryParameters(), searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags,
+            materials, sortType, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+    }
+
+    /**
+     * Build the query used by search, with the user-supplied values bound by the specified QueryParameters
+     * @see MonumentService#createSearchQuery(String, String, String, Double, Double, Double, Double, String, List, List,
+     * SortType, Date, Date, Integer, boolean, Integer, Integer, Boolean)
+     * @param parameters - The QueryParameters to bind the values with. QueryParameters.inlining() builds the query the
+     *                   way it was built before its values were bound
+     * @return TypedQuery<Monument> - The query for the specified search parameters, ready to be executed
+     */
+    public TypedQuery<Monument> createSearchQuery(QueryParameters parameters, String searchQuery, String page,
+                                                  String limit, Double threshold, Double latitude, Double longitude,
+                                                  Double distance, String state, List<String> tags,
+                                                  List<String> materials, SortType sortType, Date start, Date end,
+                                                  Integer decade, boolean onlyActive, Integer activeStart,
+                                                  Integer activeEnd, Boolean hideTemporary) {
+        CriteriaBuilder builder = this.getCriteriaBuilder();
+        CriteriaQuery<Monument> query = this.createCriteriaQuery(builder, false);
+        Root<Monument> root = this.createRoot(query);
+        query.select(root);
+
+        this.buildSearchQuery(
+            builder, query, root, parameters, searchQuery, threshold, latitude, longitude, distance, state, tags,
+            materials, sortType, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+
+        return this.applySearchPage(parameters.applyTo(this.getEntityManager().createQuery(query)), page, limit);
+    }
+
+    /**
+     * Limit a search query to the specified page of results
+     * @param typedQuery - The search query to limit
+     * @param page - The page number of results to return
+     * @param limit - The maximum number of results to return
+     * @return The same TypedQuery, for chaining
+     */
+    private <Q extends TypedQuery<?>> Q applySearchPage(Q typedQuery, String page, String limit) {
+        if (limit != null) {
+            int limitInt = Integer.parseInt(limit);
+            typedQuery.setMaxResults(limitInt);
+            if (page != null) {
+                typedQuery.setFirstResult((Integer.parseInt(page) - 1) * limitInt);
+            }
+        }
+        return typedQuery;
+    }
+
+    /**
+     * Generates a search for Monuments and counts the total number of results in the same query
+     * On Postgres the total comes from a count(*) over () window aggregate that is computed from the same rows as the
+     * page, so the similarity and spatial filters are only evaluated once. Other databases fall back to running the
+     * search and countSearchResults separately
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return MonumentSearchPage - The page of Monument results and the total number of results
+     */
+    public MonumentSearchPage searchWithCount(String searchQuery, String page, String limit, Double threshold,
+                                              Double latitude, Double longitude, Double distance, String state,
+                                              List<String> tags, List<String> materials, SortType sortType, Date start,
+                                              Date end, Integer decade, boolean onlyActive, Integer activeStart,
+                                              Integer activeEnd, Boolean hideTemporary) {
+        if (!this.searchIndexService.isPostgres() || this.getSearchEngine(activeEnd) != this) {
+            List<Monument> monuments = this.search(
+                searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+                start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+            Integer count = this.countSearchResults(
+                searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+                activeStart, activeEnd, hideTemporary
+            );
+            return new MonumentSearchPage(monuments, count);
+        }
+
+        String cacheKey = this.createSearchCacheKey(
+            searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+            start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+        String countCacheKey = this.createCountCacheKey(
+            searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+            activeStart, activeEnd, hideTemporary
+        );
+        if (cacheKey == null) {
+            return this.searchWithWindowCount(
+                searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials, sortType,
+                start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+        }
+
+        List<Integer> cachedIds = this.monumentSearchCacheService.getIds(cacheKey);
+        Integer cachedCount = cachedIds == null ? null : this.monumentSearchCacheService.getCount(countCacheKey);
+        if (cachedCount != null) {
+            return new MonumentSearchPage(this.getMonumentsByIds(cachedIds), cachedCount);
+        }
+
+        // Identical searches that are running at the same time share one query, see search
+        List<Monument> ownMonuments = new ArrayList<>();
+        SingleFlight.Result<Map.Entry<List<Integer>, Integer>> idsAndCount = this.monumentSearchCacheService.coalesce(
+            "idsAndCount:" + cacheKey, () -> {
+                long cacheVersion = this.monumentSearchCacheService.getVersion();
+                MonumentSearchPage results = this.searchWithWindowCount(
+                    searchQuery, page, limit, threshold, latitude, longitude, distance, state, tags, materials,
+                    sortType, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+                );
+                ownMonuments.addAll(results.getMonuments());
+                List<Integer> ids = getIds(results.getMonuments());
+                this.monumentSearchCacheService.putIds(cacheKey, ids, cacheVersion);
+                this.monumentSearchCacheService.putCount(countCacheKey, results.getCount(), cacheVersion);
+                return new AbstractMap.SimpleImmutableEntry<>(ids, results.getCount());
+            }
+        );
+
+        List<Monument> monuments = idsAndCount.isLeader() ? ownMonuments :
+            this.getMonumentsByIds(idsAndCount.getValue().getKey());
+        return new MonumentSearchPage(monuments, idsAndCount.getValue().getValue());
+    }
+
+    /**
+     * Run a search with a count(*) over () window aggregate for the total number of results. Only supported by Postgres
+     * @see MonumentService#searchWithCount(String, String, String, Double, Double, Double, Double, String, List, List,
+     * SortType, Date, Date, Integer, boolean, Integer, Integer, Boolean)
+     */
+    private MonumentSearchPage searchWithWindowCount(String searchQuery, String page, String limit, Double threshold,
+                                                     Double latitude, Double longitude, Double distance, String state,
+                                                     List<String> tags, List<String> materials, SortType sortType,
+                                                     Date start, Date end, Integer decade, boolean onlyActive,
+                                                     Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+        return this.runSearch(searchQuery, () -> {
+            CriteriaBuilder builder = this.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = builder.createTupleQuery();
+            Root<Monument> root = query.from(Monument.class);
+            query.multiselect(root, builder.function("count_over", Long.class));
+            QueryParameters parameters = new QueryParameters();
+
+            this.buildSearchQuery(
+                builder, query, root, parameters, searchQuery, threshold, latitude, longitude, distance, state, tags,
+                materials, sortType, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+
+            List<Tuple> results = this.applySearchPage(
+                parameters.applyTo(this.getEntityManager().createQuery(query)), page, limit
+            ).getResultList();
+
+            List<Monument> monuments = new ArrayList<>();
+            for (Tuple result : results) {
+                monuments.add(result.get(0, Monument.class));
+            }
+            this.loadLazyLoadedCollections(monuments);
+
+            Integer count;
+            if (!results.isEmpty()) {
+                count = ((Number) results.get(0).get(1)).intValue();
+            } else if (page == null || Integer.parseInt(page) <= 1) {
+                count = 0;
+            } else {
+                // A page past the last result has no rows to read the total from
+                count = this.countSearchResults(
+                    searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+                    activeStart, activeEnd, hideTemporary
+                );
+            }
+
+            return new MonumentSearchPage(monuments, count);
+        });
+    }
+
+    /**
+     * Generates one page of a search for Monuments, using keyset (cursor) pagination instead of page numbers
+     * Results are ordered by the sort key of the sortType and then by ID, and each page asks for the results that sort
+     * after the sort key and ID of the last result of the previous page. The sort keys are chosen so that the database
+     * can start reading at the cursor instead of finding and sorting every earlier result:
+     * NEWEST and OLDEST are ordered by (date, id), which the monument_date_id_idx index is in the order of. Undated
+     * Monuments are read separately by ID, after the dated ones when sorting by oldest and before them when sorting by
+     * newest, so that no null has to be compared to the cursor
+     * DISTANCE is ordered by the PostGIS <-> operator, so the GiST index on projected_coordinates is walked in distance
+     * order from the search point, the same as findNearestMonuments
+     * RELEVANCE is ordered by score and ID. No index is in the order of the score, so it is only computed for the
+     * candidates that the trigram indexes find for the search text and only those are sorted, see buildScorePredicate
+     * @param cursor - The next cursor of the previous page, or null to get the first page
+     * @param limit - The maximum number of Monument results to return
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return MonumentSearchPage - The page of Monument results and the cursor for the next page
+     * @throws IllegalArgumentException - If the cursor is not valid for the specified search
+     */
+    public MonumentSearchPage searchAfter(String searchQuery, String cursor, int limit, Double threshold, Double latitude,
+                                          Double longitude, Double distance, String state, List<String> tags,
+                                          List<String> materials, SortType sortType, Date start, Date end,
+                                          Integer decade, boolean onlyActive, Integer activeStart, Integer activeEnd,
+                                          Boolean hideTemporary) {
+        return this.runSearch(searchQuery, () -> {
+            SearchCursor after = cursor == null ? null : SearchCursor.decode(cursor, sortType.name());
+
+            // Get one extra result to find out if there is another page
+            List<Tuple> results;
+            if (sortType != SortType.NEWEST && sortType != SortType.OLDEST) {
+                results = this.findSearchResultsAfter(
+                    searchQuery, after, limit + 1, null, threshold, latitude, longitude, distance, state, tags,
+                    materials, sortType, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+                );
+            } else {
+                // Undated Monuments come first when sorting by newest and last when sorting by oldest. A cursor on an
+                // undated Monument has no sort key
+                boolean datedFirst = sortType == SortType.OLDEST;
+                boolean afterFirst = after == null || (after.getSortKey() != null) == datedFirst;
+
+                results = new ArrayList<>();
+                if (afterFirst) {
+                    results.addAll(this.findSearchResultsAfter(
+                        searchQuery, after, limit + 1, datedFirst, threshold, latitude, longitude, distance, state,
+                        tags, materials, sortType, start, end, decade, onlyActive, activeStart, activeEnd,
+                        hideTemporary
+                    ));
+                }
+                if (results.size() <= limit) {
+                    results.addAll(this.findSearchResultsAfter(
+                        searchQuery, afterFirst ? null : after, limit + 1 - results.size(), !datedFirst, threshold,
+                        latitude, longitude, distance, state, tags, materials, sortType, start, end, decade,
+                        onlyActive, activeStart, activeEnd, hideTemporary
+                    ));
+                }
+            }
+
+            boolean hasNext = results.size() > limit;
+            if (hasNext) {
+                results = results.subList(0, limit);
+            }
+
+            List<Monument> monuments = new ArrayList<>();
+            for (Tuple result : results) {
+                monuments.add(result.get(0, Monument.class));
+            }
+            this.loadLazyLoadedCollections(monuments);
+
+            String next = null;
+            if (hasNext) {
+                Tuple last = results.get(results.size() - 1);
+                Double lastSortKey = null;
+                if (last.toArray().length > 1) {
+                    Object value = last.get(1);
+                    lastSortKey = value instanceof Date ? (double) ((Date) value).getTime() : ((Number) value).doubleValue();
+                }
+                next = new SearchCursor(sortType.name(), lastSortKey, last.get(0, Monument.class).getId()).encode();
+            }
+
+            return new MonumentSearchPage(monuments, next, null);
+        });
+    }
 
-        if (onlyActive) {
-            predicates.add(builder.equal(root.get("isActive"), builder.literal(true)));
-        }
+    /**
+     * Get the Monument search results that sort after the specified cursor, with the sort key of each
+     * @param after - The cursor to start after, or null to start at the first result
+     * @param maxResults - The maximum number of results to return
+     * @param dated - For NEWEST and OLDEST, true to get only the dated Monuments ordered by (date, id) and false to get
+     *              only the undated Monuments ordered by ID. Ignored for the other sort types
+     * @see MonumentService#searchAfter(String, String, int, Double, Double, Double, Double, String, List, List, SortType,
+     * Date, Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return List<Tuple> - The Monument of each result, followed by its sort key if the results have one
+     * @throws IllegalArgumentException - If the cursor is not valid for the specified search
+     */
+    @SuppressWarnings("unchecked")
+    private List<Tuple> findSearchResultsAfter(String searchQuery, SearchCursor after, int maxResults, Boolean dated,
+                                               Double threshold, Double latitude, Double longitude, Double distance,
+                                               String state, List<String> tags, List<String> materials,
+                                               SortType sortType, Date start, Date end, Integer decade,
+                                               boolean onlyActive, Integer activeStart, Integer activeEnd,
+                                               Boolean hideTemporary) {
+        CriteriaBuilder builder = this.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Monument> root = query.from(Monument.class);
+        QueryParameters parameters = new QueryParameters();
 
-        if (hideTemporary) {
-            predicates.add(builder.or(builder.isFalse(root.get("isTemporary")), builder.isNull(root.get("isTemporary"))));
+        // Only the filters are built here, the ordering is replaced with the keyset ordering below
+        From from = this.buildSearchQuery(
+            builder, query, root, parameters, searchQuery, threshold, latitude, longitude, distance, state, tags,
+            materials, SortType.NONE, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        );
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getRestriction() != null) {
+            predicates.add(query.getRestriction());
         }
-        boolean sortByRelevance = false;
-        boolean sortByDistance = false;
 
+        Expression sortKey = null;
+        Expression lastSortKey = null;
+        boolean descending = false;
         switch (sortType) {
-            case NEWEST:
-                this.sortByDate(builder, query, root, true);
-                break;
-            case OLDEST:
-                this.sortByDate(builder, query, root, false);
+            case RELEVANCE:
+                if (!isNullOrEmpty(searchQuery)) {
+                    // Relevance is computed from the same text that the search was filtered on
+                    Expression<String> searchQueryParameter = this.bindSearchQuery(builder, from, parameters,
+                        searchQuery);
+                    sortKey = builder.function("floor", Double.class,
+                        builder.prod(this.buildRelevanceExpression(builder, from, searchQueryParameter),
+                            relevanceSortKeyScale)
+                    );
+                    descending = true;
+                }
                 break;
             case DISTANCE:
-                sortByDistance = true;
+                if (latitude != null && longitude != null && distance != null && distance > 0) {
+                    // The same column and point as the ST_DWithin filter, so one GiST index scan serves both
+                    sortKey = builder.function("knn_distance", Double.class,
+                        from.get("projectedCoordinates"),
+                        this.buildProjectedPointExpression(builder, parameters, latitude, longitude)
+                    );
+                }
                 break;
-            case RELEVANCE:
-                sortByRelevance = true;
+            case NEWEST:
+            case OLDEST:
+                descending = sortType == SortType.NEWEST;
+                if (dated) {
+                    sortKey = root.get("date");
+                    predicates.add(builder.isNotNull(sortKey));
+                } else {
+                    predicates.add(builder.isNull(root.get("date")));
+                }
+                if (after != null && after.getSortKey() != null) {
+                    lastSortKey = parameters.bind(builder, Date.class, new Date(after.getSortKey().longValue()));
+                }
                 break;
         }
 
-        if (!isNullOrEmpty(searchQuery)) {
-            predicates.add(this.buildSimilarityQuery(builder, query, root, searchQuery, threshold, sortByRelevance));
+        // The ID is ordered in the same direction as the sort key, so that the (date, id) index can be read backwards
+        // when sorting by newest
+        Expression<Integer> id = root.get("id");
+        if (after != null) {
+            Expression<Integer> lastId = parameters.bind(builder, Integer.class, after.getId());
+            Predicate afterId = descending ? builder.lessThan(id, lastId) : builder.greaterThan(id, lastId);
+            if (sortKey == null) {
+                predicates.add(afterId);
+            } else {
+                if (after.getSortKey() == null) {
+                    throw new IllegalArgumentException("Cursor is not valid for this search");
+                }
+                if (lastSortKey == null) {
+                    lastSortKey = parameters.bind(builder, Double.class, after.getSortKey());
+                }
+                // The inclusive bound on the sort key alone is what lets the index scan start at the cursor, the rest
+                // skips the results with the same sort key that were already returned
+                predicates.add(descending
+                    ? builder.lessThanOrEqualTo(sortKey, lastSortKey)
+                    : builder.greaterThanOrEqualTo(sortKey, lastSortKey));
+                predicates.add(builder.or(
+                    descending ? builder.lessThan(sortKey, lastSortKey) : builder.greaterThan(sortKey, lastSortKey),
+                    afterId
+                ));
+            }
         }
+        SearchHelper.executeQueryWithPredicates(builder, query, predicates);
 
-        if(state != null && distance < 0) {
-            predicates.add(builder.equal(root.get("state"), state));
-        } else if (latitude != null && longitude != null && distance != null && distance > 0) {
-            predicates.add(this.buildDWithinQuery(builder, query, root, latitude, longitude, distance, sortByDistance));
+        List<Order> orders = new ArrayList<>();
+        if (sortKey != null) {
+            orders.add(descending ? builder.desc(sortKey) : builder.asc(sortKey));
+        }
+        orders.add(descending ? builder.desc(id) : builder.asc(id));
+        query.orderBy(orders);
+        if (sortKey == null) {
+            query.multiselect(root);
+        } else {
+            query.multiselect(root, sortKey);
         }
 
-        if (tags != null && tags.size() > 0) {
-            predicates.add(this.buildTagsQuery(builder, query, root, tags, false));
+        return parameters.applyTo(this.getEntityManager().createQuery(query))
+            .setMaxResults(maxResults)
+            .getResultList();
+    }
+
+    /**
+     * Count the total number of results for a Monument search
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     */
+    public Integer countSearchResults(String searchQuery, Double latitude, Double longitude, Double distance, String state,
+                                      List<String> tags, List<String> materials, Date start, Date end, Integer decade,
+                                      boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+        String cacheKey = this.createCountCacheKey(
+            searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+            activeStart, activeEnd, hideTemporary
+        );
+        Supplier<Integer> count = () -> this.getSearchEngine(activeEnd).countMonuments(
+            searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+            activeStart, activeEnd, hideTemporary
+        );
+
+        if (cacheKey == null) {
+            return count.get();
         }
 
-        if (materials != null && materials.size() > 0) {
-            predicates.add(this.buildTagsQuery(builder, query, root, materials, true));
+        Integer cachedCount = this.monumentSearchCacheService.getCount(cacheKey);
+        if (cachedCount != null) {
+            return cachedCount;
         }
 
-        if (start != null && end != null) {
-            predicates.add(this.buildDateRangeQuery(builder, root, start, end));
-        } else if (decade != null) {
-            predicates.add(this.buildDecadeQuery(builder, root, decade));
-        } else if (activeEnd != null) {
-            predicates.add(this.buildActiveDateRangeQuery(builder, root, activeStart, activeEnd));
+        // Identical counts that are running at the same time share one query
+        return this.monumentSearchCacheService.coalesce("count:" + cacheKey, () -> {
+            long cacheVersion = this.monumentSearchCacheService.getVersion();
+            Integer total = count.get();
+            this.monumentSearchCacheService.putCount(cacheKey, total, cacheVersion);
+            return total;
+        }).getValue();
+    }
+
+    /**
+     * Count the total number of results for a Monument search with SQL
+     * @see MonumentService#countSearchResults(String, Double, Double, Double, String, List, List, Date, Date, Integer,
+     * boolean, Integer, Integer, Boolean)
+     */
+    @Override
+    public Integer countMonuments(String searchQuery, Double latitude, Double longitude, Double distance, String state,
+                                  List<String> tags, List<String> materials, Date start, Date end, Integer decade,
+                                  boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+        return this.runSearch(searchQuery, () -> {
+            CriteriaBuilder builder = this.getCriteriaBuilder();
+            CriteriaQuery<Long> query = builder.createQuery(Long.class);
+            Root<Monument> root = query.from(Monument.class);
+            query.select(builder.countDistinct(root));
+            QueryParameters parameters = new QueryParameters();
+
+            this.buildSearchQuery(
+                builder, query, root, parameters, searchQuery, 0.1, latitude, longitude, distance, state, tags, materials,
+                SortType.NONE, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+
+            return parameters.applyTo(this.getEntityManager().createQuery(query)).getSingleResult().intValue();
+        });
+    }
+
+    /**
+     * Count the number of results for a Monument search, exactly for narrow searches and approximately for broad ones
+     * First, up to exactCountLimit + 1 matching IDs are fetched, which stops as soon as that many are found. If there
+     * are no more than exactCountLimit, that is the exact count. Otherwise the IDs of the Monuments on a random sample
+     * of 1 in countSampleRate pages of the monument table are read with a native TABLESAMPLE SYSTEM query, only the
+     * sampled Monuments that match the search are counted and the result is scaled up, so the expensive similarity,
+     * distance and tag filters are only evaluated for the sampled Monuments
+     * Databases other than Postgres have no TABLESAMPLE, so there the sample is the whole table and the count is exact
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return MonumentSearchCount - The number of results and whether or not it is approximate
+     */
+    @SuppressWarnings("unchecked")
+    public MonumentSearchCount countSearchResultsApproximately(String searchQuery, Double latitude, Double longitude,
+                                                               Double distance, String state, List<String> tags,
+                                                               List<String> materials, Date start, Date end,
+                                                               Integer decade, boolean onlyActive, Integer activeStart,
+                                                               Integer activeEnd, Boolean hideTemporary) {
+        return this.runSearch(searchQuery, () -> {
+            CriteriaBuilder builder = this.getCriteriaBuilder();
+            CriteriaQuery<Integer> probeQuery = builder.createQuery(Integer.class);
+            Root<Monument> probeRoot = probeQuery.from(Monument.class);
+            probeQuery.select(probeRoot.<Integer>get("id"));
+            QueryParameters probeParameters = new QueryParameters();
+
+            this.buildSearchQuery(
+                builder, probeQuery, probeRoot, probeParameters, searchQuery, 0.1, latitude, longitude, distance, state,
+                tags, materials, SortType.NONE, start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+            );
+
+            int probeCount = probeParameters.applyTo(this.getEntityManager().createQuery(probeQuery))
+                .setMaxResults(this.exactCountLimit + 1)
+                .getResultList()
+                .size();
+            if (probeCount <= this.exactCountLimit) {
+                return new MonumentSearchCount(probeCount, false);
+            }
+
+            int[] sampleIds = null;
+            int sampleRate = 1;
+            if (this.searchIndexService.isPostgres()) {
+                sampleRate = this.countSampleRate;
+                List<Number> ids = this.getEntityManager().createNativeQuery(
+                    "SELECT id FROM monument TABLESAMPLE SYSTEM (cast(?1 as real))"
+                ).setParameter(1, 100.0 / sampleRate).getResultList();
+                sampleIds = ids.stream().mapToInt(Number::intValue).toArray();
+            }
+
+            long estimate = 0;
+            if (sampleIds == null || sampleIds.length > 0) {
+                CriteriaQuery<Long> sampleQuery = builder.createQuery(Long.class);
+                Root<Monument> sampleRoot = sampleQuery.from(Monument.class);
+                sampleQuery.select(builder.count(sampleRoot));
+                QueryParameters sampleParameters = new QueryParameters();
+
+                this.buildSearchQuery(
+                    builder, sampleQuery, sampleRoot, sampleParameters, searchQuery, 0.1, latitude, longitude, distance,
+                    state, tags, materials, SortType.NONE, start, end, decade, onlyActive, activeStart, activeEnd,
+                    hideTemporary
+                );
+                if (sampleIds != null) {
+                    Predicate sampled = this.buildIdsPredicate(builder, sampleRoot.get("id"), sampleParameters,
+                        sampleIds);
+                    Predicate restriction = sampleQuery.getRestriction();
+                    sampleQuery.where(restriction == null ? sampled : builder.and(restriction, sampled));
+                }
+
+                estimate = sampleParameters.applyTo(this.getEntityManager().createQuery(sampleQuery))
+                    .getSingleResult() * sampleRate;
+            }
+
+            // The probe already found more than exactCountLimit results, so the estimate can't be any lower than that
+            return new MonumentSearchCount((int) Math.max(estimate, this.exactCountLimit + 1), true);
+        });
+    }
+
+    /**
+     * Count the results of a Monument search for each state, decade, Tag and Material, so that the search filters can
+     * show how many results each of their values would have
+     * The search is run once to get the IDs, states and dates of its results, and the Tags and Materials are then
+     * counted over those IDs in one grouped statement, instead of searching again for them or once per filter value
+     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
+     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * @return MonumentSearchFacets - The number of results for each filter value
+     */
+    public MonumentSearchFacets countSearchFacets(String searchQuery, Double latitude, Double longitude, Double distance,
+                                                  String state, List<String> tags, List<String> materials, Date start,
+                                                  Date end, Integer decade, boolean onlyActive, Integer activeStart,
+                                                  Integer activeEnd, Boolean hideTemporary) {
+        // Facets change with exactly the same parameters as the total count, so they share its cache key
+        String cacheKey = this.createCountCacheKey(
+            searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+            activeStart, activeEnd, hideTemporary
+        );
+        Supplier<MonumentSearchFacets> facets = () -> this.countFacets(
+            searchQuery, latitude, longitude, distance, state, tags, materials, start, end, decade, onlyActive,
+            activeStart, activeEnd, hideTemporary
+        );
+
+        if (cacheKey == null) {
+            return facets.get();
         }
 
-        SearchHelper.executeQueryWithPredicates(builder, query, predicates);
+        MonumentSearchFacets cachedFacets = this.monumentSearchCacheService.getFacets(cacheKey);
+        if (cachedFacets != null) {
+            return cachedFacets;
+        }
+
+        return this.monumentSearchCacheService.coalesce("facets:" + cacheKey, () -> {
+            long cacheVersion = this.monumentSearchCacheService.getVersion();
+            MonumentSearchFacets result = facets.get();
+            this.monumentSearchCacheService.putFacets(cacheKey, result, cacheVersion);
+            return result;
+        }).getValue();
     }
 
     /**
-     * Generates a search for Monuments based on matching the specified parameters
-     * May make use of the pg_trgm similarity or postgis ST_DWithin functions
-     * @param searchQuery - The string search query that will get passed into the pg_tgrm similarity function
-     * @param page - The page number of Monument results to return
-     * @param limit - The maximum number of Monument results to return
-     * @param threshold - The threshold (0-1) to limit the results by for th pg_tgrm similarity function
-     *                  You can learn about this score at https://www.postgresql.org/docs/9.6/pgtrgm.html
+     * Count the results of a Monument search for each filter value with SQL
+     * @see MonumentService#countSearchFacets(String, Double, Double, Double, String, List, List, Date, Date, Integer,
+     * boolean, Integer, Integer, Boolean)
+     */
+    @SuppressWarnings("unchecked")
+    private MonumentSearchFacets countFacets(String searchQuery, Double latitude, Double longitude, Double distance,
+                                             String state, List<String> tags, List<String> materials, Date start,
+                                             Date end, Integer decade, boolean onlyActive, Integer activeStart,
+                                             Integer activeEnd, Boolean hideTemporary) {
+        return this.runSearch(searchQuery, () -> {
+            CriteriaBuilder builder = this.getCriteriaBuilder();
+
+            // The search is run once, for the ID, state and year of each result. States are stored however they were
+            // entered, like "VA" and "Virginia", so they are normalized and the years grouped into decades here, and
+            // the IDs are the candidate set that the Tags and Materials are counted over
+            CriteriaQuery<Tuple> candidateQuery = builder.createTupleQuery();
+            Root<Monument> candidateRoot = candidateQuery.from(Monument.class);
+            candidateQuery.multiselect(candidateRoot.get("id"), candidateRoot.get("state"),
+                builder.function("year", Integer.class, candidateRoot.get("date")));
+            QueryParameters candidateParameters = new QueryParameters();
+
+            this.buildSearchQuery(
+                builder, candidateQuery, candidateRoot, candidateParameters, searchQuery, 0.1, latitude, longitude,
+                distance, state, tags, materials, SortType.NONE, start, end, decade, onlyActive, activeStart,
+                activeEnd, hideTemporary
+            );
+
+            Set<Integer> ids = new LinkedHashSet<>();
+            Map<String, Integer> stateCounts = new TreeMap<>();
+            Map<Integer, Integer> decadeCounts = new TreeMap<>();
+            for (Tuple result : candidateParameters.applyTo(this.getEntityManager().createQuery(candidateQuery))
+                .getResultList()) {
+                if (!ids.add(result.get(0, Integer.class))) {
+                    continue;
+                }
+
+                String stateName = StringHelper.parseState(result.get(1, String.class));
+                if (stateName != null) {
+                    stateCounts.merge(stateName, 1, Integer::sum);
+                }
+
+                Integer year = result.get(2, Integer.class);
+                if (year != null) {
+                    decadeCounts.merge(year < firstDecade ? 0 : year - year % 10, 1, Integer::sum);
+                }
+            }
+
+            Map<String, Integer> tagCounts = new LinkedHashMap<>();
+            Map<String, Integer> materialCounts = new LinkedHashMap<>();
+            if (ids.isEmpty()) {
+                return new MonumentSearchFacets(stateCounts, decadeCounts, tagCounts, materialCounts);
+            }
+
+            // Tags and Materials are counted together in one statement over the candidate IDs, without searching
+            // again. Every Tag with any results is counted, since the most used Tags and the most used Materials can
+            // not be limited separately in one query, but only the most used of each are kept
+            CriteriaQuery<Tuple> tagQuery = builder.createTupleQuery();
+            Root<MonumentTag> monumentTagRoot = tagQuery.from(MonumentTag.class);
+            Join tagJoin = monumentTagRoot.join("tag");
+            Expression<Integer> monumentId = monumentTagRoot.get("monument").get("id");
+            Expression<Long> tagCount = builder.countDistinct(monumentId);
+            tagQuery.multiselect(tagJoin.get("name"), tagJoin.get("isMaterial"), tagCount);
+            QueryParameters tagParameters = new QueryParameters();
+
+            tagQuery.where(this.buildIdsPredicate(builder, monumentId, tagParameters,
+                ids.stream().mapToInt(Integer::intValue).toArray()));
+            tagQuery.groupBy(tagJoin.get("name"), tagJoin.get("isMaterial"));
+            tagQuery.orderBy(builder.desc(tagCount), builder.asc(tagJoin.get("name")));
+
+            for (Tuple result : tagParameters.applyTo(this.getEntityManager().createQuery(tagQuery)).getResultList()) {
+                Map<String, Integer> counts = Boolean.TRUE.equals(result.get(1, Boolean.class))
+                    ? materialCounts
+                    : tagCounts;
+                if (counts.size() < maxFacetTags) {
+                    counts.put(result.get(0, String.class), result.get(2, Long.class).intValue());
+                }
+            }
+
+            return new MonumentSearchFacets(stateCounts, decadeCounts, tagCounts, materialCounts);
+        });
+    }
+
+    /**
+     * Get the active Monuments closest to the specified point, without limiting the search to a radius
+     * The Monuments are ordered with the PostGIS <-> operator, which lets Postgres walk the GiST index on
+     * projectedCoordinates in distance order and stop once it has found enough Monuments, instead of computing and
+     * sorting the distance to every Monument
      * @param latitude - The latitude of the comparison point
      * @param longitude - The longitude of the comparison point
-     * @param distance - The distance from the comparison point to search in, units of miles
-     * @param tags - List of tag names to search by
-     * @param materials - List of material tag names to search by
-     * @param sortType - The way in which to sort the results by
-     * @param start - The start date to filter monuments by
-     * @param end - The end date to filter monuments by
-     * @param decade - The decade to filter monuments by
-     * @param onlyActive - If true, only active monuments will be searched. If false, both active and inactive will be searched
-     * @param hideTemporary - If true, search only permanent monuments. If false, search both temporary and permanent monuments
-     * @return List<Monument> - List of Monument results based on the specified search parameters
+     * @param limit - The maximum number of Monuments to return
+     * @return List<Monument> - The closest active Monuments, closest first
      */
-    public List<Monument> search(String searchQuery, String page, String limit, Double threshold, Double latitude,
-                                 Double longitude, Double distance, String state, List<String> tags,
-                                 List<String> materials, SortType sortType, Date start, Date end, Integer decade,
-                                 boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+    public List<Monument> findNearestMonuments(Double latitude, Double longitude, Integer limit) {
+        if (latitude == null || longitude == null || limit == null) {
+            return null;
+        }
+
         CriteriaBuilder builder = this.getCriteriaBuilder();
         CriteriaQuery<Monument> query = this.createCriteriaQuery(builder, false);
         Root<Monument> root = this.createRoot(query);
         query.select(root);
+        QueryParameters parameters = new QueryParameters();
 
-        this.buildSearchQuery(
-            builder, query, root, searchQuery, threshold, latitude, longitude, distance, state, tags, materials, sortType,
-            start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        query.where(
+            builder.equal(root.get("isActive"), true),
+            builder.isNotNull(root.get("projectedCoordinates"))
+        );
+        query.orderBy(
+            builder.asc(
+                builder.function("knn_distance", Double.class,
+                    root.get("projectedCoordinates"),
+                    this.buildProjectedPointExpression(builder, parameters, latitude, longitude)
+                )
+            )
         );
 
-        List<Monument> monuments = limit != null
-            ? page != null
-                ? this.getWithCriteriaQuery(query, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
-                : this.getWithCriteriaQuery(query, Integer.parseInt(limit))
-            : this.getWithCriteriaQuery(query);
+        List<Monument> monuments = parameters.applyTo(this.getEntityManager().createQuery(query))
+            .setMaxResults(limit)
+            .getResultList();
         this.loadLazyLoadedCollections(monuments);
         return monuments;
     }
 
     /**
-     * Count the total number of results for a Monument search
-     * @see MonumentService#search(String, String, String, Double, Double, Double, Double, String, List, List, SortType, Date,
-     * Date, Integer, boolean, Integer, Integer, Boolean)
+     * Get the map markers for the active Monuments inside the specified bounding box
+     * The bounding box is compared using the PostGIS && operator, which is answered from the GiST index on coordinates
+     * If a zoom level is specified, only the Monument with the lowest ID in each screen pixel at that zoom level is
+     * returned, since the others would be drawn on top of it anyway. The Monuments are grouped by pixel in SQL, so the
+     * number of markers returned is bounded by the number of pixels rather than the number of Monuments
+     * @param minLatitude - The latitude of the south edge of the bounding box
+     * @param minLongitude - The longitude of the west edge of the bounding box
+     * @param maxLatitude - The latitude of the north edge of the bounding box
+     * @param maxLongitude - The longitude of the east edge of the bounding box
+     * @param zoom - The map zoom level, or null to return every marker
+     * @return List<MonumentMarker> - Markers for the active Monuments inside the bounding box
      */
-    public Integer countSearchResults(String searchQuery, Double latitude, Double longitude, Double distance, String state,
-                                      List<String> tags, List<String> materials, Date start, Date end, Integer decade,
-                                      boolean onlyActive, Integer activeStart, Integer activeEnd, Boolean hideTemporary) {
+    public List<MonumentMarker> getMapMarkers(Double minLatitude, Double minLongitude, Double maxLatitude,
+                                              Double maxLongitude, Integer zoom) {
         CriteriaBuilder builder = this.getCriteriaBuilder();
-        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        CriteriaQuery<MonumentMarker> query = builder.createQuery(MonumentMarker.class);
         Root<Monument> root = query.from(Monument.class);
-        query.select(builder.countDistinct(root));
+        query.select(
+            builder.construct(MonumentMarker.class,
+                root.get("id"), root.get("title"), root.get("coordinates"), root.get("isTemporary"),
+                root.get("address"), root.get("city"), root.get("state")
+            )
+        );
+        QueryParameters parameters = new QueryParameters();
 
-        this.buildSearchQuery(
-            builder, query, root, searchQuery, 0.1, latitude, longitude, distance, state, tags, materials, SortType.NONE,
-            start, end, decade, onlyActive, activeStart, activeEnd, hideTemporary
+        if (zoom == null) {
+            Predicate filter = this.buildMapMarkersQuery(builder, root, parameters, minLatitude, minLongitude,
+                maxLatitude, maxLongitude);
+            if (filter == null) {
+                return new ArrayList<>();
+            }
+            query.where(filter);
+        } else {
+            Subquery<Integer> visibleIds = query.subquery(Integer.class);
+            Root<Monument> visibleRoot = visibleIds.from(Monument.class);
+            Predicate filter = this.buildMapMarkersQuery(builder, visibleRoot, parameters, minLatitude, minLongitude,
+                maxLatitude, maxLongitude);
+            if (filter == null) {
+                return new ArrayList<>();
+            }
+            visibleIds.select(builder.min(visibleRoot.<Integer>get("id")));
+            visibleIds.where(filter);
+            visibleIds.groupBy(this.buildMapPixelExpressions(builder, visibleRoot, parameters, zoom));
+            query.where(root.get("id").in(visibleIds));
+        }
+        query.orderBy(builder.asc(root.get("id")));
+
+        return parameters.applyTo(this.getEntityManager().createQuery(query)).getResultList();
+    }
+
+    /**
+     * Build a Predicate for the active Monuments inside the specified bounding box
+     * @see MonumentService#getMapMarkers(Double, Double, Double, Double, Integer)
+     * @return Predicate - The Predicate, or null if the bounding box is empty
+     */
+    private Predicate buildMapMarkersQuery(CriteriaBuilder builder, Root root, QueryParameters parameters,
+                                           Double minLatitude, Double minLongitude, Double maxLatitude,
+                                           Double maxLongitude) {
+        // The map moves Monuments with positive longitudes, such as the ones in Guam, 360 degrees to the west
+        // So a bounding box that goes past the antimeridian is split into a box on each side of it
+        List<Predicate> boxes = new ArrayList<>();
+        double west = Math.max(minLongitude, -180.0);
+        double east = Math.min(maxLongitude, 180.0);
+        if (west < east) {
+            boxes.add(this.buildBoundingBoxQuery(builder, root, parameters, minLatitude, west, maxLatitude, east));
+        }
+        if (minLongitude < -180.0) {
+            boxes.add(this.buildBoundingBoxQuery(builder, root, parameters, minLatitude, minLongitude + 360.0,
+                maxLatitude, Math.min(maxLongitude + 360.0, 180.0)));
+        }
+        if (maxLongitude > 180.0) {
+            boxes.add(this.buildBoundingBoxQuery(builder, root, parameters, minLatitude,
+                Math.max(minLongitude - 360.0, -180.0), maxLatitude, maxLongitude - 360.0));
+        }
+        if (boxes.isEmpty()) {
+            return null;
+        }
+
+        return builder.and(
+            builder.equal(root.get("isActive"), true),
+            builder.or(boxes.toArray(new Predicate[0]))
+        );
+    }
+
+    /**
+     * Build the Expressions for the x and y of the Web Mercator pixel that a Monument is drawn in at the specified
+     * zoom level, computed the same way as getMapPixel
+     * @param builder The CriteriaBuilder for the query
+     * @param root The Root associated with the CriteriaQuery
+     * @param parameters The QueryParameters to bind the size of the map to
+     * @param zoom The map zoom level
+     * @return List<Expression<?>> - The x and y of the pixel
+     */
+    private List<Expression<?>> buildMapPixelExpressions(CriteriaBuilder builder, Root root,
+                                                         QueryParameters parameters, int zoom) {
+        Expression<Double> size = parameters.bind(builder, Double.class, 256 * Math.pow(2, zoom));
+        Expression<Double> longitude = builder.function("ST_X", Double.class, root.get("coordinates"));
+        Expression<Double> latitude = builder.function("ST_Y", Double.class, root.get("coordinates"));
+        Expression<Double> sin = builder.function("sin", Double.class,
+            builder.function("radians", Double.class,
+                builder.function("greatest", Double.class, builder.literal(-85.0511),
+                    builder.function("least", Double.class, builder.literal(85.0511), latitude)
+                )
+            )
+        );
+
+        Expression<Number> x = builder.function("floor", Number.class,
+            builder.prod(builder.quot(builder.sum(longitude, 180.0), 360.0), size)
+        );
+        Expression<Number> mercatorY = builder.quot(
+            builder.function("ln", Double.class,
+                builder.quot(builder.sum(builder.literal(1.0), sin), builder.diff(builder.literal(1.0), sin))
+            ),
+            4 * Math.PI
+        );
+        Expression<Number> y = builder.function("floor", Number.class,
+            builder.prod(builder.diff(builder.literal(0.5), mercatorY), size)
+        );
+        return Arrays.asList(x, y);
+    }
+
+    /**
+     * Build a Predicate for Monuments whose coordinates are inside the specified bounding box
+     * @param builder The CriteriaBuilder for the query
+     * @param root The Root associated with the CriteriaQuery
+     * @param parameters The QueryParameters to bind the edges of the bounding box to
+     * @return Predicate - Predicate using the PostGIS && operator, so that it can use the GiST index on coordinates
+     */
+    private Predicate buildBoundingBoxQuery(CriteriaBuilder builder, Root root, QueryParameters parameters,
+                                            Double minLatitude, Double minLongitude, Double maxLatitude,
+                                            Double maxLongitude) {
+        Expression envelope = builder.function("ST_MakeEnvelope", Geometry.class,
+            parameters.bind(builder, Double.class, minLongitude),
+            parameters.bind(builder, Double.class, minLatitude),
+            parameters.bind(builder, Double.class, maxLongitude),
+            parameters.bind(builder, Double.class, maxLatitude),
+            builder.literal(coordinateSrid)
         );
 
-        return this.getEntityManager().createQuery(query).getSingleResult().intValue();
+        return builder.isTrue(builder.function("bbox_intersects", Boolean.class, root.get("coordinates"), envelope));
+    }
+
+    /**
+     * Get the Web Mercator pixel that the specified coordinates are drawn in at the specified zoom level, using the
+     * 256 pixel tiles used by the map
+     * @param latitude - The latitude of the coordinates
+     * @param longitude - The longitude of the coordinates
+     * @param zoom - The map zoom level
+     * @return long - A single number identifying the pixel
+     */
+    public static long getMapPixel(double latitude, double longitude, int zoom) {
+        double size = 256 * Math.pow(2, zoom);
+        double sin = Math.sin(Math.toRadians(Math.max(-85.0511, Math.min(85.0511, latitude))));
+        long x = (long) Math.floor((longitude + 180.0) / 360.0 * size);
+        long y = (long) Math.floor((0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)) * size);
+        return (y << 32) | (x & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get a Monument with everything shown on its detail page loaded: its Tags, Images, References and Contributions
+     * Each collection is fetched with its own query, since fetching them all in one query would return every
+     * combination of Tag, Image, Reference and Contribution. So this always takes 4 queries, which are 4 round trips to
+     * the database rather than one, no matter how many of each the Monument has. The Users that created them are not
+     * loaded until they are used
+     * @param id - The ID of the Monument to get
+     * @param onlyActive - If true, the Monument is only returned if it is active
+     * @return Optional<Monument> - The Monument with its collections loaded, or empty if it does not exist
+     */
+    public Optional<Monument> getMonumentDetail(Integer id, boolean onlyActive) {
+        List<Monument> monuments = this.getEntityManager().createQuery(
+            "SELECT m FROM Monument m LEFT JOIN FETCH m.monumentTags monumentTag LEFT JOIN FETCH monumentTag.tag " +
+            "WHERE m.id = :id" + (onlyActive ? " AND m.isActive = true" : ""), Monument.class
+        ).setParameter("id", id).getResultList();
+        if (monuments.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // The Monument is already in the persistence context, so these only fill in its collections
+        this.getEntityManager().createQuery(
+            "SELECT m FROM Monument m LEFT JOIN FETCH m.images WHERE m.id = :id", Monument.class
+        ).setParameter("id", id).getResultList();
+        this.getEntityManager().createQuery(
+            "SELECT m FROM Monument m LEFT JOIN FETCH m.references WHERE m.id = :id", Monument.class
+        ).setParameter("id", id).getResultList();
+        this.getEntityManager().createQuery(
+            "SELECT m FROM Monument m LEFT JOIN FETCH m.contributions contribution " +
+            "LEFT JOIN FETCH contribution.submittedByUser WHERE m.id = :id", Monument.class
+        ).setParameter("id", id).getResultList();
+
+        return Optional.of(monuments.get(0));
     }
 
     /**
@@ -422,6 +1870,55 @@ public class MonumentService extends ModelService<Monument> {
         return monuments;
     }
 
+    /**
+     * Same as getRelatedMonumentsByTags, but returns MonumentSummaries instead of full Monuments
+     * @see MonumentService#getRelatedMonumentsByTags(List, Integer, Integer)
+     * @return List<MonumentSummary> - Summaries of the Monuments with matching Tags/Materials, ordered by number
+     * matching Tags/Materials
+     */
+    public List<MonumentSummary> getRelatedMonumentSummariesByTags(List<String> tags, Integer monumentId, Integer limit) {
+        if (tags == null || monumentId == null || limit == null) {
+            return null;
+        }
+
+        List<Tuple> results = this.monumentRepository.getRelatedMonumentIds(tags, monumentId, PageRequest.of(0, limit));
+        List<Integer> ids = new ArrayList<>();
+        for (Tuple result : results) {
+            ids.add((Integer) result.get(0));
+        }
+        return this.getMonumentSummaries(ids);
+    }
+
+    /**
+     * Get the active Monuments that share the most Tags and Materials with the specified Monument, from the related
+     * Monuments index instead of querying for them
+     * @param monumentId - The ID of the Monument to get the related Monuments of
+     * @param limit - The maximum number of related Monuments to return
+     * @return List<Monument> - The related Monuments with their Tags and Images loaded, ordered by number of shared
+     * Tags and Materials and then by distance
+     */
+    public List<Monument> getRelatedMonuments(Integer monumentId, Integer limit) {
+        if (monumentId == null || limit == null) {
+            return null;
+        }
+
+        return this.getMonumentsByIds(this.relatedMonumentIndexService.getRelatedMonumentIds(monumentId, limit));
+    }
+
+    /**
+     * Same as getRelatedMonuments, but returns MonumentSummaries instead of full Monuments
+     * @see MonumentService#getRelatedMonuments(Integer, Integer)
+     * @return List<MonumentSummary> - Summaries of the related Monuments, ordered by number of shared Tags and
+     * Materials and then by distance
+     */
+    public List<MonumentSummary> getRelatedMonumentSummaries(Integer monumentId, Integer limit) {
+        if (monumentId == null || limit == null) {
+            return null;
+        }
+
+        return this.getMonumentSummaries(this.relatedMonumentIndexService.getRelatedMonumentIds(monumentId, limit));
+    }
+
     /**
      * Create a Point object for a Monument from the specified longitude and latitude
      * @param longitude - Double for the longitude of the Point
@@ -688,40 +2185,87 @@ public class MonumentService extends ModelService<Monument> {
     }
 
     public void deleteMonument(Integer id) throws UnauthorizedException {
+        Point oldCoordinates = this.monumentRepository.findById(id).map(Monument::getCoordinates).orElse(null);
+
         this.favoriteRepository.deleteAllByMonumentId(id);
         this.updateSuggestionRepository.deleteAllByMonumentId(id);
         this.monumentTagRepository.deleteAllByMonumentId(id);
+        this.monumentSearchDocumentRepository.deleteAllByMonumentId(id);
         this.monumentRepository.deleteById(id);
 
+        this.publishMonumentChanged(id, MonumentChangedEvent.ChangeType.DELETED, oldCoordinates, null);
+
         rollbar.info("Deleted monument " + id + " by user: " +this.userService.getCurrentUser());
     }
 
+    /**
+     * Activate or deactivate the Monument with the specified ID
+     * @param id - ID of the Monument to update
+     * @param isActive - True to activate the Monument, false to deactivate it
+     * @return Monument - The updated Monument
+     */
+    public Monument updateMonumentIsActive(Integer id, boolean isActive) {
+        Monument monument = this.monumentRepository.getOne(id);
+        monument.setIsActive(isActive);
+        Monument updatedMonument = this.monumentRepository.save(monument);
+        this.updateMonumentSearchDocument(updatedMonument);
+
+        this.publishMonumentChanged(updatedMonument.getId(), MonumentChangedEvent.ChangeType.UPDATED,
+            updatedMonument.getCoordinates(), updatedMonument.getCoordinates());
+
+        if (isActive) {
+            rollbar.info("Activated monument" + updatedMonument.getId() + "!");
+        } else {
+            rollbar.info("Deactivated monument" + updatedMonument.getId() + "!");
+        }
+        return updatedMonument;
+    }
+
+    /**
+     * Let anything derived from the Monuments, such as caches and indexes, know that a Monument has changed
+     * Listeners run once the current transaction commits, or right away if there is no transaction
+     * @param monumentId - ID of the Monument that changed
+     * @param changeType - What happened to the Monument
+     * @param oldCoordinates - The coordinates of the Monument before the change
+     * @param newCoordinates - The coordinates of the Monument after the change
+     */
+    public void publishMonumentChanged(Integer monumentId, MonumentChangedEvent.ChangeType changeType,
+                                       Point oldCoordinates, Point newCoordinates) {
+        this.applicationEventPublisher.publishEvent(
+            new MonumentChangedEvent(monumentId, changeType, oldCoordinates, newCoordinates)
+        );
+    }
+
     @SuppressWarnings("unchecked")
-    private Predicate buildDateRangeQuery(CriteriaBuilder builder, Root root, Date start, Date end) {
-        return builder.between(root.get("date"), start, end);
+    private Predicate buildDateRangeQuery(CriteriaBuilder builder, Root root, QueryParameters parameters, Date start,
+                                          Date end) {
+        return builder.between(root.get("date"), parameters.bind(builder, Date.class, start),
+                parameters.bind(builder, Date.class, end));
     }
 
     @SuppressWarnings("unchecked")
-    private Predicate buildDecadeQuery(CriteriaBuilder builder, Root root, Integer decade) {
+    private Predicate buildDecadeQuery(CriteriaBuilder builder, Root root, QueryParameters parameters, Integer decade) {
         if (decade > 0) {
             Date start = new GregorianCalendar(decade, Calendar.JANUARY, 1).getTime();
             Date end = new GregorianCalendar(decade + 9, Calendar.DECEMBER, 31).getTime();
-            return builder.between(root.get("date"), start, end);
+            return builder.between(root.get("date"), parameters.bind(builder, Date.class, start),
+                    parameters.bind(builder, Date.class, end));
         }
         else {
             Date end = new GregorianCalendar(1860, Calendar.JANUARY, 31 ).getTime();
-            return builder.lessThan(root.get("date"), end);
+            return builder.lessThan(root.get("date"), parameters.bind(builder, Date.class, end));
         }
     }
 
     @SuppressWarnings("unchecked")
-    private Predicate buildActiveDateRangeQuery(CriteriaBuilder builder, Root root, Integer start, Integer end) {
+    private Predicate buildActiveDateRangeQuery(CriteriaBuilder builder, Root root, QueryParameters parameters,
+                                                Integer start, Integer end) {
         Date dEnd = new GregorianCalendar(end + 9, Calendar.DECEMBER, 31).getTime();
-        Predicate endQuery = builder.lessThanOrEqualTo(root.get("date"), dEnd);
+        Predicate endQuery = builder.lessThanOrEqualTo(root.get("date"), parameters.bind(builder, Date.class, dEnd));
         if (start != null){
             Date dStart = new GregorianCalendar(start, Calendar.JANUARY, 1).getTime();
             return builder.and(builder.or(builder.isNull(root.get("deactivatedDate")),
-                    builder.greaterThanOrEqualTo(root.get("deactivatedDate"), dStart)), endQuery);
+                    builder.greaterThanOrEqualTo(root.get("deactivatedDate"), parameters.bind(builder, Date.class, dStart))), endQuery);
         }
         else {
             return endQuery;
@@ -731,7 +2275,7 @@ public class MonumentService extends ModelService<Monument> {
      * Gathers the various statistics related to Monuments for the About Page
      * @param searchForSpecificMonuments - True to also include searching for the specific Monuments we display links
      * to on the About Page, such as the 9/11 Memorial, False otherwise. This flag exists mainly to overcome a
-     * limitation with H2 (pg_tgrm functions do not work in H2)
+     * limitation with H2 (these are radius searches, and the PostGIS functions do not work in H2)
      * @return MonumentAboutPageStatistics - Object containing the various statistics relating to Monuments for the
      * About Page
      */
@@ -1011,6 +2555,11 @@ public class MonumentService extends ModelService<Monument> {
         createdMonument.setMaterials(this.tagRepository.getAllByMonumentIdAndIsMaterial(createdMonument.getId(), true));
         createdMonument.setTags(this.tagRepository.getAllByMonumentIdAndIsMaterial(createdMonument.getId(), false));
 
+        this.updateMonumentSearchDocument(createdMonument);
+
+        this.publishMonumentChanged(createdMonument.getId(), MonumentChangedEvent.ChangeType.CREATED, null,
+            createdMonument.getCoordinates());
+
         rollbar.info("Created monument" + createdMonument.getId() + "by: " + createdMonument.getContributions());
 
         return createdMonument;
@@ -1177,6 +2726,11 @@ public class MonumentService extends ModelService<Monument> {
         // Update the Tags associated with the Monument
         this.updateMonumentTags(currentMonument, updateSuggestion.getNewTags(), false);
 
+        this.updateMonumentSearchDocument(currentMonument);
+
+        this.publishMonumentChanged(currentMonument.getId(), MonumentChangedEvent.ChangeType.UPDATED, oldCoordinates,
+            currentMonument.getCoordinates());
+
         rollbar.info("Updated monument" + currentMonument.getId() + "by: "+currentMonument.getContributions().get(currentMonument.getContributions().size() - 1));
 
         return currentMonument;
@@ -1585,6 +3139,28 @@ public class MonumentService extends ModelService<Monument> {
         }
     }
 
+    /**
+     * Update the monument_search row of the specified Monument from its current fields, Tags and Materials, creating
+     * the row if it does not exist yet. This runs in the caller's transaction, so searches never see the row disagree
+     * with the Monument. On Postgres, the columns that only Postgres can compute are then filled in from the saved
+     * Monument, which is why it is flushed first
+     * @param monument - The Monument to update the monument_search row of
+     */
+    public void updateMonumentSearchDocument(Monument monument) {
+        if (monument == null || monument.getId() == null) {
+            return;
+        }
+
+        MonumentSearchDocument document = this.monumentSearchDocumentRepository.findById(monument.getId())
+            .orElseGet(() -> new MonumentSearchDocument(monument.getId()));
+        document.update(monument);
+        this.monumentSearchDocumentRepository.saveAndFlush(document);
+
+        if (this.searchIndexService.isPostgres() && this.searchIndexService.hasSearchDocumentColumns()) {
+            this.monumentSearchDocumentRepository.updatePostgresColumns(monument.getId());
+        }
+    }
+
     /**
      * Populates the address and coordinates field on a Monument being updated, if necessary
      * We always want Monument records to have coordinates and an address
@@ -1599,9 +3175,41 @@ public class MonumentService extends ModelService<Monument> {
 
     /**
      * Cause hibernate to load in the related records
+     * The MonumentTags and their Tags are loaded for all of the Monuments with one query, and the Images with another,
+     * instead of loading them separately for each Monument, so a page of search results always takes the same number
+     * of queries no matter how many Monuments are on it
      * @param monuments - The Monuments to force load lazy loaded collections on
      */
     public void loadLazyLoadedCollections(List<Monument> monuments) {
+        List<Integer> monumentTagsIds = new ArrayList<>();
+        List<Integer> imagesIds = new ArrayList<>();
+        for (Monument monument : monuments) {
+            if (monument.getId() == null) {
+                continue;
+            }
+            if (!Hibernate.isInitialized(monument.getMonumentTags())) {
+                monumentTagsIds.add(monument.getId());
+            }
+            if (!Hibernate.isInitialized(monument.getImages())) {
+                imagesIds.add(monument.getId());
+            }
+        }
+
+        // Fetch joining the collections of Monuments that are already in the persistence context fills in those
+        // collections. Tags and Images are fetched separately, since fetching both at once would return every
+        // combination of the two
+        if (!monumentTagsIds.isEmpty()) {
+            this.getEntityManager().createQuery(
+                "SELECT m FROM Monument m LEFT JOIN FETCH m.monumentTags monumentTag LEFT JOIN FETCH monumentTag.tag " +
+                "WHERE m.id IN :ids", Monument.class
+            ).setParameter("ids", monumentTagsIds).getResultList();
+        }
+        if (!imagesIds.isEmpty()) {
+            this.getEntityManager().createQuery(
+                "SELECT m FROM Monument m LEFT JOIN FETCH m.images WHERE m.id IN :ids", Monument.class
+            ).setParameter("ids", imagesIds).getResultList();
+        }
+
         for (Monument monument : monuments) {
             this.loadLazyLoadedCollections(monument);
         }
@@ -0,0 +1,141 @@
+package com.monumental.services;
+
+import com.monumental.controllers.helpers.MonumentTitleSuggestion;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.events.MonumentChangedEvent;
+import com.monumental.util.search.TitleSuggestionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.persistence.Tuple;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * This service suggests active Monuments as the user types in the search box, from an in-memory TitleSuggestionIndex
+ * of their titles instead of running a trigram search on every keystroke
+ * The index is built when the application starts, and nothing is suggested until it is ready. Monuments that change
+ * are re-read from the database in the background, so creating, updating and deactivating a Monument only changes its
+ * own entry
+ * A build publishes a whole new index, so suggestions never wait for it. Updates change the published index in place,
+ * so suggestions share a read lock on it and updates only take the write lock to change the entries, after they have
+ * read the database
+ */
+@Service
+public class MonumentTitleSuggestionService {
+
+    /**
+     * The maximum number of Monuments suggested
+     */
+    private static final int limit = 10;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    /**
+     * Null until the index has been built
+     */
+    private volatile TitleSuggestionIndex index;
+
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    private final Set<Integer> changedMonumentIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Suggest active Monuments whose titles match the specified search
+     * @param searchQuery - The search, usually the start of a Monument's title
+     * @return List<MonumentTitleSuggestion> - The IDs and titles of the suggested Monuments, titles that start with the
+     * search first. Empty until the index has been built
+     */
+    public List<MonumentTitleSuggestion> suggest(String searchQuery) {
+        List<MonumentTitleSuggestion> suggestions = new ArrayList<>();
+        TitleSuggestionIndex index = this.index;
+        if (index == null) {
+            return suggestions;
+        }
+
+        this.indexLock.readLock().lock();
+        try {
+            for (Integer id : index.search(searchQuery, limit)) {
+                suggestions.add(new MonumentTitleSuggestion(id, index.getTitle(id)));
+            }
+        } finally {
+            this.indexLock.readLock().unlock();
+        }
+        return suggestions;
+    }
+
+    /**
+     * Build the index when the application starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        this.rebuildIndex();
+    }
+
+    /**
+     * Read the title of every active Monument into a new index and publish it
+     */
+    public synchronized void rebuildIndex() {
+        this.changedMonumentIds.clear();
+
+        Map<Integer, String> titlesById = new HashMap<>();
+        for (Tuple entry : this.monumentRepository.getActiveMonumentTitles()) {
+            titlesById.put(entry.get("id", Integer.class), entry.get("title", String.class));
+        }
+        this.index = new TitleSuggestionIndex(titlesById);
+    }
+
+    /**
+     * Update the index in the background whenever a Monument is created, updated, deactivated or deleted
+     * Changes that arrive while an update is running are applied together by the next one
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonumentChanged(MonumentChangedEvent event) {
+        this.changedMonumentIds.add(event.getMonumentId());
+
+        List<Integer> ids = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Integer> iterator = this.changedMonumentIds.iterator(); iterator.hasNext();) {
+                ids.add(iterator.next());
+                iterator.remove();
+            }
+            if (!ids.isEmpty()) {
+                this.updateIndex(ids);
+            }
+        }
+    }
+
+    /**
+     * Remove the specified Monuments from the index, then re-read the ones that are active into it. Does nothing until
+     * the index has been built, since the build reads every Monument
+     * @param monumentIds - The IDs of the Monuments that changed
+     */
+    public synchronized void updateIndex(List<Integer> monumentIds) {
+        TitleSuggestionIndex index = this.index;
+        if (index == null) {
+            return;
+        }
+
+        List<Tuple> entries = this.monumentRepository.getActiveMonumentTitlesByIds(monumentIds);
+
+        this.indexLock.writeLock().lock();
+        try {
+            for (Integer id : monumentIds) {
+                index.remove(id);
+            }
+            for (Tuple entry : entries) {
+                index.put(entry.get("id", Integer.class), entry.get("title", String.class));
+            }
+        } finally {
+            this.indexLock.writeLock().unlock();
+        }
+    }
+}
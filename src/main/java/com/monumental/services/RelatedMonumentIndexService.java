@@ -0,0 +1,317 @@
+package com.monumental.services;
+
+import com.monumental.models.Tag;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.repositories.TagRepository;
+import com.monumental.services.events.MonumentChangedEvent;
+import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.Tuple;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This service keeps an in-memory index of the related Monuments of every Monument, so that the related Monuments
+ * panel is a lookup by ID instead of a join, group by and order by over every MonumentTag
+ * Monuments are related by the number of Tags and Materials they share, the same as
+ * MonumentRepository.getRelatedMonuments. Monuments that share the same number are ordered by how close they are
+ * The top related Monuments of every Monument are computed when the application starts and again in the background
+ * whenever a Monument that shares a Tag with it changes. Each computation is published as a new immutable map, so
+ * requests read the related Monuments without locking and never compute them
+ */
+@Service
+public class RelatedMonumentIndexService {
+
+    /**
+     * The Tags and location of a Monument in the index
+     */
+    private static class IndexedMonument {
+
+        private final boolean isActive;
+
+        private final Point coordinates;
+
+        private final Set<String> tagNames = new HashSet<>();
+
+        private IndexedMonument(boolean isActive, Point coordinates) {
+            this.isActive = isActive;
+            this.coordinates = coordinates;
+        }
+    }
+
+    /**
+     * The number of related Monuments kept for each Monument. Larger limits only return this many
+     */
+    @Value("${RELATED_MONUMENTS_INDEX_SIZE:20}")
+    private int indexSize;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    /**
+     * The related Monument IDs of every Monument that has any, published whole every time the index changes
+     * Null until the index has been built
+     */
+    private volatile Map<Integer, List<Integer>> relatedMonumentIds;
+
+    /*
+     * The Monuments and Tags the related Monuments are computed from. Only used while holding the lock on this
+     * service, by the build and by updates, never by requests
+     */
+
+    private final Map<Integer, IndexedMonument> monuments = new HashMap<>();
+
+    private final Map<String, Set<Integer>> monumentIdsByTagName = new HashMap<>();
+
+    private final Set<Integer> changedMonumentIds = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void initialize() {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @return boolean - True if the index has been built, False otherwise
+     */
+    public boolean isReady() {
+        return this.relatedMonumentIds != null;
+    }
+
+    /**
+     * Get the IDs of the active Monuments that share the most Tags and Materials with the specified Monument
+     * Until the index has been built, they are queried for with MonumentRepository.getRelatedMonumentIds instead,
+     * which only orders them by the number of shared Tags and Materials
+     * @param monumentId - The ID of the Monument to get the related Monuments of
+     * @param limit - The maximum number of IDs to return, up to the number kept in the index
+     * @return List<Integer> - The IDs of the related Monuments, ordered by number of shared Tags and Materials and then
+     * by distance. Empty if the Monument does not exist or has no Tags
+     */
+    public List<Integer> getRelatedMonumentIds(Integer monumentId, int limit) {
+        limit = Math.min(limit, this.indexSize);
+
+        Map<Integer, List<Integer>> relatedMonumentIds = this.relatedMonumentIds;
+        if (relatedMonumentIds == null) {
+            return this.queryRelatedMonumentIds(monumentId, limit);
+        }
+
+        List<Integer> ids = relatedMonumentIds.getOrDefault(monumentId, Collections.emptyList());
+        return new ArrayList<>(ids.subList(0, Math.min(limit, ids.size())));
+    }
+
+    private List<Integer> queryRelatedMonumentIds(Integer monumentId, int limit) {
+        List<String> tagNames = new ArrayList<>();
+        for (Tag tag : this.tagRepository.getAllByMonumentId(monumentId)) {
+            tagNames.add(tag.getName());
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        if (tagNames.isEmpty() || limit <= 0) {
+            return ids;
+        }
+        for (Tuple result : this.monumentRepository.getRelatedMonumentIds(tagNames, monumentId, PageRequest.of(0, limit))) {
+            ids.add((Integer) result.get(0));
+        }
+        return ids;
+    }
+
+    /**
+     * Build the index when the application starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        this.rebuildIndex();
+    }
+
+    /**
+     * Read every Monument and its Tags, then compute the related Monuments of every Monument and publish them
+     */
+    public synchronized void rebuildIndex() {
+        this.changedMonumentIds.clear();
+        this.monuments.clear();
+        this.monumentIdsByTagName.clear();
+
+        this.readOnlyTransactionTemplate.execute(status -> {
+            this.addEntries(this.monumentRepository.getRelatedMonumentIndexEntries());
+            return null;
+        });
+
+        Map<Integer, List<Integer>> relatedMonumentIds = new HashMap<>();
+        for (Integer id : this.monuments.keySet()) {
+            this.putRelatedMonumentIds(relatedMonumentIds, id);
+        }
+        this.relatedMonumentIds = Collections.unmodifiableMap(relatedMonumentIds);
+    }
+
+    /**
+     * Update the index in the background whenever a Monument is created, updated or deleted. Creating and updating a
+     * Monument also creates and updates its Tags
+     * Changes that arrive while an update is running are applied together by the next one
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonumentChanged(MonumentChangedEvent event) {
+        this.changedMonumentIds.add(event.getMonumentId());
+
+        List<Integer> ids = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Integer> iterator = this.changedMonumentIds.iterator(); iterator.hasNext();) {
+                ids.add(iterator.next());
+                iterator.remove();
+            }
+            if (!ids.isEmpty()) {
+                this.updateIndex(ids);
+            }
+        }
+    }
+
+    /**
+     * Re-read the specified Monuments, then re-compute the related Monuments of every Monument that shared a Tag with
+     * them before or after the change and publish them. Does nothing until the index has been built, since the build
+     * reads every Monument
+     * @param monumentIds - The IDs of the Monuments that changed
+     */
+    public synchronized void updateIndex(List<Integer> monumentIds) {
+        if (!this.isReady()) {
+            return;
+        }
+
+        Set<Integer> affectedIds = new HashSet<>(monumentIds);
+        for (Integer id : monumentIds) {
+            this.addSharedTagMonumentIds(affectedIds, id);
+            this.removeMonument(id);
+        }
+        this.readOnlyTransactionTemplate.execute(status -> {
+            this.addEntries(this.monumentRepository.getRelatedMonumentIndexEntriesByIds(monumentIds));
+            return null;
+        });
+        for (Integer id : monumentIds) {
+            this.addSharedTagMonumentIds(affectedIds, id);
+        }
+
+        Map<Integer, List<Integer>> relatedMonumentIds = new HashMap<>(this.relatedMonumentIds);
+        for (Integer id : affectedIds) {
+            relatedMonumentIds.remove(id);
+            this.putRelatedMonumentIds(relatedMonumentIds, id);
+        }
+        this.relatedMonumentIds = Collections.unmodifiableMap(relatedMonumentIds);
+    }
+
+    private void addEntries(List<Tuple> entries) {
+        for (Tuple entry : entries) {
+            Integer id = entry.get("id", Integer.class);
+            IndexedMonument monument = this.monuments.computeIfAbsent(id, newId -> new IndexedMonument(
+                Boolean.TRUE.equals(entry.get("isActive", Boolean.class)), entry.get("coordinates", Point.class)
+            ));
+
+            String tagName = entry.get("tagName", String.class);
+            if (tagName != null) {
+                monument.tagNames.add(tagName);
+                this.monumentIdsByTagName.computeIfAbsent(tagName, name -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    private void removeMonument(Integer id) {
+        IndexedMonument monument = this.monuments.remove(id);
+        if (monument == null) {
+            return;
+        }
+        for (String tagName : monument.tagNames) {
+            Set<Integer> ids = this.monumentIdsByTagName.get(tagName);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                this.monumentIdsByTagName.remove(tagName);
+            }
+        }
+    }
+
+    /**
+     * Add the IDs of every Monument that shares a Tag with the specified Monument to ids
+     */
+    private void addSharedTagMonumentIds(Set<Integer> ids, Integer id) {
+        IndexedMonument monument = this.monuments.get(id);
+        if (monument == null) {
+            return;
+        }
+        for (String tagName : monument.tagNames) {
+            ids.addAll(this.monumentIdsByTagName.get(tagName));
+        }
+    }
+
+    /**
+     * Rank the related Monuments of the specified Monument and put them in relatedMonumentIds, if it has any
+     */
+    private void putRelatedMonumentIds(Map<Integer, List<Integer>> relatedMonumentIds, Integer id) {
+        List<Integer> ids = this.rank(id, this.indexSize);
+        if (!ids.isEmpty()) {
+            relatedMonumentIds.put(id, Collections.unmodifiableList(ids));
+        }
+    }
+
+    /**
+     * Count the Tags that every other active Monument shares with the specified Monument, then order them by the count
+     * and then by distance
+     */
+    private List<Integer> rank(Integer monumentId, int limit) {
+        IndexedMonument monument = this.monuments.get(monumentId);
+        if (monument == null) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Integer> sharedTagCounts = new HashMap<>();
+        for (String tagName : monument.tagNames) {
+            for (Integer id : this.monumentIdsByTagName.get(tagName)) {
+                if (!id.equals(monumentId) && this.monuments.get(id).isActive) {
+                    sharedTagCounts.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+
+        Map<Integer, Double> distances = new HashMap<>();
+        for (Integer id : sharedTagCounts.keySet()) {
+            distances.put(id, distance(monument.coordinates, this.monuments.get(id).coordinates));
+        }
+
+        List<Integer> ids = new ArrayList<>(sharedTagCounts.keySet());
+        ids.sort(Comparator.comparing((Integer id) -> -sharedTagCounts.get(id))
+            .thenComparing(distances::get)
+            .thenComparing(id -> id)
+        );
+        return new ArrayList<>(ids.subList(0, Math.min(limit, ids.size())));
+    }
+
+    /**
+     * Approximate the distance between two points in degrees of latitude, which is accurate enough to order Monuments
+     * by how close they are
+     * @return double - The distance, or Double.MAX_VALUE if either point is null so that Monuments without coordinates
+     * come last
+     */
+    private static double distance(Point from, Point to) {
+        if (from == null || to == null) {
+            return Double.MAX_VALUE;
+        }
+        double dLat = to.getY() - from.getY();
+        double dLon = (to.getX() - from.getX()) * Math.cos(Math.toRadians((from.getY() + to.getY()) / 2));
+        return Math.sqrt(dLat * dLat + dLon * dLon);
+    }
+}
@@ -0,0 +1,411 @@
+package com.monumental.services;
+
+import com.monumental.repositories.MonumentSearchDocumentRepository;
+import com.monumental.util.search.H2TrigramFunctions;
+import com.monumental.util.search.SearchHelper;
+import com.monumental.util.string.StringHelper;
+import com.rollbar.notifier.Rollbar;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This service creates and verifies the database indexes that search depends on but that Hibernate's schema update
+ * can not create, such as the GIN trigram indexes used by the pg_trgm % and <% operators and the GiST spatial indexes
+ * It also finishes building the denormalized monument_search table that searches filter on
+ * Indexes are only created when running against PostgreSQL. The H2 test database does not support them, but it is
+ * given Java versions of the pg_trgm functions instead, so that text searches work in it
+ */
+@Service
+public class SearchIndexService {
+
+    /**
+     * The indexes on the monument table that search depends on, mapped from index name to index definition
+     * The GIN trigram indexes serve the pg_trgm % and <% operators used by text searches
+     * The GiST index on projected_coordinates serves the ST_DWithin radius searches and nearest Monument searches
+     * The GiST index on coordinates serves the bounding box searches used by the map
+     * The btree index on (date, id) serves the keyset pages of searches sorted by newest or oldest
+     */
+    public static final Map<String, String> searchIndexes = new LinkedHashMap<>();
+
+    static {
+        searchIndexes.put("monument_title_trgm_idx", "USING gin (title gin_trgm_ops)");
+        searchIndexes.put("monument_artist_trgm_idx", "USING gin (artist gin_trgm_ops)");
+        searchIndexes.put("monument_description_trgm_idx", "USING gin (description gin_trgm_ops)");
+        searchIndexes.put("monument_projected_coordinates_idx", "USING gist (projected_coordinates)");
+        searchIndexes.put("monument_coordinates_idx", "USING gist (coordinates)");
+        searchIndexes.put("monument_date_id_idx", "USING btree (date, id)");
+    }
+
+    /**
+     * The indexes on the monument_search table, mapped from index name to index definition
+     * Every filter that searches make on monument_search has an index: GIN trigram indexes for the text, GIN indexes
+     * for the Tag and Material ID arrays, a GiST index for the projected coordinates and btree indexes for the year and
+     * the active and temporary flags
+     */
+    public static final Map<String, String> searchDocumentIndexes = new LinkedHashMap<>();
+
+    static {
+        searchDocumentIndexes.put("monument_search_title_trgm_idx", "USING gin (title gin_trgm_ops)");
+        searchDocumentIndexes.put("monument_search_artist_trgm_idx", "USING gin (artist gin_trgm_ops)");
+        searchDocumentIndexes.put("monument_search_description_trgm_idx", "USING gin (description gin_trgm_ops)");
+        searchDocumentIndexes.put("monument_search_tag_ids_idx", "USING gin (tag_ids)");
+        searchDocumentIndexes.put("monument_search_material_ids_idx", "USING gin (material_ids)");
+        searchDocumentIndexes.put("monument_search_projected_coordinates_idx", "USING gist (projected_coordinates)");
+        searchDocumentIndexes.put("monument_search_date_year_idx", "USING btree (date_year)");
+        searchDocumentIndexes.put("monument_search_is_active_idx", "USING btree (is_active, is_temporary)");
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Rollbar rollbar;
+
+    // The thresholds of the pg_trgm % and <% operators, the same settings that are applied to every Postgres connection
+    @Value("${SEARCH_SIMILARITY_THRESHOLD:" + SearchHelper.DEFAULT_SIMILARITY_THRESHOLD + "}")
+    private double similarityThreshold;
+
+    @Value("${SEARCH_WORD_SIMILARITY_THRESHOLD:" + SearchHelper.DEFAULT_WORD_SIMILARITY_THRESHOLD + "}")
+    private double wordSimilarityThreshold;
+
+    private String databaseProductName;
+
+    private List<String> missingIndexes = new ArrayList<>();
+
+    private volatile boolean hasSearchDocumentColumns = false;
+
+    private volatile boolean isSearchDocumentsReady = false;
+
+    /**
+     * Create any missing search indexes once the application has started, then verify that they are usable
+     * Indexes are created CONCURRENTLY so that building them on a large monument table does not block writes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchIndexes() {
+        if (!this.isPostgres()) {
+            return;
+        }
+
+        try {
+            this.jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not create the pg_trgm extension, text search will not work");
+        }
+
+        this.createProjectedCoordinatesTrigger();
+        this.backfillProjectedCoordinates();
+
+        for (Map.Entry<String, String> index : searchIndexes.entrySet()) {
+            this.createIndex(index.getKey(),
+                "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.getKey() + " ON monument " + index.getValue()
+            );
+        }
+
+        this.createSearchDocuments();
+
+        List<String> names = new ArrayList<>(searchIndexes.keySet());
+        names.addAll(searchDocumentIndexes.keySet());
+        this.missingIndexes = this.verifyIndexes(names);
+        if (!this.missingIndexes.isEmpty()) {
+            this.rollbar.error("Search indexes are missing or invalid, searches will scan the whole table: " +
+                this.missingIndexes);
+        }
+    }
+
+    /**
+     * Add the Postgres-only columns to the monument_search table that Hibernate created, fill in a row for every
+     * Monument that does not have one yet and create the table's indexes
+     * Searches inner join monument_search once this has finished, so every Monument must have a row from then on. A
+     * trigger inserts the row in the same statement as the Monument, MonumentService fills it in once the Monument's
+     * Tags are saved, and this fills in the rows of the Monuments that were saved before the trigger existed
+     */
+    public void createSearchDocuments() {
+        try {
+            this.createNormalizeForSearchFunction();
+            this.jdbcTemplate.execute(
+                "ALTER TABLE monument_search DROP COLUMN IF EXISTS document, " +
+                "ADD COLUMN IF NOT EXISTS tag_ids integer[], ADD COLUMN IF NOT EXISTS material_ids integer[]"
+            );
+            this.hasSearchDocumentColumns = true;
+
+            this.createSearchDocumentTrigger();
+            this.backfillSearchDocuments();
+            // Rows written before the columns existed have their text normalized in Java and no Tag IDs yet
+            this.jdbcTemplate.update(MonumentSearchDocumentRepository.updatePostgresColumnsSql +
+                " AND s.tag_ids IS NULL");
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not build the monument_search table, searches will filter the monument table");
+            return;
+        }
+
+        for (Map.Entry<String, String> index : searchDocumentIndexes.entrySet()) {
+            this.createIndex(index.getKey(),
+                "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.getKey() + " ON monument_search " + index.getValue()
+            );
+        }
+
+        this.isSearchDocumentsReady = true;
+    }
+
+    /**
+     * Insert a monument_search row for every Monument that does not have one, in a single INSERT ... SELECT
+     * The text is normalized with the database's normalize_for_search function, which searches also normalize the
+     * search text with. On Postgres the Postgres-only columns are filled in afterwards
+     */
+    public void backfillSearchDocuments() {
+        this.jdbcTemplate.update(
+            "INSERT INTO monument_search (monument_id, title, artist, description, date_year, is_active, is_temporary) " +
+            "SELECT m.id, normalize_for_search(m.title), normalize_for_search(m.artist), " +
+            "normalize_for_search(m.description), CAST(extract(year FROM m.date) AS integer), m.is_active, " +
+            "m.is_temporary FROM monument m WHERE NOT EXISTS " +
+            "(SELECT 1 FROM monument_search s WHERE s.monument_id = m.id)" +
+            (this.isPostgres() ? " ON CONFLICT (monument_id) DO NOTHING" : "")
+        );
+    }
+
+    /**
+     * Create the trigger that inserts the monument_search row of every new Monument, so that no Monument is ever left
+     * out of searches by not having a row yet, no matter how it was saved
+     */
+    private void createSearchDocumentTrigger() {
+        this.jdbcTemplate.execute(
+            "CREATE OR REPLACE FUNCTION monument_insert_search_document() RETURNS trigger AS $$ BEGIN " +
+            "INSERT INTO monument_search (monument_id, title, artist, description, date_year, is_active, " +
+            "is_temporary, projected_coordinates) VALUES (NEW.id, normalize_for_search(NEW.title), " +
+            "normalize_for_search(NEW.artist), normalize_for_search(NEW.description), " +
+            "CAST(extract(year FROM NEW.date) AS integer), NEW.is_active, NEW.is_temporary, " +
+            "NEW.projected_coordinates) ON CONFLICT (monument_id) DO NOTHING; " +
+            "RETURN NULL; END $$ LANGUAGE plpgsql"
+        );
+        this.jdbcTemplate.execute("DROP TRIGGER IF EXISTS monument_insert_search_document ON monument");
+        this.jdbcTemplate.execute(
+            "CREATE TRIGGER monument_insert_search_document AFTER INSERT ON monument " +
+            "FOR EACH ROW EXECUTE PROCEDURE monument_insert_search_document()"
+        );
+    }
+
+    /**
+     * Create normalize_for_search, which lowercases text and removes its accents, on Postgres
+     * The text of monument_search is normalized with it whenever Postgres writes it, and searches on Postgres
+     * normalize the search text with it, so the two are always normalized the same way. Without the unaccent extension
+     * it only lowercases
+     */
+    private void createNormalizeForSearchFunction() {
+        String normalized = "lower($1)";
+        try {
+            this.jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+            normalized = "lower(unaccent('unaccent', $1))";
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not create the unaccent extension, searches will not ignore accents");
+        }
+        this.jdbcTemplate.execute("CREATE OR REPLACE FUNCTION normalize_for_search(text) RETURNS text AS $$ SELECT " +
+            normalized + " $$ LANGUAGE sql IMMUTABLE");
+    }
+
+    /**
+     * Create the pg_trgm functions used by text searches once the application has started, if it is connected to H2
+     * Also create normalize_for_search from StringHelper.normalizeForSearch, and add the columns of monument_search
+     * that Postgres fills in, which stay empty in H2
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void createH2SearchFunctions() {
+        if (!this.isH2()) {
+            return;
+        }
+
+        try {
+            this.jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                H2TrigramFunctions.register(connection, this.similarityThreshold, this.wordSimilarityThreshold);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE ALIAS IF NOT EXISTS normalize_for_search FOR \"" +
+                        StringHelper.class.getName() + ".normalizeForSearch\"");
+                }
+                return null;
+            });
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not create the H2 search functions, text search will not work");
+        }
+
+        // Plain columns stand in for the Postgres-only columns of monument_search, so that its rows can be loaded
+        try {
+            for (String column : Arrays.asList("tag_ids", "material_ids")) {
+                this.jdbcTemplate.execute("ALTER TABLE monument_search ADD COLUMN IF NOT EXISTS " + column + " VARCHAR");
+            }
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not add the Postgres-only monument_search columns to H2");
+        }
+    }
+
+    /**
+     * Create the index with the specified name using the specified statement
+     * A CONCURRENTLY build that fails part way through leaves behind an invalid index, which "IF NOT EXISTS" would
+     * then skip forever, so an invalid index is dropped and built again
+     * @param name - The name of the index to create
+     * @param statement - The CREATE INDEX CONCURRENTLY IF NOT EXISTS statement for the index
+     */
+    public void createIndex(String name, String statement) {
+        try {
+            if (Boolean.FALSE.equals(this.getIndexValidity(name))) {
+                this.jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+            this.jdbcTemplate.execute(statement);
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not create search index " + name);
+        }
+    }
+
+    /**
+     * Give projected_coordinates its geometry(Point, feetSrid) type on tables that were created before it had one, and
+     * create the trigger that sets it from the coordinates whenever a Monument is inserted or its coordinates are
+     * updated, so that it is written in the same statement as the coordinates and is never out of date
+     */
+    public void createProjectedCoordinatesTrigger() {
+        String type = "geometry(Point, " + MonumentService.feetSrid + ")";
+        try {
+            if (!this.hasSrid("monument", "projected_coordinates", MonumentService.feetSrid)) {
+                this.jdbcTemplate.execute("ALTER TABLE monument ALTER COLUMN projected_coordinates TYPE " + type +
+                    " USING ST_Transform(coordinates, " + MonumentService.feetSrid + ")");
+            }
+            if (!this.hasSrid("monument_search", "projected_coordinates", MonumentService.feetSrid)) {
+                this.jdbcTemplate.execute("ALTER TABLE monument_search ALTER COLUMN projected_coordinates TYPE " + type +
+                    " USING ST_SetSRID(projected_coordinates, " + MonumentService.feetSrid + ")");
+            }
+
+            this.jdbcTemplate.execute(
+                "CREATE OR REPLACE FUNCTION monument_project_coordinates() RETURNS trigger AS $$ BEGIN " +
+                "NEW.projected_coordinates := ST_Transform(NEW.coordinates, " + MonumentService.feetSrid + "); " +
+                "RETURN NEW; END $$ LANGUAGE plpgsql"
+            );
+            this.jdbcTemplate.execute("DROP TRIGGER IF EXISTS monument_project_coordinates ON monument");
+            this.jdbcTemplate.execute(
+                "CREATE TRIGGER monument_project_coordinates BEFORE INSERT OR UPDATE OF coordinates ON monument " +
+                "FOR EACH ROW EXECUTE PROCEDURE monument_project_coordinates()"
+            );
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not create the projected coordinates trigger, radius searches will be wrong");
+        }
+    }
+
+    /**
+     * @return boolean - True if the specified geometry column is declared with the specified SRID
+     */
+    private boolean hasSrid(String table, String column, int srid) {
+        List<Integer> srids = this.jdbcTemplate.queryForList(
+            "SELECT srid FROM geometry_columns WHERE f_table_name = ? AND f_geometry_column = ?", Integer.class,
+            table, column
+        );
+        return !srids.isEmpty() && srids.get(0) == srid;
+    }
+
+    /**
+     * Populate projected_coordinates for any Monuments that have coordinates but were saved before the trigger that
+     * sets it existed. The trigger keeps the column up to date after that
+     */
+    public void backfillProjectedCoordinates() {
+        try {
+            this.jdbcTemplate.update(
+                "UPDATE monument SET projected_coordinates = ST_Transform(coordinates, " + MonumentService.feetSrid + ") " +
+                "WHERE coordinates IS NOT NULL AND projected_coordinates IS NULL"
+            );
+        } catch (DataAccessException e) {
+            this.rollbar.error(e, "Could not backfill the projected coordinates of monuments");
+        }
+    }
+
+    /**
+     * Check that each of the specified indexes exists and is valid
+     * @param names - The names of the indexes to check
+     * @return List<String> - The names of the indexes that are missing or invalid
+     */
+    public List<String> verifyIndexes(List<String> names) {
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (!Boolean.TRUE.equals(this.getIndexValidity(name))) {
+                missing.add(name);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * @return List<String> - The names of the search indexes that were missing or invalid at startup
+     */
+    public List<String> getMissingIndexes() {
+        return this.missingIndexes;
+    }
+
+    /**
+     * @return boolean - True if the Postgres-only columns of the monument_search table exist and can be filled in,
+     * false otherwise
+     */
+    public boolean hasSearchDocumentColumns() {
+        return this.hasSearchDocumentColumns;
+    }
+
+    /**
+     * @return boolean - True if the monument_search table has been built and searches can filter on it, false otherwise
+     */
+    public boolean isSearchDocumentsReady() {
+        return this.isSearchDocumentsReady;
+    }
+
+    /**
+     * @return boolean - True if the application is connected to a PostgreSQL database, false otherwise
+     */
+    public boolean isPostgres() {
+        return "PostgreSQL".equalsIgnoreCase(this.getDatabaseProductName());
+    }
+
+    /**
+     * @return boolean - True if the application is connected to an H2 database, false otherwise
+     */
+    public boolean isH2() {
+        return "H2".equalsIgnoreCase(this.getDatabaseProductName());
+    }
+
+    /**
+     * @return String - The name of the database the application is connected to, or an empty String if it could not
+     * be read
+     */
+    private String getDatabaseProductName() {
+        if (this.databaseProductName == null) {
+            try {
+                this.databaseProductName = JdbcUtils.extractDatabaseMetaData(this.dataSource, "getDatabaseProductName");
+            } catch (MetaDataAccessException e) {
+                this.databaseProductName = "";
+            }
+        }
+        return this.databaseProductName;
+    }
+
+    /**
+     * @param name - The name of the index to look up
+     * @return Boolean - True if the index is valid, false if it is invalid and null if it does not exist
+     */
+    private Boolean getIndexValidity(String name) {
+        List<Boolean> validity = this.jdbcTemplate.queryForList(
+            "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?",
+            Boolean.class, name
+        );
+        return validity.isEmpty() ? null : validity.get(0);
+    }
+}
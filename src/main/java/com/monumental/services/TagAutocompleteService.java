@@ -0,0 +1,118 @@
+package com.monumental.services;
+
+import com.monumental.models.Tag;
+import com.monumental.repositories.TagRepository;
+import com.monumental.services.events.MonumentChangedEvent;
+import com.monumental.services.events.TagChangedEvent;
+import com.monumental.util.search.TagAutocompleteIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This service answers Tag and Material autocomplete searches from an in-memory TagAutocompleteIndex instead of
+ * running similarity functions over the whole tag table on every keystroke
+ * The index is built when the application starts, and TagService.search answers searches until it is ready. Creating
+ * and updating Monuments creates and removes Tags and changes how many Monuments use them, so the index is rebuilt in
+ * the background a while after a Monument changes. Every change made in that while is picked up by the same rebuild,
+ * and searches keep using the previous index until the new one is ready
+ */
+@Service
+public class TagAutocompleteService {
+
+    /**
+     * The maximum number of Tags returned by a search, the same as TagService.search
+     */
+    private static final int limit = 10;
+
+    /**
+     * How long to wait after a Monument changes before rebuilding the index
+     */
+    @Value("${TAG_AUTOCOMPLETE_REBUILD_DELAY_MILLIS:10000}")
+    private long rebuildDelayMillis;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    @Qualifier("tagAutocompleteTaskScheduler")
+    private TaskScheduler taskScheduler;
+
+    private volatile TagAutocompleteIndex index;
+
+    private final AtomicBoolean isRebuildScheduled = new AtomicBoolean();
+
+    /**
+     * Search for Tags or Materials whose names match the specified search
+     * @param searchQuery - The search, usually the start of a Tag's name
+     * @param isMaterial - If true, only Materials are returned. If false, only Tags are returned. If null, nothing is
+     * @return List<Tag> - The best matching Tags, best match first
+     */
+    public List<Tag> search(String searchQuery, Boolean isMaterial) {
+        TagAutocompleteIndex index = this.index;
+        if (index == null) {
+            return this.tagService.search(searchQuery, isMaterial);
+        }
+        return index.search(searchQuery, isMaterial, limit);
+    }
+
+    /**
+     * Build the index when the application starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        this.rebuildIndex();
+    }
+
+    /**
+     * Read every Tag and how many Monuments use it into a new index and publish it
+     */
+    public synchronized void rebuildIndex() {
+        Map<Integer, Long> usesByTagId = new HashMap<>();
+        for (Object[] result : this.tagRepository.getAllOrderByMostUsedDesc()) {
+            usesByTagId.put(((Tag) result[0]).getId(), (Long) result[1]);
+        }
+
+        this.index = new TagAutocompleteIndex(this.tagRepository.findAll(), usesByTagId);
+    }
+
+    /**
+     * Schedule a rebuild of the index whenever a Monument changes, unless one is already scheduled
+     * The flag is cleared before the rebuild reads anything, so a change made while it runs schedules another one
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonumentChanged(MonumentChangedEvent event) {
+        this.scheduleRebuild();
+    }
+
+    /**
+     * Schedule a rebuild of the index whenever a Tag is renamed or deleted, unless one is already scheduled
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        this.scheduleRebuild();
+    }
+
+    private void scheduleRebuild() {
+        if (this.isRebuildScheduled.compareAndSet(false, true)) {
+            this.taskScheduler.schedule(() -> {
+                this.isRebuildScheduled.set(false);
+                this.rebuildIndex();
+            }, new Date(System.currentTimeMillis() + this.rebuildDelayMillis));
+        }
+    }
+}
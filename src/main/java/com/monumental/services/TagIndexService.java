@@ -0,0 +1,296 @@
+package com.monumental.services;
+
+import com.monumental.repositories.MonumentTagRepository;
+import com.monumental.services.events.MonumentChangedEvent;
+import com.monumental.services.events.TagChangedEvent;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.Tuple;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This service keeps an in-memory index from every Tag and Material to a compressed bitmap of the IDs of the Monuments
+ * that have it, so that searches filtered by Tags and Materials can find the matching Monuments with bitmap operations
+ * instead of counting the matching Tags of every candidate Monument in a sub-query
+ * Tags are indexed by name, the same way the search filters match them. The index is built when the application starts
+ * and updated in the background whenever a Monument changes or a Tag is renamed or deleted. Each version of the index is published whole and never
+ * changed after that, so searches read it without locking
+ */
+@Service
+public class TagIndexService {
+
+    /**
+     * One published version of the index. Neither the maps nor the bitmaps in them are changed once it is published
+     */
+    private static class TagBitmaps {
+
+        private final Map<String, RoaringBitmap> monumentIdsByTagName;
+
+        private final Map<String, RoaringBitmap> monumentIdsByMaterialName;
+
+        private TagBitmaps(Map<String, RoaringBitmap> monumentIdsByTagName,
+                           Map<String, RoaringBitmap> monumentIdsByMaterialName) {
+            this.monumentIdsByTagName = Collections.unmodifiableMap(monumentIdsByTagName);
+            this.monumentIdsByMaterialName = Collections.unmodifiableMap(monumentIdsByMaterialName);
+        }
+    }
+
+    @Autowired
+    private MonumentTagRepository monumentTagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    /**
+     * Null until the index has been built
+     */
+    private volatile TagBitmaps tagBitmaps;
+
+    /*
+     * The Tag and Material names of each Monument, so that it can be removed from their bitmaps when it changes. Only
+     * used while holding the lock on this service, by the build and by updates, never by searches
+     */
+
+    private final Map<Integer, Set<String>> tagNamesByMonumentId = new HashMap<>();
+
+    private final Map<Integer, Set<String>> materialNamesByMonumentId = new HashMap<>();
+
+    private final Set<Integer> changedMonumentIds = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void initialize() {
+        this.readOnlyTransactionTemplate = new TransactionTemplate(this.transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Get the IDs of the Monuments that have all of the specified Tags and at least one of the specified Materials
+     * @param tags - The names of the Tags that the Monuments must all have. Ignored if null or empty
+     * @param materials - The names of the Materials that the Monuments must have at least one of. Ignored if null or
+     *                  empty
+     * @return RoaringBitmap - The IDs of the matching Monuments, or null if neither Tags nor Materials were specified or
+     * the index has not been built yet
+     */
+    public RoaringBitmap getMonumentIds(List<String> tags, List<String> materials) {
+        TagBitmaps tagBitmaps = this.tagBitmaps;
+        if (tagBitmaps == null) {
+            return null;
+        }
+
+        RoaringBitmap ids = null;
+        if (tags != null && !tags.isEmpty()) {
+            ids = getMonumentIdsWithAll(tagBitmaps.monumentIdsByTagName, tags);
+        }
+        if (materials != null && !materials.isEmpty()) {
+            RoaringBitmap materialIds = getMonumentIdsWithAny(tagBitmaps.monumentIdsByMaterialName, materials);
+            ids = ids == null ? materialIds : RoaringBitmap.and(ids, materialIds);
+        }
+        return ids;
+    }
+
+    private static RoaringBitmap getMonumentIdsWithAll(Map<String, RoaringBitmap> monumentIdsByName,
+                                                       List<String> names) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String name : new HashSet<>(names)) {
+            RoaringBitmap bitmap = monumentIdsByName.get(name);
+            if (bitmap == null) {
+                return new RoaringBitmap();
+            }
+            bitmaps.add(bitmap);
+        }
+
+        // Intersecting the smallest bitmaps first keeps the intermediate results small
+        bitmaps.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap ids = bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !ids.isEmpty(); i++) {
+            ids.and(bitmaps.get(i));
+        }
+        return ids;
+    }
+
+    private static RoaringBitmap getMonumentIdsWithAny(Map<String, RoaringBitmap> monumentIdsByName,
+                                                       List<String> names) {
+        RoaringBitmap ids = new RoaringBitmap();
+        for (String name : new HashSet<>(names)) {
+            RoaringBitmap bitmap = monumentIdsByName.get(name);
+            if (bitmap != null) {
+                ids.or(bitmap);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Build the index when the application starts
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        this.rebuildIndex();
+    }
+
+    /**
+     * Read the Tags and Materials of every Monument into a new index and publish it
+     */
+    public synchronized void rebuildIndex() {
+        this.changedMonumentIds.clear();
+        this.tagNamesByMonumentId.clear();
+        this.materialNamesByMonumentId.clear();
+
+        TagBitmaps tagBitmaps = new TagBitmaps(new HashMap<>(), new HashMap<>());
+        this.publish(tagBitmaps, this.readOnlyTransactionTemplate.execute(status ->
+            this.monumentTagRepository.getAllTagNames()
+        ), new ArrayList<>());
+    }
+
+    /**
+     * Update the index in the background whenever a Monument is created, updated or deleted. Creating and updating a
+     * Monument also creates and updates its Tags
+     * Changes that arrive while an update is running are applied together by the next one
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMonumentChanged(MonumentChangedEvent event) {
+        this.changedMonumentIds.add(event.getMonumentId());
+        this.updateChangedMonuments();
+    }
+
+    /**
+     * Update the index in the background whenever a Tag or Material is renamed or deleted, since the Monuments that had
+     * it change without a MonumentChangedEvent
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTagChanged(TagChangedEvent event) {
+        this.updateTag(event.getOldName(), event.getIsMaterial());
+    }
+
+    /**
+     * Re-read the Tags and Materials of every Monument in the index that has the specified Tag or Material name, so
+     * that a renamed Tag moves to its new name and a deleted Tag is removed
+     * @param name - The name of the Tag or Material before it was renamed or deleted
+     * @param isMaterial - Whether or not it is a Material
+     */
+    public void updateTag(String name, Boolean isMaterial) {
+        TagBitmaps tagBitmaps = this.tagBitmaps;
+        if (tagBitmaps == null) {
+            return;
+        }
+
+        RoaringBitmap ids = (Boolean.TRUE.equals(isMaterial)
+            ? tagBitmaps.monumentIdsByMaterialName
+            : tagBitmaps.monumentIdsByTagName).get(name);
+        if (ids == null) {
+            return;
+        }
+        ids.forEach((int id) -> this.changedMonumentIds.add(id));
+        this.updateChangedMonuments();
+    }
+
+    /**
+     * Update the index for every changed Monument. Changes that arrive while an update is running are applied together
+     * by the next one
+     */
+    private void updateChangedMonuments() {
+        List<Integer> ids = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Integer> iterator = this.changedMonumentIds.iterator(); iterator.hasNext();) {
+                ids.add(iterator.next());
+                iterator.remove();
+            }
+            if (!ids.isEmpty()) {
+                this.updateIndex(ids);
+            }
+        }
+    }
+
+    /**
+     * Re-read the Tags and Materials of the specified Monuments into a copy of the index and publish it. Only the
+     * bitmaps of the Tags and Materials they had before or after the change are copied. Does nothing until the index
+     * has been built, since the build reads every Monument
+     * @param monumentIds - The IDs of the Monuments that changed
+     */
+    public synchronized void updateIndex(List<Integer> monumentIds) {
+        if (this.tagBitmaps == null) {
+            return;
+        }
+
+        this.publish(this.tagBitmaps, this.readOnlyTransactionTemplate.execute(status ->
+            this.monumentTagRepository.getTagNamesByMonumentIds(monumentIds)
+        ), monumentIds);
+    }
+
+    /**
+     * Remove the specified Monuments from copies of the bitmaps they are in, add the entries to copies of the bitmaps
+     * they belong in, then publish the result as the new index
+     */
+    private void publish(TagBitmaps previous, List<Tuple> entries, List<Integer> removedMonumentIds) {
+        Map<String, RoaringBitmap> monumentIdsByTagName = new HashMap<>(previous.monumentIdsByTagName);
+        Map<String, RoaringBitmap> monumentIdsByMaterialName = new HashMap<>(previous.monumentIdsByMaterialName);
+        Set<RoaringBitmap> copies = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Integer id : removedMonumentIds) {
+            removeMonument(monumentIdsByTagName, copies, this.tagNamesByMonumentId.remove(id), id);
+            removeMonument(monumentIdsByMaterialName, copies, this.materialNamesByMonumentId.remove(id), id);
+        }
+
+        for (Tuple entry : entries) {
+            Integer monumentId = entry.get("monumentId", Integer.class);
+            String name = entry.get("name", String.class);
+            boolean isMaterial = Boolean.TRUE.equals(entry.get("isMaterial", Boolean.class));
+
+            getCopy(isMaterial ? monumentIdsByMaterialName : monumentIdsByTagName, copies, name).add(monumentId);
+            (isMaterial ? this.materialNamesByMonumentId : this.tagNamesByMonumentId)
+                .computeIfAbsent(monumentId, id -> new HashSet<>()).add(name);
+        }
+
+        for (RoaringBitmap bitmap : copies) {
+            bitmap.runOptimize();
+        }
+        this.tagBitmaps = new TagBitmaps(monumentIdsByTagName, monumentIdsByMaterialName);
+    }
+
+    private static void removeMonument(Map<String, RoaringBitmap> monumentIdsByName, Set<RoaringBitmap> copies,
+                                       Set<String> names, Integer id) {
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            RoaringBitmap bitmap = getCopy(monumentIdsByName, copies, name);
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                monumentIdsByName.remove(name);
+            }
+        }
+    }
+
+    /**
+     * Get the bitmap for the specified name, replacing it with a copy the first time it is changed so that the bitmaps
+     * of the published index are never changed
+     */
+    private static RoaringBitmap getCopy(Map<String, RoaringBitmap> monumentIdsByName, Set<RoaringBitmap> copies,
+                                         String name) {
+        RoaringBitmap bitmap = monumentIdsByName.get(name);
+        if (bitmap == null) {
+            bitmap = new RoaringBitmap();
+        } else if (!copies.contains(bitmap)) {
+            bitmap = bitmap.clone();
+        } else {
+            return bitmap;
+        }
+        copies.add(bitmap);
+        monumentIdsByName.put(name, bitmap);
+        return bitmap;
+    }
+}
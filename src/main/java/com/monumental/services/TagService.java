@@ -5,7 +5,10 @@ import com.monumental.models.MonumentTag;
 import com.monumental.models.Tag;
 import com.monumental.repositories.MonumentTagRepository;
 import com.monumental.repositories.TagRepository;
+import com.monumental.services.events.TagChangedEvent;
+import com.monumental.util.search.QueryParameters;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.persistence.criteria.CriteriaBuilder;
@@ -29,6 +32,9 @@ public class TagService extends ModelService<Tag> {
     @Autowired
     private MonumentTagRepository monumentTagRepository;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * Search for tags by name, allowing for some fuzziness and ordering by how closely they match
      * @param searchQuery The term to search tag names by
@@ -40,18 +46,21 @@ public class TagService extends ModelService<Tag> {
         Root<Tag> root = this.createRoot(query);
         query.select(root);
 
-        Expression<Number> similarity = builder.function("similarity", Number.class, root.get("name"), builder.literal(searchQuery));
-        Expression<Number> wordSimilarity = builder.function("word_similarity", Number.class, root.get("name"), builder.literal(searchQuery));
+        QueryParameters parameters = new QueryParameters();
+        Expression<String> searchQueryParameter = parameters.bind(builder, String.class, searchQuery);
+
+        Expression<Number> similarity = builder.function("similarity", Number.class, root.get("name"), searchQueryParameter);
+        Expression<Number> wordSimilarity = builder.function("word_similarity", Number.class, root.get("name"), searchQueryParameter);
 
         query.where(
             builder.and(
                 builder.gt(wordSimilarity, 0.25),
-                builder.equal(root.get("isMaterial"), isMaterial)
+                builder.equal(root.get("isMaterial"), parameters.bind(builder, Boolean.class, isMaterial))
             )
         );
         query.orderBy(builder.desc(builder.sum(wordSimilarity, similarity)));
 
-        return this.getWithCriteriaQuery(query, 10);
+        return this.getWithCriteriaQuery(query, parameters, 10);
     }
 
     /**
@@ -86,6 +95,44 @@ public class TagService extends ModelService<Tag> {
         return tag;
     }
 
+    /**
+     * Rename the specified Tag. Every Monument that has it has the new name from then on
+     * @param tag - Tag to rename
+     * @param name - The new name of the Tag
+     * @return Tag - The renamed Tag
+     */
+    public Tag renameTag(Tag tag, String name) {
+        if (tag == null || isNullOrEmpty(name)) {
+            return null;
+        }
+
+        String oldName = tag.getName();
+        tag.setName(name);
+        tag = this.tagRepository.saveAndFlush(tag);
+
+        this.applicationEventPublisher.publishEvent(
+            new TagChangedEvent(tag.getId(), TagChangedEvent.ChangeType.RENAMED, oldName, tag.getIsMaterial())
+        );
+        return tag;
+    }
+
+    /**
+     * Delete the specified Tag and remove it from every Monument that has it
+     * @param tag - Tag to delete
+     */
+    public void deleteTag(Tag tag) {
+        if (tag == null) {
+            return;
+        }
+
+        this.tagRepository.delete(tag);
+        this.tagRepository.flush();
+
+        this.applicationEventPublisher.publishEvent(
+            new TagChangedEvent(tag.getId(), TagChangedEvent.ChangeType.DELETED, tag.getName(), tag.getIsMaterial())
+        );
+    }
+
     /**
      * Remove the specified Tag from the specified Monument
      * This method should be used ANYTIME you want to remove an association between a Monument and a Tag
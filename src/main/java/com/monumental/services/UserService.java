@@ -10,6 +10,7 @@ import com.monumental.repositories.UserRepository;
 import com.monumental.repositories.VerificationTokenRepository;
 import com.monumental.security.Role;
 import com.monumental.security.UserAwareUserDetails;
+import com.monumental.util.search.QueryParameters;
 import com.monumental.util.search.SearchHelper;
 import com.rollbar.notifier.Rollbar;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -294,13 +295,14 @@ public class UserService extends ModelService<User> {
         Root<User> root = this.createRoot(query);
         query.select(root);
 
-        this.buildSearchQuery(builder, query, root, name, email, role, true);
+        QueryParameters parameters = new QueryParameters();
+        this.buildSearchQuery(builder, query, root, parameters, name, email, role, true);
 
         return limit != null
             ? page != null
-                ? this.getWithCriteriaQuery(query, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
-                : this.getWithCriteriaQuery(query, Integer.parseInt(limit))
-            : this.getWithCriteriaQuery(query);
+                ? this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
+                : this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit))
+            : this.getWithCriteriaQuery(query, parameters);
     }
 
     /**
@@ -308,20 +310,23 @@ public class UserService extends ModelService<User> {
      * @param builder - The CriteriaBuilder to use to help build the CriteriaQuery
      * @param query - The CriteriaQuery to add the searching logic to
      * @param root - The Root to use with the CriteriaQuery
+     * @param parameters - QueryParameters to bind the search values to. They must be applied to the query when it is
+     *                   executed
      * @param name - The string to search names against, using pg_trgm similarity
      * @param email - The string to search email addresses against, using pg_trgm similarity
      * @param roleName - The role to filter by exactly (can be null if not filtering by role)
      * @param orderBySimilarity - If true, the results will be ordered by their similarity scores for any similarity
      *                          queries that were used
      */
-    private void buildSearchQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, String name, String email,
-                                  String roleName, boolean orderBySimilarity) {
+    private void buildSearchQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, QueryParameters parameters,
+                                  String name, String email, String roleName, boolean orderBySimilarity) {
         List<Predicate> predicates = new ArrayList<>();
         List<Expression<Number>> expressions = new ArrayList<>();
 
         if (!isNullOrEmpty(name)) {
-            Expression<Number> firstNameExpression = SearchHelper.buildSimilarityExpression(builder, root, name, "firstName");
-            Expression<Number> lastNameExpression = SearchHelper.buildSimilarityExpression(builder, root, name, "lastName");
+            Expression<String> nameParameter = parameters.bind(builder, String.class, name);
+            Expression<Number> firstNameExpression = SearchHelper.buildSimilarityExpression(builder, root, nameParameter, "firstName");
+            Expression<Number> lastNameExpression = SearchHelper.buildSimilarityExpression(builder, root, nameParameter, "lastName");
             predicates.add(builder.or(
                     SearchHelper.buildSimilarityPredicate(builder, firstNameExpression, 0.1),
                     SearchHelper.buildSimilarityPredicate(builder, lastNameExpression, 0.1)
@@ -330,7 +335,8 @@ public class UserService extends ModelService<User> {
             expressions.add(lastNameExpression);
         }
         if (!isNullOrEmpty(email)) {
-            Expression<Number> emailExpression = SearchHelper.buildSimilarityExpression(builder, root, email, "email");
+            Expression<Number> emailExpression = SearchHelper.buildSimilarityExpression(builder, root,
+                parameters.bind(builder, String.class, email), "email");
             predicates.add(SearchHelper.buildSimilarityPredicate(builder, emailExpression, 0.1));
             expressions.add(emailExpression);
         }
@@ -339,7 +345,7 @@ public class UserService extends ModelService<User> {
         }
         if (!isNullOrEmpty(roleName)) {
             Role role = Role.valueOf(roleName.toUpperCase());
-            predicates.add(builder.equal(builder.literal(role), root.get("role")));
+            predicates.add(builder.equal(parameters.bind(builder, Role.class, role), root.get("role")));
         }
 
         SearchHelper.executeQueryWithPredicates(builder, query, predicates);
@@ -354,7 +360,8 @@ public class UserService extends ModelService<User> {
         CriteriaQuery<Long> query = builder.createQuery(Long.class);
         Root<User> root = query.from(User.class);
         query.select(builder.countDistinct(root));
-        this.buildSearchQuery(builder, query, root, name, email, role, false);
+        QueryParameters parameters = new QueryParameters();
+        this.buildSearchQuery(builder, query, root, parameters, name, email, role, false);
 
         return this.getEntityManager().createQuery(query).getSingleResult().intValue();
     }
@@ -0,0 +1,56 @@
+package com.monumental.services.events;
+
+import org.locationtech.jts.geom.Point;
+
+/**
+ * Event published by MonumentService whenever a Monument is created, updated, activated, deactivated or deleted
+ * Anything that is derived from the Monuments, such as caches and indexes, can listen for it to stay up to date
+ * Listeners should use @TransactionalEventListener(fallbackExecution = true) so that they only run once the change
+ * has been committed
+ */
+public class MonumentChangedEvent {
+
+    /**
+     * This enum describes what happened to the Monument
+     */
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Integer monumentId;
+
+    private final ChangeType changeType;
+
+    private final Point oldCoordinates;
+
+    private final Point newCoordinates;
+
+    /**
+     * @param monumentId - ID of the Monument that changed
+     * @param changeType - What happened to the Monument
+     * @param oldCoordinates - The coordinates of the Monument before the change, null if it was just created
+     * @param newCoordinates - The coordinates of the Monument after the change, null if it was deleted
+     */
+    public MonumentChangedEvent(Integer monumentId, ChangeType changeType, Point oldCoordinates, Point newCoordinates) {
+        this.monumentId = monumentId;
+        this.changeType = changeType;
+        this.oldCoordinates = oldCoordinates;
+        this.newCoordinates = newCoordinates;
+    }
+
+    public Integer getMonumentId() {
+        return this.monumentId;
+    }
+
+    public ChangeType getChangeType() {
+        return this.changeType;
+    }
+
+    public Point getOldCoordinates() {
+        return this.oldCoordinates;
+    }
+
+    public Point getNewCoordinates() {
+        return this.newCoordinates;
+    }
+}
@@ -0,0 +1,55 @@
+package com.monumental.services.events;
+
+/**
+ * Event published by TagService whenever a Tag or Material is renamed or deleted
+ * The Monuments that had the Tag change without a MonumentChangedEvent, so anything that is derived from the names of
+ * their Tags, such as caches and indexes, can listen for it to stay up to date
+ * Listeners should use @TransactionalEventListener(fallbackExecution = true) so that they only run once the change
+ * has been committed
+ */
+public class TagChangedEvent {
+
+    /**
+     * This enum describes what happened to the Tag
+     */
+    public enum ChangeType {
+        RENAMED, DELETED
+    }
+
+    private final Integer tagId;
+
+    private final ChangeType changeType;
+
+    private final String oldName;
+
+    private final Boolean isMaterial;
+
+    /**
+     * @param tagId - ID of the Tag that changed
+     * @param changeType - What happened to the Tag
+     * @param oldName - The name of the Tag before the change
+     * @param isMaterial - Whether or not the Tag is a Material
+     */
+    public TagChangedEvent(Integer tagId, ChangeType changeType, String oldName, Boolean isMaterial) {
+        this.tagId = tagId;
+        this.changeType = changeType;
+        this.oldName = oldName;
+        this.isMaterial = isMaterial;
+    }
+
+    public Integer getTagId() {
+        return this.tagId;
+    }
+
+    public ChangeType getChangeType() {
+        return this.changeType;
+    }
+
+    public String getOldName() {
+        return this.oldName;
+    }
+
+    public Boolean getIsMaterial() {
+        return this.isMaterial;
+    }
+}
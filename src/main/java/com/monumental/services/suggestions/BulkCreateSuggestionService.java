@@ -7,6 +7,7 @@ import com.monumental.repositories.suggestions.BulkCreateSuggestionRepository;
 import com.monumental.repositories.suggestions.CreateSuggestionRepository;
 import com.monumental.services.ModelService;
 import com.monumental.services.UserService;
+import com.monumental.util.search.QueryParameters;
 import com.monumental.util.search.SearchHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -77,14 +78,15 @@ public class BulkCreateSuggestionService extends ModelService<BulkCreateMonument
             userJoin = root.join("createdBy");
         }
 
-        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, searchQuery, isApproved, isRejected,
-                true, false);
+        QueryParameters parameters = new QueryParameters();
+        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, parameters, searchQuery, isApproved,
+                isRejected, true, false);
 
         return limit != null
                 ? page != null
-                    ? this.getWithCriteriaQuery(query, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
-                    : this.getWithCriteriaQuery(query, Integer.parseInt(limit))
-                : this.getWithCriteriaQuery(query);
+                    ? this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
+                    : this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit))
+                : this.getWithCriteriaQuery(query, parameters);
     }
 
     /**
@@ -103,9 +105,10 @@ public class BulkCreateSuggestionService extends ModelService<BulkCreateMonument
             userJoin = root.join("createdBy");
         }
 
-        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, searchQuery, isApproved, isRejected,
-                false, false);
+        QueryParameters parameters = new QueryParameters();
+        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, parameters, searchQuery, isApproved,
+                isRejected, false, false);
 
-        return this.getEntityManager().createQuery(query).getSingleResult().intValue();
+        return parameters.applyTo(this.getEntityManager().createQuery(query)).getSingleResult().intValue();
     }
 }
@@ -6,6 +6,7 @@ import com.monumental.models.suggestions.CreateMonumentSuggestion;
 import com.monumental.repositories.suggestions.CreateSuggestionRepository;
 import com.monumental.services.ModelService;
 import com.monumental.services.UserService;
+import com.monumental.util.search.QueryParameters;
 import com.monumental.util.search.SearchHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -62,14 +63,15 @@ public class CreateSuggestionService extends ModelService<CreateMonumentSuggesti
             userJoin = root.join("createdBy");
         }
 
-        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, searchQuery, isApproved, isRejected,
-                true, true);
+        QueryParameters parameters = new QueryParameters();
+        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, parameters, searchQuery, isApproved,
+                isRejected, true, true);
 
         return limit != null
             ? page != null
-                ? this.getWithCriteriaQuery(query, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
-                : this.getWithCriteriaQuery(query, Integer.parseInt(limit))
-            : this.getWithCriteriaQuery(query);
+                ? this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
+                : this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit))
+            : this.getWithCriteriaQuery(query, parameters);
     }
 
     /**
@@ -88,9 +90,10 @@ public class CreateSuggestionService extends ModelService<CreateMonumentSuggesti
             userJoin = root.join("createdBy");
         }
 
-        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, searchQuery, isApproved, isRejected,
-                false, true);
+        QueryParameters parameters = new QueryParameters();
+        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, parameters, searchQuery, isApproved,
+                isRejected, false, true);
 
-        return this.getEntityManager().createQuery(query).getSingleResult().intValue();
+        return parameters.applyTo(this.getEntityManager().createQuery(query)).getSingleResult().intValue();
     }
 }
@@ -7,6 +7,7 @@ import com.monumental.models.suggestions.UpdateMonumentSuggestion;
 import com.monumental.repositories.suggestions.UpdateSuggestionRepository;
 import com.monumental.services.ModelService;
 import com.monumental.services.UserService;
+import com.monumental.util.search.QueryParameters;
 import com.monumental.util.search.SearchHelper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -63,14 +64,15 @@ public class UpdateSuggestionService extends ModelService<UpdateMonumentSuggesti
             userJoin = root.join("createdBy");
         }
 
-        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, searchQuery, isApproved, isRejected,
-                true, false);
+        QueryParameters parameters = new QueryParameters();
+        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, parameters, searchQuery, isApproved,
+                isRejected, true, false);
 
         return limit != null
             ? page != null
-                ? this.getWithCriteriaQuery(query, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
-                : this.getWithCriteriaQuery(query, Integer.parseInt(limit))
-            : this.getWithCriteriaQuery(query);
+                ? this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit), (Integer.parseInt(page)) - 1)
+                : this.getWithCriteriaQuery(query, parameters, Integer.parseInt(limit))
+            : this.getWithCriteriaQuery(query, parameters);
     }
 
     /**
@@ -89,10 +91,11 @@ public class UpdateSuggestionService extends ModelService<UpdateMonumentSuggesti
             userJoin = root.join("createdBy");
         }
 
-        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, searchQuery, isApproved, isRejected,
-                false, false);
+        QueryParameters parameters = new QueryParameters();
+        SearchHelper.buildSuggestionSearchQuery(builder, query, root, userJoin, parameters, searchQuery, isApproved,
+                isRejected, false, false);
 
-        return this.getEntityManager().createQuery(query).getSingleResult().intValue();
+        return parameters.applyTo(this.getEntityManager().createQuery(query)).getSingleResult().intValue();
     }
 
     /**
@@ -0,0 +1,131 @@
+package com.monumental.util.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single call
+ * The first caller for a key runs the call, and any callers that arrive for the same key while it is still running wait
+ * for it to finish and get the same result, or the same exception, instead of running the call again
+ * Callers only wait for a limited time. If the running call takes longer than that, they stop waiting and run the call
+ * themselves, so one slow call can not hold up every identical call behind it indefinitely
+ * Nothing is remembered once the call finishes, so this is not a cache
+ * @param <K> The type of the keys that identify identical calls
+ * @param <V> The type of the results of the calls
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    private final AtomicLong timedOutCount = new AtomicLong();
+
+    private final long timeoutMillis;
+
+    /**
+     * @param timeoutMillis - The longest that a caller waits for an identical running call before running the call
+     * itself
+     */
+    public SingleFlight(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * The result of a call, and whether or not this caller is the one that ran it
+     * @param <V> The type of the result of the call
+     */
+    public static class Result<V> {
+
+        private final V value;
+
+        private final boolean leader;
+
+        private Result(V value, boolean leader) {
+            this.value = value;
+            this.leader = leader;
+        }
+
+        public V getValue() {
+            return this.value;
+        }
+
+        /**
+         * @return boolean - True if this caller ran the call, false if it got the result of an identical call that
+         * another caller ran
+         */
+        public boolean isLeader() {
+            return this.leader;
+        }
+    }
+
+    /**
+     * Run the specified call, unless a call with the same key is already running, in which case wait for its result
+     * If that call does not finish within the timeout, run the call anyway
+     * @param key - The key that identifies identical calls
+     * @param call - The call to run
+     * @return Result<V> - The result of the call, and whether or not it was run by this caller
+     */
+    public Result<V> execute(K key, Supplier<V> call) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = this.calls.putIfAbsent(key, future);
+        if (running != null) {
+            this.coalescedCount.incrementAndGet();
+            try {
+                return new Result<>(this.await(running), false);
+            } catch (TimeoutException e) {
+                this.timedOutCount.incrementAndGet();
+                return new Result<>(call.get(), true);
+            }
+        }
+
+        try {
+            V result = call.get();
+            future.complete(result);
+            return new Result<>(result, true);
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.calls.remove(key, future);
+        }
+    }
+
+    /**
+     * @return long - The number of calls that waited for an identical running call instead of running themselves
+     */
+    public long getCoalescedCount() {
+        return this.coalescedCount.get();
+    }
+
+    /**
+     * @return long - The number of calls that waited for an identical running call, but ran themselves after it took
+     * longer than the timeout
+     */
+    public long getTimedOutCount() {
+        return this.timedOutCount.get();
+    }
+
+    private V await(CompletableFuture<V> future) throws TimeoutException {
+        try {
+            return future.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            // Stop waiting, but leave the interrupt for the caller to handle once it has run the call itself
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for an identical call");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.monumental.util.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe in-memory cache that holds at most maxSize entries
+ * When the cache is full, the least recently used entry is evicted to make room for a new one
+ * Optionally, the cache can also be limited to a maximum total weight, so that a few very large values can not use up
+ * all of the memory, and entries can expire after a time to live
+ * @param <K> The type of the cache keys
+ * @param <V> The type of the cached values
+ */
+public class LruCache<K, V> {
+
+    private static class Entry<V> {
+
+        private final V value;
+
+        private final long weight;
+
+        private final long createdAt;
+
+        private Entry(V value, long weight, long createdAt) {
+            this.value = value;
+            this.weight = weight;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final int maxSize;
+
+    private final long maxWeight;
+
+    private final ToLongFunction<V> weigher;
+
+    private final long timeToLiveMillis;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private long weight = 0;
+
+    private long evictionCount = 0;
+
+    /**
+     * @param maxSize - The maximum number of entries to hold
+     */
+    public LruCache(int maxSize) {
+        this(maxSize, Long.MAX_VALUE, value -> 1, 0);
+    }
+
+    /**
+     * @param maxSize - The maximum number of entries to hold
+     * @param maxWeight - The maximum total weight of the entries to hold
+     * @param weigher - Function that returns the weight of a value, such as the number of elements in a List
+     * @param timeToLiveMillis - The number of milliseconds after which an entry expires, or 0 if entries never expire
+     */
+    public LruCache(int maxSize, long maxWeight, ToLongFunction<V> weigher, long timeToLiveMillis) {
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.timeToLiveMillis = timeToLiveMillis;
+        // An access-ordered LinkedHashMap keeps the least recently used entry first
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param key - The key to look up
+     * @return V - The cached value for the key, or null if it is not cached or has expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = this.entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (this.isExpired(entry)) {
+            this.remove(key);
+            this.evictionCount++;
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Cache the specified value, evicting the least recently used entries until the cache is within its limits
+     * A value that is heavier than maxWeight on its own is not cached
+     */
+    public synchronized void put(K key, V value) {
+        long valueWeight = this.weigher.applyAsLong(value);
+        this.remove(key);
+        if (valueWeight > this.maxWeight) {
+            return;
+        }
+
+        this.entries.put(key, new Entry<>(value, valueWeight, System.currentTimeMillis()));
+        this.weight += valueWeight;
+
+        Iterator<Entry<V>> eldest = this.entries.values().iterator();
+        while (this.entries.size() > this.maxSize || this.weight > this.maxWeight) {
+            this.weight -= eldest.next().weight;
+            eldest.remove();
+            this.evictionCount++;
+        }
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> entry = this.entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        this.weight -= entry.weight;
+        return entry.value;
+    }
+
+    /**
+     * Remove every entry whose key matches the specified predicate
+     * @param predicate - Predicate that returns true for the keys to remove
+     */
+    public synchronized void removeIf(Predicate<K> predicate) {
+        Iterator<Map.Entry<K, Entry<V>>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (predicate.test(entry.getKey())) {
+                this.weight -= entry.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.weight = 0;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return long - The total weight of the cached entries
+     */
+    public synchronized long getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * @return long - The number of entries that have been evicted to make room for others or because they expired
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return this.timeToLiveMillis > 0 && System.currentTimeMillis() - entry.createdAt >= this.timeToLiveMillis;
+    }
+}
@@ -0,0 +1,230 @@
+package com.monumental.util.fetch;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+
+import javax.persistence.EntityManager;
+import javax.persistence.metamodel.*;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Initializes every lazy-loaded association of a list of records with a fixed number of queries for every 1000 records,
+ * instead of a few queries for every record
+ * The associations to initialize are read from the JPA metamodel once per entity class and then cached. Each collection
+ * is loaded for all of the records with one JOIN FETCH query, which also fetches the many-to-one associations of the
+ * elements in the collection, and each uninitialized many-to-one proxy is loaded with one IN query per association
+ */
+public class FetchPlan {
+
+    /**
+     * The maximum number of IDs bound to one query, well below the 32767 bind parameters that Postgres allows
+     */
+    private static final int batchSize = 1000;
+
+    private static final Map<Class<?>, FetchPlan> plans = new ConcurrentHashMap<>();
+
+    /**
+     * A collection of the entity, with the many-to-one associations of its elements that are fetched along with it
+     */
+    private static class CollectionFetch {
+
+        private final Member member;
+
+        private final String query;
+
+        private CollectionFetch(Member member, String query) {
+            this.member = member;
+            this.query = query;
+        }
+    }
+
+    /**
+     * A many-to-one or one-to-one association of the entity
+     */
+    private static class AssociationFetch {
+
+        private final Member member;
+
+        private final String query;
+
+        private AssociationFetch(Member member, String query) {
+            this.member = member;
+            this.query = query;
+        }
+    }
+
+    private final List<CollectionFetch> collections = new ArrayList<>();
+
+    private final List<AssociationFetch> associations = new ArrayList<>();
+
+    private final Member idMember;
+
+    private FetchPlan(EntityType<?> entityType) {
+        SingularAttribute<?, ?> id = entityType.getId(entityType.getIdType().getJavaType());
+        this.idMember = accessible(id.getJavaMember());
+
+        for (Attribute<?, ?> attribute : entityType.getAttributes()) {
+            if (attribute instanceof PluralAttribute) {
+                PluralAttribute<?, ?, ?> collection = (PluralAttribute<?, ?, ?>) attribute;
+                StringBuilder query = new StringBuilder("select e from ").append(entityType.getName())
+                    .append(" e left join fetch e.").append(collection.getName()).append(" c");
+                if (collection.getElementType() instanceof EntityType) {
+                    int join = 0;
+                    for (Attribute<?, ?> elementAttribute : ((EntityType<?>) collection.getElementType()).getAttributes()) {
+                        // The association back to the owner of the collection is already loaded
+                        if (elementAttribute.isAssociation() && !elementAttribute.isCollection() &&
+                                !elementAttribute.getJavaType().isAssignableFrom(entityType.getJavaType())) {
+                            query.append(" left join fetch c.").append(elementAttribute.getName())
+                                .append(" j").append(join++);
+                        }
+                    }
+                }
+                query.append(" where e.").append(id.getName()).append(" in :ids");
+                this.collections.add(new CollectionFetch(accessible(attribute.getJavaMember()), query.toString()));
+            } else if (attribute.isAssociation()) {
+                SingularAttribute<?, ?> association = (SingularAttribute<?, ?>) attribute;
+                EntityType<?> targetType = (EntityType<?>) association.getType();
+                String targetId = targetType.getId(targetType.getIdType().getJavaType()).getName();
+                this.associations.add(new AssociationFetch(accessible(attribute.getJavaMember()),
+                    "select e from " + targetType.getName() + " e where e." + targetId + " in :ids"
+                ));
+            }
+        }
+    }
+
+    /**
+     * Get the FetchPlan for the specified entity class, computing it the first time it is needed
+     * @param entityManager - EntityManager whose metamodel describes the entity class
+     * @param entityClass - The entity class to get the FetchPlan for
+     * @return FetchPlan - The FetchPlan for the entity class
+     */
+    public static FetchPlan forClass(EntityManager entityManager, Class<?> entityClass) {
+        return plans.computeIfAbsent(entityClass,
+            type -> new FetchPlan(entityManager.getMetamodel().entity(type))
+        );
+    }
+
+    /**
+     * Initialize every lazy-loaded association of the specified records
+     * Records of different entity classes are each initialized with the FetchPlan of their own class
+     * @param entityManager - EntityManager that the records belong to
+     * @param records - The records to initialize the associations of
+     */
+    public static void initializeAll(EntityManager entityManager, List<?> records) {
+        Map<Class<?>, List<Object>> recordsByClass = new LinkedHashMap<>();
+        for (Object record : records) {
+            if (record != null) {
+                recordsByClass.computeIfAbsent(Hibernate.getClass(record), type -> new ArrayList<>()).add(record);
+            }
+        }
+
+        for (Map.Entry<Class<?>, List<Object>> entry : recordsByClass.entrySet()) {
+            forClass(entityManager, entry.getKey()).initialize(entityManager, entry.getValue());
+        }
+    }
+
+    /**
+     * Initialize every lazy-loaded association of the specified records, which must all be of this FetchPlan's class
+     * Only records that belong to the EntityManager are loaded in batches. Initializing an association of any other
+     * record works, or fails, the same way as Hibernate.initialize
+     * @param entityManager - EntityManager that the records belong to
+     * @param records - The records to initialize the associations of
+     */
+    public void initialize(EntityManager entityManager, List<?> records) {
+        Set<Object> ids = new HashSet<>();
+        for (Object record : records) {
+            Object id = getValue(this.idMember, unproxy(record));
+            if (id != null && entityManager.contains(record)) {
+                ids.add(id);
+            }
+        }
+
+        for (CollectionFetch collection : this.collections) {
+            List<Object> uninitializedIds = new ArrayList<>();
+            for (Object record : records) {
+                Object value = getValue(collection.member, unproxy(record));
+                if (value != null && !Hibernate.isInitialized(value)) {
+                    Object id = getValue(this.idMember, unproxy(record));
+                    if (ids.contains(id)) {
+                        uninitializedIds.add(id);
+                    }
+                }
+            }
+            // Fetch joining the collections of records that are already in the persistence context fills them in
+            load(entityManager, collection.query, uninitializedIds);
+        }
+
+        for (AssociationFetch association : this.associations) {
+            Set<Object> proxyIds = new LinkedHashSet<>();
+            for (Object record : records) {
+                Object value = getValue(association.member, unproxy(record));
+                if (value instanceof HibernateProxy && !Hibernate.isInitialized(value)) {
+                    proxyIds.add(((HibernateProxy) value).getHibernateLazyInitializer().getIdentifier());
+                }
+            }
+            // Once the entities are in the persistence context, initializing their proxies does not query again
+            load(entityManager, association.query, new ArrayList<>(proxyIds));
+        }
+
+        for (Object record : records) {
+            Object entity = unproxy(record);
+            for (CollectionFetch collection : this.collections) {
+                initialize(getValue(collection.member, entity));
+            }
+            for (AssociationFetch association : this.associations) {
+                initialize(getValue(association.member, entity));
+            }
+        }
+    }
+
+    /**
+     * Run a load query for the specified IDs, in batches of at most batchSize IDs
+     */
+    private static void load(EntityManager entityManager, String query, List<Object> ids) {
+        for (int start = 0; start < ids.size(); start += batchSize) {
+            entityManager.createQuery(query)
+                .setParameter("ids", ids.subList(start, Math.min(start + batchSize, ids.size())))
+                .getResultList();
+        }
+    }
+
+    private static void initialize(Object value) {
+        if (value != null) {
+            Hibernate.initialize(value);
+        }
+    }
+
+    private static Object unproxy(Object record) {
+        if (record instanceof HibernateProxy) {
+            return ((HibernateProxy) record).getHibernateLazyInitializer().getImplementation();
+        }
+        return record;
+    }
+
+    private static Member accessible(Member member) {
+        if (member instanceof AccessibleObject) {
+            ((AccessibleObject) member).setAccessible(true);
+        }
+        return member;
+    }
+
+    private static Object getValue(Member member, Object record) {
+        try {
+            if (member instanceof Field) {
+                return ((Field) member).get(record);
+            }
+            if (member instanceof Method) {
+                return ((Method) member).invoke(record);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not read " + member.getName() + " of " + record.getClass(), e);
+        }
+        throw new IllegalStateException("Could not read " + member.getName() + " of " + record.getClass());
+    }
+}
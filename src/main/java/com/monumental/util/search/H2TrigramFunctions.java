@@ -0,0 +1,143 @@
+package com.monumental.util.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Class containing the pg_trgm functions that search uses, as H2 user-defined functions, so that text searches can run
+ * against the in-memory H2 database the same way as they do against Postgres
+ * This covers the similarity and word_similarity functions, the trgm_match and trgm_word_match functions that
+ * PostgisSearchDialect renders as the % and <% operators, and set_config for setting their thresholds
+ * The thresholds are kept in the database rather than in this class, like the Postgres settings: the configured ones
+ * as database constants, and the ones set with set_config as variables of the connection's session, so that one test
+ * or connection setting them does not change them for the others
+ */
+public class H2TrigramFunctions {
+
+    private static final String similarityThresholdConstant = "PG_TRGM_SIMILARITY_THRESHOLD";
+
+    private static final String wordSimilarityThresholdConstant = "PG_TRGM_WORD_SIMILARITY_THRESHOLD";
+
+    private static final String similarityThresholdVariable = "@pg_trgm_similarity_threshold";
+
+    private static final String wordSimilarityThresholdVariable = "@pg_trgm_word_similarity_threshold";
+
+    /**
+     * Create the functions in an H2 database. They belong to the database, so they only have to be created once
+     * @param connection - A connection to the H2 database
+     * @param similarityThreshold - The threshold used by trgm_match, like pg_trgm.similarity_threshold
+     * @param wordSimilarityThreshold - The threshold used by trgm_word_match, like pg_trgm.word_similarity_threshold
+     * @throws SQLException - If the functions could not be created
+     */
+    public static void register(Connection connection, double similarityThreshold, double wordSimilarityThreshold)
+            throws SQLException {
+        String className = H2TrigramFunctions.class.getName();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS similarity FOR \"" + className + ".similarity\"");
+            statement.execute("CREATE ALIAS IF NOT EXISTS word_similarity FOR \"" + className + ".wordSimilarity\"");
+            statement.execute("CREATE ALIAS IF NOT EXISTS trgm_match FOR \"" + className + ".trgmMatch\"");
+            statement.execute("CREATE ALIAS IF NOT EXISTS trgm_word_match FOR \"" + className + ".trgmWordMatch\"");
+            statement.execute("CREATE ALIAS IF NOT EXISTS set_config FOR \"" + className + ".setConfig\"");
+
+            // The in-memory database outlives the application context, so constants from an earlier one are replaced
+            statement.execute("DROP CONSTANT IF EXISTS " + similarityThresholdConstant);
+            statement.execute("CREATE CONSTANT " + similarityThresholdConstant + " VALUE CAST(" +
+                similarityThreshold + " AS DOUBLE)");
+            statement.execute("DROP CONSTANT IF EXISTS " + wordSimilarityThresholdConstant);
+            statement.execute("CREATE CONSTANT " + wordSimilarityThresholdConstant + " VALUE CAST(" +
+                wordSimilarityThreshold + " AS DOUBLE)");
+        }
+    }
+
+    /**
+     * @see Trigrams#similarity(String, String)
+     * @return Float - The similarity, or null if either string is null, like pg_trgm
+     */
+    public static Float similarity(String first, String second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        return Trigrams.similarity(first, second);
+    }
+
+    /**
+     * @see Trigrams#wordSimilarity(String, String)
+     * @return Float - The word similarity, or null if either string is null, like pg_trgm
+     */
+    public static Float wordSimilarity(String first, String second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        return Trigrams.wordSimilarity(first, second);
+    }
+
+    /**
+     * The % operator
+     * @param connection - The connection the function is called on, passed in by H2
+     * @return Boolean - True if the similarity of the strings is at least the similarity threshold, or null if either
+     * string is null
+     */
+    public static Boolean trgmMatch(Connection connection, String first, String second) throws SQLException {
+        if (first == null || second == null) {
+            return null;
+        }
+        return Trigrams.similarity(first, second) >=
+            getThreshold(connection, similarityThresholdVariable, similarityThresholdConstant);
+    }
+
+    /**
+     * The <% operator
+     * @param connection - The connection the function is called on, passed in by H2
+     * @return Boolean - True if the word similarity of the strings is at least the word similarity threshold, or null
+     * if either string is null
+     */
+    public static Boolean trgmWordMatch(Connection connection, String first, String second) throws SQLException {
+        if (first == null || second == null) {
+            return null;
+        }
+        return Trigrams.wordSimilarity(first, second) >=
+            getThreshold(connection, wordSimilarityThresholdVariable, wordSimilarityThresholdConstant);
+    }
+
+    /**
+     * Postgres' set_config function, for the pg_trgm.similarity_threshold and pg_trgm.word_similarity_threshold
+     * settings only. The settings are kept as variables of the connection's session, so they last until they are set
+     * again on the same connection rather than until the end of the transaction
+     * @param connection - The connection the function is called on, passed in by H2
+     * @param name - The name of the setting
+     * @param value - The new value of the setting
+     * @param isLocal - Whether the setting only lasts until the end of the transaction. Ignored
+     * @return String - The new value of the setting
+     */
+    public static String setConfig(Connection connection, String name, String value, Boolean isLocal)
+            throws SQLException {
+        String variable;
+        if ("pg_trgm.similarity_threshold".equals(name)) {
+            variable = similarityThresholdVariable;
+        } else if ("pg_trgm.word_similarity_threshold".equals(name)) {
+            variable = wordSimilarityThresholdVariable;
+        } else {
+            throw new IllegalArgumentException("Unsupported setting: " + name);
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement("CALL SET(" + variable + ", CAST(? AS DOUBLE))")) {
+            statement.setString(1, value);
+            statement.execute();
+        }
+        return value;
+    }
+
+    /**
+     * Get the threshold set with set_config on this connection, or the configured one if it has not been set
+     */
+    private static double getThreshold(Connection connection, String variable, String constant) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("CALL COALESCE(" + variable + ", " + constant + ")")) {
+            result.next();
+            return result.getDouble(1);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.monumental.util.search;
+
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.ParameterExpression;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the values that a JPA Criteria API query binds as parameters instead of inlining them as literals
+ * Inlined literals make every distinct search its own HQL/SQL string, which fills up Hibernate's query plan cache and
+ * stops Postgres from re-using prepared statements. Binding the user's values keeps the query text identical for every
+ * search with the same shape
+ */
+public class QueryParameters {
+
+    private final Map<ParameterExpression<?>, Object> values = new LinkedHashMap<>();
+
+    private final boolean inline;
+
+    public QueryParameters() {
+        this(false);
+    }
+
+    private QueryParameters(boolean inline) {
+        this.inline = inline;
+    }
+
+    /**
+     * Create QueryParameters that inline every value with builder.literal instead of binding it, which is how queries
+     * were built before their values were bound. Only meant for measuring the difference binding makes
+     * @return QueryParameters - QueryParameters whose bind returns literals
+     */
+    public static QueryParameters inlining() {
+        return new QueryParameters(true);
+    }
+
+    /**
+     * Create a new ParameterExpression for the specified value and remember the value so that it can be bound later
+     * @param builder - CriteriaBuilder to use to create the ParameterExpression
+     * @param type - Class of the value being bound
+     * @param value - The value to bind to the ParameterExpression
+     * @return Expression<V> - ParameterExpression to use in place of builder.literal(value), or builder.literal(value)
+     * if these QueryParameters were created by inlining
+     */
+    public <V> Expression<V> bind(CriteriaBuilder builder, Class<V> type, V value) {
+        if (this.inline) {
+            return builder.literal(value);
+        }
+
+        ParameterExpression<V> parameter = builder.parameter(type);
+        this.values.put(parameter, value);
+        return parameter;
+    }
+
+    /**
+     * Bind all of the remembered values to the specified query
+     * @param query - TypedQuery created from the CriteriaQuery that the ParameterExpressions were used in
+     * @return The same TypedQuery, for chaining
+     */
+    @SuppressWarnings("unchecked")
+    public <Q extends TypedQuery<?>> Q applyTo(Q query) {
+        for (Map.Entry<ParameterExpression<?>, Object> entry : this.values.entrySet()) {
+            query.setParameter((ParameterExpression<Object>) entry.getKey(), entry.getValue());
+        }
+        return query;
+    }
+
+    public int size() {
+        return this.values.size();
+    }
+}
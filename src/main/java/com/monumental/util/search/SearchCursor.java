@@ -0,0 +1,72 @@
+package com.monumental.util.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The position of the last result of a page of keyset (cursor) paginated search results
+ * The next page is found by asking for the results that sort after this sort key and ID, which lets the database jump
+ * straight to them instead of computing and throwing away every result on the earlier pages like an OFFSET does
+ * Cursors are handed to clients as opaque URL-safe tokens. A cursor is only valid for the sort type it was created with
+ */
+public class SearchCursor {
+
+    private final String sortType;
+
+    private final Double sortKey;
+
+    private final Integer id;
+
+    /**
+     * @param sortType - The name of the sort type of the search that the cursor is for
+     * @param sortKey - The sort key of the last result, or null if the search is only ordered by ID. Dates are
+     *                represented by their time in milliseconds
+     * @param id - The ID of the last result
+     */
+    public SearchCursor(String sortType, Double sortKey, Integer id) {
+        this.sortType = sortType;
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public String getSortType() {
+        return this.sortType;
+    }
+
+    public Double getSortKey() {
+        return this.sortKey;
+    }
+
+    public Integer getId() {
+        return this.id;
+    }
+
+    /**
+     * @return String - The opaque token for this cursor
+     */
+    public String encode() {
+        String value = this.sortType + ":" + (this.sortKey == null ? "" : Double.toString(this.sortKey)) + ":" + this.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token created by encode
+     * @param token - The token to decode
+     * @param sortType - The name of the sort type of the search that the token is being used for
+     * @return SearchCursor - The decoded cursor
+     * @throws IllegalArgumentException - If the token is not a valid cursor, or it was created for a different sort type
+     */
+    public static SearchCursor decode(String token, String sortType) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split(":", -1);
+            if (parts.length != 3 || !parts[0].equals(sortType)) {
+                throw new IllegalArgumentException("Cursor is not valid for this search");
+            }
+            Double sortKey = parts[1].isEmpty() ? null : Double.valueOf(parts[1]);
+            return new SearchCursor(parts[0], sortKey, Integer.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor is not valid for this search", e);
+        }
+    }
+}
@@ -11,49 +11,93 @@ import static com.monumental.util.string.StringHelper.isNullOrEmpty;
  */
 public class SearchHelper {
 
+    /**
+     * The default pg_trgm.similarity_threshold and pg_trgm.word_similarity_threshold, used unless
+     * SEARCH_SIMILARITY_THRESHOLD and SEARCH_WORD_SIMILARITY_THRESHOLD are set
+     */
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.3;
+
+    public static final double DEFAULT_WORD_SIMILARITY_THRESHOLD = 0.5;
+
+    /**
+     * How much more the word_similarity of a field counts towards its similarity score than its similarity does
+     */
+    private static final int WORD_SIMILARITY_WEIGHT = 5;
+
+    /**
+     * pg_trgm computes similarities as floats, so this is taken off of the trigram candidate threshold to keep rounding
+     * from dropping a candidate whose score is right at the threshold
+     */
+    private static final double CANDIDATE_THRESHOLD_MARGIN = 0.000001;
+
     /**
      * Build a pg_tgrm similarity function Expression for the given searchQuery and fieldName
-     * Utilizes a JPA Criteria Root to execute the query
+     * Utilizes a JPA Criteria Root or Join to execute the query
      * @param builder - CriteriaBuilder to use to build the similarity Expression
-     * @param root - Root to use to build the similarity Expression
-     * @param searchQuery - String for the search query to use in the similarity function
+     * @param root - Root or Join to use to build the similarity Expression
+     * @param searchQuery - Expression for the search query to use in the similarity function. This should be a
+     *                    ParameterExpression (see QueryParameters) so that the user's search text is bound instead of
+     *                    being inlined into the query
      * @param fieldName - String for the field name to query against
      * @return Expression<Number> - Expression representing the pg_tgrm similarity function expression using the
      * specified searchQuery and fieldName
      */
-    public static Expression<Number> buildSimilarityExpression(CriteriaBuilder builder, Root root, String searchQuery,
-                                                               String fieldName) {
+    public static Expression<Number> buildSimilarityExpression(CriteriaBuilder builder, From root,
+                                                               Expression<String> searchQuery, String fieldName) {
         /* "coalesce" here will cause null values to return as 0 instead. This is important because if a field is null,
            similarity and word_similarity return null, which when added to the other fields' scores makes the whole thing null
            We're also multiplying word_similarity by 5 here because this is generally more meaningful than simple similarity
            However we still include similarity because if the search term isn't like any word in any of the monuments,
            we still want to return something at least a little similar as there may have been a spelling error
+           word_similarity looks for its first argument in its second, so the search query comes first
          */
         return builder.sum(
-                builder.coalesce(builder.function("similarity", Number.class, root.get(fieldName), builder.literal(searchQuery)), 0),
+                builder.coalesce(builder.function("similarity", Number.class, root.get(fieldName), searchQuery), 0),
                 builder.prod(
                     builder.coalesce(
-                        builder.function("word_similarity", Number.class, root.get(fieldName), builder.literal(searchQuery)),
+                        builder.function("word_similarity", Number.class, searchQuery, root.get(fieldName)),
                         0
                     ),
-                    5
+                    WORD_SIMILARITY_WEIGHT
                 )
         );
     }
 
     /**
-     * Build a pg_tgrm similarity function Expression for the given searchQuery and fieldName
-     * Utilizes a JPA Criteria Join to execute the query
-     * @param builder - CriteriaBuilder to use to build the similarity Expression
-     * @param join - Join to use to build the similarity Expression
-     * @param searchQuery - String for the search query to use in the similarity function
+     * Build a Predicate that uses the pg_trgm % and <% operators to find the rows that could be similar to the
+     * searchQuery, before the similarity scores are computed for them
+     * The operators compare the same similarity and word_similarity as buildSimilarityExpression, in the same order, and
+     * their thresholds are the pg_trgm.similarity_threshold and pg_trgm.word_similarity_threshold settings. As long as
+     * both are set to getTrigramCandidateThreshold of the threshold that the score is compared to, every row whose score
+     * is above that threshold is a candidate
+     * Both operators can be answered from a GIN trigram index on the field: "field % searchQuery" directly, and
+     * "searchQuery <% field" as its commutator "field %> searchQuery". Since every branch of the OR can use the index,
+     * Postgres combines the rows each of them finds with a BitmapOr instead of scanning the table
+     * @param builder - CriteriaBuilder to use to build the Predicate
+     * @param root - Root or Join to use to build the Predicate
+     * @param searchQuery - Expression for the search query, usually a ParameterExpression
      * @param fieldName - String for the field name to query against
-     * @return Expression<Number> - Expression representing the pg_tgrm similarity function expression using the
-     * specified searchQuery and fieldName
+     * @return Predicate - Predicate that is true if the field is similar to the searchQuery or the searchQuery is
+     * similar to a word of the field
      */
-    public static Expression<Number> buildSimilarityExpression(CriteriaBuilder builder, Join join, String searchQuery,
-                                                               String fieldName) {
-        return builder.function("similarity", Number.class, join.get(fieldName), builder.literal(searchQuery));
+    public static Predicate buildTrigramCandidatePredicate(CriteriaBuilder builder, From root,
+                                                           Expression<String> searchQuery, String fieldName) {
+        return builder.or(
+            builder.isTrue(builder.function("trgm_match", Boolean.class, root.get(fieldName), searchQuery)),
+            builder.isTrue(builder.function("trgm_word_match", Boolean.class, searchQuery, root.get(fieldName)))
+        );
+    }
+
+    /**
+     * Get the threshold that the pg_trgm operators of buildTrigramCandidatePredicate must use so that they find every
+     * row whose score from buildSimilarityExpression is above the specified threshold
+     * The score is similarity + WORD_SIMILARITY_WEIGHT * word_similarity, which can only be above the threshold if one
+     * of the two is above threshold / (1 + WORD_SIMILARITY_WEIGHT)
+     * @param threshold - The threshold that the similarity score is compared to
+     * @return double - The threshold for pg_trgm.similarity_threshold and pg_trgm.word_similarity_threshold
+     */
+    public static double getTrigramCandidateThreshold(double threshold) {
+        return Math.max(0, threshold / (1 + WORD_SIMILARITY_WEIGHT) - CANDIDATE_THRESHOLD_MARGIN);
     }
 
     /**
@@ -68,6 +112,18 @@ public class SearchHelper {
         return builder.gt(expression, threshold);
     }
 
+    /**
+     * Build a Predicate for the specified pg_tgrm similarity expression using a bound threshold
+     * @param builder - CriteriaBuilder to use to build the similarity Predicate
+     * @param expression - pg_tgrm similarity Expression to use to build the Predicate
+     * @param threshold - Expression for the threshold (0-1) to limit the results by, usually a ParameterExpression
+     * @return Predicate - Predicate built using the specified builder and expression
+     */
+    public static Predicate buildSimilarityPredicate(CriteriaBuilder builder, Expression<Number> expression,
+                                                     Expression<Double> threshold) {
+        return builder.gt(expression, threshold);
+    }
+
     /**
      * Order search results by the sum of the pg_tgrm similarity scores used to search for them
      * @param builder - The CriteriaBuilder to use to help build the CriteriaQuery
@@ -117,6 +173,8 @@ public class SearchHelper {
      * @param query - The CriteriaQuery to add the searching logic to
      * @param root - The Root to use with the CriteriaQuery
      * @param userJoin - The Join between the target Suggestion table and the User table to utilize for searching
+     * @param parameters - QueryParameters to bind the searchQuery and filter values to. They must be applied to the
+     *                   query when it is executed
      * @param searchQuery - The search query String that will be used to search against Users names and emails using
      * pg_tgrm
      * @param isApproved - True to filter to only approved MonumentSuggestions, False otherwise
@@ -126,16 +184,18 @@ public class SearchHelper {
      * CreateMonumentSuggestions, False otherwise
      */
     public static void buildSuggestionSearchQuery(CriteriaBuilder builder, CriteriaQuery query, Root root, Join userJoin,
-                                                  String searchQuery, boolean isApproved, boolean isRejected,
-                                                  boolean orderBySimilarity, boolean isCreateSuggestion) {
+                                                  QueryParameters parameters, String searchQuery, boolean isApproved,
+                                                  boolean isRejected, boolean orderBySimilarity,
+                                                  boolean isCreateSuggestion) {
         List<Predicate> predicates = new ArrayList<>();
 
         if (!isNullOrEmpty(searchQuery) && userJoin != null) {
-            predicates.add(buildSuggestionUserSearchQuery(builder, query, userJoin, searchQuery, orderBySimilarity));
+            predicates.add(buildSuggestionUserSearchQuery(builder, query, userJoin,
+                parameters.bind(builder, String.class, searchQuery), orderBySimilarity));
         }
 
-        predicates.add(builder.equal(root.get("isApproved"), builder.literal(isApproved)));
-        predicates.add(builder.equal(root.get("isRejected"), builder.literal(isRejected)));
+        predicates.add(builder.equal(root.get("isApproved"), parameters.bind(builder, Boolean.class, isApproved)));
+        predicates.add(builder.equal(root.get("isRejected"), parameters.bind(builder, Boolean.class, isRejected)));
 
         // Special case for CreateMonumentSuggestions: Only search the ones that are NOT part of a BulkCreateMonumentSuggestion
         if (isCreateSuggestion) {
@@ -152,18 +212,20 @@ public class SearchHelper {
      * @param query - The CriteriaQuery to add the searching logic to
      * @param userJoin - The Join from the target Suggestion table to the User table to use for searching created by
      * Users names and emails
-     * @param searchQuery - The search query String to filter Users names and emails by
+     * @param searchQuery - Expression for the search query to filter Users names and emails by, usually a
+     *                    ParameterExpression
      * @param orderBySimilarity - True to order the results by the pg_tgrm similarity score, False otherwise
      * @return Predicate - Predicate for the user search filter using the specified builder, query, root and searchQuery
      */
     @SuppressWarnings("unchecked")
     private static Predicate buildSuggestionUserSearchQuery(CriteriaBuilder builder, CriteriaQuery query, Join userJoin,
-                                                            String searchQuery, boolean orderBySimilarity) {
+                                                            Expression<String> searchQuery, boolean orderBySimilarity) {
         // Build the similarity expressions for first name, last name and email
+        // These only use similarity, not the word_similarity that buildSimilarityExpression adds to it
         List<Expression<Number>> expressions = new ArrayList<>();
-        Expression<Number> firstNameExpression = buildSimilarityExpression(builder, userJoin, searchQuery, "firstName");
-        Expression<Number> lastNameExpression = buildSimilarityExpression(builder, userJoin, searchQuery, "lastName");
-        Expression<Number> emailExpression = buildSimilarityExpression(builder, userJoin, searchQuery, "email");
+        Expression<Number> firstNameExpression = builder.function("similarity", Number.class, userJoin.get("firstName"), searchQuery);
+        Expression<Number> lastNameExpression = builder.function("similarity", Number.class, userJoin.get("lastName"), searchQuery);
+        Expression<Number> emailExpression = builder.function("similarity", Number.class, userJoin.get("email"), searchQuery);
         expressions.add(firstNameExpression);
         expressions.add(lastNameExpression);
         expressions.add(emailExpression);
@@ -0,0 +1,219 @@
+package com.monumental.util.search;
+
+import com.monumental.models.Tag;
+import com.monumental.util.string.StringHelper;
+
+import java.util.*;
+
+/**
+ * Immutable in-memory index of Tag and Material names for autocomplete, so that each keystroke in a Tag picker can be
+ * answered without querying the database
+ * Names have their accents removed and are broken into trigrams the same way as pg_trgm, see Trigrams. A Tag matches when more than a quarter of the search's trigrams are in its name, like the
+ * word_similarity threshold that TagService.search uses, which also lets the first letters of any word match
+ * Matches are ordered by how well they match, with names that start with the search first, and then by how many
+ * Monuments use them
+ */
+public class TagAutocompleteIndex {
+
+    /**
+     * The fraction of the search's trigrams that a Tag's name must contain to match
+     */
+    private static final double minimumMatch = 0.25;
+
+    /**
+     * Matches whose names start with the search get this added to their score
+     */
+    private static final double prefixBonus = 0.5;
+
+    /**
+     * The most used Tag gets this added to its score, and less used Tags get a share of it by the log of their uses
+     */
+    private static final double usageWeight = 0.2;
+
+    /**
+     * The Tags or the Materials in the index, each with the trigrams of its name
+     */
+    private static class Partition {
+
+        private final Tag[] tags;
+
+        private final String[] names;
+
+        private final int[] trigramCounts;
+
+        private final double[] usageScores;
+
+        private final Map<Long, int[]> tagIndexesByTrigram = new HashMap<>();
+
+        /**
+         * Per-thread buffers for counting the search's trigrams in each Tag's name, so that searches do not allocate
+         * arrays the size of the index. The counts are set back to 0 after every search
+         */
+        private final ThreadLocal<int[]> sharedCounts;
+
+        private final ThreadLocal<int[]> candidates;
+
+        private Partition(List<Tag> tags, Map<Integer, Long> usesByTagId) {
+            this.tags = tags.toArray(new Tag[0]);
+            this.names = new String[this.tags.length];
+            this.trigramCounts = new int[this.tags.length];
+            this.usageScores = new double[this.tags.length];
+
+            long maxUses = 0;
+            for (Tag tag : this.tags) {
+                maxUses = Math.max(maxUses, usesByTagId.getOrDefault(tag.getId(), 0L));
+            }
+
+            Map<Long, List<Integer>> tagIndexes = new HashMap<>();
+            for (int i = 0; i < this.tags.length; i++) {
+                this.names[i] = normalize(this.tags[i].getName());
+                long[] trigrams = Trigrams.getUniqueTrigrams(this.names[i]);
+                this.trigramCounts[i] = trigrams.length;
+                for (long trigram : trigrams) {
+                    tagIndexes.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+                }
+
+                long uses = usesByTagId.getOrDefault(this.tags[i].getId(), 0L);
+                this.usageScores[i] = maxUses == 0 ? 0 : usageWeight * Math.log1p(uses) / Math.log1p(maxUses);
+            }
+
+            for (Map.Entry<Long, List<Integer>> entry : tagIndexes.entrySet()) {
+                int[] indexes = new int[entry.getValue().size()];
+                for (int i = 0; i < indexes.length; i++) {
+                    indexes[i] = entry.getValue().get(i);
+                }
+                this.tagIndexesByTrigram.put(entry.getKey(), indexes);
+            }
+
+            this.sharedCounts = ThreadLocal.withInitial(() -> new int[this.tags.length]);
+            this.candidates = ThreadLocal.withInitial(() -> new int[this.tags.length]);
+        }
+    }
+
+    /**
+     * A Tag that matched a search, with its score
+     */
+    private static class Match {
+
+        private final Tag tag;
+
+        private final String name;
+
+        private final double score;
+
+        private Match(Tag tag, String name, double score) {
+            this.tag = tag;
+            this.name = name;
+            this.score = score;
+        }
+    }
+
+    private final Partition tags;
+
+    private final Partition materials;
+
+    /**
+     * @param tags - Every Tag and Material to index. Tags that are neither are left out, since no search matches them
+     * @param usesByTagId - The number of Monuments that use each Tag and Material, by ID. Tags that are missing are
+     *                    treated as unused
+     */
+    public TagAutocompleteIndex(List<Tag> tags, Map<Integer, Long> usesByTagId) {
+        List<Tag> nonMaterials = new ArrayList<>();
+        List<Tag> materials = new ArrayList<>();
+        for (Tag tag : tags) {
+            if (Boolean.TRUE.equals(tag.getIsMaterial())) {
+                materials.add(tag);
+            } else if (Boolean.FALSE.equals(tag.getIsMaterial())) {
+                nonMaterials.add(tag);
+            }
+        }
+        this.tags = new Partition(nonMaterials, usesByTagId);
+        this.materials = new Partition(materials, usesByTagId);
+    }
+
+    /**
+     * Search for Tags or Materials whose names match the specified search
+     * @param searchQuery - The search, usually the start of a Tag's name
+     * @param isMaterial - If true, only Materials are returned. If false, only Tags are returned. If null, nothing is,
+     *                   the same as TagService.search
+     * @param limit - The maximum number of Tags to return
+     * @return List<Tag> - Copies of the best matching Tags, best match first. Empty if the search is empty
+     */
+    public List<Tag> search(String searchQuery, Boolean isMaterial, int limit) {
+        String normalizedQuery = normalize(searchQuery);
+        long[] queryTrigrams = Trigrams.getUniqueTrigrams(normalizedQuery);
+        if (queryTrigrams.length == 0 || isMaterial == null) {
+            return new ArrayList<>();
+        }
+
+        List<Match> matches = new ArrayList<>();
+        this.search(isMaterial ? this.materials : this.tags, normalizedQuery, queryTrigrams, matches);
+
+        matches.sort(Comparator.comparingDouble((Match match) -> -match.score).thenComparing(match -> match.name));
+
+        List<Tag> results = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            results.add(copy(matches.get(i).tag));
+        }
+        return results;
+    }
+
+    private void search(Partition partition, String normalizedQuery, long[] queryTrigrams, List<Match> matches) {
+        // Count the search's trigrams in each Tag's name, remembering which Tags had any of them
+        int[] sharedCounts = partition.sharedCounts.get();
+        int[] candidates = partition.candidates.get();
+        int candidateCount = 0;
+        for (long trigram : queryTrigrams) {
+            int[] tagIndexes = partition.tagIndexesByTrigram.get(trigram);
+            if (tagIndexes == null) {
+                continue;
+            }
+            for (int tagIndex : tagIndexes) {
+                if (sharedCounts[tagIndex]++ == 0) {
+                    candidates[candidateCount++] = tagIndex;
+                }
+            }
+        }
+
+        for (int i = 0; i < candidateCount; i++) {
+            int tagIndex = candidates[i];
+            int shared = sharedCounts[tagIndex];
+            sharedCounts[tagIndex] = 0;
+
+            double match = (double) shared / queryTrigrams.length;
+            if (match <= minimumMatch) {
+                continue;
+            }
+
+            double similarity = (double) shared / (queryTrigrams.length + partition.trigramCounts[tagIndex] - shared);
+            double score = match + similarity + partition.usageScores[tagIndex];
+            if (partition.names[tagIndex].startsWith(normalizedQuery)) {
+                score += prefixBonus;
+            }
+            matches.add(new Match(partition.tags[tagIndex], partition.names[tagIndex], score));
+        }
+    }
+
+    /**
+     * Copy a Tag, so that the Tags returned from the index can not change the Tags in it
+     */
+    private static Tag copy(Tag tag) {
+        Tag copy = new Tag();
+        copy.setId(tag.getId());
+        copy.setName(tag.getName());
+        copy.setIsMaterial(tag.getIsMaterial());
+        copy.setCreatedDate(tag.getCreatedDate());
+        copy.setLastModifiedDate(tag.getLastModifiedDate());
+        return copy;
+    }
+
+    /**
+     * Lowercase a name and remove its accents
+     */
+    private static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return StringHelper.normalizeForSearch(name).trim();
+    }
+}
@@ -0,0 +1,259 @@
+package com.monumental.util.search;
+
+import com.monumental.util.string.StringHelper;
+
+import java.util.*;
+
+/**
+ * In-memory prefix index of Monument titles for search-as-you-type suggestions, so that each keystroke in the search
+ * box can be answered without a trigram scan of the monument table
+ * Titles have their accents removed and are broken into words of letters and digits. The index keeps two sorted maps,
+ * one from each whole normalized title and one from each word, to the sorted IDs of the Monuments that have it, so
+ * that the titles or words that start with a prefix are a contiguous range of keys
+ * Titles that start with the search are suggested first, then titles that have a word starting with each word of the
+ * search. Unlike TagAutocompleteIndex this index can be changed one Monument at a time, and is not thread-safe
+ */
+public class TitleSuggestionIndex {
+
+    /**
+     * The most word matches that are checked against the rest of the search, so that a search for a common prefix
+     * like "m" stops early instead of checking most of the index
+     */
+    private static final int maxCandidates = 5000;
+
+    /**
+     * A Monument's title, as it was given and as it is indexed
+     */
+    private static class Entry {
+
+        private final String title;
+
+        private final String normalizedTitle;
+
+        private Entry(String title, String normalizedTitle) {
+            this.title = title;
+            this.normalizedTitle = normalizedTitle;
+        }
+    }
+
+    private final Map<Integer, Entry> entriesById = new HashMap<>();
+
+    private final TreeMap<String, int[]> idsByTitle = new TreeMap<>();
+
+    private final TreeMap<String, int[]> idsByWord = new TreeMap<>();
+
+    /**
+     * @param titlesById - The title of every Monument to index, by ID
+     */
+    public TitleSuggestionIndex(Map<Integer, String> titlesById) {
+        Map<String, List<Integer>> idListsByTitle = new HashMap<>();
+        Map<String, List<Integer>> idListsByWord = new HashMap<>();
+        for (Map.Entry<Integer, String> title : titlesById.entrySet()) {
+            Entry entry = new Entry(title.getValue(), normalize(title.getValue()));
+            if (entry.normalizedTitle.isEmpty()) {
+                continue;
+            }
+            this.entriesById.put(title.getKey(), entry);
+
+            idListsByTitle.computeIfAbsent(entry.normalizedTitle, key -> new ArrayList<>()).add(title.getKey());
+            for (String word : getWords(entry.normalizedTitle)) {
+                idListsByWord.computeIfAbsent(word, key -> new ArrayList<>()).add(title.getKey());
+            }
+        }
+
+        copySorted(idListsByTitle, this.idsByTitle);
+        copySorted(idListsByWord, this.idsByWord);
+    }
+
+    private static void copySorted(Map<String, List<Integer>> idLists, Map<String, int[]> ids) {
+        for (Map.Entry<String, List<Integer>> entry : idLists.entrySet()) {
+            int[] sortedIds = new int[entry.getValue().size()];
+            for (int i = 0; i < sortedIds.length; i++) {
+                sortedIds[i] = entry.getValue().get(i);
+            }
+            Arrays.sort(sortedIds);
+            ids.put(entry.getKey(), sortedIds);
+        }
+    }
+
+    /**
+     * Add a Monument to the index, or replace its title if it is already in it
+     * @param id - The ID of the Monument
+     * @param title - The title of the Monument. The Monument is only removed if it has no letters or digits
+     */
+    public void put(int id, String title) {
+        this.remove(id);
+
+        Entry entry = new Entry(title, normalize(title));
+        if (entry.normalizedTitle.isEmpty()) {
+            return;
+        }
+        this.entriesById.put(id, entry);
+
+        add(this.idsByTitle, entry.normalizedTitle, id);
+        for (String word : getWords(entry.normalizedTitle)) {
+            add(this.idsByWord, word, id);
+        }
+    }
+
+    /**
+     * Remove a Monument from the index, if it is in it
+     * @param id - The ID of the Monument
+     */
+    public void remove(int id) {
+        Entry entry = this.entriesById.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        remove(this.idsByTitle, entry.normalizedTitle, id);
+        for (String word : getWords(entry.normalizedTitle)) {
+            remove(this.idsByWord, word, id);
+        }
+    }
+
+    private static void add(Map<String, int[]> idsByKey, String key, int id) {
+        int[] ids = idsByKey.get(key);
+        if (ids == null) {
+            idsByKey.put(key, new int[] {id});
+            return;
+        }
+
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        int[] newIds = new int[ids.length + 1];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        newIds[index] = id;
+        System.arraycopy(ids, index, newIds, index + 1, ids.length - index);
+        idsByKey.put(key, newIds);
+    }
+
+    private static void remove(Map<String, int[]> idsByKey, String key, int id) {
+        int[] ids = idsByKey.get(key);
+        int index = ids == null ? -1 : Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return;
+        }
+        if (ids.length == 1) {
+            idsByKey.remove(key);
+            return;
+        }
+
+        int[] newIds = new int[ids.length - 1];
+        System.arraycopy(ids, 0, newIds, 0, index);
+        System.arraycopy(ids, index + 1, newIds, index, newIds.length - index);
+        idsByKey.put(key, newIds);
+    }
+
+    /**
+     * Suggest Monuments whose titles match the specified search
+     * @param searchQuery - The search, usually the start of a Monument's title
+     * @param limit - The maximum number of Monuments to suggest
+     * @return List<Integer> - The IDs of the suggested Monuments. Titles that start with the search come first, in
+     * alphabetical order. Empty if the search has no letters or digits
+     */
+    public List<Integer> search(String searchQuery, int limit) {
+        String normalizedQuery = normalize(searchQuery);
+        List<Integer> results = new ArrayList<>();
+        if (normalizedQuery.isEmpty() || limit < 1) {
+            return results;
+        }
+
+        // Titles that start with the search
+        Set<Integer> resultIds = new HashSet<>();
+        for (int[] ids : getPrefixRange(this.idsByTitle, normalizedQuery)) {
+            for (int id : ids) {
+                results.add(id);
+                resultIds.add(id);
+                if (results.size() == limit) {
+                    return results;
+                }
+            }
+        }
+
+        // Titles with a word that starts with each word of the search. The longest word of the search has the fewest
+        // matching words, so only its matches are checked against the rest of the search
+        String[] queryWords = getWords(normalizedQuery);
+        String longestWord = queryWords[0];
+        for (String word : queryWords) {
+            if (word.length() > longestWord.length()) {
+                longestWord = word;
+            }
+        }
+
+        int candidates = 0;
+        for (int[] ids : getPrefixRange(this.idsByWord, longestWord)) {
+            for (int id : ids) {
+                if (++candidates > maxCandidates) {
+                    return results;
+                }
+                if (resultIds.contains(id) || !hasWordsStartingWith(this.entriesById.get(id).normalizedTitle, queryWords)) {
+                    continue;
+                }
+                results.add(id);
+                resultIds.add(id);
+                if (results.size() == limit) {
+                    return results;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param id - The ID of a Monument in the index
+     * @return String - The title of the Monument as it was given, or null if it is not in the index
+     */
+    public String getTitle(int id) {
+        Entry entry = this.entriesById.get(id);
+        return entry == null ? null : entry.title;
+    }
+
+    /**
+     * @return int - The number of Monuments in the index
+     */
+    public int size() {
+        return this.entriesById.size();
+    }
+
+    private static Collection<int[]> getPrefixRange(TreeMap<String, int[]> idsByKey, String prefix) {
+        return idsByKey.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+    }
+
+    private static boolean hasWordsStartingWith(String normalizedTitle, String[] words) {
+        for (String word : words) {
+            if (!hasWordStartingWith(normalizedTitle, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasWordStartingWith(String normalizedTitle, String prefix) {
+        int index = normalizedTitle.indexOf(prefix);
+        while (index >= 0) {
+            if (index == 0 || normalizedTitle.charAt(index - 1) == ' ') {
+                return true;
+            }
+            index = normalizedTitle.indexOf(prefix, index + 1);
+        }
+        return false;
+    }
+
+    private static String[] getWords(String normalizedTitle) {
+        return normalizedTitle.split(" ");
+    }
+
+    /**
+     * Lowercase a title, remove its accents and punctuation, and separate its words with single spaces
+     */
+    private static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        return StringHelper.normalizeForSearch(title).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+}
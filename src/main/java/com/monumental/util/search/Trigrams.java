@@ -0,0 +1,280 @@
+package com.monumental.util.search;
+
+import java.util.Arrays;
+
+/**
+ * Class containing static methods that compute the pg_trgm similarity and word_similarity functions in Java, so that
+ * text can be compared the same way as the database does without querying it
+ * Text is broken into trigrams the same way as pg_trgm: it is split into words of letters and digits, each word is
+ * lowercased and padded with two spaces in front and one behind, and every 3 consecutive characters are a trigram
+ * Each trigram is packed into a long, so comparing text only allocates the per-thread buffers the trigrams are
+ * extracted into, which grow to fit the longest text compared on that thread
+ */
+public class Trigrams {
+
+    /**
+     * Per-thread buffers for the trigrams of the text being compared
+     */
+    private static class Buffers {
+
+        private long[] first = new long[64];
+
+        private long[] second = new long[64];
+
+        private long[] combined = new long[128];
+
+        private int[] secondIndexes = new int[64];
+
+        private int[] lastPositions = new int[128];
+
+        private boolean[] found = new boolean[128];
+
+        private void ensureCapacity(int firstLength, int secondLength) {
+            if (this.first.length < firstLength) {
+                this.first = new long[firstLength];
+            }
+            if (this.second.length < secondLength) {
+                this.second = new long[secondLength];
+                this.secondIndexes = new int[secondLength];
+            }
+            if (this.combined.length < firstLength + secondLength) {
+                this.combined = new long[firstLength + secondLength];
+                this.lastPositions = new int[firstLength + secondLength];
+                this.found = new boolean[firstLength + secondLength];
+            }
+        }
+    }
+
+    private static final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Compute the pg_trgm similarity of two strings: the number of trigrams they share divided by the number of
+     * trigrams in either of them
+     * @param first - The first string to compare
+     * @param second - The second string to compare
+     * @return float - The similarity, from 0 to 1. 0 if either string is null or has no trigrams
+     */
+    public static float similarity(String first, String second) {
+        if (first == null || second == null) {
+            return 0;
+        }
+
+        Buffers buffers = Trigrams.buffers.get();
+        buffers.ensureCapacity(getMaxTrigrams(first), getMaxTrigrams(second));
+
+        int firstLength = sortUnique(buffers.first, extract(first, buffers.first));
+        int secondLength = sortUnique(buffers.second, extract(second, buffers.second));
+        if (firstLength == 0 || secondLength == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < firstLength && j < secondLength) {
+            if (buffers.first[i] < buffers.second[j]) {
+                i++;
+            } else if (buffers.first[i] > buffers.second[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return calculateSimilarity(count, firstLength, secondLength);
+    }
+
+    /**
+     * Compute the pg_trgm word_similarity of two strings: the greatest similarity between the trigrams of the first
+     * string and any continuous extent of the ordered trigrams of the second string. This is high when the first string
+     * is similar to a word or words in the second string, or to the start of one
+     * @param first - The string to look for, usually a search query
+     * @param second - The string to look in
+     * @return float - The word similarity, from 0 to 1. 0 if either string is null or has no trigrams
+     */
+    public static float wordSimilarity(String first, String second) {
+        if (first == null || second == null) {
+            return 0;
+        }
+
+        Buffers buffers = Trigrams.buffers.get();
+        buffers.ensureCapacity(getMaxTrigrams(first), getMaxTrigrams(second));
+
+        int firstLength = extract(first, buffers.first);
+        int secondLength = extract(second, buffers.second);
+        if (firstLength == 0 || secondLength == 0) {
+            return 0;
+        }
+
+        // Number every distinct trigram of both strings, and mark the ones that are in the first string
+        long[] combined = buffers.combined;
+        System.arraycopy(buffers.first, 0, combined, 0, firstLength);
+        System.arraycopy(buffers.second, 0, combined, firstLength, secondLength);
+        int length = sortUnique(combined, firstLength + secondLength);
+        int uniqueFirstLength = sortUnique(buffers.first, firstLength);
+
+        boolean[] found = buffers.found;
+        for (int i = 0; i < length; i++) {
+            found[i] = Arrays.binarySearch(buffers.first, 0, uniqueFirstLength, combined[i]) >= 0;
+        }
+        int[] secondIndexes = buffers.secondIndexes;
+        for (int i = 0; i < secondLength; i++) {
+            secondIndexes[i] = Arrays.binarySearch(combined, 0, length, buffers.second[i]);
+        }
+
+        return iterateWordSimilarity(secondIndexes, found, buffers.lastPositions, uniqueFirstLength, secondLength,
+            length
+        );
+    }
+
+    /**
+     * Find the extent of the second string's trigrams that is most similar to the first string's, the same way as
+     * pg_trgm's iterate_word_similarity. Each extent starts and ends with a trigram that is in the first string
+     */
+    private static float iterateWordSimilarity(int[] secondIndexes, boolean[] found, int[] lastPositions,
+                                               int uniqueFirstLength, int secondLength, int length) {
+        Arrays.fill(lastPositions, 0, length, -1);
+
+        int uniqueSecondLength = 0;
+        int count = 0;
+        int lower = -1;
+        float maxSimilarity = 0;
+
+        for (int i = 0; i < secondLength; i++) {
+            int index = secondIndexes[i];
+
+            if (lower >= 0 || found[index]) {
+                if (lastPositions[index] < 0) {
+                    uniqueSecondLength++;
+                    if (found[index]) {
+                        count++;
+                    }
+                }
+                lastPositions[index] = i;
+            }
+
+            if (!found[index]) {
+                continue;
+            }
+
+            int upper = i;
+            if (lower == -1) {
+                lower = i;
+                uniqueSecondLength = 1;
+            }
+
+            float similarity = calculateSimilarity(count, uniqueFirstLength, uniqueSecondLength);
+
+            // Try moving the start of the extent forward for a greater similarity
+            int tempCount = count;
+            int tempUniqueSecondLength = uniqueSecondLength;
+            int previousLower = lower;
+            for (int tempLower = lower; tempLower <= upper; tempLower++) {
+                float tempSimilarity = calculateSimilarity(tempCount, uniqueFirstLength, tempUniqueSecondLength);
+                if (tempSimilarity > similarity) {
+                    similarity = tempSimilarity;
+                    uniqueSecondLength = tempUniqueSecondLength;
+                    lower = tempLower;
+                    count = tempCount;
+                }
+
+                int tempIndex = secondIndexes[tempLower];
+                if (lastPositions[tempIndex] == tempLower) {
+                    tempUniqueSecondLength--;
+                    if (found[tempIndex]) {
+                        tempCount--;
+                    }
+                }
+            }
+
+            maxSimilarity = Math.max(maxSimilarity, similarity);
+            if (maxSimilarity == 1) {
+                break;
+            }
+
+            // Forget the trigrams that are now before the start of the extent
+            for (int tempLower = previousLower; tempLower < lower; tempLower++) {
+                int tempIndex = secondIndexes[tempLower];
+                if (lastPositions[tempIndex] == tempLower) {
+                    lastPositions[tempIndex] = -1;
+                }
+            }
+        }
+
+        return maxSimilarity;
+    }
+
+    /**
+     * Get the distinct trigrams of a string, for building indexes that are searched with the same trigrams
+     * @param text - The string to get the trigrams of
+     * @return long[] - The distinct trigrams of the string, sorted. Empty if the string is null or has no trigrams
+     */
+    public static long[] getUniqueTrigrams(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        long[] trigrams = new long[getMaxTrigrams(text)];
+        return Arrays.copyOf(trigrams, sortUnique(trigrams, extract(text, trigrams)));
+    }
+
+    /**
+     * Each word of n characters has n + 1 trigrams, so a string has at most twice as many trigrams as characters
+     */
+    private static int getMaxTrigrams(String text) {
+        return text.length() * 2;
+    }
+
+    /**
+     * Extract the trigrams of every word in a string, in order, into the specified buffer
+     * @return int - The number of trigrams extracted
+     */
+    private static int extract(String text, long[] trigrams) {
+        int count = 0;
+        int i = 0;
+        while (i < text.length()) {
+            if (!Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            char first = ' ';
+            char second = ' ';
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                char third = Character.toLowerCase(text.charAt(i));
+                trigrams[count++] = pack(first, second, third);
+                first = second;
+                second = third;
+                i++;
+            }
+            trigrams[count++] = pack(first, second, ' ');
+        }
+        return count;
+    }
+
+    private static long pack(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    /**
+     * Sort the start of an array and remove its duplicates
+     * @return int - The number of distinct values, which are now at the start of the array
+     */
+    private static int sortUnique(long[] values, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        Arrays.sort(values, 0, length);
+        int unique = 1;
+        for (int i = 1; i < length; i++) {
+            if (values[i] != values[unique - 1]) {
+                values[unique++] = values[i];
+            }
+        }
+        return unique;
+    }
+
+    private static float calculateSimilarity(int count, int firstLength, int secondLength) {
+        return (float) count / (float) (firstLength + secondLength - count);
+    }
+}
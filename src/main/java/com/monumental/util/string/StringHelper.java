@@ -1,8 +1,10 @@
 package com.monumental.util.string;
 
+import java.text.Normalizer;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
 
 /**
  * Class that provides helper methods for String processing
@@ -29,6 +31,22 @@ public class StringHelper {
         return string.isEmpty();
     }
 
+    /**
+     * Method to lowercase a String and remove the accents from its letters, so that text can be compared regardless of
+     * case and accents
+     * @param string - String to normalize
+     * @return String - The lowercased String without accents, or null if the String is null
+     */
+    public static String normalizeForSearch(String string) {
+        if (string == null) {
+            return null;
+        }
+
+        return Normalizer.normalize(string, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Method to remove beginning and ending quotes from a specified string
      * Does nothing if there are not both beginning and ending quotes
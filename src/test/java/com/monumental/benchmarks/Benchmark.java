@@ -0,0 +1,9 @@
+package com.monumental.benchmarks;
+
+/**
+ * JUnit category for benchmarks, which time the code they run and log the results
+ * Timings depend on the machine, so benchmarks only assert behavior and are left out of the test task. Run them with
+ * "./gradlew benchmark"
+ */
+public interface Benchmark {
+}
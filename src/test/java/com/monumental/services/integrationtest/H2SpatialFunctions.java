@@ -0,0 +1,80 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.services.MonumentService;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stand-ins for the PostGIS functions and operators that the map markers and nearest Monument searches use, as H2
+ * user-defined functions, so that those searches can be tested against the in-memory H2 database
+ * H2 can not project coordinates, so ST_Transform only changes the SRID. Distances are then in degrees instead of
+ * feet, which orders nearby Monuments the same way
+ */
+public class H2SpatialFunctions {
+
+    /**
+     * Create the functions, then set projected_coordinates for every Monument, the way the Postgres trigger does
+     * @param jdbcTemplate - JdbcTemplate for the H2 database. Any saved Monuments must have been flushed
+     */
+    public static void register(JdbcTemplate jdbcTemplate) {
+        String className = H2SpatialFunctions.class.getName();
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS ST_GeometryFromText FOR \"" + className + ".geometryFromText\"");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS ST_Transform FOR \"" + className + ".transform\"");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS knn_distance FOR \"" + className + ".distance\"");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS ST_MakeEnvelope FOR \"" + className + ".makeEnvelope\"");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS bbox_intersects FOR \"" + className + ".boundingBoxesIntersect\"");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS ST_X FOR \"" + className + ".x\"");
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS ST_Y FOR \"" + className + ".y\"");
+
+        jdbcTemplate.update("UPDATE monument SET projected_coordinates = ST_Transform(coordinates, " +
+            MonumentService.feetSrid + ") WHERE coordinates IS NOT NULL");
+    }
+
+    public static Geometry geometryFromText(String text, Integer srid) throws ParseException {
+        Geometry geometry = new WKTReader().read(text);
+        geometry.setSRID(srid);
+        return geometry;
+    }
+
+    public static Geometry transform(Geometry geometry, Integer srid) {
+        if (geometry == null) {
+            return null;
+        }
+        Geometry transformed = geometry.copy();
+        transformed.setSRID(srid);
+        return transformed;
+    }
+
+    public static Double distance(Geometry first, Geometry second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        return first.distance(second);
+    }
+
+    public static Geometry makeEnvelope(Double minX, Double minY, Double maxX, Double maxY, Integer srid) {
+        Geometry envelope = new GeometryFactory().toGeometry(new Envelope(minX, maxX, minY, maxY));
+        envelope.setSRID(srid);
+        return envelope;
+    }
+
+    public static Boolean boundingBoxesIntersect(Geometry first, Geometry second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        return first.getEnvelopeInternal().intersects(second.getEnvelopeInternal());
+    }
+
+    public static Double x(Geometry point) {
+        return point == null ? null : ((Point) point).getX();
+    }
+
+    public static Double y(Geometry point) {
+        return point == null ? null : ((Point) point).getY();
+    }
+}
@@ -0,0 +1,194 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.models.Monument;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.LuceneMonumentSearchEngine;
+import com.monumental.services.MonumentService;
+import com.monumental.services.TagService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class used to integration test LuceneMonumentSearchEngine
+ * The index is updated in its own transactions after the Monuments are committed, so this class is not @Transactional.
+ * The context is dirtied before each test so each one starts with an empty database and index
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class LuceneMonumentSearchEngineIntegrationTests {
+
+    @Autowired
+    private LuceneMonumentSearchEngine luceneMonumentSearchEngine;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    /* searchMonumentIds Tests */
+
+    @Test
+    public void testLuceneMonumentSearchEngine_searchMonumentIds_Misspelled() {
+        Monument lincoln = this.createMonument("Lincoln Memorial", "Daniel Chester French", true);
+        this.createMonument("Washington Monument", "Robert Mills", true);
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        assertEquals(Arrays.asList(lincoln.getId()), this.search("lincon", MonumentService.SortType.RELEVANCE));
+    }
+
+    @Test
+    public void testLuceneMonumentSearchEngine_searchMonumentIds_TitleBeforeArtist() {
+        Monument byArtist = this.createMonument("Seated Statue", "Daniel Chester French", true);
+        Monument byTitle = this.createMonument("French Memorial", "Robert Mills", true);
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        assertEquals(Arrays.asList(byTitle.getId(), byArtist.getId()),
+            this.search("french", MonumentService.SortType.RELEVANCE)
+        );
+    }
+
+    @Test
+    public void testLuceneMonumentSearchEngine_searchMonumentIds_OnlyActive() {
+        Monument active = this.createMonument("Monument 1", null, true);
+        Monument inactive = this.createMonument("Monument 2", null, false);
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        assertEquals(Arrays.asList(active.getId()), this.search("monument", MonumentService.SortType.NONE));
+
+        List<Integer> ids = this.luceneMonumentSearchEngine.searchMonumentIds("monument", null, null, null, null, null,
+            null, null, null, null, MonumentService.SortType.NONE, null, null, null, false, null, null, false
+        );
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains(inactive.getId()));
+    }
+
+    @Test
+    public void testLuceneMonumentSearchEngine_searchMonumentIds_Tags() {
+        Monument monument1 = this.createMonument("Monument 1", null, true);
+        Monument monument2 = this.createMonument("Monument 2", null, true);
+        this.createMonument("Monument 3", null, true);
+        this.tagService.createTag("Civil War", Arrays.asList(monument1, monument2), false);
+        this.tagService.createTag("Bronze", Arrays.asList(monument2), true);
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        List<Integer> ids = this.luceneMonumentSearchEngine.searchMonumentIds(null, null, null, null, null, null, null,
+            null, Arrays.asList("Civil War"), null, MonumentService.SortType.NONE, null, null, null, true, null, null,
+            false
+        );
+        assertEquals(2, ids.size());
+        assertTrue(ids.contains(monument1.getId()));
+        assertTrue(ids.contains(monument2.getId()));
+
+        // Only the whole name of a Tag matches
+        assertEquals(0, this.luceneMonumentSearchEngine.searchMonumentIds(null, null, null, null, null, null, null,
+            null, Arrays.asList("Civil"), null, MonumentService.SortType.NONE, null, null, null, true, null, null, false
+        ).size());
+
+        assertEquals(Arrays.asList(monument2.getId()), this.luceneMonumentSearchEngine.searchMonumentIds(null, null,
+            null, null, null, null, null, null, Arrays.asList("Civil War"), Arrays.asList("Bronze", "Granite"),
+            MonumentService.SortType.NONE, null, null, null, true, null, null, false
+        ));
+    }
+
+    @Test
+    public void testLuceneMonumentSearchEngine_searchMonumentIds_Distance() {
+        Monument near = this.createMonument("Monument 1", null, true);
+        near.setCoordinates(MonumentService.createMonumentPoint(-77.05, 38.89));
+        Monument nearest = this.createMonument("Monument 2", null, true);
+        nearest.setCoordinates(MonumentService.createMonumentPoint(-77.04, 38.89));
+        Monument far = this.createMonument("Monument 3", null, true);
+        far.setCoordinates(MonumentService.createMonumentPoint(-87.62, 41.88));
+        this.monumentRepository.saveAll(Arrays.asList(near, nearest, far));
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        assertEquals(Arrays.asList(nearest.getId(), near.getId()), this.luceneMonumentSearchEngine.searchMonumentIds(
+            null, null, null, null, 38.89, -77.03, 25.0, null, null, null, MonumentService.SortType.DISTANCE, null,
+            null, null, true, null, null, false
+        ));
+    }
+
+    @Test
+    public void testLuceneMonumentSearchEngine_searchMonumentIds_Page() {
+        for (int i = 1; i <= 5; i++) {
+            this.createMonument("Monument " + i, null, true);
+        }
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        assertEquals(2, this.luceneMonumentSearchEngine.searchMonumentIds("monument", "1", "2", null, null, null,
+            null, null, null, null, MonumentService.SortType.RELEVANCE, null, null, null, true, null, null, false
+        ).size());
+        assertEquals(1, this.luceneMonumentSearchEngine.searchMonumentIds("monument", "3", "2", null, null, null,
+            null, null, null, null, MonumentService.SortType.RELEVANCE, null, null, null, true, null, null, false
+        ).size());
+    }
+
+    /* countMonuments Tests */
+
+    @Test
+    public void testLuceneMonumentSearchEngine_countMonuments() {
+        this.createMonument("Lincoln Memorial", null, true);
+        this.createMonument("Vietnam Veterans Memorial", null, true);
+        this.createMonument("Washington Monument", null, true);
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        assertEquals(Integer.valueOf(2), this.luceneMonumentSearchEngine.countMonuments("memorial", null, null, null,
+            null, null, null, null, null, null, true, null, null, false
+        ));
+    }
+
+    /* updateIndex Tests */
+
+    @Test
+    public void testLuceneMonumentSearchEngine_updateIndex() {
+        Monument monument = this.createMonument("Lincoln Memorial", null, true);
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        monument.setTitle("Jefferson Memorial");
+        this.monumentRepository.save(monument);
+
+        // The index is not updated until the Monument is re-indexed
+        assertEquals(0, this.search("jefferson", MonumentService.SortType.RELEVANCE).size());
+
+        this.luceneMonumentSearchEngine.updateIndex(monument.getId());
+
+        assertEquals(Arrays.asList(monument.getId()), this.search("jefferson", MonumentService.SortType.RELEVANCE));
+        assertEquals(0, this.search("lincoln", MonumentService.SortType.RELEVANCE).size());
+    }
+
+    @Test
+    public void testLuceneMonumentSearchEngine_updateIndex_Deleted() {
+        Monument monument = this.createMonument("Lincoln Memorial", null, true);
+        this.luceneMonumentSearchEngine.rebuildIndex();
+
+        this.monumentRepository.delete(monument);
+        this.luceneMonumentSearchEngine.updateIndex(monument.getId());
+
+        assertEquals(0, this.search("lincoln", MonumentService.SortType.RELEVANCE).size());
+    }
+
+    private List<Integer> search(String searchQuery, MonumentService.SortType sortType) {
+        return this.luceneMonumentSearchEngine.searchMonumentIds(searchQuery, null, null, null, null, null, null, null,
+            null, null, sortType, null, null, null, true, null, null, false
+        );
+    }
+
+    private Monument createMonument(String title, String artist, boolean isActive) {
+        Monument monument = new Monument();
+        monument.setTitle(title);
+        monument.setArtist(artist);
+        monument.setIsActive(isActive);
+        return this.monumentRepository.save(monument);
+    }
+}
@@ -0,0 +1,198 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.benchmarks.Benchmark;
+import com.monumental.models.*;
+import com.monumental.repositories.*;
+import com.monumental.services.MonumentService;
+import com.monumental.services.TagService;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.transaction.Transactional;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Microbenchmark for loading a Monument with everything shown on its detail page
+ * Compares MonumentService.getMonumentDetail with the way the detail page used to be loaded, by finding the Monument
+ * and then calling every getter through reflection to initialize its lazy-loaded collections, for a Monument with a
+ * few collection elements and one with many of them
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Transactional
+@Category(Benchmark.class)
+public class MonumentDetailBenchmarkIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonumentDetailBenchmarkIntegrationTests.class);
+
+    private static final int LOADS = 50;
+
+    private static final int WARMUP_LOADS = 10;
+
+    @Autowired
+    private MonumentService monumentService;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ReferenceRepository referenceRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    private Statistics statistics;
+
+    @Before
+    public void initialize() {
+        this.statistics = this.monumentService.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    public void testMonumentService_getMonumentDetail_BoundedStatementsForLargeMonuments() {
+        Integer smallId = this.createMonument(2);
+        Integer largeId = this.createMonument(100);
+
+        long reflectionSmallStatements = this.countStatements(smallId, false);
+        long reflectionLargeStatements = this.countStatements(largeId, false);
+        long detailSmallStatements = this.countStatements(smallId, true);
+        long detailLargeStatements = this.countStatements(largeId, true);
+
+        double reflectionMillis = this.timeLoads(largeId, false);
+        double detailMillis = this.timeLoads(largeId, true);
+
+        logger.info(String.format(
+            "Monument detail loads of a Monument with 100 Tags, Images, References and Contributions%n" +
+            "  reflection: %d statements (%d for 2 of each), %.2f ms per load%n" +
+            "  detail:     %d statements (%d for 2 of each), %.2f ms per load",
+            reflectionLargeStatements, reflectionSmallStatements, reflectionMillis,
+            detailLargeStatements, detailSmallStatements, detailMillis
+        ));
+
+        // The detail loader takes the same 4 statements no matter how large the Monument is
+        assertEquals(4, detailSmallStatements);
+        assertEquals(detailSmallStatements, detailLargeStatements);
+        assertTrue(detailLargeStatements <= reflectionLargeStatements);
+
+        Monument monument = this.load(largeId, true);
+        assertEquals(100, monument.getTags().size());
+        assertEquals(100, monument.getImages().size());
+        assertEquals(100, monument.getReferences().size());
+        assertEquals(100, monument.getContributions().size());
+    }
+
+    /**
+     * Create a Monument with the specified number of Tags, Images, References and Contributions
+     * @return Integer - The ID of the Monument
+     */
+    private Integer createMonument(int count) {
+        Monument monument = new Monument();
+        monument.setTitle("Monument " + count);
+        monument = this.monumentRepository.save(monument);
+
+        List<Monument> monuments = new ArrayList<>();
+        monuments.add(monument);
+        for (int i = 0; i < count; i++) {
+            this.tagService.createTag("Tag " + count + " " + i, monuments, false);
+
+            Image image = new Image();
+            image.setUrl("Image " + i);
+            image.setMonument(monument);
+            this.imageRepository.save(image);
+
+            Reference reference = new Reference("Reference " + i);
+            reference.setMonument(monument);
+            this.referenceRepository.save(reference);
+
+            Contribution contribution = new Contribution();
+            contribution.setSubmittedBy("Contributor " + i);
+            contribution.setDate(new Date());
+            contribution.setMonument(monument);
+            this.contributionRepository.save(contribution);
+        }
+
+        this.monumentService.getEntityManager().flush();
+        return monument.getId();
+    }
+
+    private long countStatements(Integer id, boolean detail) {
+        this.statistics.clear();
+        this.load(id, detail);
+        return this.statistics.getPrepareStatementCount();
+    }
+
+    private double timeLoads(Integer id, boolean detail) {
+        for (int i = 0; i < WARMUP_LOADS; i++) {
+            this.load(id, detail);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < LOADS; i++) {
+            this.load(id, detail);
+        }
+        return (System.nanoTime() - start) / 1000000.0 / LOADS;
+    }
+
+    /**
+     * Load the Monument into an empty persistence context, the same as in a new request
+     */
+    private Monument load(Integer id, boolean detail) {
+        this.monumentService.getEntityManager().clear();
+        if (detail) {
+            return this.monumentService.getMonumentDetail(id, true).orElseThrow();
+        }
+
+        Monument monument = this.monumentRepository.findByIdAndIsActive(id, true).orElseThrow();
+        this.initializeWithReflection(monument);
+        return monument;
+    }
+
+    /**
+     * Initialize the lazy-loaded collections of a Monument the way ModelService used to, by calling every public getter
+     * through reflection and initializing whatever it returns
+     */
+    private void initializeWithReflection(Monument monument) {
+        for (Method method : monument.getClass().getMethods()) {
+            if (!method.getName().startsWith("get") || method.getParameterTypes().length > 0 ||
+                    Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            try {
+                Object value = method.invoke(monument);
+                if (value != null) {
+                    Hibernate.initialize(value);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
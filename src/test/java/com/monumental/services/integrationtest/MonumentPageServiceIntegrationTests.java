@@ -0,0 +1,165 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.controllers.helpers.MonumentPage;
+import com.monumental.exceptions.ResourceNotFoundException;
+import com.monumental.exceptions.UnauthorizedException;
+import com.monumental.models.Image;
+import com.monumental.models.Monument;
+import com.monumental.repositories.ImageRepository;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.repositories.MonumentTagRepository;
+import com.monumental.repositories.TagRepository;
+import com.monumental.services.MonumentPageService;
+import com.monumental.services.RelatedMonumentIndexService;
+import com.monumental.services.TagService;
+import com.monumental.services.events.MonumentChangedEvent;
+import org.hibernate.Hibernate;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class used to integration test MonumentPageService
+ * The sections of the page are loaded on other threads in their own transactions, so the test data has to be committed
+ * and this class is not @Transactional. Instead the class starts with an empty database, every record a test creates is
+ * deleted after it, and the in-memory indexes are told about the created and deleted Monuments the same way
+ * MonumentService tells them
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class MonumentPageServiceIntegrationTests {
+
+    @Autowired
+    private MonumentPageService monumentPageService;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private MonumentTagRepository monumentTagRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private RelatedMonumentIndexService relatedMonumentIndexService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final List<Monument> createdMonuments = new ArrayList<>();
+
+    @After
+    public void deleteCreatedRecords() {
+        this.imageRepository.deleteAll();
+        this.monumentTagRepository.deleteAll();
+        this.tagRepository.deleteAll();
+        for (Monument monument : this.createdMonuments) {
+            this.monumentRepository.deleteById(monument.getId());
+            this.eventPublisher.publishEvent(new MonumentChangedEvent(monument.getId(),
+                MonumentChangedEvent.ChangeType.DELETED, null, null
+            ));
+        }
+        this.createdMonuments.clear();
+    }
+
+    /* getMonumentPage Tests */
+
+    @Test
+    public void testMonumentPageService_getMonumentPage_LoadsAllSections() throws UnauthorizedException {
+        Monument monument = this.createMonument("Monument 1", true);
+        Monument related = this.createMonument("Monument 2", true);
+        Monument inactive = this.createMonument("Monument 3", false);
+        this.createMonument("Monument 4", true);
+
+        List<Monument> tagged = new ArrayList<>();
+        tagged.add(monument);
+        tagged.add(related);
+        tagged.add(inactive);
+        this.tagService.createTag("Tag 1", tagged, false);
+        // Tagging the Monuments does not tell the index about them, and it updates in the background when it is told
+        this.relatedMonumentIndexService.rebuildIndex();
+
+        Image image = new Image();
+        image.setUrl("Image 1");
+        image.setIsPrimary(true);
+        image.setMonument(monument);
+        this.imageRepository.save(image);
+
+        MonumentPage page = this.monumentPageService.getMonumentPage(monument.getId(), true, 5);
+
+        assertEquals(monument.getId(), page.getMonument().getId());
+        assertEquals(1, page.getMonument().getTags().size());
+        assertEquals("Tag 1", page.getMonument().getTags().get(0).getName());
+        assertEquals(1, page.getMonument().getImages().size());
+
+        assertEquals(1, page.getRelated().size());
+        assertEquals(related.getId(), page.getRelated().get(0).getId());
+        assertEquals(1, page.getRelated().get(0).getTags().size());
+
+        // The Monuments are detached once their section is loaded, so every collection has to be loaded by then
+        assertTrue(Hibernate.isInitialized(page.getMonument().getReferences()));
+        assertTrue(Hibernate.isInitialized(page.getMonument().getContributions()));
+        assertTrue(Hibernate.isInitialized(page.getRelated().get(0).getImages()));
+        assertTrue(Hibernate.isInitialized(page.getRelated().get(0).getReferences()));
+
+        // Anonymous Users have no Favorite and can not see the pending suggestions
+        assertNull(page.getFavorite());
+        assertNull(page.getPendingUpdateSuggestions());
+
+        assertTrue(page.getServerTiming().matches("monument;dur=\\d+\\.\\d, related;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d"));
+    }
+
+    @Test
+    public void testMonumentPageService_getMonumentPage_NoTags() throws UnauthorizedException {
+        Monument monument = this.createMonument("Monument 1", true);
+        this.createMonument("Monument 2", true);
+
+        MonumentPage page = this.monumentPageService.getMonumentPage(monument.getId(), true, 5);
+
+        assertEquals(monument.getId(), page.getMonument().getId());
+        assertEquals(0, page.getRelated().size());
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void testMonumentPageService_getMonumentPage_DoesNotExist() throws UnauthorizedException {
+        this.monumentPageService.getMonumentPage(1, true, 5);
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void testMonumentPageService_getMonumentPage_Inactive() throws UnauthorizedException {
+        Monument monument = this.createMonument("Monument 1", false);
+
+        this.monumentPageService.getMonumentPage(monument.getId(), true, 5);
+    }
+
+    private Monument createMonument(String title, boolean isActive) {
+        Monument monument = new Monument();
+        monument.setTitle(title);
+        monument.setIsActive(isActive);
+        monument = this.monumentRepository.save(monument);
+        this.createdMonuments.add(monument);
+        this.eventPublisher.publishEvent(new MonumentChangedEvent(monument.getId(),
+            MonumentChangedEvent.ChangeType.CREATED, null, null
+        ));
+        return monument;
+    }
+}
@@ -0,0 +1,112 @@
+package com.monumental.services.integrationtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monumental.models.Image;
+import com.monumental.models.Monument;
+import com.monumental.repositories.ImageRepository;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.MonumentPointsService;
+import com.monumental.services.MonumentService;
+import com.monumental.services.events.MonumentChangedEvent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class used to integration test MonumentPointsService
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Transactional
+public class MonumentPointsServiceIntegrationTests {
+
+    @Autowired
+    private MonumentPointsService monumentPointsService;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /** getPoints Tests **/
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMonumentPointsService_getPoints_ActiveMonumentsOnly() throws IOException {
+        Monument monument1 = this.createMonument("Veterans Memorial", 40.0, -90.0, true);
+        Monument monument2 = this.createMonument("Veterans Memorial", 41.0, -91.0, true);
+        this.createMonument("Inactive Memorial", 42.0, -92.0, false);
+
+        Image image = new Image();
+        image.setUrl("Image 1");
+        image.setIsPrimary(true);
+        image.setMonument(monument2);
+        image = this.imageRepository.save(image);
+
+        MonumentPointsService.SerializedMonumentPoints points = this.monumentPointsService.getPoints();
+        Map<String, List<Object>> json = this.objectMapper.readValue(points.getJson(), Map.class);
+
+        assertEquals(Arrays.asList(monument1.getId(), monument2.getId()), json.get("ids"));
+        assertEquals(Arrays.asList(40.0, 41.0), json.get("lat"));
+        assertEquals(Arrays.asList(-90.0, -91.0), json.get("lon"));
+        assertEquals(Arrays.asList("Veterans Memorial"), json.get("titles"));
+        assertEquals(Arrays.asList(0, 0), json.get("titleIndexes"));
+        assertEquals(Arrays.asList(null, image.getId()), json.get("primaryImageIds"));
+    }
+
+    @Test
+    public void testMonumentPointsService_getPoints_GzippedMatchesJson() throws IOException {
+        this.createMonument("Monument 1", 40.0, -90.0, true);
+
+        MonumentPointsService.SerializedMonumentPoints points = this.monumentPointsService.getPoints();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(points.getGzippedJson()))) {
+            assertArrayEquals(points.getJson(), gzip.readAllBytes());
+        }
+        assertNotEquals(points.getETag(), points.getGzippedETag());
+    }
+
+    @Test
+    public void testMonumentPointsService_getPoints_CachedUntilMonumentChanged() throws IOException {
+        Monument monument = this.createMonument("Monument 1", 40.0, -90.0, true);
+
+        MonumentPointsService.SerializedMonumentPoints points = this.monumentPointsService.getPoints();
+        assertSame(points, this.monumentPointsService.getPoints());
+
+        this.createMonument("Monument 2", 41.0, -91.0, true);
+        this.monumentPointsService.onMonumentChanged(
+            new MonumentChangedEvent(monument.getId(), MonumentChangedEvent.ChangeType.CREATED, null, null)
+        );
+
+        MonumentPointsService.SerializedMonumentPoints newPoints = this.monumentPointsService.getPoints();
+        assertNotSame(points, newPoints);
+        assertNotEquals(points.getETag(), newPoints.getETag());
+    }
+
+    private Monument createMonument(String title, Double latitude, Double longitude, boolean isActive) {
+        Monument monument = new Monument();
+        monument.setTitle(title);
+        monument.setCoordinates(MonumentService.createMonumentPoint(longitude, latitude));
+        monument.setIsActive(isActive);
+        return this.monumentRepository.save(monument);
+    }
+}
@@ -0,0 +1,102 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.benchmarks.Benchmark;
+import com.monumental.services.MonumentService;
+import com.monumental.util.search.QueryParameters;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.transaction.Transactional;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Microbenchmark for the query plan re-use of MonumentService searches
+ * Each search is only planned (Criteria -> HQL -> SQL), never executed, so that the similarity and distance filters
+ * can be included even though H2 does not support them. The hits and misses are read from Hibernate's Statistics for
+ * the query plan cache
+ * The "inlined" numbers plan the same searches with QueryParameters.inlining, which inlines the user's values with
+ * builder.literal the way the search did before they were bound
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Transactional
+@Category(Benchmark.class)
+public class MonumentSearchQueryPlanBenchmarkIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonumentSearchQueryPlanBenchmarkIntegrationTests.class);
+
+    private static final int SEARCHES = 500;
+
+    @Autowired
+    private MonumentService monumentService;
+
+    private Statistics statistics;
+
+    @Before
+    public void enableStatistics() {
+        this.statistics = this.monumentService.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    public void testMonumentService_createSearchQuery_DistinctValuesShareQueryPlan() {
+        this.statistics.clear();
+        long inlinedStart = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            this.createSearch(QueryParameters.inlining(), i);
+        }
+        long inlinedNanos = System.nanoTime() - inlinedStart;
+        long inlinedHits = this.statistics.getQueryPlanCacheHitCount();
+        long inlinedMisses = this.statistics.getQueryPlanCacheMissCount();
+
+        this.statistics.clear();
+        long boundStart = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            this.createSearch(new QueryParameters(), i);
+        }
+        long boundNanos = System.nanoTime() - boundStart;
+        long boundHits = this.statistics.getQueryPlanCacheHitCount();
+        long boundMisses = this.statistics.getQueryPlanCacheMissCount();
+
+        logger.info(String.format("Search query plans over %d searches: " +
+            "inlined %d hits, %d misses, %.1f us planning per search; " +
+            "bound %d hits, %d misses, %.1f us planning per search",
+            SEARCHES,
+            inlinedHits, inlinedMisses, inlinedNanos / 1000.0 / SEARCHES,
+            boundHits, boundMisses, boundNanos / 1000.0 / SEARCHES
+        ));
+
+        // Every search has the same shape, so the bound searches should all share one query plan
+        assertEquals(1, boundMisses);
+        assertEquals(SEARCHES - 1, boundHits);
+        assertTrue(inlinedMisses > boundMisses);
+    }
+
+    /**
+     * Plan a search with a different search text, threshold, point, radius, tags and dates for every i
+     * The number of tags is kept the same so that the shape of the query does not change
+     */
+    private void createSearch(QueryParameters parameters, int i) {
+        this.monumentService.createSearchQuery(parameters,
+            "Monument " + i, "1", "25", 0.1 + (i % 9) / 10.0, 40.0 + i / 1000.0, -90.0 - i / 1000.0,
+            1.0 + i, null, Arrays.asList("Tag " + i, "Tag " + (i + 1)), Arrays.asList("Material " + i),
+            MonumentService.SortType.RELEVANCE, null, null, 1800 + (i % 20) * 10, true, null, null, false
+        );
+    }
+}
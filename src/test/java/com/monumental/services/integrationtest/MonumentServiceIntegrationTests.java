@@ -2,6 +2,11 @@ package com.monumental.services.integrationtest;
 
 import com.google.gson.Gson;
 import com.monumental.controllers.helpers.MonumentAboutPageStatistics;
+import com.monumental.controllers.helpers.MonumentMarker;
+import com.monumental.controllers.helpers.MonumentSearchCount;
+import com.monumental.controllers.helpers.MonumentSearchFacets;
+import com.monumental.controllers.helpers.MonumentSearchPage;
+import com.monumental.controllers.helpers.MonumentSummary;
 import com.monumental.models.*;
 import com.monumental.models.suggestions.CreateMonumentSuggestion;
 import com.monumental.models.suggestions.UpdateMonumentSuggestion;
@@ -10,7 +15,12 @@ import com.monumental.security.Role;
 import com.monumental.services.AwsS3Service;
 import com.monumental.services.GoogleMapsService;
 import com.monumental.services.MonumentService;
+import com.monumental.services.SearchIndexService;
 import com.monumental.services.TagService;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.locationtech.jts.geom.Point;
 import org.junit.Before;
 import org.junit.Test;
@@ -19,8 +29,10 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import javax.transaction.Transactional;
 import java.io.File;
@@ -70,6 +82,15 @@ public class MonumentServiceIntegrationTests {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MonumentSearchDocumentRepository monumentSearchDocumentRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Gson gson;
 
     private User testUser;
@@ -107,6 +128,785 @@ public class MonumentServiceIntegrationTests {
         Mockito.when(this.awsS3ServiceMock.storeObject(any(String.class), any(File.class))).thenReturn("Test URL");
     }
 
+    /* searchAfter Tests */
+
+    @Test
+    public void testMonumentService_searchAfter_NewestPagesThroughEveryMonumentInOrder() {
+        Monument monument1900 = this.createDatedMonument("1900");
+        Monument monument1950a = this.createDatedMonument("1950");
+        Monument monument1950b = this.createDatedMonument("1950");
+        Monument monument2000 = this.createDatedMonument("2000");
+        Monument undated = this.createDatedMonument(null);
+
+        List<Integer> ids = this.searchAllPagesAfter(MonumentService.SortType.NEWEST, 2);
+
+        assertEquals(Arrays.asList(undated.getId(), monument2000.getId(), monument1950b.getId(),
+            monument1950a.getId(), monument1900.getId()), ids);
+    }
+
+    @Test
+    public void testMonumentService_searchAfter_OldestPagesThroughEveryMonumentInOrder() {
+        Monument monument1900 = this.createDatedMonument("1900");
+        Monument monument1950a = this.createDatedMonument("1950");
+        Monument monument1950b = this.createDatedMonument("1950");
+        Monument monument2000 = this.createDatedMonument("2000");
+        Monument undated = this.createDatedMonument(null);
+
+        List<Integer> ids = this.searchAllPagesAfter(MonumentService.SortType.OLDEST, 2);
+
+        assertEquals(Arrays.asList(monument1900.getId(), monument1950a.getId(), monument1950b.getId(),
+            monument2000.getId(), undated.getId()), ids);
+    }
+
+    @Test
+    public void testMonumentService_searchAfter_OldestPagesThroughEveryUndatedMonument() {
+        Monument undated1 = this.createDatedMonument(null);
+        Monument monument1900 = this.createDatedMonument("1900");
+        Monument undated2 = this.createDatedMonument(null);
+        Monument undated3 = this.createDatedMonument(null);
+
+        List<Integer> ids = this.searchAllPagesAfter(MonumentService.SortType.OLDEST, 1);
+
+        assertEquals(Arrays.asList(monument1900.getId(), undated1.getId(), undated2.getId(), undated3.getId()), ids);
+    }
+
+    @Test
+    public void testMonumentService_searchAfter_NoSortKeyPagesThroughEveryMonumentById() {
+        List<Integer> expectedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expectedIds.add(this.createDatedMonument("1900").getId());
+        }
+
+        List<Integer> ids = this.searchAllPagesAfter(MonumentService.SortType.NONE, 2);
+
+        assertEquals(expectedIds, ids);
+    }
+
+    @Test
+    public void testMonumentService_searchAfter_LastPageHasNoNext() {
+        this.createDatedMonument("1900");
+
+        MonumentSearchPage page = this.searchAfter(MonumentService.SortType.NEWEST, null, 2);
+
+        assertEquals(1, page.getMonuments().size());
+        assertNull(page.getNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMonumentService_searchAfter_CursorFromDifferentSortType() {
+        this.createDatedMonument("1900");
+        this.createDatedMonument("1950");
+
+        String next = this.searchAfter(MonumentService.SortType.NEWEST, null, 1).getNext();
+
+        this.searchAfter(MonumentService.SortType.OLDEST, next, 1);
+    }
+
+    /* searchWithCount Tests */
+
+    @Test
+    public void testMonumentService_searchWithCount_CountIncludesEveryPage() {
+        for (int i = 0; i < 5; i++) {
+            this.createDatedMonument("1900");
+        }
+
+        MonumentSearchPage page = this.monumentService.searchWithCount(null, "2", "2", 0.1, null, null, null, null,
+            null, null, MonumentService.SortType.NONE, null, null, null, true, null, null, false);
+
+        assertEquals(2, page.getMonuments().size());
+        assertEquals(Integer.valueOf(5), page.getCount());
+    }
+
+    @Test
+    public void testMonumentService_searchWithCount_PagePastLastResult() {
+        this.createDatedMonument("1900");
+
+        MonumentSearchPage page = this.monumentService.searchWithCount(null, "3", "2", 0.1, null, null, null, null,
+            null, null, MonumentService.SortType.NONE, null, null, null, true, null, null, false);
+
+        assertEquals(0, page.getMonuments().size());
+        assertEquals(Integer.valueOf(1), page.getCount());
+    }
+
+    /* countSearchResultsApproximately Tests */
+
+    @Test
+    public void testMonumentService_countSearchResultsApproximately_ExactBelowLimit() {
+        ReflectionTestUtils.setField(this.monumentService, "exactCountLimit", 5);
+        for (int i = 0; i < 5; i++) {
+            this.createDatedMonument("1900");
+        }
+
+        MonumentSearchCount count = this.monumentService.countSearchResultsApproximately(null, null, null, null, null,
+            null, null, null, null, null, true, null, null, false);
+
+        assertEquals(5, count.getCount());
+        assertFalse(count.isApproximate());
+    }
+
+    @Test
+    public void testMonumentService_countSearchResultsApproximately_SampledAboveLimit() {
+        ReflectionTestUtils.setField(this.monumentService, "exactCountLimit", 5);
+        ReflectionTestUtils.setField(this.monumentService, "countSampleRate", 2);
+        for (int i = 0; i < 20; i++) {
+            this.createDatedMonument("1900");
+        }
+
+        MonumentSearchCount count = this.monumentService.countSearchResultsApproximately(null, null, null, null, null,
+            null, null, null, null, null, true, null, null, false);
+
+        // H2 has no TABLESAMPLE, so the sample is the whole table and the count is exact here
+        assertEquals(20, count.getCount());
+        assertTrue(count.isApproximate());
+    }
+
+    /* countSearchFacets Tests */
+
+    @Test
+    public void testMonumentService_countSearchFacets_StatesAndDecades() {
+        Monument virginia1850 = this.createDatedMonument("1850");
+        virginia1850.setState("VA");
+        Monument virginia1905 = this.createDatedMonument("1905");
+        virginia1905.setState("Virginia");
+        Monument maryland1909 = this.createDatedMonument("1909");
+        maryland1909.setState("md");
+        Monument undated = this.createDatedMonument(null);
+        undated.setState("Nowhere");
+        this.monumentRepository.saveAll(Arrays.asList(virginia1850, virginia1905, maryland1909, undated));
+
+        MonumentSearchFacets facets = this.monumentService.countSearchFacets(null, null, null, null, null, null, null,
+            null, null, null, true, null, null, false);
+
+        Map<String, Integer> expectedStates = new HashMap<>();
+        expectedStates.put("Virginia", 2);
+        expectedStates.put("Maryland", 1);
+        assertEquals(expectedStates, facets.getStates());
+
+        Map<Integer, Integer> expectedDecades = new HashMap<>();
+        expectedDecades.put(0, 1);
+        expectedDecades.put(1900, 2);
+        assertEquals(expectedDecades, facets.getDecades());
+    }
+
+    @Test
+    public void testMonumentService_countSearchFacets_MostUsedTagsAndMaterials() {
+        Monument monument1 = this.createTitledMonument("Lincoln Memorial");
+        Monument monument2 = this.createTitledMonument("Lincoln Park Statue");
+        Monument monument3 = this.createTitledMonument("Washington Monument");
+
+        this.tagService.createTag("Presidents", Arrays.asList(monument1, monument2, monument3), false);
+        this.tagService.createTag("Parks", Arrays.asList(monument2), false);
+        this.tagService.createTag("Bronze", Arrays.asList(monument2, monument3), true);
+
+        MonumentSearchFacets facets = this.monumentService.countSearchFacets("lincoln", null, null, null, null, null,
+            null, null, null, null, true, null, null, false);
+
+        assertEquals(Arrays.asList("Presidents", "Parks"), new ArrayList<>(facets.getTags().keySet()));
+        assertEquals(Integer.valueOf(2), facets.getTags().get("Presidents"));
+        assertEquals(Integer.valueOf(1), facets.getTags().get("Parks"));
+        assertEquals(Collections.singletonMap("Bronze", 1), facets.getMaterials());
+    }
+
+    @Test
+    public void testMonumentService_countSearchFacets_AppliesFilters() {
+        Monument monument1 = this.createDatedMonument("1905");
+        Monument monument2 = this.createDatedMonument("1955");
+        this.createDatedMonument("1955");
+
+        this.tagService.createTag("Tag 1", Arrays.asList(monument1, monument2), false);
+
+        MonumentSearchFacets facets = this.monumentService.countSearchFacets(null, null, null, null, null,
+            Arrays.asList("Tag 1"), null, null, null, null, true, null, null, false);
+
+        Map<Integer, Integer> expectedDecades = new HashMap<>();
+        expectedDecades.put(1900, 1);
+        expectedDecades.put(1950, 1);
+        assertEquals(expectedDecades, facets.getDecades());
+        assertEquals(Collections.singletonMap("Tag 1", 2), facets.getTags());
+    }
+
+    private Monument createDatedMonument(String year) {
+        Monument monument = new Monument();
+        monument.setTitle("Monument");
+        monument.setDate(MonumentService.createMonumentDate(year));
+        return this.monumentRepository.save(monument);
+    }
+
+    private MonumentSearchPage searchAfter(MonumentService.SortType sortType, String cursor, int limit) {
+        return this.monumentService.searchAfter(null, cursor, limit, 0.1, null, null, null, null, null, null,
+            sortType, null, null, null, true, null, null, false);
+    }
+
+    private List<Integer> searchAllPagesAfter(MonumentService.SortType sortType, int limit) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            MonumentSearchPage page = this.searchAfter(sortType, cursor, limit);
+            assertTrue(page.getMonuments().size() <= limit);
+            for (Monument monument : page.getMonuments()) {
+                ids.add(monument.getId());
+            }
+            cursor = page.getNext();
+        } while (cursor != null);
+        return ids;
+    }
+
+    /* loadLazyLoadedCollections Tests */
+
+    @Test
+    public void testMonumentService_loadLazyLoadedCollections_SearchPageLoadsEveryCollection() {
+        this.createMonumentsWithTagsAndImages(3);
+
+        List<Monument> monuments = this.searchWithEmptyPersistenceContext("3");
+
+        assertEquals(3, monuments.size());
+        for (Monument monument : monuments) {
+            assertEquals(2, monument.getTags().size());
+            assertEquals(1, monument.getMaterials().size());
+            assertEquals(1, monument.getImages().size());
+        }
+    }
+
+    @Test
+    public void testMonumentService_loadLazyLoadedCollections_SameNumberOfStatementsForEveryPageSize() {
+        this.createMonumentsWithTagsAndImages(10);
+
+        Statistics statistics = this.monumentService.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        assertEquals(1, this.searchWithEmptyPersistenceContext("1").size());
+        long smallPageStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(10, this.searchWithEmptyPersistenceContext("10").size());
+        long largePageStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(smallPageStatements, largePageStatements);
+    }
+
+    /* initializeAllLazyLoadedCollections Tests */
+
+    @Test
+    public void testMonumentService_initializeAllLazyLoadedCollections_InitializesEveryCollection() {
+        this.createMonumentsWithTagsAndImages(3);
+        this.monumentService.getEntityManager().flush();
+        this.monumentService.getEntityManager().clear();
+
+        List<Monument> monuments = this.monumentRepository.findAll();
+        this.monumentService.initializeAllLazyLoadedCollections(monuments);
+
+        assertEquals(3, monuments.size());
+        for (Monument monument : monuments) {
+            assertTrue(Hibernate.isInitialized(monument.getMonumentTags()));
+            assertTrue(Hibernate.isInitialized(monument.getImages()));
+            assertTrue(Hibernate.isInitialized(monument.getReferences()));
+            assertTrue(Hibernate.isInitialized(monument.getContributions()));
+            assertEquals(3, monument.getMonumentTags().size());
+            assertEquals(1, monument.getImages().size());
+        }
+    }
+
+    @Test
+    public void testMonumentService_initializeAllLazyLoadedCollections_SameNumberOfStatementsForAnyNumberOfRecords() {
+        this.createMonumentsWithTagsAndImages(10);
+        this.monumentService.getEntityManager().flush();
+
+        Statistics statistics = this.monumentService.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        this.monumentService.getEntityManager().clear();
+        List<Monument> monuments = this.monumentRepository.findAll();
+        statistics.clear();
+        this.monumentService.initializeAllLazyLoadedCollections(monuments.subList(0, 1));
+        long oneRecordStatements = statistics.getPrepareStatementCount();
+
+        this.monumentService.getEntityManager().clear();
+        monuments = this.monumentRepository.findAll();
+        statistics.clear();
+        this.monumentService.initializeAllLazyLoadedCollections(monuments);
+        long tenRecordsStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(oneRecordStatements, tenRecordsStatements);
+    }
+
+    /* getMonumentDetail Tests */
+
+    @Test
+    public void testMonumentService_getMonumentDetail_DoesNotExist() {
+        assertFalse(this.monumentService.getMonumentDetail(0, true).isPresent());
+    }
+
+    @Test
+    public void testMonumentService_getMonumentDetail_InactiveMonument() {
+        Monument monument = this.createDatedMonument("1900");
+        monument.setIsActive(false);
+        this.monumentRepository.save(monument);
+
+        assertFalse(this.monumentService.getMonumentDetail(monument.getId(), true).isPresent());
+        assertTrue(this.monumentService.getMonumentDetail(monument.getId(), false).isPresent());
+    }
+
+    @Test
+    public void testMonumentService_getMonumentDetail_LoadsEveryCollection() {
+        this.createMonumentsWithTagsAndImages(1);
+        Monument monument = this.monumentRepository.findAll().get(0);
+
+        Reference reference = new Reference("Reference");
+        reference.setMonument(monument);
+        this.referenceRepository.save(reference);
+
+        Contribution contribution = new Contribution();
+        contribution.setSubmittedByUser(this.testUser);
+        contribution.setMonument(monument);
+        this.contributionRepository.save(contribution);
+
+        this.monumentService.getEntityManager().flush();
+        this.monumentService.getEntityManager().clear();
+
+        Statistics statistics = this.monumentService.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        Monument result = this.monumentService.getMonumentDetail(monument.getId(), true).orElseThrow();
+
+        // One query for the Monument with its Tags, then one for each of its other collections
+        assertEquals(4, statistics.getPrepareStatementCount());
+
+        assertTrue(Hibernate.isInitialized(result.getMonumentTags()));
+        assertTrue(Hibernate.isInitialized(result.getImages()));
+        assertTrue(Hibernate.isInitialized(result.getReferences()));
+        assertTrue(Hibernate.isInitialized(result.getContributions()));
+        assertEquals(2, result.getTags().size());
+        assertEquals(1, result.getMaterials().size());
+        assertEquals(1, result.getImages().size());
+        assertEquals(1, result.getReferences().size());
+        assertEquals(1, result.getContributions().size());
+        assertEquals(this.testUser.getId(), result.getContributions().get(0).getSubmittedByUser().getId());
+    }
+
+    /* search Tests */
+
+    @Test
+    public void testMonumentService_search_SearchQuery_MostRelevantFirst() {
+        Monument lincolnMemorial = this.createTitledMonument("Lincoln Memorial");
+        Monument lincolnStatue = this.createTitledMonument("Lincoln Park Statue");
+        this.createTitledMonument("Washington Monument");
+        this.createTitledMonument("Vietnam Veterans Memorial");
+
+        List<Monument> results = this.monumentService.search("lincon", null, null, 0.1, null, null, null, null, null,
+            null, MonumentService.SortType.RELEVANCE, null, null, null, true, null, null, false);
+
+        assertEquals(2, results.size());
+        assertEquals(lincolnMemorial.getId(), results.get(0).getId());
+        assertEquals(lincolnStatue.getId(), results.get(1).getId());
+    }
+
+    @Test
+    public void testMonumentService_countSearchResults_SearchQuery() {
+        this.createTitledMonument("Lincoln Memorial");
+        this.createTitledMonument("Lincoln Park Statue");
+        this.createTitledMonument("Washington Monument");
+        this.createTitledMonument("Vietnam Veterans Memorial");
+
+        assertEquals(Integer.valueOf(2), this.monumentService.countSearchResults("memorial", null, null, null, null,
+            null, null, null, null, null, true, null, null, false));
+    }
+
+    @Test
+    public void testMonumentService_search_TrigramCandidates_SameResults() {
+        String[][] monuments = {
+            {"Lincoln Memorial", "Henry Bacon", "A memorial to Abraham Lincoln"},
+            {"Abraham Lincoln Statue", "Daniel Chester French", null},
+            {"Lincoln Park", null, "A park with a statue of the president"},
+            {"Washington Monument", "Robert Mills", "An obelisk on the National Mall"},
+            {"Memorial Bridge", null, "A bridge leading to the Lincoln Memorial"},
+            {"Vietnam Veterans Memorial", "Maya Lin", null},
+            {"Lin Lake", null, null}
+        };
+        for (String[] fields : monuments) {
+            Monument monument = new Monument();
+            monument.setTitle(fields[0]);
+            monument.setArtist(fields[1]);
+            monument.setDescription(fields[2]);
+            this.monumentRepository.save(monument);
+        }
+
+        for (String searchQuery : Arrays.asList("lincoln", "lincon memorial", "lin", "bacon", "statue of lincoln")) {
+            for (double threshold : new double[] {0.1, 0.3, 0.5, 1.0, 2.0, 4.0}) {
+                ReflectionTestUtils.setField(this.monumentService, "useTrigramCandidates", false);
+                List<Monument> expected = this.monumentService.search(searchQuery, null, null, threshold, null, null,
+                    null, null, null, null, MonumentService.SortType.RELEVANCE, null, null, null, true, null, null,
+                    false);
+
+                ReflectionTestUtils.setField(this.monumentService, "useTrigramCandidates", true);
+                List<Monument> results = this.monumentService.search(searchQuery, null, null, threshold, null, null,
+                    null, null, null, null, MonumentService.SortType.RELEVANCE, null, null, null, true, null, null,
+                    false);
+
+                assertEquals(searchQuery + " above " + threshold, expected, results);
+            }
+        }
+    }
+
+    private Monument createTitledMonument(String title) {
+        Monument monument = new Monument();
+        monument.setTitle(title);
+        return this.monumentRepository.save(monument);
+    }
+
+    /* updateMonumentSearchDocument Tests */
+
+    @Test
+    public void testMonumentService_updateMonumentSearchDocument_NormalizedFields() {
+        Monument monument = new Monument();
+        monument.setTitle("Émile's MEMORIAL");
+        monument.setArtist("Artist");
+        monument.setDate(MonumentService.createMonumentDate("1925"));
+        monument.setIsActive(true);
+        monument.setIsTemporary(true);
+        monument = this.monumentRepository.save(monument);
+
+        this.monumentService.updateMonumentSearchDocument(monument);
+
+        MonumentSearchDocument document = this.monumentSearchDocumentRepository.findById(monument.getId()).get();
+        assertEquals("emile's memorial", document.getTitle());
+        assertEquals("artist", document.getArtist());
+        // The generated description is not stored, so it is not searched
+        assertNull(document.getDescription());
+        assertEquals(Integer.valueOf(1925), document.getDateYear());
+        assertTrue(document.getIsActive());
+        assertTrue(document.getIsTemporary());
+    }
+
+    @Test
+    public void testMonumentService_createMonument_CreatesSearchDocument() {
+        CreateMonumentSuggestion createSuggestion = new CreateMonumentSuggestion();
+        createSuggestion.setIsApproved(true);
+        createSuggestion.setCreatedBy(this.testUser);
+        createSuggestion.setTitle("Title");
+
+        Monument result = this.monumentService.createMonument(createSuggestion);
+
+        MonumentSearchDocument document = this.monumentSearchDocumentRepository.findById(result.getId()).get();
+        assertEquals("title", document.getTitle());
+        assertTrue(document.getIsActive());
+    }
+
+    @Test
+    public void testMonumentService_updateMonumentIsActive_UpdatesSearchDocument() {
+        Monument monument = this.createTitledMonument("Title");
+        this.monumentService.updateMonumentSearchDocument(monument);
+
+        this.monumentService.updateMonumentIsActive(monument.getId(), false);
+
+        assertFalse(this.monumentSearchDocumentRepository.findById(monument.getId()).get().getIsActive());
+    }
+
+    @Test
+    public void testMonumentService_search_SearchDocuments_Filters() {
+        ReflectionTestUtils.setField(this.searchIndexService, "isSearchDocumentsReady", true);
+
+        Monument monument1 = this.createDatedMonument("Monument 1", "1925", true, false);
+        this.createDatedMonument("Monument 2", "1955", true, false);
+        this.createDatedMonument("Monument 3", "1925", false, false);
+        this.createDatedMonument("Monument 4", "1925", true, true);
+
+        List<Monument> results = this.monumentService.search(null, null, null, null, null, null, null, null, null,
+            null, MonumentService.SortType.NONE, null, null, 1920, true, null, null, true);
+
+        assertEquals(1, results.size());
+        assertEquals(monument1.getId(), results.get(0).getId());
+    }
+
+    @Test
+    public void testMonumentService_search_SearchDocuments_SearchQuery() {
+        ReflectionTestUtils.setField(this.searchIndexService, "isSearchDocumentsReady", true);
+
+        Monument zolaMemorial = this.createDatedMonument("Émile Zola Memorial", "1925", true, false);
+        this.createDatedMonument("Lincoln Memorial", "1925", true, false);
+
+        List<Monument> results = this.monumentService.search("EMILE ZOLA", null, null, 0.1, null, null, null, null,
+            null, null, MonumentService.SortType.RELEVANCE, null, null, null, true, null, null, false);
+
+        assertEquals(zolaMemorial.getId(), results.get(0).getId());
+
+        // searchAfter orders by the relevance computed from the same text
+        MonumentSearchPage page = this.monumentService.searchAfter("EMILE ZOLA", null, 10, 0.1, null, null, null,
+            null, null, null, MonumentService.SortType.RELEVANCE, null, null, null, true, null, null, false);
+
+        assertEquals(getIds(results), getIds(page.getMonuments()));
+    }
+
+    @Test
+    public void testMonumentService_search_SearchDocuments_BackfilledRows() {
+        ReflectionTestUtils.setField(this.searchIndexService, "isSearchDocumentsReady", true);
+
+        Monument withRow = this.createDatedMonument("Zola Memorial", "1925", true, false);
+        // Monuments saved without updateMonumentSearchDocument do not have a monument_search row until it is backfilled
+        Monument withoutRow = new Monument();
+        withoutRow.setTitle("Émile Zola Statue");
+        withoutRow.setDate(MonumentService.createMonumentDate("1928"));
+        withoutRow = this.monumentRepository.saveAndFlush(withoutRow);
+        Monument temporary = new Monument();
+        temporary.setTitle("Zola Fountain");
+        temporary.setIsTemporary(true);
+        this.monumentRepository.saveAndFlush(temporary);
+
+        this.searchIndexService.backfillSearchDocuments();
+
+        MonumentSearchDocument document = this.monumentSearchDocumentRepository.findById(withoutRow.getId()).get();
+        assertEquals("emile zola statue", document.getTitle());
+        assertEquals(Integer.valueOf(1928), document.getDateYear());
+
+        List<Monument> results = this.monumentService.search("zola", null, null, 0.1, null, null, null, null, null,
+            null, MonumentService.SortType.NONE, null, null, null, true, null, null, true);
+
+        assertEquals(new HashSet<>(Arrays.asList(withRow.getId(), withoutRow.getId())),
+            new HashSet<>(getIds(results)));
+
+        results = this.monumentService.search(null, null, null, null, null, null, null, null, null,
+            null, MonumentService.SortType.NONE, null, null, 1920, true, null, null, true);
+
+        assertEquals(new HashSet<>(Arrays.asList(withRow.getId(), withoutRow.getId())),
+            new HashSet<>(getIds(results)));
+    }
+
+    private Monument createDatedMonument(String title, String year, boolean isActive, boolean isTemporary) {
+        Monument monument = new Monument();
+        monument.setTitle(title);
+        monument.setDate(MonumentService.createMonumentDate(year));
+        monument.setIsActive(isActive);
+        monument.setIsTemporary(isTemporary);
+        monument = this.monumentRepository.save(monument);
+        this.monumentService.updateMonumentSearchDocument(monument);
+        return monument;
+    }
+
+    /* searchSummaries Tests */
+
+    @Test
+    public void testMonumentService_searchSummaries_SameOrderAsSearch() {
+        this.createDatedMonument("1900");
+        this.createDatedMonument("2000");
+        this.createDatedMonument("1950");
+
+        List<Monument> monuments = this.monumentService.search(null, "1", "2", 0.1, null, null, null, null, null, null,
+            MonumentService.SortType.OLDEST, null, null, null, true, null, null, false);
+        List<MonumentSummary> summaries = this.monumentService.searchSummaries(null, "1", "2", 0.1, null, null, null,
+            null, null, null, MonumentService.SortType.OLDEST, null, null, null, true, null, null, false);
+
+        assertEquals(2, summaries.size());
+        assertEquals(monuments.get(0).getId(), summaries.get(0).getId());
+        assertEquals(monuments.get(1).getId(), summaries.get(1).getId());
+    }
+
+    @Test
+    public void testMonumentService_searchSummaries_DoesNotLoadMonuments() {
+        this.createMonumentsWithTagsAndImages(3);
+        this.monumentService.getEntityManager().flush();
+        this.monumentService.getEntityManager().clear();
+
+        List<MonumentSummary> summaries = this.monumentService.searchSummaries(null, "1", "3", 0.1, null, null, null,
+            null, null, null, MonumentService.SortType.NONE, null, null, null, true, null, null, false);
+
+        assertEquals(3, summaries.size());
+        assertEquals(0, this.monumentService.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    /* findNearestMonuments Tests */
+
+    @Test
+    public void testMonumentService_findNearestMonuments_NearestFirst() {
+        Monument far = this.createLocatedMonument("Far", -77.3, true);
+        Monument nearest = this.createLocatedMonument("Nearest", -77.01, true);
+        Monument near = this.createLocatedMonument("Near", -77.1, true);
+        this.createLocatedMonument("Inactive", -77.0, false);
+        this.createTitledMonument("No Coordinates");
+        this.registerSpatialFunctions();
+
+        List<Monument> results = this.monumentService.findNearestMonuments(38.9, -77.0, 10);
+
+        assertEquals(Arrays.asList(nearest.getId(), near.getId(), far.getId()), getIds(results));
+    }
+
+    @Test
+    public void testMonumentService_findNearestMonuments_Limit() {
+        this.createLocatedMonument("Far", -77.3, true);
+        Monument nearest = this.createLocatedMonument("Nearest", -77.01, true);
+        Monument near = this.createLocatedMonument("Near", -77.1, true);
+        this.registerSpatialFunctions();
+
+        List<Monument> results = this.monumentService.findNearestMonuments(38.9, -77.0, 2);
+
+        assertEquals(Arrays.asList(nearest.getId(), near.getId()), getIds(results));
+    }
+
+    @Test
+    public void testMonumentService_findNearestMonuments_NoneLocated() {
+        this.createLocatedMonument("Inactive", -77.0, false);
+        this.createTitledMonument("No Coordinates");
+        this.registerSpatialFunctions();
+
+        assertEquals(0, this.monumentService.findNearestMonuments(38.9, -77.0, 10).size());
+    }
+
+    @Test
+    public void testMonumentService_findNearestMonuments_NoPoint() {
+        assertNull(this.monumentService.findNearestMonuments(null, -77.0, 10));
+    }
+
+    private Monument createLocatedMonument(String title, double longitude, boolean isActive) {
+        return this.createLocatedMonument(title, 38.9, longitude, isActive);
+    }
+
+    private Monument createLocatedMonument(String title, double latitude, double longitude, boolean isActive) {
+        Monument monument = new Monument();
+        monument.setTitle(title);
+        monument.setCoordinates(MonumentService.createMonumentPoint(longitude, latitude));
+        monument.setIsActive(isActive);
+        return this.monumentRepository.save(monument);
+    }
+
+    private void registerSpatialFunctions() {
+        this.monumentService.getEntityManager().flush();
+        H2SpatialFunctions.register(this.jdbcTemplate);
+    }
+
+    private static List<Integer> getIds(List<Monument> monuments) {
+        List<Integer> ids = new ArrayList<>();
+        for (Monument monument : monuments) {
+            ids.add(monument.getId());
+        }
+        return ids;
+    }
+
+    /* getMapMarkers Tests */
+
+    @Test
+    public void testMonumentService_getMapMarkers_EveryMarkerWithoutZoom() {
+        Monument lincolnMemorial = this.createLocatedMonument("Lincoln Memorial", 38.8893, -77.0502, true);
+        Monument reflectingPool = this.createLocatedMonument("Reflecting Pool", 38.8894, -77.0501, true);
+        Monument capitol = this.createLocatedMonument("Capitol", 38.8899, -77.0091, true);
+        this.createLocatedMonument("Inactive", 38.8893, -77.0502, false);
+        this.createLocatedMonument("Denver", 39.7392, -104.9903, true);
+        this.registerSpatialFunctions();
+
+        List<MonumentMarker> markers = this.monumentService.getMapMarkers(38.0, -78.0, 39.0, -76.0, null);
+
+        assertEquals(Arrays.asList(lincolnMemorial.getId(), reflectingPool.getId(), capitol.getId()),
+            getMarkerIds(markers));
+        assertEquals("Lincoln Memorial", markers.get(0).getTitle());
+        assertEquals(38.8893, markers.get(0).getLat(), 0);
+        assertEquals(-77.0502, markers.get(0).getLon(), 0);
+    }
+
+    @Test
+    public void testMonumentService_getMapMarkers_OneMarkerPerPixel() {
+        Monument lincolnMemorial = this.createLocatedMonument("Lincoln Memorial", 38.8893, -77.0502, true);
+        this.createLocatedMonument("Reflecting Pool", 38.8894, -77.0501, true);
+        Monument capitol = this.createLocatedMonument("Capitol", 38.8899, -77.0091, true);
+        this.registerSpatialFunctions();
+
+        // At zoom 12 a pixel is about 100 feet wide, so the first two Monuments share one and the Capitol does not
+        List<MonumentMarker> markers = this.monumentService.getMapMarkers(38.0, -78.0, 39.0, -76.0, 12);
+
+        assertEquals(Arrays.asList(lincolnMemorial.getId(), capitol.getId()), getMarkerIds(markers));
+        assertEquals(MonumentService.getMapPixel(38.8893, -77.0502, 12),
+            MonumentService.getMapPixel(38.8894, -77.0501, 12));
+    }
+
+    @Test
+    public void testMonumentService_getMapMarkers_AllInOnePixelZoomedOut() {
+        Monument lincolnMemorial = this.createLocatedMonument("Lincoln Memorial", 38.8893, -77.0502, true);
+        this.createLocatedMonument("Reflecting Pool", 38.8894, -77.0501, true);
+        this.createLocatedMonument("Capitol", 38.8899, -77.0091, true);
+        this.registerSpatialFunctions();
+
+        List<MonumentMarker> markers = this.monumentService.getMapMarkers(38.0, -78.0, 39.0, -76.0, 2);
+
+        assertEquals(Collections.singletonList(lincolnMemorial.getId()), getMarkerIds(markers));
+    }
+
+    @Test
+    public void testMonumentService_getMapMarkers_EmptyBoundingBox() {
+        this.createLocatedMonument("Lincoln Memorial", 38.8893, -77.0502, true);
+        this.registerSpatialFunctions();
+
+        assertEquals(0, this.monumentService.getMapMarkers(38.0, -76.0, 39.0, -78.0, 12).size());
+    }
+
+    private static List<Integer> getMarkerIds(List<MonumentMarker> markers) {
+        List<Integer> ids = new ArrayList<>();
+        for (MonumentMarker marker : markers) {
+            ids.add(marker.getId());
+        }
+        return ids;
+    }
+
+    /* getMonumentSummaries Tests */
+
+    @Test
+    public void testMonumentService_getMonumentSummaries_NoIds() {
+        assertEquals(0, this.monumentService.getMonumentSummaries(new ArrayList<>()).size());
+    }
+
+    @Test
+    public void testMonumentService_getMonumentSummaries_SummaryFields() {
+        this.createMonumentsWithTagsAndImages(1);
+        Monument monument = this.monumentRepository.findAll().get(0);
+        monument.setCoordinates(MonumentService.createMonumentPoint(-77.0, 38.9));
+        monument.setCity("Washington");
+        monument.setState("DC");
+        this.monumentRepository.save(monument);
+
+        List<MonumentSummary> summaries = this.monumentService.getMonumentSummaries(Arrays.asList(monument.getId(), 0));
+
+        assertEquals(1, summaries.size());
+        MonumentSummary summary = summaries.get(0);
+        assertEquals(monument.getId(), summary.getId());
+        assertEquals("Monument", summary.getTitle());
+        assertEquals(38.9, summary.getLat(), 0);
+        assertEquals(-77.0, summary.getLon(), 0);
+        assertEquals("Washington", summary.getCity());
+        assertEquals("DC", summary.getState());
+        assertEquals("Image 0", summary.getPrimaryImageUrl());
+        assertEquals(Arrays.asList("Tag 1", "Tag 2"), summary.getTags());
+        assertEquals(Collections.singletonList("Material"), summary.getMaterials());
+    }
+
+    private void createMonumentsWithTagsAndImages(int count) {
+        List<Monument> monuments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Monument monument = this.createDatedMonument("1900");
+
+            Image image = new Image();
+            image.setUrl("Image " + i);
+            image.setIsPrimary(true);
+            image.setMonument(monument);
+            this.imageRepository.save(image);
+
+            monuments.add(monument);
+        }
+
+        this.tagService.createTag("Tag 1", monuments, false);
+        this.tagService.createTag("Tag 2", monuments, false);
+        this.tagService.createTag("Material", monuments, true);
+    }
+
+    /**
+     * Search after clearing the persistence context, so that nothing is loaded yet, the same as in a new request
+     */
+    private List<Monument> searchWithEmptyPersistenceContext(String limit) {
+        this.monumentService.getEntityManager().flush();
+        this.monumentService.getEntityManager().clear();
+        return this.monumentService.search(null, "1", limit, 0.1, null, null, null, null, null, null,
+            MonumentService.SortType.NONE, null, null, null, true, null, null, false);
+    }
+
     /* getRelatedMonumentsByTags Tests */
 
     @Test
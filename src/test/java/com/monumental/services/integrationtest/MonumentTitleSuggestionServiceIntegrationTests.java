@@ -0,0 +1,113 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.controllers.helpers.MonumentTitleSuggestion;
+import com.monumental.models.Monument;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.MonumentTitleSuggestionService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class used to integration test MonumentTitleSuggestionService
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Transactional
+public class MonumentTitleSuggestionServiceIntegrationTests {
+
+    @Autowired
+    private MonumentTitleSuggestionService monumentTitleSuggestionService;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    /* suggest Tests */
+
+    @Test
+    public void testMonumentTitleSuggestionService_suggest_EmptySearch() {
+        this.createMonuments();
+        this.monumentTitleSuggestionService.rebuildIndex();
+
+        assertEquals(0, this.monumentTitleSuggestionService.suggest(null).size());
+    }
+
+    @Test
+    public void testMonumentTitleSuggestionService_suggest_OnlyActive() {
+        List<Monument> monuments = this.createMonuments();
+        this.monumentTitleSuggestionService.rebuildIndex();
+
+        List<MonumentTitleSuggestion> suggestions = this.monumentTitleSuggestionService.suggest("linc");
+
+        assertEquals(Arrays.asList(monuments.get(0).getId(), monuments.get(1).getId()), idsOf(suggestions));
+        assertEquals("Lincoln Memorial", suggestions.get(0).getTitle());
+    }
+
+    @Test
+    public void testMonumentTitleSuggestionService_suggest_MonumentChanged() {
+        List<Monument> monuments = this.createMonuments();
+        this.monumentTitleSuggestionService.rebuildIndex();
+
+        assertEquals(2, this.monumentTitleSuggestionService.suggest("lincoln").size());
+
+        Monument monument = monuments.get(0);
+        monument.setIsActive(false);
+        this.monumentRepository.save(monument);
+        Monument newMonument = new Monument();
+        newMonument.setTitle("Lincoln Park");
+        newMonument = this.monumentRepository.save(newMonument);
+
+        // The index is not changed until the Monuments that changed are re-read
+        assertEquals(2, this.monumentTitleSuggestionService.suggest("lincoln").size());
+
+        this.monumentTitleSuggestionService.updateIndex(Arrays.asList(monument.getId(), newMonument.getId()));
+
+        assertEquals(Arrays.asList(newMonument.getId(), monuments.get(1).getId()),
+            idsOf(this.monumentTitleSuggestionService.suggest("lincoln"))
+        );
+    }
+
+    @Test
+    public void testMonumentTitleSuggestionService_suggest_IndexNotBuilt() {
+        this.createMonuments();
+        ReflectionTestUtils.setField(this.monumentTitleSuggestionService, "index", null);
+
+        assertEquals(0, this.monumentTitleSuggestionService.suggest("lincoln").size());
+
+        // Updates wait for the build, which reads every Monument
+        this.monumentTitleSuggestionService.updateIndex(Arrays.asList(1));
+        assertEquals(0, this.monumentTitleSuggestionService.suggest("lincoln").size());
+    }
+
+    private List<Monument> createMonuments() {
+        Monument monument1 = new Monument();
+        monument1.setTitle("Lincoln Memorial");
+        Monument monument2 = new Monument();
+        monument2.setTitle("Lincoln Statue");
+        Monument monument3 = new Monument();
+        monument3.setTitle("Lincoln Tomb");
+        monument3.setIsActive(false);
+        return this.monumentRepository.saveAll(Arrays.asList(monument1, monument2, monument3));
+    }
+
+    private static List<Integer> idsOf(List<MonumentTitleSuggestion> suggestions) {
+        List<Integer> ids = new ArrayList<>();
+        for (MonumentTitleSuggestion suggestion : suggestions) {
+            ids.add(suggestion.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,166 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.models.Monument;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.MonumentService;
+import com.monumental.services.RelatedMonumentIndexService;
+import com.monumental.services.TagService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.transaction.Transactional;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class used to integration test RelatedMonumentIndexService
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Transactional
+public class RelatedMonumentIndexServiceIntegrationTests {
+
+    @Autowired
+    private RelatedMonumentIndexService relatedMonumentIndexService;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    /* getRelatedMonumentIds Tests */
+
+    @Test
+    public void testRelatedMonumentIndexService_getRelatedMonumentIds_MonumentDoesNotExist() {
+        assertEquals(0, this.relatedMonumentIndexService.getRelatedMonumentIds(1, 10).size());
+    }
+
+    @Test
+    public void testRelatedMonumentIndexService_getRelatedMonumentIds_NoTags() {
+        Monument monument1 = this.createMonument("Monument 1", 40.0, -90.0, true);
+        this.createMonument("Monument 2", 40.0, -90.0, true);
+        this.relatedMonumentIndexService.rebuildIndex();
+
+        assertEquals(0, this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 10).size());
+    }
+
+    @Test
+    public void testRelatedMonumentIndexService_getRelatedMonumentIds_OrderedBySharedTagsThenDistance() {
+        Monument monument1 = this.createMonument("Monument 1", 40.0, -90.0, true);
+        Monument monument2 = this.createMonument("Monument 2", 45.0, -95.0, true);
+        Monument monument3 = this.createMonument("Monument 3", 41.0, -91.0, true);
+        Monument monument4 = this.createMonument("Monument 4", 40.5, -90.5, true);
+        Monument monument5 = this.createMonument("Monument 5", null, null, true);
+        this.createMonument("Monument 6", 40.0, -90.0, true);
+
+        this.tagService.createTag("Tag 1", Arrays.asList(monument1, monument2, monument3, monument4, monument5), false);
+        this.tagService.createTag("Tag 2", Arrays.asList(monument1, monument3), false);
+        this.tagService.createTag("Material 1", Arrays.asList(monument1, monument3), true);
+        this.relatedMonumentIndexService.rebuildIndex();
+
+        List<Integer> ids = this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 10);
+
+        assertEquals(Arrays.asList(monument3.getId(), monument4.getId(), monument2.getId(), monument5.getId()), ids);
+    }
+
+    @Test
+    public void testRelatedMonumentIndexService_getRelatedMonumentIds_ExcludesInactiveMonuments() {
+        Monument monument1 = this.createMonument("Monument 1", 40.0, -90.0, false);
+        Monument monument2 = this.createMonument("Monument 2", 41.0, -91.0, true);
+        Monument monument3 = this.createMonument("Monument 3", 41.0, -91.0, false);
+
+        this.tagService.createTag("Tag 1", Arrays.asList(monument1, monument2, monument3), false);
+        this.relatedMonumentIndexService.rebuildIndex();
+
+        assertEquals(Arrays.asList(monument2.getId()),
+            this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 10)
+        );
+        assertEquals(0, this.relatedMonumentIndexService.getRelatedMonumentIds(monument2.getId(), 10).size());
+    }
+
+    @Test
+    public void testRelatedMonumentIndexService_getRelatedMonumentIds_Limit() {
+        Monument monument1 = this.createMonument("Monument 1", 40.0, -90.0, true);
+        Monument monument2 = this.createMonument("Monument 2", 41.0, -91.0, true);
+        Monument monument3 = this.createMonument("Monument 3", 42.0, -92.0, true);
+        Monument monument4 = this.createMonument("Monument 4", 43.0, -93.0, true);
+
+        this.tagService.createTag("Tag 1", Arrays.asList(monument1, monument2, monument3, monument4), false);
+        ReflectionTestUtils.setField(this.relatedMonumentIndexService, "indexSize", 2);
+        this.relatedMonumentIndexService.rebuildIndex();
+
+        assertEquals(Arrays.asList(monument2.getId()),
+            this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 1)
+        );
+        // Limits larger than the number of related Monuments kept in the index only return the kept ones
+        assertEquals(Arrays.asList(monument2.getId(), monument3.getId()),
+            this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 1000)
+        );
+    }
+
+    @Test
+    public void testRelatedMonumentIndexService_getRelatedMonumentIds_IndexNotBuilt() {
+        Monument monument1 = this.createMonument("Monument 1", 40.0, -90.0, true);
+        Monument monument2 = this.createMonument("Monument 2", 41.0, -91.0, true);
+        Monument monument3 = this.createMonument("Monument 3", 42.0, -92.0, true);
+
+        this.tagService.createTag("Tag 1", Arrays.asList(monument1, monument2, monument3), false);
+        this.tagService.createTag("Tag 2", Arrays.asList(monument1, monument3), false);
+        ReflectionTestUtils.setField(this.relatedMonumentIndexService, "relatedMonumentIds", null);
+
+        // The related Monuments are queried for until the index is built
+        assertEquals(Arrays.asList(monument3.getId(), monument2.getId()),
+            this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 10)
+        );
+    }
+
+    @Test
+    public void testRelatedMonumentIndexService_getRelatedMonumentIds_MonumentChanged() {
+        Monument monument1 = this.createMonument("Monument 1", 40.0, -90.0, true);
+        Monument monument2 = this.createMonument("Monument 2", 41.0, -91.0, true);
+        Monument monument3 = this.createMonument("Monument 3", 42.0, -92.0, true);
+
+        this.tagService.createTag("Tag 1", Arrays.asList(monument1, monument2), false);
+        this.relatedMonumentIndexService.rebuildIndex();
+
+        assertEquals(Arrays.asList(monument2.getId()),
+            this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 10)
+        );
+
+        // Monument 3 shares more Tags with Monument 1 than Monument 2 does once their Tags are updated
+        this.tagService.createTag("Tag 1", Arrays.asList(monument3), false);
+        this.tagService.createTag("Tag 2", Arrays.asList(monument1, monument3), false);
+        this.relatedMonumentIndexService.updateIndex(Arrays.asList(monument1.getId(), monument3.getId()));
+
+        assertEquals(Arrays.asList(monument3.getId(), monument2.getId()),
+            this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 10)
+        );
+
+        // Monument 2 is no longer related once it is deactivated
+        monument2.setIsActive(false);
+        this.monumentRepository.save(monument2);
+        this.relatedMonumentIndexService.updateIndex(Arrays.asList(monument2.getId()));
+
+        assertEquals(Arrays.asList(monument3.getId()),
+            this.relatedMonumentIndexService.getRelatedMonumentIds(monument1.getId(), 10)
+        );
+    }
+
+    private Monument createMonument(String title, Double lat, Double lon, boolean isActive) {
+        Monument monument = new Monument();
+        monument.setTitle(title);
+        monument.setIsActive(isActive);
+        monument.setCoordinates(MonumentService.createMonumentPoint(lon, lat));
+        return this.monumentRepository.save(monument);
+    }
+}
@@ -0,0 +1,94 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.services.SearchIndexService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class used to integration test SearchIndexService
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SearchIndexServiceIntegrationTests {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testSearchIndexService_isPostgres_H2() {
+        assertFalse(this.searchIndexService.isPostgres());
+    }
+
+    @Test
+    public void testSearchIndexService_createSearchIndexes_SkippedOnH2() {
+        this.searchIndexService.createSearchIndexes();
+
+        assertTrue(this.searchIndexService.getMissingIndexes().isEmpty());
+    }
+
+    @Test
+    public void testSearchIndexService_isH2_H2() {
+        assertTrue(this.searchIndexService.isH2());
+    }
+
+    @Test
+    public void testSearchIndexService_createH2SearchFunctions() {
+        this.searchIndexService.createH2SearchFunctions();
+
+        assertEquals(0.36363637, this.jdbcTemplate.queryForObject(
+            "SELECT similarity('word', 'two words')", Double.class), 0.000001);
+        assertEquals(0.8, this.jdbcTemplate.queryForObject(
+            "SELECT word_similarity('word', 'two words')", Double.class), 0.000001);
+        assertTrue(this.jdbcTemplate.queryForObject("SELECT trgm_word_match('word', 'two words')", Boolean.class));
+        assertTrue(this.jdbcTemplate.queryForObject("SELECT trgm_match('word', 'two words')", Boolean.class));
+        assertFalse(this.jdbcTemplate.queryForObject("SELECT trgm_match('word', 'xyz')", Boolean.class));
+        assertNull(this.jdbcTemplate.queryForObject("SELECT similarity(NULL, 'two words')", Double.class));
+    }
+
+    @Test
+    public void testSearchIndexService_createH2SearchFunctions_SetConfigOnlyChangesItsConnection() throws SQLException {
+        this.searchIndexService.createH2SearchFunctions();
+
+        try (Connection connection = this.dataSource.getConnection();
+             Connection otherConnection = this.dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT set_config('pg_trgm.similarity_threshold', '0.5', true)");
+                statement.execute("SELECT set_config('pg_trgm.word_similarity_threshold', '0.9', true)");
+            }
+
+            // similarity is 0.36 and word_similarity is 0.8, so they only match with the configured thresholds
+            assertFalse(query(connection, "SELECT trgm_match('word', 'two words')"));
+            assertFalse(query(connection, "SELECT trgm_word_match('word', 'two words')"));
+            assertTrue(query(otherConnection, "SELECT trgm_match('word', 'two words')"));
+            assertTrue(query(otherConnection, "SELECT trgm_word_match('word', 'two words')"));
+        }
+    }
+
+    private static boolean query(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getBoolean(1);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.models.Monument;
+import com.monumental.models.Tag;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.TagAutocompleteService;
+import com.monumental.services.TagService;
+import com.monumental.services.events.MonumentChangedEvent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Test class used to integration test TagAutocompleteService
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Transactional
+public class TagAutocompleteServiceIntegrationTests {
+
+    @Autowired
+    private TagAutocompleteService tagAutocompleteService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    /* search Tests */
+
+    @Test
+    public void testTagAutocompleteService_search_OnlyTagsOrMaterials() {
+        Monument monument = this.createMonument();
+        this.tagService.createTag("Bronze", Arrays.asList(monument), true);
+        this.tagService.createTag("Bronze Age", Arrays.asList(monument), false);
+        this.tagAutocompleteService.rebuildIndex();
+
+        assertEquals(Arrays.asList("Bronze"), names(this.tagAutocompleteService.search("bronze", true)));
+        assertEquals(Arrays.asList("Bronze Age"), names(this.tagAutocompleteService.search("bronze", false)));
+        assertEquals(0, this.tagAutocompleteService.search("bronze", null).size());
+    }
+
+    @Test
+    public void testTagAutocompleteService_search_IndexNotBuilt() {
+        Monument monument = this.createMonument();
+        this.tagService.createTag("Bronze", Arrays.asList(monument), true);
+        ReflectionTestUtils.setField(this.tagAutocompleteService, "index", null);
+
+        // TagService.search answers searches until the index is built
+        assertEquals(Arrays.asList("Bronze"), names(this.tagAutocompleteService.search("bronze", true)));
+    }
+
+    /* onMonumentChanged Tests */
+
+    @Test
+    public void testTagAutocompleteService_onMonumentChanged_RebuildsOnceAfterDelay() {
+        TaskScheduler taskScheduler = Mockito.mock(TaskScheduler.class);
+        ReflectionTestUtils.setField(this.tagAutocompleteService, "taskScheduler", taskScheduler);
+
+        Monument monument = this.createMonument();
+        this.tagService.createTag("Bronze", Arrays.asList(monument), true);
+        for (int i = 0; i < 3; i++) {
+            this.tagAutocompleteService.onMonumentChanged(new MonumentChangedEvent(monument.getId(),
+                MonumentChangedEvent.ChangeType.UPDATED, null, null
+            ));
+        }
+
+        ArgumentCaptor<Runnable> rebuild = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(taskScheduler, Mockito.times(1)).schedule(rebuild.capture(), any(Date.class));
+
+        // The index is not rebuilt until the scheduled rebuild runs
+        assertEquals(0, this.tagAutocompleteService.search("bronze", true).size());
+
+        rebuild.getValue().run();
+
+        assertEquals(Arrays.asList("Bronze"), names(this.tagAutocompleteService.search("bronze", true)));
+
+        // A change after the rebuild has started schedules another one
+        this.tagAutocompleteService.onMonumentChanged(new MonumentChangedEvent(monument.getId(),
+            MonumentChangedEvent.ChangeType.UPDATED, null, null
+        ));
+        Mockito.verify(taskScheduler, Mockito.times(2)).schedule(any(Runnable.class), any(Date.class));
+    }
+
+    private Monument createMonument() {
+        Monument monument = new Monument();
+        monument.setTitle("Monument 1");
+        return this.monumentRepository.save(monument);
+    }
+
+    private static List<String> names(List<Tag> tags) {
+        List<String> names = new ArrayList<>();
+        for (Tag tag : tags) {
+            names.add(tag.getName());
+        }
+        return names;
+    }
+}
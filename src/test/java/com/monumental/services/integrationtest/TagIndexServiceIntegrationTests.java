@@ -0,0 +1,202 @@
+package com.monumental.services.integrationtest;
+
+import com.monumental.models.Monument;
+import com.monumental.models.Tag;
+import com.monumental.repositories.MonumentRepository;
+import com.monumental.services.TagIndexService;
+import com.monumental.services.TagService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.transaction.Transactional;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class used to integration test TagIndexService
+ * Makes use of an in-memory H2 database as to not ruin the real one
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Transactional
+public class TagIndexServiceIntegrationTests {
+
+    @Autowired
+    private TagIndexService tagIndexService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private MonumentRepository monumentRepository;
+
+    /* getMonumentIds Tests */
+
+    @Test
+    public void testTagIndexService_getMonumentIds_NoTagsOrMaterials() {
+        assertNull(this.tagIndexService.getMonumentIds(null, null));
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_AllTags() {
+        List<Monument> monuments = this.createMonuments();
+
+        this.tagService.createTag("Tag 1", monuments.subList(0, 3), false);
+        this.tagService.createTag("Tag 2", monuments.subList(1, 4), false);
+        this.tagIndexService.rebuildIndex();
+
+        assertArrayEquals(idsOf(monuments.get(1), monuments.get(2)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1", "Tag 2"), null).toArray()
+        );
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1), monuments.get(2)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null).toArray()
+        );
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_TagDoesNotExist() {
+        List<Monument> monuments = this.createMonuments();
+
+        this.tagService.createTag("Tag 1", monuments, false);
+        this.tagIndexService.rebuildIndex();
+
+        assertTrue(this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1", "Tag 2"), null).isEmpty());
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_AnyMaterials() {
+        List<Monument> monuments = this.createMonuments();
+
+        this.tagService.createTag("Material 1", monuments.subList(0, 1), true);
+        this.tagService.createTag("Material 2", monuments.subList(1, 2), true);
+        this.tagService.createTag("Material 3", monuments.subList(2, 3), true);
+        this.tagIndexService.rebuildIndex();
+
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1)),
+            this.tagIndexService.getMonumentIds(null, Arrays.asList("Material 1", "Material 2", "Material 4")).toArray()
+        );
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_TagsAndMaterials() {
+        List<Monument> monuments = this.createMonuments();
+
+        this.tagService.createTag("Tag 1", monuments.subList(0, 3), false);
+        this.tagService.createTag("Material 1", monuments.subList(2, 4), true);
+        // A Tag and a Material with the same name are not the same
+        this.tagService.createTag("Tag 1", monuments.subList(3, 4), true);
+        this.tagIndexService.rebuildIndex();
+
+        assertArrayEquals(idsOf(monuments.get(2)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), Arrays.asList("Material 1")).toArray()
+        );
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1), monuments.get(2)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null).toArray()
+        );
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_IndexNotBuilt() {
+        List<Monument> monuments = this.createMonuments();
+
+        this.tagService.createTag("Tag 1", monuments, false);
+        ReflectionTestUtils.setField(this.tagIndexService, "tagBitmaps", null);
+
+        // Searches filter with sub-queries until the index is built
+        assertNull(this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null));
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_MonumentChanged() {
+        List<Monument> monuments = this.createMonuments();
+
+        this.tagService.createTag("Tag 1", monuments.subList(0, 2), false);
+        this.tagIndexService.rebuildIndex();
+
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null).toArray()
+        );
+
+        this.tagService.createTag("Tag 1", monuments.subList(2, 3), false);
+
+        // The index is not updated until it is told that the Monument changed
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null).toArray()
+        );
+
+        this.tagIndexService.updateIndex(Arrays.asList(monuments.get(2).getId()));
+
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1), monuments.get(2)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null).toArray()
+        );
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_TagRenamed() {
+        List<Monument> monuments = this.createMonuments();
+
+        Tag tag = this.tagService.createTag("Tag 1", monuments.subList(0, 2), false);
+        this.tagService.createTag("Tag 3", monuments.subList(1, 3), false);
+        this.tagIndexService.rebuildIndex();
+
+        this.tagService.renameTag(tag, "Tag 2");
+
+        // The index is not updated until it is told that the Tag changed
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null).toArray()
+        );
+
+        this.tagIndexService.updateTag("Tag 1", false);
+
+        assertTrue(this.tagIndexService.getMonumentIds(Arrays.asList("Tag 1"), null).isEmpty());
+        assertArrayEquals(idsOf(monuments.get(0), monuments.get(1)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 2"), null).toArray()
+        );
+        // The other Tags of the Monuments are read again along with the renamed one
+        assertArrayEquals(idsOf(monuments.get(1)),
+            this.tagIndexService.getMonumentIds(Arrays.asList("Tag 2", "Tag 3"), null).toArray()
+        );
+    }
+
+    @Test
+    public void testTagIndexService_getMonumentIds_TagDeleted() {
+        List<Monument> monuments = this.createMonuments();
+
+        Tag tag = this.tagService.createTag("Material 1", monuments.subList(0, 2), true);
+        this.tagIndexService.rebuildIndex();
+
+        this.tagService.deleteTag(tag);
+        this.tagIndexService.updateTag("Material 1", true);
+
+        assertTrue(this.tagIndexService.getMonumentIds(null, Arrays.asList("Material 1")).isEmpty());
+    }
+
+    private List<Monument> createMonuments() {
+        Monument monument1 = new Monument();
+        monument1.setTitle("Monument 1");
+        Monument monument2 = new Monument();
+        monument2.setTitle("Monument 2");
+        Monument monument3 = new Monument();
+        monument3.setTitle("Monument 3");
+        Monument monument4 = new Monument();
+        monument4.setTitle("Monument 4");
+        return this.monumentRepository.saveAll(Arrays.asList(monument1, monument2, monument3, monument4));
+    }
+
+    private static int[] idsOf(Monument... monuments) {
+        int[] ids = new int[monuments.length];
+        for (int i = 0; i < monuments.length; i++) {
+            ids[i] = monuments[i].getId();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+}
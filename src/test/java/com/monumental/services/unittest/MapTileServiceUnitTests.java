@@ -0,0 +1,53 @@
+package com.monumental.services.unittest;
+
+import com.monumental.services.MapTileService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing MapTileService
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class MapTileServiceUnitTests {
+
+    /** isValidTile Tests **/
+
+    @Test
+    public void testMapTileService_isValidTile_Valid() {
+        assertTrue(MapTileService.isValidTile(0, 0, 0));
+        assertTrue(MapTileService.isValidTile(4, 15, 15));
+    }
+
+    @Test
+    public void testMapTileService_isValidTile_OutOfRange() {
+        assertFalse(MapTileService.isValidTile(-1, 0, 0));
+        assertFalse(MapTileService.isValidTile(MapTileService.maxZoom + 1, 0, 0));
+        assertFalse(MapTileService.isValidTile(4, 16, 0));
+        assertFalse(MapTileService.isValidTile(4, 0, -1));
+    }
+
+    /** getTileX and getTileY Tests **/
+
+    @Test
+    public void testMapTileService_getTileXAndY_Denver() {
+        // Denver is in tile 4/3/6
+        assertEquals(3, MapTileService.getTileX(-104.9903, 4));
+        assertEquals(6, MapTileService.getTileY(39.7392, 4));
+    }
+
+    @Test
+    public void testMapTileService_getTileXAndY_MatchTileEdges() {
+        int x = MapTileService.getTileX(-104.9903, 10);
+        int y = MapTileService.getTileY(39.7392, 10);
+
+        assertTrue(MapTileService.getTileLongitude(x, 10) <= -104.9903);
+        assertTrue(MapTileService.getTileLongitude(x + 1, 10) > -104.9903);
+        assertTrue(MapTileService.getTileLatitude(y, 10) >= 39.7392);
+        assertTrue(MapTileService.getTileLatitude(y + 1, 10) < 39.7392);
+    }
+}
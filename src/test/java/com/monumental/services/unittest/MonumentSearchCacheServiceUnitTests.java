@@ -0,0 +1,146 @@
+package com.monumental.services.unittest;
+
+import com.monumental.controllers.helpers.MonumentSearchFacets;
+import com.monumental.services.MonumentSearchCacheService;
+import com.monumental.services.events.MonumentChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing MonumentSearchCacheService
+ * The tests are not transactional, since search results are not cached inside of a transaction
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class MonumentSearchCacheServiceUnitTests {
+
+    @Autowired
+    private MonumentSearchCacheService monumentSearchCacheService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** createKey Tests **/
+
+    @Test
+    public void testMonumentSearchCacheService_createKey_ListOrderIgnored() {
+        assertEquals(
+            MonumentSearchCacheService.createKey("q", Arrays.asList("War", "Bronze")),
+            MonumentSearchCacheService.createKey("q", Arrays.asList("Bronze", "War"))
+        );
+    }
+
+    @Test
+    public void testMonumentSearchCacheService_createKey_NullAndEmptyDiffer() {
+        assertNotEquals(MonumentSearchCacheService.createKey(null, "a"), MonumentSearchCacheService.createKey("", "a"));
+    }
+
+    @Test
+    public void testMonumentSearchCacheService_createKey_SeparatorsInValuesDoNotCollide() {
+        assertNotEquals(
+            MonumentSearchCacheService.createKey("a'|'b", "c"),
+            MonumentSearchCacheService.createKey("a", "b'|'c")
+        );
+    }
+
+    /** normalizeSearchText Tests **/
+
+    @Test
+    public void testMonumentSearchCacheService_normalizeSearchText_CaseAndWhitespace() {
+        assertEquals("veterans memorial", MonumentSearchCacheService.normalizeSearchText("  Veterans   MEMORIAL "));
+    }
+
+    /** getIds and putIds Tests **/
+
+    @Test
+    public void testMonumentSearchCacheService_getIds_Cached() {
+        long version = this.monumentSearchCacheService.getVersion();
+        this.monumentSearchCacheService.putIds("key", Arrays.asList(3, 1, 2), version);
+
+        assertEquals(Arrays.asList(3, 1, 2), this.monumentSearchCacheService.getIds("key"));
+        assertNull(this.monumentSearchCacheService.getCount("key"));
+    }
+
+    @Test
+    public void testMonumentSearchCacheService_putIds_StaleVersionNotCached() {
+        long version = this.monumentSearchCacheService.getVersion();
+        this.monumentSearchCacheService.onMonumentChanged(
+            new MonumentChangedEvent(1, MonumentChangedEvent.ChangeType.UPDATED, null, null)
+        );
+        this.monumentSearchCacheService.putIds("key", Arrays.asList(1), version);
+
+        assertNull(this.monumentSearchCacheService.getIds("key"));
+    }
+
+    /** getFacets and putFacets Tests **/
+
+    @Test
+    public void testMonumentSearchCacheService_getFacets_Cached() {
+        MonumentSearchFacets facets = new MonumentSearchFacets(Collections.singletonMap("Virginia", 1),
+            Collections.singletonMap(1900, 1), Collections.emptyMap(), Collections.emptyMap()
+        );
+        this.monumentSearchCacheService.putFacets("key", facets, this.monumentSearchCacheService.getVersion());
+
+        assertSame(facets, this.monumentSearchCacheService.getFacets("key"));
+        assertNull(this.monumentSearchCacheService.getCount("key"));
+    }
+
+    /** onMonumentChanged Tests **/
+
+    @Test
+    public void testMonumentSearchCacheService_onMonumentChanged_ClearsCache() {
+        long version = this.monumentSearchCacheService.getVersion();
+        this.monumentSearchCacheService.putIds("key", Arrays.asList(1), version);
+        this.monumentSearchCacheService.putCount("key", 1, version);
+
+        this.monumentSearchCacheService.onMonumentChanged(
+            new MonumentChangedEvent(1, MonumentChangedEvent.ChangeType.CREATED, null, null)
+        );
+
+        assertNull(this.monumentSearchCacheService.getIds("key"));
+        assertNull(this.monumentSearchCacheService.getCount("key"));
+    }
+
+    /** canShareResults Tests **/
+
+    @Test
+    public void testMonumentSearchCacheService_canShareResults_Transactions() {
+        assertTrue(this.monumentSearchCacheService.canShareResults());
+
+        TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        assertFalse(transaction.execute(status -> this.monumentSearchCacheService.canShareResults()));
+
+        transaction.setReadOnly(true);
+        assertTrue(transaction.execute(status -> this.monumentSearchCacheService.canShareResults()));
+    }
+
+    /** Metrics Tests **/
+
+    @Test
+    public void testMonumentSearchCacheService_Metrics_CountHitsAndMisses() {
+        this.monumentSearchCacheService.getCount("key");
+        this.monumentSearchCacheService.putCount("key", 5, this.monumentSearchCacheService.getVersion());
+        this.monumentSearchCacheService.getCount("key");
+        this.monumentSearchCacheService.getCount("key");
+
+        assertEquals(2.0, this.meterRegistry.get("monument.search.cache.hits").functionCounter().count(), 0);
+        assertEquals(1.0, this.meterRegistry.get("monument.search.cache.misses").functionCounter().count(), 0);
+        assertEquals(1.0, this.meterRegistry.get("monument.search.cache.size").gauge().value(), 0);
+    }
+}
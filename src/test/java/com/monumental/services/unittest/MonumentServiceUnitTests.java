@@ -16,6 +16,7 @@ import java.util.GregorianCalendar;
 
 import static com.monumental.services.MonumentService.coordinateSrid;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 
 /**
@@ -219,4 +220,28 @@ public class MonumentServiceUnitTests {
         assertEquals(DateFormat.EXACT_DATE, monument.getDateFormat());
         assertEquals(DateFormat.MONTH_YEAR, monument.getDeactivatedDateFormat());
     }
+
+    /* getMapPixel Tests */
+
+    @Test
+    public void testMonumentService_getMapPixel_SamePixel() {
+        assertEquals(
+            MonumentService.getMapPixel(39.7392, -104.9903, 4),
+            MonumentService.getMapPixel(39.7393, -104.9902, 4)
+        );
+    }
+
+    @Test
+    public void testMonumentService_getMapPixel_DifferentPixelWhenZoomedIn() {
+        assertNotEquals(
+            MonumentService.getMapPixel(39.7392, -104.9903, 18),
+            MonumentService.getMapPixel(39.7393, -104.9902, 18)
+        );
+    }
+
+    @Test
+    public void testMonumentService_getMapPixel_WorldOrigin() {
+        // At zoom 0 the whole world is one 256 pixel tile, and latitude 0 longitude 0 is in its center
+        assertEquals((128L << 32) | 128L, MonumentService.getMapPixel(0.0, 0.0, 0));
+    }
 }
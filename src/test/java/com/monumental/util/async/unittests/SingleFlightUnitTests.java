@@ -0,0 +1,192 @@
+package com.monumental.util.async.unittests;
+
+import com.monumental.util.async.SingleFlight;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing SingleFlight
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class SingleFlightUnitTests {
+
+    /** execute Tests **/
+
+    @Test
+    public void testSingleFlight_execute_ConcurrentCallsShareOneCall() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(5000);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    calls.incrementAndGet();
+                    awaitUninterruptibly(release);
+                    return 42;
+                }).getValue()));
+            }
+
+            // Wait for the other three callers to start waiting on the first one
+            while (singleFlight.getCoalescedCount() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(42), result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSingleFlight_execute_SequentialCallsAreNotCoalesced() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(5000);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertTrue(singleFlight.execute("key", calls::incrementAndGet).isLeader());
+        assertTrue(singleFlight.execute("key", calls::incrementAndGet).isLeader());
+
+        assertEquals(2, calls.get());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    public void testSingleFlight_execute_DifferentKeysAreNotCoalesced() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(5000);
+
+        assertEquals("a", singleFlight.execute("a", () -> singleFlight.execute("b", () -> "b").getValue().replace("b", "a"))
+            .getValue()
+        );
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    public void testSingleFlight_execute_ExceptionIsSharedAndNotRemembered() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(5000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    awaitUninterruptibly(release);
+                    throw new IllegalStateException("Search failed");
+                }).getValue()));
+            }
+
+            while (singleFlight.getCoalescedCount() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                    fail("Expected the call to fail");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException);
+                }
+            }
+
+            assertEquals(Integer.valueOf(1), singleFlight.execute("key", () -> 1).getValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSingleFlight_execute_OnlyTheCallerThatRanTheCallIsLeader() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(5000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            List<Future<SingleFlight.Result<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    awaitUninterruptibly(release);
+                    return 42;
+                })));
+            }
+
+            while (singleFlight.getCoalescedCount() < 2) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            int leaders = 0;
+            for (Future<SingleFlight.Result<Integer>> result : results) {
+                SingleFlight.Result<Integer> value = result.get(5, TimeUnit.SECONDS);
+                assertEquals(Integer.valueOf(42), value.getValue());
+                if (value.isLeader()) {
+                    leaders++;
+                }
+            }
+            assertEquals(1, leaders);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSingleFlight_execute_RunsTheCallAfterTimeout() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(50);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<SingleFlight.Result<Integer>> slowResult = executor.submit(() -> singleFlight.execute("key", () -> {
+                awaitUninterruptibly(release);
+                return 1;
+            }));
+            while (!isRunning(singleFlight)) {
+                Thread.sleep(1);
+            }
+
+            // The slow call is still running, so this caller stops waiting for it and runs its own call
+            SingleFlight.Result<Integer> result = singleFlight.execute("key", () -> 2);
+
+            assertEquals(Integer.valueOf(2), result.getValue());
+            assertTrue(result.isLeader());
+            assertEquals(1, singleFlight.getCoalescedCount());
+            assertEquals(1, singleFlight.getTimedOutCount());
+
+            release.countDown();
+            assertEquals(Integer.valueOf(1), slowResult.get(5, TimeUnit.SECONDS).getValue());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean isRunning(SingleFlight<String, Integer> singleFlight) {
+        Map<?, ?> calls = (Map<?, ?>) ReflectionTestUtils.getField(singleFlight, "calls");
+        return calls != null && !calls.isEmpty();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
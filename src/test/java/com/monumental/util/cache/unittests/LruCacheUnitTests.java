@@ -0,0 +1,115 @@
+package com.monumental.util.cache.unittests;
+
+import com.monumental.util.cache.LruCache;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing LruCache
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class LruCacheUnitTests {
+
+    /** get Tests **/
+
+    @Test
+    public void testLruCache_get_Missing() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testLruCache_get_Cached() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+    }
+
+    @Test
+    public void testLruCache_get_Expired() throws InterruptedException {
+        LruCache<String, Integer> cache = new LruCache<>(10, Long.MAX_VALUE, value -> 1, 1);
+        cache.put("a", 1);
+
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /** put Tests **/
+
+    @Test
+    public void testLruCache_put_EvictsLeastRecentlyUsed() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(Integer.valueOf(3), cache.get("c"));
+    }
+
+    @Test
+    public void testLruCache_put_EvictsUntilWithinMaxWeight() {
+        LruCache<String, List<Integer>> cache = new LruCache<>(10, 5, List::size, 0);
+        cache.put("a", Arrays.asList(1, 2));
+        cache.put("b", Arrays.asList(1, 2));
+        cache.put("c", Arrays.asList(1, 2, 3));
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(3, cache.getWeight());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testLruCache_put_HeavierThanMaxWeight() {
+        LruCache<String, List<Integer>> cache = new LruCache<>(10, 2, List::size, 0);
+        cache.put("a", Arrays.asList(1));
+        cache.put("b", Arrays.asList(1, 2, 3));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getWeight());
+    }
+
+    @Test
+    public void testLruCache_put_ReplacingUpdatesWeight() {
+        LruCache<String, List<Integer>> cache = new LruCache<>(10, 10, List::size, 0);
+        cache.put("a", Arrays.asList(1, 2, 3));
+        cache.put("a", Arrays.asList(1));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getWeight());
+    }
+
+    /** removeIf Tests **/
+
+    @Test
+    public void testLruCache_removeIf_RemovesMatchingKeys() {
+        LruCache<String, Integer> cache = new LruCache<>(10);
+        cache.put("1/0/0", 1);
+        cache.put("1/1/0", 2);
+        cache.put("2/0/0", 3);
+
+        cache.removeIf(key -> key.startsWith("1/"));
+
+        assertEquals(1, cache.size());
+        assertEquals(Integer.valueOf(3), cache.get("2/0/0"));
+    }
+}
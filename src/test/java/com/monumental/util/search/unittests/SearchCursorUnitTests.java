@@ -0,0 +1,66 @@
+package com.monumental.util.search.unittests;
+
+import com.monumental.util.search.SearchCursor;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing SearchCursor
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class SearchCursorUnitTests {
+
+    /** decode Tests **/
+
+    @Test
+    public void testSearchCursor_decode_RoundTrip() {
+        String token = new SearchCursor("DISTANCE", 1234.5678901234567, 42).encode();
+
+        SearchCursor cursor = SearchCursor.decode(token, "DISTANCE");
+
+        assertEquals("DISTANCE", cursor.getSortType());
+        assertEquals(Double.valueOf(1234.5678901234567), cursor.getSortKey());
+        assertEquals(Integer.valueOf(42), cursor.getId());
+    }
+
+    @Test
+    public void testSearchCursor_decode_RoundTripNullSortKey() {
+        String token = new SearchCursor("NONE", null, 7).encode();
+
+        SearchCursor cursor = SearchCursor.decode(token, "NONE");
+
+        assertNull(cursor.getSortKey());
+        assertEquals(Integer.valueOf(7), cursor.getId());
+    }
+
+    @Test
+    public void testSearchCursor_decode_TokenIsUrlSafe() {
+        String token = new SearchCursor("NEWEST", -2208988800000.0, 123456).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchCursor_decode_DifferentSortType() {
+        String token = new SearchCursor("NEWEST", 0.0, 1).encode();
+
+        SearchCursor.decode(token, "OLDEST");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchCursor_decode_NotBase64() {
+        SearchCursor.decode("not a cursor!", "NEWEST");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchCursor_decode_Malformed() {
+        String token = new SearchCursor("NEWEST", 0.0, null).encode();
+
+        SearchCursor.decode(token, "NEWEST");
+    }
+}
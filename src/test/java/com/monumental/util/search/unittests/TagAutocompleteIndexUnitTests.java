@@ -0,0 +1,147 @@
+package com.monumental.util.search.unittests;
+
+import com.monumental.models.Tag;
+import com.monumental.util.search.TagAutocompleteIndex;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing TagAutocompleteIndex
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class TagAutocompleteIndexUnitTests {
+
+    /** search Tests **/
+
+    @Test
+    public void testTagAutocompleteIndex_search_EmptySearch() {
+        TagAutocompleteIndex index = createIndex();
+
+        assertEquals(0, index.search(null, false, 10).size());
+        assertEquals(0, index.search("", false, 10).size());
+        assertEquals(0, index.search("  ", false, 10).size());
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_Prefix() {
+        TagAutocompleteIndex index = createIndex();
+
+        List<Tag> results = index.search("br", true, 10);
+
+        assertEquals(Arrays.asList("Brick", "Bronze"), names(results));
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_OnlyTagsOrMaterials() {
+        TagAutocompleteIndex index = createIndex();
+
+        assertEquals(Arrays.asList("Stone"), names(index.search("stone", true, 10)));
+        assertEquals(Arrays.asList("Stone Wall"), names(index.search("stone", false, 10)));
+        // Like TagService.search, which compares is_material with the parameter, nothing matches a null isMaterial
+        assertEquals(0, index.search("stone", null, 10).size());
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_MaterialNotSet() {
+        List<Tag> tags = new ArrayList<>();
+        tags.add(createTag(1, "Bronze", true));
+        Tag tag = createTag(2, "Brass", false);
+        tag.setIsMaterial(null);
+        tags.add(tag);
+        TagAutocompleteIndex index = new TagAutocompleteIndex(tags, new HashMap<>());
+
+        assertEquals(Arrays.asList("Bronze"), names(index.search("br", true, 10)));
+        assertEquals(0, index.search("br", false, 10).size());
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_AnyWord() {
+        TagAutocompleteIndex index = createIndex();
+
+        assertEquals("Civil War", index.search("war", false, 10).get(0).getName());
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_Misspelled() {
+        TagAutocompleteIndex index = createIndex();
+
+        assertEquals("Bronze", index.search("bronse", true, 10).get(0).getName());
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_IgnoresCaseAndAccents() {
+        TagAutocompleteIndex index = createIndex();
+
+        assertEquals(Arrays.asList("Mémorial Day"), names(index.search("MEMORIAL", false, 10)));
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_MostUsedFirst() {
+        List<Tag> tags = new ArrayList<>();
+        tags.add(createTag(1, "Veterans", false));
+        tags.add(createTag(2, "Vietnam", false));
+        Map<Integer, Long> uses = new HashMap<>();
+        uses.put(1, 1L);
+        uses.put(2, 100L);
+        TagAutocompleteIndex index = new TagAutocompleteIndex(tags, uses);
+
+        assertEquals(Arrays.asList("Vietnam", "Veterans"), names(index.search("v", false, 10)));
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_Limit() {
+        TagAutocompleteIndex index = createIndex();
+
+        assertEquals(1, index.search("br", true, 1).size());
+    }
+
+    @Test
+    public void testTagAutocompleteIndex_search_ReturnsCopies() {
+        TagAutocompleteIndex index = createIndex();
+
+        Tag result = index.search("bronze", true, 10).get(0);
+        result.setName("Changed");
+
+        assertEquals("Bronze", index.search("bronze", true, 10).get(0).getName());
+        assertEquals(Integer.valueOf(1), result.getId());
+        assertTrue(result.getIsMaterial());
+    }
+
+    private static TagAutocompleteIndex createIndex() {
+        List<Tag> tags = new ArrayList<>();
+        tags.add(createTag(1, "Bronze", true));
+        tags.add(createTag(2, "Brick", true));
+        tags.add(createTag(3, "Stone", true));
+        tags.add(createTag(4, "Stone Wall", false));
+        tags.add(createTag(5, "Civil War", false));
+        tags.add(createTag(6, "Mémorial Day", false));
+
+        Map<Integer, Long> uses = new HashMap<>();
+        uses.put(1, 1L);
+        uses.put(2, 10L);
+        return new TagAutocompleteIndex(tags, uses);
+    }
+
+    private static Tag createTag(Integer id, String name, boolean isMaterial) {
+        Tag tag = new Tag();
+        tag.setId(id);
+        tag.setName(name);
+        tag.setIsMaterial(isMaterial);
+        return tag;
+    }
+
+    private static List<String> names(List<Tag> tags) {
+        List<String> names = new ArrayList<>();
+        for (Tag tag : tags) {
+            names.add(tag.getName());
+        }
+        return names;
+    }
+}
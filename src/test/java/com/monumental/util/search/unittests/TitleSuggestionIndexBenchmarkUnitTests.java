@@ -0,0 +1,121 @@
+package com.monumental.util.search.unittests;
+
+import com.monumental.benchmarks.Benchmark;
+import com.monumental.util.search.TitleSuggestionIndex;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Microbenchmark for TitleSuggestionIndex.search over 500000 synthetic Monument titles
+ * Searches for the start of random titles and the start of their second word, as if typing either, and logs the p50
+ * and p99 time of a search
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+@Category(Benchmark.class)
+public class TitleSuggestionIndexBenchmarkUnitTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleSuggestionIndexBenchmarkUnitTests.class);
+
+    private static final int TITLES = 500000;
+
+    private static final int SEARCHES = 2000;
+
+    private static final int WARMUP_PASSES = 5;
+
+    @Test
+    public void testTitleSuggestionIndex_search_Latency() {
+        Random random = new Random(0);
+        String letters = "abcdefghijklmnopqrstuvwxyz";
+        String[] words = new String[20000];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(8);
+            for (int letter = 0; letter < length; letter++) {
+                word.append(letters.charAt(random.nextInt(letters.length())));
+            }
+            words[i] = word.toString();
+        }
+
+        Map<Integer, String> titles = new HashMap<>();
+        for (int i = 0; i < TITLES; i++) {
+            StringBuilder title = new StringBuilder();
+            int wordCount = 2 + random.nextInt(4);
+            for (int word = 0; word < wordCount; word++) {
+                if (word > 0) {
+                    title.append(' ');
+                }
+                title.append(words[random.nextInt(words.length)]);
+            }
+            titles.put(i, title.toString());
+        }
+        TitleSuggestionIndex index = new TitleSuggestionIndex(titles);
+
+        List<String> searches = new ArrayList<>();
+        List<Boolean> isTitlePrefix = new ArrayList<>();
+        for (int i = 0; i < SEARCHES; i++) {
+            String title = titles.get(random.nextInt(titles.size()));
+            int start = random.nextInt(3) == 0 ? title.indexOf(' ') + 1 : 0;
+            searches.add(title.substring(start, start + Math.min(title.length() - start, 1 + random.nextInt(8))));
+            isTitlePrefix.add(start == 0);
+        }
+
+        for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+            for (String search : searches) {
+                index.search(search, 10);
+            }
+        }
+
+        long[] nanos = new long[searches.size()];
+        for (int i = 0; i < searches.size(); i++) {
+            long start = System.nanoTime();
+            List<Integer> results = index.search(searches.get(i), 10);
+            nanos[i] = System.nanoTime() - start;
+
+            assertTrue(results.size() <= 10);
+            // The title the search was taken from starts with it, so a search for the start of a title finds at least
+            // that title or ten others before it
+            if (isTitlePrefix.get(i)) {
+                assertFalse(searches.get(i), results.isEmpty());
+            }
+            for (Integer id : results) {
+                assertTrue(searches.get(i) + " found " + titles.get(id), matches(titles.get(id), searches.get(i)));
+            }
+        }
+        Arrays.sort(nanos);
+
+        logger.info(String.format("Title suggestions over %d Monuments: p50 %.3f ms, p99 %.3f ms", TITLES,
+            nanos[nanos.length / 2] / 1000000.0, nanos[nanos.length * 99 / 100] / 1000000.0));
+    }
+
+    /**
+     * @return boolean - True if the title starts with the search, or every word of the search starts a word of the
+     * title. The synthetic titles and searches are lowercase letters and single spaces, so they need no normalizing
+     */
+    private static boolean matches(String title, String search) {
+        if (title.startsWith(search)) {
+            return true;
+        }
+        List<String> titleWords = Arrays.asList(title.split(" "));
+        for (String searchWord : search.trim().split(" ")) {
+            boolean found = false;
+            for (String titleWord : titleWords) {
+                found |= titleWord.startsWith(searchWord);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,142 @@
+package com.monumental.util.search.unittests;
+
+import com.monumental.util.search.TitleSuggestionIndex;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing TitleSuggestionIndex
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class TitleSuggestionIndexUnitTests {
+
+    /** search Tests **/
+
+    @Test
+    public void testTitleSuggestionIndex_search_EmptySearch() {
+        TitleSuggestionIndex index = createIndex();
+
+        assertEquals(0, index.search(null, 10).size());
+        assertEquals(0, index.search("", 10).size());
+        assertEquals(0, index.search(" - ", 10).size());
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_search_TitlePrefixFirst() {
+        TitleSuggestionIndex index = createIndex();
+
+        assertEquals(Arrays.asList(1, 3, 2), index.search("Lincoln", 10));
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_search_AnyWordPrefix() {
+        TitleSuggestionIndex index = createIndex();
+
+        assertEquals(Arrays.asList(1, 4), index.search("mem", 10));
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_search_EveryWordMustMatch() {
+        TitleSuggestionIndex index = createIndex();
+
+        assertEquals(Arrays.asList(4), index.search("vet viet", 10));
+        assertEquals(0, index.search("vietnam lincoln", 10).size());
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_search_NotInsideWords() {
+        TitleSuggestionIndex index = createIndex();
+
+        assertEquals(0, index.search("coln", 10).size());
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_search_IgnoresCaseAccentsAndPunctuation() {
+        TitleSuggestionIndex index = createIndex();
+
+        assertEquals(Arrays.asList(5), index.search("SAN JOSE", 10));
+        // "lincoln's" is searched as "lincoln s", which "Lincoln Statue" starts with
+        assertEquals(Arrays.asList(3, 2), index.search("lincoln's", 10));
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_search_Limit() {
+        TitleSuggestionIndex index = createIndex();
+
+        assertEquals(Arrays.asList(1, 3), index.search("lincoln", 2));
+    }
+
+    /** put Tests **/
+
+    @Test
+    public void testTitleSuggestionIndex_put_NewTitle() {
+        TitleSuggestionIndex index = createIndex();
+
+        index.put(6, "Lincoln Park");
+
+        assertEquals(Arrays.asList(1, 6, 3, 2), index.search("lincoln", 10));
+        assertEquals("Lincoln Park", index.getTitle(6));
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_put_ReplacesTitle() {
+        TitleSuggestionIndex index = createIndex();
+
+        index.put(1, "Washington Monument");
+
+        assertEquals(Arrays.asList(3, 2), index.search("lincoln", 10));
+        assertEquals(Arrays.asList(1), index.search("wash", 10));
+        assertEquals(Arrays.asList(4), index.search("mem", 10));
+        assertEquals("Washington Monument", index.getTitle(1));
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_put_NoWords() {
+        TitleSuggestionIndex index = createIndex();
+
+        index.put(1, " - ");
+
+        assertNull(index.getTitle(1));
+        assertEquals(4, index.size());
+    }
+
+    /** remove Tests **/
+
+    @Test
+    public void testTitleSuggestionIndex_remove_Removes() {
+        TitleSuggestionIndex index = createIndex();
+
+        index.remove(3);
+
+        assertEquals(Arrays.asList(1, 2), index.search("lincoln", 10));
+        assertNull(index.getTitle(3));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testTitleSuggestionIndex_remove_NotInIndex() {
+        TitleSuggestionIndex index = createIndex();
+
+        index.remove(100);
+
+        assertEquals(5, index.size());
+    }
+
+    private static TitleSuggestionIndex createIndex() {
+        Map<Integer, String> titles = new HashMap<>();
+        titles.put(1, "Lincoln Memorial");
+        titles.put(2, "Abraham Lincoln's Birthplace");
+        titles.put(3, "Lincoln Statue");
+        titles.put(4, "Vietnam Veterans Memorial");
+        titles.put(5, "Misión San José");
+        return new TitleSuggestionIndex(titles);
+    }
+}
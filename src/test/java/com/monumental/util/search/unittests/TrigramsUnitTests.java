@@ -0,0 +1,108 @@
+package com.monumental.util.search.unittests;
+
+import com.monumental.util.search.Trigrams;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for unit testing Trigrams
+ * The expected values are the results of the same calls to pg_trgm
+ */
+@SpringBootTest
+@RunWith(SpringJUnit4ClassRunner.class)
+public class TrigramsUnitTests {
+
+    /** similarity Tests **/
+
+    @Test
+    public void testTrigrams_similarity_Null() {
+        assertEquals(0, Trigrams.similarity(null, "word"), 0);
+        assertEquals(0, Trigrams.similarity("word", null), 0);
+    }
+
+    @Test
+    public void testTrigrams_similarity_NoTrigrams() {
+        assertEquals(0, Trigrams.similarity("", ""), 0);
+        assertEquals(0, Trigrams.similarity("word", " - "), 0);
+    }
+
+    @Test
+    public void testTrigrams_similarity_Same() {
+        assertEquals(1, Trigrams.similarity("word", "word"), 0);
+    }
+
+    @Test
+    public void testTrigrams_similarity_IgnoresCaseAndPunctuation() {
+        assertEquals(1, Trigrams.similarity("Two Words", "two, words!"), 0);
+    }
+
+    @Test
+    public void testTrigrams_similarity_SharedTrigrams() {
+        // "word" has 5 trigrams, "two words" has 10, and they share 4
+        assertEquals(0.36363637f, Trigrams.similarity("word", "two words"), 0);
+    }
+
+    /** wordSimilarity Tests **/
+
+    @Test
+    public void testTrigrams_wordSimilarity_Null() {
+        assertEquals(0, Trigrams.wordSimilarity(null, "word"), 0);
+        assertEquals(0, Trigrams.wordSimilarity("word", null), 0);
+    }
+
+    @Test
+    public void testTrigrams_wordSimilarity_Word() {
+        // The most similar extent of "two words" is "  w", " wo", "wor", "ord"
+        assertEquals(0.8f, Trigrams.wordSimilarity("word", "two words"), 0);
+    }
+
+    @Test
+    public void testTrigrams_wordSimilarity_Words() {
+        assertEquals(1, Trigrams.wordSimilarity("Vietnam Veterans", "The Vietnam Veterans Memorial"), 0);
+    }
+
+    @Test
+    public void testTrigrams_wordSimilarity_Prefix() {
+        assertEquals(0.8f, Trigrams.wordSimilarity("linc", "Lincoln Memorial"), 0);
+    }
+
+    @Test
+    public void testTrigrams_wordSimilarity_NotSymmetric() {
+        assertEquals(0.4f, Trigrams.wordSimilarity("two words", "word"), 0);
+    }
+
+    @Test
+    public void testTrigrams_wordSimilarity_NoSharedTrigrams() {
+        assertEquals(0, Trigrams.wordSimilarity("xyz", "two words"), 0);
+    }
+
+    @Test
+    public void testTrigrams_wordSimilarity_LongText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("monument ").append(i).append(' ');
+        }
+        text.append("memorial");
+
+        assertEquals(1, Trigrams.wordSimilarity("memorial", text.toString()), 0);
+    }
+
+    /** getUniqueTrigrams Tests **/
+
+    @Test
+    public void testTrigrams_getUniqueTrigrams_Null() {
+        assertEquals(0, Trigrams.getUniqueTrigrams(null).length);
+    }
+
+    @Test
+    public void testTrigrams_getUniqueTrigrams_PaddedWords() {
+        // "  a", " a ", "  b", " b "
+        assertEquals(4, Trigrams.getUniqueTrigrams("a b").length);
+        // "  w", " wo", "wor", "ord", "rd "
+        assertEquals(5, Trigrams.getUniqueTrigrams("word word").length);
+    }
+}
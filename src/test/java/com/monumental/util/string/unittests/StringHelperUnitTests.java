@@ -37,6 +37,18 @@ public class StringHelperUnitTests {
         assertFalse(StringHelper.isNullOrEmpty(string));
     }
 
+    /** normalizeForSearch Tests **/
+
+    @Test
+    public void testStringHelper_normalizeForSearch_NullString() {
+        assertNull(StringHelper.normalizeForSearch(null));
+    }
+
+    @Test
+    public void testStringHelper_normalizeForSearch_AccentsAndCase() {
+        assertEquals("emile's cafe memorial", StringHelper.normalizeForSearch("Émile's Café MEMORIAL"));
+    }
+
     /** removeBeginningAndEndingQuotes Tests **/
 
     @Test